@@ -24,6 +24,7 @@ CREATE TABLE IF NOT EXISTS sys_tenant (
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     del_flag INT DEFAULT 0 COMMENT '删除标志（0:未删除 1:已删除）',
+    shard_key VARCHAR(64) DEFAULT NULL COMMENT '数据源分片（为空时使用主库）',
     UNIQUE KEY uk_tenant_name (tenant_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='租户表';
 
@@ -156,7 +157,7 @@ CREATE TABLE IF NOT EXISTS sys_dict_item (
 
 -- 10. 操作日志表
 CREATE TABLE IF NOT EXISTS sys_operation_log (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '日志ID',
+    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '日志ID',
     tenant_id BIGINT DEFAULT 0 COMMENT '租户ID',
     module VARCHAR(50) DEFAULT NULL COMMENT '操作模块',
     operation_type VARCHAR(50) DEFAULT NULL COMMENT '操作类型',
@@ -170,31 +171,70 @@ CREATE TABLE IF NOT EXISTS sys_operation_log (
     error_message TEXT DEFAULT NULL COMMENT '错误信息',
     user_id BIGINT DEFAULT 0 COMMENT '操作人ID',
     username VARCHAR(50) DEFAULT NULL COMMENT '操作人姓名',
-    operation_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+    operation_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
     ip VARCHAR(50) DEFAULT NULL COMMENT '操作IP',
     ip_location VARCHAR(100) DEFAULT NULL COMMENT 'IP地址所在地区',
     browser_info VARCHAR(255) DEFAULT NULL COMMENT '浏览器信息',
+    PRIMARY KEY (id, operation_time),
     INDEX idx_tenant_id (tenant_id),
     INDEX idx_user_id (user_id),
     INDEX idx_operation_time (operation_time)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志表';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志表'
+-- 按操作时间分区，具体的时间分区由LogPartitionMaintainer预建（staoo.log.partition）
+PARTITION BY RANGE COLUMNS(operation_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- 11. 登录日志表
 CREATE TABLE IF NOT EXISTS sys_login_log (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '日志ID',
+    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '日志ID',
     tenant_id BIGINT DEFAULT 0 COMMENT '租户ID',
     user_id BIGINT DEFAULT 0 COMMENT '用户ID',
     username VARCHAR(50) DEFAULT NULL COMMENT '用户名',
-    login_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
+    login_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
     login_ip VARCHAR(50) DEFAULT NULL COMMENT '登录IP',
     login_location VARCHAR(100) DEFAULT NULL COMMENT 'IP地址所在地区',
     browser_info VARCHAR(255) DEFAULT NULL COMMENT '浏览器信息',
     login_status INT DEFAULT 1 COMMENT '登录状态（0-失败，1-成功）',
     error_message VARCHAR(255) DEFAULT NULL COMMENT '错误信息',
+    PRIMARY KEY (id, login_time),
     INDEX idx_tenant_id (tenant_id),
     INDEX idx_user_id (user_id),
     INDEX idx_login_time (login_time)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='登录日志表';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='登录日志表'
+-- 按登录时间分区，具体的时间分区由LogPartitionMaintainer预建（staoo.log.partition）
+PARTITION BY RANGE COLUMNS(login_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 11. 操作日志小时汇总表
+CREATE TABLE IF NOT EXISTS sys_operation_log_rollup (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    tenant_id BIGINT NOT NULL DEFAULT 0 COMMENT '租户ID',
+    stat_hour DATETIME NOT NULL COMMENT '统计小时（整点）',
+    module VARCHAR(50) NOT NULL DEFAULT '' COMMENT '操作模块',
+    operation_type VARCHAR(50) NOT NULL DEFAULT '' COMMENT '操作类型',
+    status INT NOT NULL DEFAULT 1 COMMENT '操作状态（0-失败，1-成功）',
+    user_id BIGINT NOT NULL DEFAULT 0 COMMENT '操作人ID',
+    op_count BIGINT NOT NULL DEFAULT 0 COMMENT '操作次数',
+    UNIQUE KEY uk_rollup (tenant_id, stat_hour, module, operation_type, status, user_id),
+    INDEX idx_stat_hour (stat_hour)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志小时汇总表';
+
+-- 12. 操作日志检索词表（关键词检索的倒排索引，分区表不支持FULLTEXT索引）
+CREATE TABLE IF NOT EXISTS sys_operation_log_term (
+    tenant_id BIGINT NOT NULL DEFAULT 0 COMMENT '租户ID',
+    term VARCHAR(32) COLLATE utf8mb4_bin NOT NULL COMMENT '检索词（小写）',
+    operation_time DATETIME NOT NULL COMMENT '操作时间',
+    log_id BIGINT NOT NULL COMMENT '操作日志ID',
+    PRIMARY KEY (tenant_id, term, operation_time, log_id),
+    INDEX idx_term (term, operation_time),
+    INDEX idx_log_id (log_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志检索词表'
+-- 与操作日志表按相同的时间分区，过期分区一起删除
+PARTITION BY RANGE COLUMNS(operation_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- 10. 用户-租户关联表
 CREATE TABLE IF NOT EXISTS sys_user_tenant (
@@ -45,5 +45,147 @@ ADD COLUMN update_by BIGINT DEFAULT 0 COMMENT '更新人ID' AFTER create_by;
 -- 8. 更新管理员用户为超级管理员
 UPDATE sys_user SET admin = 1 WHERE username = 'admin';
 
+-- 9. 租户表 - 添加数据源分片字段
+ALTER TABLE sys_tenant
+ADD COLUMN shard_key VARCHAR(64) DEFAULT NULL COMMENT '数据源分片（为空时使用主库）' AFTER del_flag;
+
+-- 10. 操作日志表和登录日志表 - 按时间分区
+-- 分区键必须包含在主键中；p_history保存迁移前的历史数据，边界为执行脚本当月的1日，
+-- 之后的分区由LogPartitionMaintainer预建，过期后整个分区删除
+SET @log_history_bound = DATE_FORMAT(CURDATE(), '%Y-%m-01');
+ALTER TABLE sys_operation_log
+MODIFY COLUMN operation_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+DROP PRIMARY KEY,
+ADD PRIMARY KEY (id, operation_time);
+SET @log_partition_sql = CONCAT('ALTER TABLE sys_operation_log PARTITION BY RANGE COLUMNS(operation_time) (',
+    'PARTITION p_history VALUES LESS THAN (''', @log_history_bound, '''), ',
+    'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE log_partition_stmt FROM @log_partition_sql;
+EXECUTE log_partition_stmt;
+DEALLOCATE PREPARE log_partition_stmt;
+
+ALTER TABLE sys_login_log
+MODIFY COLUMN login_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
+DROP PRIMARY KEY,
+ADD PRIMARY KEY (id, login_time);
+SET @log_partition_sql = CONCAT('ALTER TABLE sys_login_log PARTITION BY RANGE COLUMNS(login_time) (',
+    'PARTITION p_history VALUES LESS THAN (''', @log_history_bound, '''), ',
+    'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE log_partition_stmt FROM @log_partition_sql;
+EXECUTE log_partition_stmt;
+DEALLOCATE PREPARE log_partition_stmt;
+
+-- 11. 操作日志小时汇总表
+-- 创建后通过 POST /system/operation-log-writer/rollup/backfill 从历史日志回填
+CREATE TABLE IF NOT EXISTS sys_operation_log_rollup (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    tenant_id BIGINT NOT NULL DEFAULT 0 COMMENT '租户ID',
+    stat_hour DATETIME NOT NULL COMMENT '统计小时（整点）',
+    module VARCHAR(50) NOT NULL DEFAULT '' COMMENT '操作模块',
+    operation_type VARCHAR(50) NOT NULL DEFAULT '' COMMENT '操作类型',
+    status INT NOT NULL DEFAULT 1 COMMENT '操作状态（0-失败，1-成功）',
+    user_id BIGINT NOT NULL DEFAULT 0 COMMENT '操作人ID',
+    op_count BIGINT NOT NULL DEFAULT 0 COMMENT '操作次数',
+    UNIQUE KEY uk_rollup (tenant_id, stat_hour, module, operation_type, status, user_id),
+    INDEX idx_stat_hour (stat_hour)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志小时汇总表';
+
+-- 12. 操作日志检索词表（关键词检索的倒排索引，分区表不支持FULLTEXT索引）
+-- 创建后通过 POST /system/operation-log-writer/search/reindex 为历史日志建立检索词
+CREATE TABLE IF NOT EXISTS sys_operation_log_term (
+    tenant_id BIGINT NOT NULL DEFAULT 0 COMMENT '租户ID',
+    term VARCHAR(32) COLLATE utf8mb4_bin NOT NULL COMMENT '检索词（小写）',
+    operation_time DATETIME NOT NULL COMMENT '操作时间',
+    log_id BIGINT NOT NULL COMMENT '操作日志ID',
+    PRIMARY KEY (tenant_id, term, operation_time, log_id),
+    INDEX idx_term (term, operation_time),
+    INDEX idx_log_id (log_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志检索词表'
+-- 与操作日志表按相同的时间分区，过期分区一起删除
+PARTITION BY RANGE COLUMNS(operation_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 13. 接口权限
+-- 使菜单表中的权限标识与接口@PreAuthorize注解一致：先重命名含义相同但写法不同的标识，
+-- 再把仍然缺少的标识作为按钮权限补充到隐藏的“接口权限”目录下，并授予超级管理员角色。
+-- 可重复执行；其他角色在角色管理中分配后，再设置 staoo.auth.method-security.enabled=true 开启校验
+UPDATE sys_menu SET perms = CONCAT('system:department:', SUBSTRING(perms, 13)) WHERE perms LIKE 'system:dept:%';
+UPDATE sys_menu SET perms = 'system:user:query' WHERE perms IN ('system:user:view', 'user:list');
+UPDATE sys_menu SET perms = 'system:role:query' WHERE perms = 'role:list';
+UPDATE sys_menu SET perms = 'system:menu:query' WHERE perms IN ('system:menu:view', 'menu:list');
+
+INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, visible, remark)
+SELECT '接口权限', 0, 0, NULL, 99, 1, 0, '接口权限分组，不在导航中显示' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM sys_menu WHERE menu_name = '接口权限' AND parent_id = 0);
+SET @api_permission_parent = (SELECT MIN(id) FROM sys_menu WHERE menu_name = '接口权限' AND parent_id = 0);
+
+INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
+SELECT p.menu_name, @api_permission_parent, 2, p.perms, p.sort, 1, '接口权限'
+FROM (
+    SELECT '用户查询' AS menu_name, 'system:user:query' AS perms, 1 AS sort
+    UNION ALL SELECT '用户新增', 'system:user:add', 2
+    UNION ALL SELECT '用户编辑', 'system:user:edit', 3
+    UNION ALL SELECT '用户删除', 'system:user:delete', 4
+    UNION ALL SELECT '用户重置密码', 'system:user:resetPwd', 5
+    UNION ALL SELECT '角色查询', 'system:role:query', 6
+    UNION ALL SELECT '角色新增', 'system:role:add', 7
+    UNION ALL SELECT '角色编辑', 'system:role:edit', 8
+    UNION ALL SELECT '角色删除', 'system:role:delete', 9
+    UNION ALL SELECT '菜单查询', 'system:menu:query', 10
+    UNION ALL SELECT '菜单新增', 'system:menu:add', 11
+    UNION ALL SELECT '菜单编辑', 'system:menu:edit', 12
+    UNION ALL SELECT '菜单删除', 'system:menu:delete', 13
+    UNION ALL SELECT '部门新增', 'system:department:add', 14
+    UNION ALL SELECT '部门编辑', 'system:department:edit', 15
+    UNION ALL SELECT '部门删除', 'system:department:delete', 16
+    UNION ALL SELECT '通知查询', 'system:notice:query', 17
+    UNION ALL SELECT '通知新增', 'system:notice:add', 18
+    UNION ALL SELECT '通知编辑', 'system:notice:edit', 19
+    UNION ALL SELECT '通知删除', 'system:notice:delete', 20
+    UNION ALL SELECT '通知发布', 'system:notice:publish', 21
+    UNION ALL SELECT '通知撤回', 'system:notice:recall', 22
+    UNION ALL SELECT '流程任务记录查询', 'system:flow:taskRecord:query', 23
+    UNION ALL SELECT '流程任务记录新增', 'system:flow:taskRecord:add', 24
+    UNION ALL SELECT '流程任务记录编辑', 'system:flow:taskRecord:edit', 25
+    UNION ALL SELECT '流程任务记录删除', 'system:flow:taskRecord:remove', 26
+    UNION ALL SELECT '系统监控', 'system:monitor:view', 27
+    UNION ALL SELECT '租户语句配置', 'system:tenant:statement', 28
+    UNION ALL SELECT '表单模板列表', 'form:template:list', 29
+    UNION ALL SELECT '表单模板查看', 'form:template:view', 30
+    UNION ALL SELECT '表单模板新增', 'form:template:add', 31
+    UNION ALL SELECT '表单模板编辑', 'form:template:edit', 32
+    UNION ALL SELECT '表单模板复制', 'form:template:copy', 33
+    UNION ALL SELECT '表单模板删除', 'form:template:delete', 34
+    UNION ALL SELECT '表单模板发布', 'form:template:publish', 35
+    UNION ALL SELECT '表单数据列表', 'form:data:list', 36
+    UNION ALL SELECT '表单数据查看', 'form:data:view', 37
+    UNION ALL SELECT '表单数据新增', 'form:data:add', 38
+    UNION ALL SELECT '表单数据编辑', 'form:data:edit', 39
+    UNION ALL SELECT '表单数据删除', 'form:data:delete', 40
+    UNION ALL SELECT '表单数据导出', 'form:data:export', 41
+    UNION ALL SELECT '流程模板列表', 'process:template:list', 42
+    UNION ALL SELECT '流程模板查看', 'process:template:view', 43
+    UNION ALL SELECT '流程模板新增', 'process:template:add', 44
+    UNION ALL SELECT '流程模板编辑', 'process:template:edit', 45
+    UNION ALL SELECT '流程模板复制', 'process:template:copy', 46
+    UNION ALL SELECT '流程模板删除', 'process:template:delete', 47
+    UNION ALL SELECT '流程模板发布', 'process:template:publish', 48
+    UNION ALL SELECT '发起流程', 'flow:start', 49
+    UNION ALL SELECT '流程事件', 'flow:event', 50
+    UNION ALL SELECT '订阅列表', 'subscription:list', 51
+    UNION ALL SELECT '订阅新增', 'subscription:add', 52
+    UNION ALL SELECT '订阅编辑', 'subscription:edit', 53
+    UNION ALL SELECT '订阅删除', 'subscription:delete', 54
+    UNION ALL SELECT '组织数据查询', 'data:org:list', 55
+    UNION ALL SELECT '租户分片管理', 'system:tenant:shard', 56
+    UNION ALL SELECT '日志写入监控', 'system:log:monitor', 57
+    UNION ALL SELECT '日志分区维护', 'system:log:partition', 58
+) p
+WHERE NOT EXISTS (SELECT 1 FROM sys_menu m WHERE m.perms = p.perms);
+
+INSERT IGNORE INTO sys_role_menu (role_id, menu_id, tenant_id)
+SELECT 1, id, 1 FROM sys_menu WHERE id = @api_permission_parent OR parent_id = @api_permission_parent;
+
 -- 完成数据库更新
 SELECT 'Staoo Admin 系统数据库更新完成！' AS message;
\ No newline at end of file
@@ -10,7 +10,7 @@ VALUES ('系统管理', 0, 0, 'Setting', '/system', 'modules/system/index.vue',
 
 -- 用户管理菜单
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, icon, path, component, perms, sort, status, remark)
-VALUES ('用户管理', 1, 1, 'User', 'user', 'modules/system/user/UserList.vue', 'system:user:view', 1, 1, '用户管理菜单');
+VALUES ('用户管理', 1, 1, 'User', 'user', 'modules/system/user/UserList.vue', 'system:user:query', 1, 1, '用户管理菜单');
 
 -- 用户管理功能路由（按钮权限）
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
@@ -30,21 +30,21 @@ VALUES ('用户重置密码', 2, 2, 'system:user:resetPwd', 5, 1, '用户重置
 
 -- 部门管理菜单
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, icon, path, component, perms, sort, status, remark)
-VALUES ('部门管理', 1, 1, 'OfficeBuilding', 'department', 'modules/system/department/DepartmentList.vue', 'system:dept:view', 2, 1, '部门管理菜单');
+VALUES ('部门管理', 1, 1, 'OfficeBuilding', 'department', 'modules/system/department/DepartmentList.vue', 'system:department:view', 2, 1, '部门管理菜单');
 
 -- 部门管理功能路由（按钮权限）
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
-VALUES ('部门新增', 8, 2, 'system:dept:add', 1, 1, '部门新增按钮权限');
+VALUES ('部门新增', 8, 2, 'system:department:add', 1, 1, '部门新增按钮权限');
 
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
-VALUES ('部门编辑', 8, 2, 'system:dept:edit', 2, 1, '部门编辑按钮权限');
+VALUES ('部门编辑', 8, 2, 'system:department:edit', 2, 1, '部门编辑按钮权限');
 
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
-VALUES ('部门删除', 8, 2, 'system:dept:delete', 3, 1, '部门删除按钮权限');
+VALUES ('部门删除', 8, 2, 'system:department:delete', 3, 1, '部门删除按钮权限');
 
 -- 菜单管理菜单
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, icon, path, component, perms, sort, status, remark)
-VALUES ('菜单管理', 1, 1, 'Menu', 'menu', 'modules/system/menu/MenuList.vue', 'system:menu:view', 3, 1, '菜单管理菜单');
+VALUES ('菜单管理', 1, 1, 'Menu', 'menu', 'modules/system/menu/MenuList.vue', 'system:menu:query', 3, 1, '菜单管理菜单');
 
 -- 菜单管理功能路由（按钮权限）
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
@@ -109,4 +109,14 @@ VALUES ('表单实例删除', 24, 2, 'form:instance:delete', 2, 1, '表单实例
 
 -- 首页菜单
 INSERT INTO sys_menu (menu_name, parent_id, menu_type, icon, path, component, perms, sort, status, remark)
-VALUES ('首页', 0, 1, 'Home', '/dashboard', 'modules/dashboard/Dashboard.vue', 'dashboard:view', 0, 1, '系统首页');
\ No newline at end of file
+VALUES ('首页', 0, 1, 'Home', '/dashboard', 'modules/dashboard/Dashboard.vue', 'dashboard:view', 0, 1, '系统首页');
+
+-- 系统运维功能路由（按钮权限）
+INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
+VALUES ('租户分片管理', 1, 2, 'system:tenant:shard', 10, 1, '租户数据源分片查询和迁移权限');
+
+INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
+VALUES ('日志写入监控', 1, 2, 'system:log:monitor', 11, 1, '操作日志写入队列和汇总监控权限');
+
+INSERT INTO sys_menu (menu_name, parent_id, menu_type, perms, sort, status, remark)
+VALUES ('日志分区维护', 1, 2, 'system:log:partition', 12, 1, '日志表分区查询和维护权限');
\ No newline at end of file
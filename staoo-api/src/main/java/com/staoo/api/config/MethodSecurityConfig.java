@@ -0,0 +1,35 @@
+package com.staoo.api.config;
+
+import com.staoo.framework.auth.authorization.CompiledPreAuthorizeManager;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+
+/**
+ * 方法鉴权配置
+ * 启用@PreAuthorize，表达式由CompiledPreAuthorizeManager预先编译为权限位图判断。
+ * 默认关闭：注解中的权限标识需要先由database-update.sql的接口权限迁移写入菜单表并分配给角色，
+ * 之后设置 staoo.auth.method-security.enabled=true 开启
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "staoo.auth.method-security", name = "enabled", havingValue = "true")
+@EnableMethodSecurity(prePostEnabled = false)
+public class MethodSecurityConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static CompiledPreAuthorizeManager compiledPreAuthorizeManager() {
+        return new CompiledPreAuthorizeManager();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(CompiledPreAuthorizeManager compiledPreAuthorizeManager) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(compiledPreAuthorizeManager);
+    }
+}
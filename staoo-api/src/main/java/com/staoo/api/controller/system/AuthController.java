@@ -4,10 +4,19 @@ import com.staoo.common.auth.dto.LoginRequest;
 import com.staoo.common.auth.dto.LoginResponse;
 import com.staoo.common.domain.AjaxResult;
 import com.staoo.common.domain.UserInfo;
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.enums.status.UserStatusEnum;
+import com.staoo.common.exception.BusinessException;
 import com.staoo.common.util.UserUtils;
 import com.staoo.system.auth.service.LoginService;
 import com.staoo.system.auth.jwt.JwtTokenProvider;
+import com.staoo.system.auth.jwt.VerifiedClaims;
+import com.staoo.system.domain.User;
+import com.staoo.system.security.UserAuthorityResolver;
+import com.staoo.system.service.UserService;
+import com.staoo.system.service.ClientFingerprintService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,8 +24,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Date;
@@ -39,6 +46,15 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private ClientFingerprintService clientFingerprintService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserAuthorityResolver userAuthorityResolver;
+
     /**
      * 用户登录接口
      * @param request 登录请求参数
@@ -52,7 +68,7 @@ public class AuthController {
             logger.info("用户登录请求: {}", loginRequest);
 
             // 由服务端直接获取客户端信息，不依赖前端提交
-            loginRequest.setIp(getClientIp(httpRequest));
+            loginRequest.setIp(clientFingerprintService.resolveClientIp(httpRequest));
             loginRequest.setUserAgent(httpRequest.getHeader("User-Agent"));
             if (loginRequest.getLoginType() == null || loginRequest.getLoginType().isEmpty()) {
                 loginRequest.setLoginType("PASSWORD");
@@ -63,6 +79,14 @@ public class AuthController {
 
             logger.info("用户登录成功: {}", loginRequest.getUsername());
             return AjaxResult.success(loginResponse);
+        } catch (BusinessException e) {
+            // 密码哈希线程池繁忙时原样返回429，客户端可稍后重试
+            if (StatusCodeEnum.TOO_MANY_REQUESTS.getCode().equals(e.getCode())) {
+                logger.warn("登录请求被拒绝，系统繁忙: {}", loginRequest.getUsername());
+                return AjaxResult.error(e.getCode(), e.getMessage());
+            }
+            logger.error("用户登录失败: {}", e.getMessage(), e);
+            return AjaxResult.error(403, "登录失败: " + e.getMessage());
         } catch (Exception e) {
             logger.error("用户登录失败: {}", e.getMessage(), e);
             return AjaxResult.error(403, "登录失败: " + e.getMessage());
@@ -71,13 +95,26 @@ public class AuthController {
 
     /**
      * 用户登出接口
+     * @param refreshToken 刷新令牌，传入时一并撤销
      * @return 登出响应
      */
     @PostMapping("/logout")
     @Operation(summary = "用户登出", description = "用户退出登录系统")
-    public AjaxResult<String> logout() {
+    public AjaxResult<String> logout(HttpServletRequest httpRequest,
+                                     @RequestParam(required = false) String refreshToken) {
         try {
-            // 由于使用JWT无状态认证，服务端不需要额外处理，主要由客户端清除token
+            if (refreshToken != null && !refreshToken.isEmpty()) {
+                jwtTokenProvider.revoke(refreshToken);
+            }
+            // 注销令牌所属的会话并撤销令牌，令牌已过期或无效时无需处理，由客户端清除token
+            String authorization = httpRequest.getHeader("Authorization");
+            if (authorization != null && authorization.startsWith("Bearer ")) {
+                try {
+                    jwtTokenProvider.logout(authorization.substring(7));
+                } catch (JwtException e) {
+                    logger.debug("登出时令牌无效: {}", e.getMessage());
+                }
+            }
             logger.info("用户登出成功");
             return AjaxResult.success("登出成功");
         } catch (Exception e) {
@@ -120,29 +157,6 @@ public class AuthController {
         }
     }
 
-    /**
-     * 获取客户端IP地址
-     * @param request HTTP请求对象
-     * @return IP地址
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("x-forwarded-for");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 多级代理情况下，取第一个IP
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
-    }
-    
     /**
      * 刷新令牌接口
      * @param refreshToken 刷新令牌
@@ -154,30 +168,34 @@ public class AuthController {
         try {
             logger.info("刷新令牌请求");
             
-            // 从请求头中获取设备ID（如果存在）
-            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
-            String deviceId = request.getHeader("Device-ID");
-            if (deviceId == null || deviceId.isEmpty()) {
-                deviceId = "web"; // 默认设备ID
+            // 验证刷新令牌，令牌所属的会话已被注销、替换或淘汰时拒绝续期
+            VerifiedClaims refreshClaims;
+            try {
+                refreshClaims = jwtTokenProvider.verifyRefreshToken(refreshToken);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.warn("无效的刷新令牌: {}", e.getMessage());
+                return AjaxResult.error(401, "无效的刷新令牌");
             }
             
-            // 验证刷新令牌的有效性
-            boolean isRefreshTokenValid = validateRefreshToken(refreshToken);
-            if (!isRefreshTokenValid) {
-                logger.warn("无效的刷新令牌");
+            // 新会话沿用刷新令牌所属会话的设备，替换该设备的旧会话
+            String username = refreshClaims.getSubject();
+            String deviceId = refreshClaims.getString(JwtTokenProvider.DEVICE_ID_CLAIM);
+            
+            // 重新查询用户的角色和权限，新令牌与登录时签发的令牌声明一致
+            User user = userService.getByUsername(username);
+            if (user == null || !UserStatusEnum.ENABLED.getCode().equals(user.getStatus())) {
+                logger.warn("刷新令牌的用户不存在或已停用: {}", username);
                 return AjaxResult.error(401, "无效的刷新令牌");
             }
-            
-            // 获取用户名
-            String username = jwtTokenProvider.getUsernameFromToken(refreshToken);
+            Map<String, Object> claims = userAuthorityResolver.buildClaims(user, userAuthorityResolver.load(user.getId()));
+            claims.put("deviceId", deviceId);
             
             // 生成新的访问令牌和刷新令牌
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("username", username);
-            claims.put("deviceId", deviceId);
             
             String newAccessToken = jwtTokenProvider.generateAccessToken(username, deviceId, claims);
-            String newRefreshToken = jwtTokenProvider.generateRefreshToken(username);
+            String newRefreshToken = jwtTokenProvider.generateRefreshToken(newAccessToken);
+            // 刷新令牌只能使用一次，旧的刷新令牌立即撤销
+            jwtTokenProvider.revoke(refreshToken);
             
             // 构建响应
             LoginResponse response = new LoginResponse();
@@ -193,22 +211,4 @@ public class AuthController {
             return AjaxResult.error(401, "刷新令牌失败: " + e.getMessage());
         }
     }
-    
-    /**
-     * 验证刷新令牌的有效性
-     * 刷新令牌的验证与访问令牌略有不同，主要验证其签名和过期时间
-     */
-    private boolean validateRefreshToken(String refreshToken) {
-        try {
-            // 尝试从刷新令牌中获取用户名，如果能成功获取，说明令牌签名有效
-            // 注意：getUsernameFromToken方法内部会验证令牌的签名和有效性
-            // 但刷新令牌可能没有与设备ID相关的会话信息，所以不能使用validateToken方法
-            jwtTokenProvider.getUsernameFromToken(refreshToken);
-            
-            return true;
-        } catch (Exception e) {
-            logger.error("验证刷新令牌失败: {}", e.getMessage());
-            return false;
-        }
-    }
 }
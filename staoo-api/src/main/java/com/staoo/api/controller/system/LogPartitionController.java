@@ -0,0 +1,51 @@
+package com.staoo.api.controller.system;
+
+import com.staoo.common.domain.AjaxResult;
+import com.staoo.framework.log.partition.LogPartitionMaintainer;
+import com.staoo.system.domain.LogPartition;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日志表分区控制器
+ * 查看操作日志和登录日志的时间分区，并手动触发分区维护
+ */
+@RestController
+@RequestMapping("/system/log-partition")
+@Tag(name = "日志表分区", description = "日志表分区查询与维护接口")
+public class LogPartitionController {
+
+    @Autowired
+    private LogPartitionMaintainer logPartitionMaintainer;
+
+    /**
+     * 查询日志表分区
+     * @return 每张表的分区列表
+     */
+    @GetMapping("/list")
+    @Operation(summary = "查询日志表分区", description = "列出日志表的分区、上下界和估算行数")
+    @PreAuthorize("hasAuthority('system:log:partition')")
+    public AjaxResult<Map<String, List<LogPartition>>> list() {
+        return AjaxResult.success(logPartitionMaintainer.listPartitions());
+    }
+
+    /**
+     * 立即维护日志表分区
+     * @return 每张表新建和删除的分区
+     */
+    @PostMapping("/maintain")
+    @Operation(summary = "维护日志表分区", description = "预建未来的分区并删除超出保留期的分区")
+    @PreAuthorize("hasAuthority('system:log:partition')")
+    public AjaxResult<Map<String, Map<String, List<String>>>> maintain() {
+        return AjaxResult.success(logPartitionMaintainer.maintain());
+    }
+}
@@ -0,0 +1,96 @@
+package com.staoo.api.controller.system;
+
+import com.staoo.common.domain.AjaxResult;
+import com.staoo.framework.log.OperationLogWriter;
+import com.staoo.framework.log.OperationLogWriterStats;
+import com.staoo.framework.log.rollup.OperationLogRollupAggregator;
+import com.staoo.framework.log.spool.LogSpoolManager;
+import com.staoo.framework.log.spool.LogSpoolStats;
+import com.staoo.system.service.OperationLogSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志写入器监控控制器
+ * 查看异步写入队列深度、写入和丢弃统计，以及本地预写文件的积压情况，回填操作日志小时汇总和重建检索词
+ */
+@RestController
+@RequestMapping("/system/operation-log-writer")
+@Tag(name = "操作日志写入监控", description = "操作日志异步写入统计接口")
+public class OperationLogWriterController {
+
+    @Autowired
+    private OperationLogWriter operationLogWriter;
+
+    @Autowired
+    private LogSpoolManager logSpoolManager;
+
+    @Autowired
+    private OperationLogRollupAggregator rollupAggregator;
+
+    @Autowired
+    private OperationLogSearchService operationLogSearchService;
+
+    /**
+     * 查询写入统计
+     * @return 写入统计
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "查询写入统计", description = "返回队列深度、写入、丢弃、溢出和失败条数")
+    @PreAuthorize("hasAuthority('system:log:monitor')")
+    public AjaxResult<OperationLogWriterStats> stats() {
+        return AjaxResult.success(operationLogWriter.getStats());
+    }
+
+    /**
+     * 查询预写文件统计
+     * @return 各日志通道的预写文件统计
+     */
+    @GetMapping("/spool")
+    @Operation(summary = "查询预写文件统计", description = "返回各日志通道的分段数、写入位置、重放位置和积压情况")
+    @PreAuthorize("hasAuthority('system:log:monitor')")
+    public AjaxResult<List<LogSpoolStats>> spool() {
+        return AjaxResult.success(logSpoolManager.getStats());
+    }
+
+    /**
+     * 从原始日志回填操作日志小时汇总
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 回填的汇总行数
+     */
+    @PostMapping("/rollup/backfill")
+    @Operation(summary = "回填操作日志汇总", description = "按天从原始日志重新计算小时汇总，覆盖已有计数，只回填retain-hours之前已写入汇总的小时")
+    @PreAuthorize("hasAuthority('system:log:monitor')")
+    public AjaxResult<Long> backfillRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        return AjaxResult.success(rollupAggregator.backfill(startTime, endTime));
+    }
+
+    /**
+     * 为历史操作日志重建检索词
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 处理的日志条数
+     */
+    @PostMapping("/search/reindex")
+    @Operation(summary = "重建操作日志检索词", description = "按日志ID分批为时间范围内的操作日志建立关键词检索词，已存在的忽略")
+    @PreAuthorize("hasAuthority('system:log:monitor')")
+    public AjaxResult<Long> reindex(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        return AjaxResult.success(operationLogSearchService.reindex(startTime, endTime));
+    }
+}
@@ -0,0 +1,36 @@
+package com.staoo.api.controller.system;
+
+import com.staoo.common.domain.AjaxResult;
+import com.staoo.system.security.PasswordHashStats;
+import com.staoo.system.security.PasswordHasher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 密码哈希监控控制器
+ * 查看密码哈希线程池的队列深度、拒绝次数、计算耗时和排队耗时
+ */
+@RestController
+@RequestMapping("/system/password-hash")
+@Tag(name = "密码哈希监控", description = "密码哈希线程池统计接口")
+public class PasswordHashController {
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    /**
+     * 查询哈希统计
+     * @return 哈希统计
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "查询哈希统计", description = "返回线程数、队列深度、完成、拒绝、超时和升级次数，以及计算和排队耗时")
+    @PreAuthorize("hasAuthority('system:monitor:view')")
+    public AjaxResult<PasswordHashStats> stats() {
+        return AjaxResult.success(passwordHasher.getStats());
+    }
+}
@@ -0,0 +1,70 @@
+package com.staoo.api.controller.system;
+
+import com.staoo.common.domain.AjaxResult;
+import com.staoo.framework.datasource.TenantShardManager;
+import com.staoo.system.domain.Tenant;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 租户数据源分片控制器
+ * 查看租户分片分配情况，并在分片之间迁移租户
+ */
+@RestController
+@RequestMapping("/system/tenant-shard")
+@Tag(name = "租户数据源分片", description = "租户分片查询与迁移接口")
+public class TenantShardController {
+
+    @Autowired
+    private TenantShardManager tenantShardManager;
+
+    /**
+     * 查询已分配分片的租户
+     * @return 租户列表
+     */
+    @GetMapping("/list")
+    @Operation(summary = "查询租户分片", description = "列出使用独立数据源分片的租户")
+    @PreAuthorize("hasAuthority('system:tenant:shard')")
+    public AjaxResult<List<Tenant>> list() {
+        return AjaxResult.success(tenantShardManager.listTenantShards());
+    }
+
+    /**
+     * 迁移租户到目标分片
+     * @param tenantId 租户ID
+     * @param targetShard 目标分片，master表示主库
+     * @param deleteSource 迁移完成后是否删除源分片中的数据
+     * @return 每张表复制的行数
+     */
+    @PostMapping("/{tenantId}/move")
+    @Operation(summary = "迁移租户", description = "复制租户数据到目标分片并切换路由")
+    @PreAuthorize("hasAuthority('system:tenant:shard')")
+    public AjaxResult<Map<String, Integer>> move(@PathVariable Long tenantId,
+                                                 @RequestParam String targetShard,
+                                                 @RequestParam(defaultValue = "false") boolean deleteSource) {
+        return AjaxResult.success(tenantShardManager.moveTenant(tenantId, targetShard, deleteSource));
+    }
+
+    /**
+     * 重新加载租户分片映射
+     * 其他节点迁移租户后在本节点调用
+     * @return 已分配分片的租户数
+     */
+    @PostMapping("/reload")
+    @Operation(summary = "重新加载分片映射", description = "从sys_tenant重新加载租户分片映射")
+    @PreAuthorize("hasAuthority('system:tenant:shard')")
+    public AjaxResult<Integer> reload() {
+        return AjaxResult.success(tenantShardManager.reload());
+    }
+}
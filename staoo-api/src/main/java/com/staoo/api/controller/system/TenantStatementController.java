@@ -0,0 +1,41 @@
+package com.staoo.api.controller.system;
+
+import com.staoo.common.domain.AjaxResult;
+import com.staoo.framework.plugin.tenant.TenantStatementInfo;
+import com.staoo.framework.plugin.tenant.TenantStatementPolicy;
+import com.staoo.framework.plugin.tenant.TenantStatementRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 租户语句审计控制器
+ * 查看启动时对MyBatis语句的租户隔离分类结果
+ */
+@RestController
+@RequestMapping("/system/tenant-statement")
+@Tag(name = "租户语句审计", description = "租户隔离语句分类查询接口")
+public class TenantStatementController {
+
+    @Autowired
+    private TenantStatementRegistry tenantStatementRegistry;
+
+    /**
+     * 查询语句分类列表
+     * @param policy 分类，为空时返回全部
+     * @return 语句分类列表
+     */
+    @GetMapping("/list")
+    @Operation(summary = "查询语句分类", description = "列出每个MyBatis语句的租户隔离分类")
+    @PreAuthorize("hasAuthority('system:tenant:statement')")
+    public AjaxResult<List<TenantStatementInfo>> list(@RequestParam(required = false) TenantStatementPolicy policy) {
+        return AjaxResult.success(tenantStatementRegistry.list(policy));
+    }
+}
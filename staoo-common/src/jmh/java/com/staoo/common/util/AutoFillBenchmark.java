@@ -0,0 +1,163 @@
+package com.staoo.common.util;
+
+import com.staoo.common.annotation.AutoFill;
+import com.staoo.common.domain.UserInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自动填充基准测试
+ * 比较原来每次调用都查找注解和字段、通过反射赋值的实现与按类编译的AutoFillAccessor，
+ * 每次操作填充一个新增实体的创建信息和更新信息
+ * @author staoo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutoFillBenchmark {
+
+    private final BenchEntity entity = new BenchEntity();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setId(1L);
+        UserUtils.setCurrentUser(userInfo);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UserUtils.clear();
+    }
+
+    /**
+     * 原来的反射实现：创建信息和更新信息各查找一次注解，每个时间字段按两种类型各查找一次
+     */
+    @Benchmark
+    public BenchEntity reflection() {
+        ReflectionFill.fillCreateInfo(entity);
+        ReflectionFill.fillUpdateInfo(entity);
+        return entity;
+    }
+
+    /**
+     * 按类编译并缓存的访问器
+     */
+    @Benchmark
+    public BenchEntity accessor() {
+        AutoFillUtils.fillInsertInfo(entity);
+        return entity;
+    }
+
+    /**
+     * 带@AutoFill注解的实体，字段与业务实体一致
+     */
+    @AutoFill
+    public static class BenchEntity {
+        private Long createBy;
+        private LocalDateTime createTime;
+        private Long updateBy;
+        private LocalDateTime updateTime;
+
+        public void setCreateBy(Long createBy) {
+            this.createBy = createBy;
+        }
+
+        public void setCreateTime(LocalDateTime createTime) {
+            this.createTime = createTime;
+        }
+
+        public void setUpdateBy(Long updateBy) {
+            this.updateBy = updateBy;
+        }
+
+        public void setUpdateTime(LocalDateTime updateTime) {
+            this.updateTime = updateTime;
+        }
+    }
+
+    /**
+     * 引入AutoFillAccessor之前的AutoFillUtils实现，仅用于对比
+     */
+    private static final class ReflectionFill {
+
+        private static void fillCreateInfo(Object object) {
+            AutoFill autoFill = object.getClass().getAnnotation(AutoFill.class);
+            if (autoFill == null) {
+                return;
+            }
+            Long currentUserId = UserUtils.getCurrentUserId();
+            LocalDateTime nowLocalDateTime = LocalDateTime.now();
+            Date nowDate = new Date();
+            if (autoFill.fillCreateBy() && currentUserId != null) {
+                fillField(object, "createBy", Long.class, currentUserId);
+            }
+            if (autoFill.fillCreateTime()) {
+                fillField(object, "createTime", LocalDateTime.class, nowLocalDateTime);
+                fillField(object, "createTime", Date.class, nowDate);
+            }
+        }
+
+        private static void fillUpdateInfo(Object object) {
+            AutoFill autoFill = object.getClass().getAnnotation(AutoFill.class);
+            if (autoFill == null) {
+                return;
+            }
+            Long currentUserId = UserUtils.getCurrentUserId();
+            LocalDateTime nowLocalDateTime = LocalDateTime.now();
+            Date nowDate = new Date();
+            if (autoFill.fillUpdateBy() && currentUserId != null) {
+                fillField(object, "updateBy", Long.class, currentUserId);
+            }
+            if (autoFill.fillUpdateTime()) {
+                fillField(object, "updateTime", LocalDateTime.class, nowLocalDateTime);
+                fillField(object, "updateTime", Date.class, nowDate);
+            }
+        }
+
+        private static void fillField(Object object, String fieldName, Class<?> fieldType, Object value) {
+            try {
+                Field field = findField(object.getClass(), fieldName, fieldType);
+                if (field != null) {
+                    field.setAccessible(true);
+                    field.set(object, value);
+                }
+            } catch (Exception e) {
+                // 填充字段失败，忽略异常
+            }
+        }
+
+        private static Field findField(Class<?> clazz, String fieldName, Class<?> fieldType) {
+            if (clazz == null || Object.class.equals(clazz)) {
+                return null;
+            }
+            try {
+                Field field = clazz.getDeclaredField(fieldName);
+                if (fieldType.isAssignableFrom(field.getType())) {
+                    return field;
+                }
+            } catch (NoSuchFieldException e) {
+                return findField(clazz.getSuperclass(), fieldName, fieldType);
+            }
+            return null;
+        }
+    }
+}
@@ -46,4 +46,10 @@ public @interface LogOperation {
      * 是否忽略异常（异常时不记录日志）
      */
     boolean ignoreException() default false;
+
+    /**
+     * 请求参数和响应结果的采样率（0~1）
+     * 未命中采样时日志仍会记录，只是不记录参数和结果；执行失败的请求始终记录
+     */
+    double sampleRate() default 1.0;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.staoo.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 忽略租户隔离注解
+ * 标注在Mapper接口或Mapper方法上，对应的SQL语句不追加租户过滤条件
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TenantIgnore {
+}
@@ -0,0 +1,118 @@
+package com.staoo.common.auth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 不可变的权限位图
+ * 第i位表示是否拥有PermissionDictionary中编号为i的标识，判断权限只需一次数组访问和位运算
+ */
+public final class PermissionBitSet {
+    /**
+     * 空集合
+     */
+    public static final PermissionBitSet EMPTY = new PermissionBitSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBitSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 由标识集合构建位图，标识不在字典中时会被驻留
+     * @param dictionary 字典
+     * @param names 标识集合，可以为null
+     * @return 位图
+     */
+    public static PermissionBitSet of(PermissionDictionary dictionary, Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[0];
+        for (String name : names) {
+            int index = dictionary.intern(name);
+            if (index < 0) {
+                continue;
+            }
+            int word = index >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            words[word] |= 1L << index;
+        }
+        return words.length == 0 ? EMPTY : new PermissionBitSet(words);
+    }
+
+    /**
+     * 是否包含指定编号
+     * @param index 编号，负数表示不存在的标识
+     * @return 是否包含
+     */
+    public boolean contains(int index) {
+        if (index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * 是否包含任意一个编号
+     * @param indexes 编号数组
+     * @return 是否包含
+     */
+    public boolean containsAny(int[] indexes) {
+        for (int index : indexes) {
+            if (contains(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    /**
+     * 包含的标识个数
+     */
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 还原为标识列表，按编号排序
+     * @param dictionary 构建时使用的字典
+     * @return 标识列表
+     */
+    public List<String> toNames(PermissionDictionary dictionary) {
+        List<String> names = new ArrayList<>(size());
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                names.add(dictionary.nameOf(index));
+                bits &= bits - 1;
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof PermissionBitSet other && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,92 @@
+package com.staoo.common.auth;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限字典
+ * 把权限标识（sys_menu.perms）和角色标识驻留为从0开始的小整数，用户的权限集合据此表示为位图。
+ * 编号只增不减，进程内稳定，不在进程之间共享，不能写入令牌或缓存
+ */
+public final class PermissionDictionary {
+    /**
+     * 权限标识字典
+     */
+    public static final PermissionDictionary PERMISSIONS = new PermissionDictionary(65536);
+
+    /**
+     * 角色标识字典
+     */
+    public static final PermissionDictionary ROLES = new PermissionDictionary(4096);
+
+    private final int maxSize;
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int size;
+
+    private PermissionDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 获取标识的编号，不存在时分配新编号
+     * @param name 标识
+     * @return 编号，标识为空或字典已满时返回-1
+     */
+    public int intern(String name) {
+        if (name == null || name.isEmpty()) {
+            return -1;
+        }
+        Integer index = indexes.get(name);
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            index = indexes.get(name);
+            if (index != null) {
+                return index;
+            }
+            if (size >= maxSize) {
+                return -1;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            // 先写名称再发布编号，通过编号读取名称时一定可见
+            names[size] = name;
+            indexes.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * 获取标识的编号，不分配新编号
+     * @param name 标识
+     * @return 编号，不存在时返回-1
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 获取编号对应的标识
+     * @param index 编号
+     * @return 标识，编号无效时返回null
+     */
+    public String nameOf(int index) {
+        String[] current = names;
+        return index >= 0 && index < current.length ? current[index] : null;
+    }
+
+    /**
+     * 已分配的编号数
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -1,5 +1,9 @@
 package com.staoo.common.domain;
 
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.staoo.common.auth.PermissionBitSet;
+import com.staoo.common.auth.PermissionDictionary;
+
 import java.io.Serializable;
 import java.util.List;
 
@@ -70,6 +74,16 @@ public class UserInfo implements Serializable {
      */
     private List<String> permissions;
 
+    /**
+     * 角色位图，由角色列表转换，不序列化
+     */
+    private transient PermissionBitSet roleSet;
+
+    /**
+     * 权限位图，由权限列表转换，不序列化
+     */
+    private transient PermissionBitSet permissionSet;
+
     /**
      * 登录时间
      */
@@ -176,6 +190,7 @@ public class UserInfo implements Serializable {
 
     public void setRoles(List<String> roles) {
         this.roles = roles;
+        this.roleSet = null;
     }
 
     public List<String> getPermissions() {
@@ -184,6 +199,51 @@ public class UserInfo implements Serializable {
 
     public void setPermissions(List<String> permissions) {
         this.permissions = permissions;
+        this.permissionSet = null;
+    }
+
+    /**
+     * 获取角色位图，未设置时由角色列表转换
+     * @return 角色位图
+     */
+    @JSONField(serialize = false)
+    public PermissionBitSet getRoleSet() {
+        PermissionBitSet set = roleSet;
+        if (set == null) {
+            set = PermissionBitSet.of(PermissionDictionary.ROLES, roles);
+            roleSet = set;
+        }
+        return set;
+    }
+
+    /**
+     * 设置角色位图，须与角色列表一致
+     * @param roleSet 角色位图
+     */
+    public void setRoleSet(PermissionBitSet roleSet) {
+        this.roleSet = roleSet;
+    }
+
+    /**
+     * 获取权限位图，未设置时由权限列表转换
+     * @return 权限位图
+     */
+    @JSONField(serialize = false)
+    public PermissionBitSet getPermissionSet() {
+        PermissionBitSet set = permissionSet;
+        if (set == null) {
+            set = PermissionBitSet.of(PermissionDictionary.PERMISSIONS, permissions);
+            permissionSet = set;
+        }
+        return set;
+    }
+
+    /**
+     * 设置权限位图，须与权限列表一致
+     * @param permissionSet 权限位图
+     */
+    public void setPermissionSet(PermissionBitSet permissionSet) {
+        this.permissionSet = permissionSet;
     }
 
     public Long getLoginTime() {
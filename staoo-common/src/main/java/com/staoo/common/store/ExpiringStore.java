@@ -0,0 +1,56 @@
+package com.staoo.common.store;
+
+/**
+ * 带过期时间的键值存储
+ * 用于验证码、发送频率等短期数据，条目到期后自动删除；进程内实现有最大条数限制，
+ * Redis实现在多节点之间共享数据
+ */
+public interface ExpiringStore {
+
+    /**
+     * 获取值
+     * @param key 键
+     * @return 值，不存在或已过期时返回null
+     */
+    String get(String key);
+
+    /**
+     * 写入值，覆盖已有的值和过期时间
+     * @param key 键
+     * @param value 值
+     * @param ttlMillis 有效期（毫秒）
+     * @return 是否写入成功，存储已满时返回false
+     */
+    boolean put(String key, String value, long ttlMillis);
+
+    /**
+     * 键不存在时写入值
+     * @param key 键
+     * @param value 值
+     * @param ttlMillis 有效期（毫秒）
+     * @return 是否写入成功，键已存在或存储已满时返回false
+     */
+    boolean putIfAbsent(String key, String value, long ttlMillis);
+
+    /**
+     * 计数加一，键不存在时从1开始并设置有效期，已存在时保持原有的过期时间
+     * @param key 键
+     * @param ttlMillis 键不存在时的有效期（毫秒）
+     * @return 加一后的值，存储已满时返回-1
+     */
+    long increment(String key, long ttlMillis);
+
+    /**
+     * 获取剩余有效期
+     * @param key 键
+     * @return 剩余有效期（毫秒），不存在或已过期时返回0
+     */
+    long getTtl(String key);
+
+    /**
+     * 删除键
+     * @param key 键
+     * @return 是否删除了未过期的值，可用于保证一次性的值只被使用一次
+     */
+    boolean remove(String key);
+}
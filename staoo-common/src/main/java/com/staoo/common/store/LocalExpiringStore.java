@@ -0,0 +1,205 @@
+package com.staoo.common.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内的过期键值存储
+ * 每次写入把键和过期时间挂到哈希时间轮上，每次操作顺带推进时间轮，到期的键被删除，不需要后台线程；
+ * 条目数达到上限时不再接受新的键。只适用于单节点部署
+ */
+public class LocalExpiringStore implements ExpiringStore {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final LongSupplier clock;
+    private final long tickMillis;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Queue<Expiration>[] wheel = new Queue[WHEEL_SIZE];
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    // 已处理到的时间刻度，只在advanceLock内修改
+    private volatile long currentTick;
+
+    /**
+     * @param tickMillis 时间轮刻度（毫秒）
+     * @param maxSize 最大条目数
+     */
+    public LocalExpiringStore(long tickMillis, int maxSize) {
+        this(tickMillis, maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * 使用指定时钟，供测试控制时间
+     */
+    LocalExpiringStore(long tickMillis, int maxSize, LongSupplier clock) {
+        this.clock = clock;
+        this.tickMillis = Math.max(10, tickMillis);
+        this.maxSize = Math.max(1, maxSize);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = clock.getAsLong() / this.tickMillis;
+    }
+
+    @Override
+    public String get(String key) {
+        long now = clock.getAsLong();
+        advance(now);
+        Entry entry = entries.get(key);
+        return entry != null && entry.expireAt > now ? entry.value : null;
+    }
+
+    @Override
+    public boolean put(String key, String value, long ttlMillis) {
+        long now = clock.getAsLong();
+        advance(now);
+        if (!entries.containsKey(key) && entries.size() >= maxSize) {
+            return false;
+        }
+        Entry entry = new Entry(value, now + ttlMillis);
+        entries.put(key, entry);
+        schedule(key, entry.expireAt);
+        return true;
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, long ttlMillis) {
+        long now = clock.getAsLong();
+        advance(now);
+        boolean[] written = new boolean[1];
+        Entry created = new Entry(value, now + ttlMillis);
+        entries.compute(key, (k, current) -> {
+            if (current != null && current.expireAt > now) {
+                return current;
+            }
+            if (current == null && entries.size() >= maxSize) {
+                return null;
+            }
+            written[0] = true;
+            return created;
+        });
+        if (written[0]) {
+            schedule(key, created.expireAt);
+        }
+        return written[0];
+    }
+
+    @Override
+    public long increment(String key, long ttlMillis) {
+        long now = clock.getAsLong();
+        advance(now);
+        long[] result = {-1};
+        boolean[] created = new boolean[1];
+        Entry updated = entries.compute(key, (k, current) -> {
+            if (current != null && current.expireAt > now) {
+                result[0] = Long.parseLong(current.value) + 1;
+                return new Entry(String.valueOf(result[0]), current.expireAt);
+            }
+            if (current == null && entries.size() >= maxSize) {
+                return null;
+            }
+            result[0] = 1;
+            created[0] = true;
+            return new Entry("1", now + ttlMillis);
+        });
+        if (created[0]) {
+            schedule(key, updated.expireAt);
+        }
+        return result[0];
+    }
+
+    @Override
+    public long getTtl(String key) {
+        long now = clock.getAsLong();
+        advance(now);
+        Entry entry = entries.get(key);
+        return entry != null && entry.expireAt > now ? entry.expireAt - now : 0;
+    }
+
+    @Override
+    public boolean remove(String key) {
+        Entry entry = entries.remove(key);
+        return entry != null && entry.expireAt > clock.getAsLong();
+    }
+
+    /**
+     * 当前的条目数（包含尚未删除的过期条目）
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void schedule(String key, long expireAt) {
+        long tick = Math.max(expireAt / tickMillis, currentTick + 1);
+        wheel[(int) (tick & (WHEEL_SIZE - 1))].add(new Expiration(key, expireAt));
+    }
+
+    /**
+     * 推进时间轮到当前时间，处理经过的每个槽：到期的键删除，未到期的（下一圈的）重新挂上
+     * 只有一个线程推进，其他线程直接返回
+     */
+    private void advance(long now) {
+        long target = now / tickMillis;
+        if (target <= currentTick || !advanceLock.tryLock()) {
+            return;
+        }
+        try {
+            // 间隔超过一圈时每个槽只需处理一次
+            long from = Math.max(currentTick + 1, target - WHEEL_SIZE + 1);
+            for (long tick = from; tick <= target; tick++) {
+                Queue<Expiration> slot = wheel[(int) (tick & (WHEEL_SIZE - 1))];
+                // 只处理推进前已在槽内的条目，重新挂到同一个槽的条目留到下一圈
+                List<Expiration> due = new ArrayList<>();
+                for (int i = slot.size(); i > 0; i--) {
+                    Expiration expiration = slot.poll();
+                    if (expiration == null) {
+                        break;
+                    }
+                    due.add(expiration);
+                }
+                for (Expiration expiration : due) {
+                    if (expiration.expireAt > now) {
+                        schedule(expiration.key, expiration.expireAt);
+                    } else {
+                        // 键可能已被重新写入，只删除当前已过期的值
+                        entries.computeIfPresent(expiration.key, (k, current) -> current.expireAt <= now ? null : current);
+                    }
+                }
+            }
+            currentTick = target;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final long expireAt;
+
+        private Entry(String value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 时间轮上的到期记录，键被重新写入时会有多条记录，按到期时删除键的当前值是否过期判断
+     */
+    private static final class Expiration {
+        private final String key;
+        private final long expireAt;
+
+        private Expiration(String key, long expireAt) {
+            this.key = key;
+            this.expireAt = expireAt;
+        }
+    }
+}
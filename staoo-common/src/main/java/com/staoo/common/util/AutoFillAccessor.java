@@ -0,0 +1,230 @@
+package com.staoo.common.util;
+
+import com.staoo.common.annotation.AutoFill;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.function.BiConsumer;
+
+/**
+ * 自动填充访问器
+ * 每个实体类只在首次使用时解析一次@AutoFill注解和字段，并编译为直接的setter调用，
+ * 结果通过ClassValue缓存，填充时不再有注解查找、字段查找和反射赋值
+ */
+public final class AutoFillAccessor {
+
+    /**
+     * 没有@AutoFill注解的类共用的空访问器
+     */
+    private static final AutoFillAccessor NONE = new AutoFillAccessor(null, null, null, null);
+
+    private static final ClassValue<AutoFillAccessor> CACHE = new ClassValue<>() {
+        @Override
+        protected AutoFillAccessor computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final BiConsumer<Object, Object> createBy;
+    private final TimeSetter createTime;
+    private final BiConsumer<Object, Object> updateBy;
+    private final TimeSetter updateTime;
+
+    private AutoFillAccessor(BiConsumer<Object, Object> createBy, TimeSetter createTime,
+                             BiConsumer<Object, Object> updateBy, TimeSetter updateTime) {
+        this.createBy = createBy;
+        this.createTime = createTime;
+        this.updateBy = updateBy;
+        this.updateTime = updateTime;
+    }
+
+    /**
+     * 获取类的自动填充访问器
+     * @param clazz 实体类
+     * @return 自动填充访问器
+     */
+    public static AutoFillAccessor of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    /**
+     * 是否需要自动填充（类上有@AutoFill注解且至少有一个可填充字段）
+     * @return 是否需要自动填充
+     */
+    public boolean isEnabled() {
+        return this != NONE;
+    }
+
+    /**
+     * 是否需要填充时间字段，不需要时调用方可以不读取时钟
+     * @return 是否包含时间字段
+     */
+    public boolean hasTimeField() {
+        return createTime != null || updateTime != null;
+    }
+
+    /**
+     * 填充创建信息
+     * @param target 实体对象
+     * @param userId 当前用户ID，为null时不填充创建人
+     * @param now 当前时间
+     */
+    public void fillCreate(Object target, Long userId, LocalDateTime now) {
+        if (createBy != null && userId != null) {
+            createBy.accept(target, userId);
+        }
+        if (createTime != null) {
+            createTime.set(target, now);
+        }
+    }
+
+    /**
+     * 填充更新信息
+     * @param target 实体对象
+     * @param userId 当前用户ID，为null时不填充更新人
+     * @param now 当前时间
+     */
+    public void fillUpdate(Object target, Long userId, LocalDateTime now) {
+        if (updateBy != null && userId != null) {
+            updateBy.accept(target, userId);
+        }
+        if (updateTime != null) {
+            updateTime.set(target, now);
+        }
+    }
+
+    /**
+     * 解析实体类并生成访问器
+     */
+    private static AutoFillAccessor compile(Class<?> clazz) {
+        AutoFill autoFill = clazz.getAnnotation(AutoFill.class);
+        if (autoFill == null) {
+            return NONE;
+        }
+        BiConsumer<Object, Object> createBy = autoFill.fillCreateBy() ? userSetter(clazz, "createBy") : null;
+        TimeSetter createTime = autoFill.fillCreateTime() ? timeSetter(clazz, "createTime") : null;
+        BiConsumer<Object, Object> updateBy = autoFill.fillUpdateBy() ? userSetter(clazz, "updateBy") : null;
+        TimeSetter updateTime = autoFill.fillUpdateTime() ? timeSetter(clazz, "updateTime") : null;
+        if (createBy == null && createTime == null && updateBy == null && updateTime == null) {
+            return NONE;
+        }
+        return new AutoFillAccessor(createBy, createTime, updateBy, updateTime);
+    }
+
+    /**
+     * 生成用户字段的setter，字段类型必须是Long
+     */
+    private static BiConsumer<Object, Object> userSetter(Class<?> clazz, String fieldName) {
+        Field field = findField(clazz, fieldName);
+        if (field == null || field.getType() != Long.class) {
+            return null;
+        }
+        return compileSetter(clazz, field);
+    }
+
+    /**
+     * 生成时间字段的setter，支持LocalDateTime和Date类型
+     */
+    private static TimeSetter timeSetter(Class<?> clazz, String fieldName) {
+        Field field = findField(clazz, fieldName);
+        if (field == null || (field.getType() != LocalDateTime.class && field.getType() != Date.class)) {
+            return null;
+        }
+        BiConsumer<Object, Object> setter = compileSetter(clazz, field);
+        if (setter == null) {
+            return null;
+        }
+        return new TimeSetter(setter, field.getType() == Date.class);
+    }
+
+    /**
+     * 沿继承链查找字段，与原有逻辑一致：以最近声明的同名字段为准
+     */
+    private static Field findField(Class<?> clazz, String fieldName) {
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                return Modifier.isStatic(field.getModifiers()) ? null : field;
+            } catch (NoSuchFieldException e) {
+                // 当前类没有该字段，继续查找父类
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 优先通过LambdaMetafactory把setter编译为BiConsumer，没有setter时退回到字段MethodHandle
+     */
+    private static BiConsumer<Object, Object> compileSetter(Class<?> clazz, Field field) {
+        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            try {
+                MethodHandle setter = lookup.findVirtual(clazz, setterName, MethodType.methodType(void.class, field.getType()));
+                return lambda(lookup, setter, clazz, field.getType());
+            } catch (NoSuchMethodException e) {
+                // 没有setter，直接写字段
+            } catch (Throwable e) {
+                // 无法生成lambda时使用MethodHandle调用setter
+                MethodHandle setter = lookup.findVirtual(clazz, setterName, MethodType.methodType(void.class, field.getType()));
+                return handle(setter);
+            }
+            MethodHandle fieldSetter = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectSetter(field);
+            return handle(fieldSetter);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 无法访问的字段不做填充，与原有逻辑一致
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> lambda(MethodHandles.Lookup lookup, MethodHandle setter,
+                                                     Class<?> clazz, Class<?> valueType) throws Throwable {
+        return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                setter,
+                MethodType.methodType(void.class, clazz, valueType)
+        ).getTarget().invokeExact();
+    }
+
+    private static BiConsumer<Object, Object> handle(MethodHandle setter) {
+        MethodHandle generic = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, value) -> {
+            try {
+                generic.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * 时间字段setter，Date类型由同一个时间点转换，保证一次填充只读取一次时钟
+     */
+    private static final class TimeSetter {
+        private final BiConsumer<Object, Object> setter;
+        private final boolean date;
+
+        private TimeSetter(BiConsumer<Object, Object> setter, boolean date) {
+            this.setter = setter;
+            this.date = date;
+        }
+
+        private void set(Object target, LocalDateTime now) {
+            setter.accept(target, date ? Date.from(now.atZone(ZoneId.systemDefault()).toInstant()) : now);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.staoo.common.util;
 
+import com.staoo.common.auth.PermissionDictionary;
 import com.staoo.common.domain.UserInfo;
 import org.springframework.util.StringUtils;
 
@@ -95,10 +96,11 @@ public class UserUtils {
      */
     public static boolean hasRole(String roleCode) {
         UserInfo userInfo = getCurrentUser();
-        if (userInfo == null || userInfo.getRoles() == null || !StringUtils.hasText(roleCode)) {
+        if (userInfo == null || !StringUtils.hasText(roleCode)) {
             return false;
         }
-        return userInfo.getRoles().contains(roleCode);
+        // 字典中不存在的角色不可能被任何用户拥有
+        return userInfo.getRoleSet().contains(PermissionDictionary.ROLES.indexOf(roleCode));
     }
 
     /**
@@ -108,10 +110,30 @@ public class UserUtils {
      */
     public static boolean hasPermission(String permission) {
         UserInfo userInfo = getCurrentUser();
-        if (userInfo == null || userInfo.getPermissions() == null || !StringUtils.hasText(permission)) {
+        if (userInfo == null || !StringUtils.hasText(permission)) {
             return false;
         }
-        return userInfo.getPermissions().contains(permission);
+        return userInfo.getPermissionSet().contains(PermissionDictionary.PERMISSIONS.indexOf(permission));
+    }
+
+    /**
+     * 检查当前用户是否具有任意一个权限
+     * @param permissionIndexes 权限在PermissionDictionary.PERMISSIONS中的编号
+     * @return 是否具有任意一个权限
+     */
+    public static boolean hasAnyPermission(int[] permissionIndexes) {
+        UserInfo userInfo = getCurrentUser();
+        return userInfo != null && userInfo.getPermissionSet().containsAny(permissionIndexes);
+    }
+
+    /**
+     * 检查当前用户是否具有任意一个角色
+     * @param roleIndexes 角色在PermissionDictionary.ROLES中的编号
+     * @return 是否具有任意一个角色
+     */
+    public static boolean hasAnyRole(int[] roleIndexes) {
+        UserInfo userInfo = getCurrentUser();
+        return userInfo != null && userInfo.getRoleSet().containsAny(roleIndexes);
     }
 
     /**
@@ -0,0 +1,58 @@
+package com.staoo.common.util.export;
+
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 导出文件格式
+ */
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 创建逐行写入的导出器
+     * @param out 输出流，导出器关闭时不关闭输出流
+     * @param headers 表头
+     * @return 导出器
+     */
+    public ExportRowWriter createWriter(OutputStream out, List<String> headers) {
+        return this == XLSX ? new XlsxRowWriter(out, headers) : new CsvRowWriter(out, headers);
+    }
+
+    /**
+     * 根据扩展名获取导出格式，为空时默认为CSV
+     * @param value 扩展名，不区分大小写
+     * @return 导出格式
+     */
+    public static ExportFormat of(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(), "不支持的导出格式: " + value);
+    }
+}
@@ -0,0 +1,25 @@
+package com.staoo.common.util.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 逐行写入的导出器
+ * 每行写入后只保留固定大小的缓冲区，导出行数不影响内存占用
+ */
+public interface ExportRowWriter extends Closeable {
+    /**
+     * 写入一行，Number写为数值，null写为空单元格，其他值写为字符串
+     * @param values 单元格的值，顺序与表头一致
+     * @throws IOException 写入失败（如客户端断开）
+     */
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * 写完文件结尾并刷新缓冲区，不关闭底层输出流
+     * @throws IOException 写入失败
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,161 @@
+package com.staoo.common.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 进程内过期键值存储测试
+ * 使用可控时钟验证各操作的过期语义、时间轮删除到期的键以及条目数上限
+ * @author staoo
+ */
+public class LocalExpiringStoreTest {
+
+    private static final long TICK = 100;
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private final LocalExpiringStore store = new LocalExpiringStore(TICK, 3, now::get);
+
+    /**
+     * 测试读写和过期
+     * 过期的值读不到，剩余有效期随时间减少
+     */
+    @Test
+    public void testPutAndExpire() {
+        assertTrue(store.put("k", "v", 1000));
+        assertEquals("v", store.get("k"));
+        now.addAndGet(400);
+        assertEquals(600, store.getTtl("k"));
+
+        now.set(START + 1000);
+        assertNull(store.get("k"), "过期后应读不到");
+        assertEquals(0, store.getTtl("k"));
+        assertNull(store.get("missing"));
+    }
+
+    /**
+     * 测试时间轮删除
+     * 到期的键由时间轮删除；键被重新写入时，旧的到期记录不删除新的值
+     */
+    @Test
+    public void testWheelRemovesExpired() {
+        store.put("a", "1", 1000);
+        store.put("b", "1", 1000);
+        now.set(START + 500);
+        store.put("b", "2", 1000);
+
+        now.set(START + 1000);
+        store.get("a");
+        assertEquals(1, store.size(), "到期的键应被删除");
+        assertEquals("2", store.get("b"), "重新写入的值不应被旧的到期记录删除");
+
+        now.set(START + 1500);
+        store.get("b");
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * 测试超过一圈的有效期
+     * 有效期长于时间轮一圈的键在经过的槽中重新挂上，直到真正到期才删除
+     */
+    @Test
+    public void testTtlLongerThanOneTurn() {
+        long ttl = TICK * 512 * 3 + 50;
+        store.put("k", "v", ttl);
+        for (long elapsed = TICK; elapsed < ttl; elapsed += TICK * 7) {
+            now.set(START + elapsed);
+            assertEquals("v", store.get("k"), "未到期时不应删除: " + elapsed);
+        }
+        now.set(START + ttl);
+        store.get("k");
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * 测试时间跨度超过一圈
+     * 长时间没有操作后推进时间轮，过期的键全部删除
+     */
+    @Test
+    public void testAdvanceMoreThanOneTurn() {
+        store.put("a", "1", 200);
+        store.put("b", "1", 30_000);
+        store.put("c", "1", 51_100);
+        now.addAndGet(TICK * 2000);
+        store.get("a");
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * 测试条目数上限
+     * 达到上限后不接受新的键，已有的键可以更新，到期删除后可以再写入
+     */
+    @Test
+    public void testMaxSize() {
+        assertTrue(store.put("a", "1", 1000));
+        assertTrue(store.putIfAbsent("b", "1", 1000));
+        assertEquals(1, store.increment("c", 1000));
+        assertFalse(store.put("d", "1", 1000), "达到上限后不应接受新的键");
+        assertFalse(store.putIfAbsent("d", "1", 1000), "达到上限后不应接受新的键");
+        assertEquals(-1, store.increment("d", 1000), "达到上限后不应接受新的键");
+        assertNull(store.get("d"));
+        assertEquals(3, store.size());
+
+        assertTrue(store.put("a", "2", 2000), "已有的键应可以更新");
+        assertEquals(2, store.increment("c", 1000), "已有的键应可以自增");
+
+        now.set(START + 1000);
+        assertTrue(store.put("d", "1", 1000), "到期删除后应可以写入新的键");
+        assertEquals("2", store.get("a"));
+    }
+
+    /**
+     * 测试putIfAbsent
+     * 未过期的键不覆盖，过期的键视为不存在
+     */
+    @Test
+    public void testPutIfAbsent() {
+        assertTrue(store.putIfAbsent("k", "1", 1000));
+        assertFalse(store.putIfAbsent("k", "2", 1000), "未过期的键不应覆盖");
+        assertEquals("1", store.get("k"));
+
+        now.set(START + 1000);
+        assertTrue(store.putIfAbsent("k", "3", 1000), "过期的键应视为不存在");
+        assertEquals("3", store.get("k"));
+        now.set(START + 1999);
+        assertEquals("3", store.get("k"), "旧的到期记录不应删除新的值");
+    }
+
+    /**
+     * 测试自增
+     * 自增不延长有效期，过期后从1重新开始
+     */
+    @Test
+    public void testIncrement() {
+        assertEquals(1, store.increment("n", 1000));
+        now.addAndGet(500);
+        assertEquals(2, store.increment("n", 1000));
+        assertEquals(500, store.getTtl("n"), "自增不应延长有效期");
+
+        now.set(START + 1000);
+        assertEquals(1, store.increment("n", 1000), "过期后应从1重新开始");
+        assertEquals(1000, store.getTtl("n"));
+    }
+
+    /**
+     * 测试删除
+     * 删除未过期的键返回true，删除已过期或不存在的键返回false
+     */
+    @Test
+    public void testRemove() {
+        store.put("a", "1", 1000);
+        store.put("b", "1", 500);
+        assertTrue(store.remove("a"));
+        assertFalse(store.remove("a"));
+        now.set(START + 500);
+        assertFalse(store.remove("b"), "已过期的键应返回false");
+        assertEquals(0, store.size());
+    }
+}
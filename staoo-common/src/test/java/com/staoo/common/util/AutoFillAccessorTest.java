@@ -0,0 +1,194 @@
+package com.staoo.common.util;
+
+import com.staoo.common.annotation.AutoFill;
+import com.staoo.common.domain.UserInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 自动填充访问器测试
+ * 验证通过setter编译的访问器、没有setter时的字段写入、Date和LocalDateTime两种时间类型，以及注解开关
+ * @author staoo
+ */
+public class AutoFillAccessorTest {
+
+    private static final Long USER_ID = 7L;
+
+    @BeforeEach
+    public void setUp() {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setId(USER_ID);
+        UserUtils.setCurrentUser(userInfo);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        UserUtils.clear();
+    }
+
+    /**
+     * 测试通过setter填充
+     * 有setter的字段通过编译后的setter赋值，新增时创建时间和更新时间是同一个时间点
+     */
+    @Test
+    public void testFillInsertThroughSetters() {
+        SetterEntity entity = new SetterEntity();
+        AutoFillUtils.fillInsertInfo(entity);
+
+        assertEquals(USER_ID, entity.createBy);
+        assertEquals(USER_ID, entity.updateBy);
+        assertNotNull(entity.createTime);
+        assertSame(entity.createTime, entity.updateTime, "创建时间和更新时间应使用同一个时间点");
+        assertEquals(4, entity.setterCalls, "每个字段应通过setter赋值一次");
+    }
+
+    /**
+     * 测试更新时只填充更新信息
+     */
+    @Test
+    public void testFillUpdateOnly() {
+        SetterEntity entity = new SetterEntity();
+        AutoFillUtils.fillUpdateInfo(entity);
+
+        assertNull(entity.createBy, "更新时不应填充创建人");
+        assertNull(entity.createTime, "更新时不应填充创建时间");
+        assertEquals(USER_ID, entity.updateBy);
+        assertNotNull(entity.updateTime);
+    }
+
+    /**
+     * 测试没有setter的字段
+     * 字段直接写入，包括父类中声明的私有字段
+     */
+    @Test
+    public void testFillFieldsWithoutSetter() {
+        FieldEntity entity = new FieldEntity();
+        AutoFillUtils.fillCreateInfo(entity);
+
+        assertEquals(USER_ID, entity.getCreateBy(), "父类的私有字段应被填充");
+        assertNotNull(entity.createTime);
+        assertNull(entity.updateBy, "创建时不应填充更新人");
+        assertNull(entity.updateTime, "创建时不应填充更新时间");
+    }
+
+    /**
+     * 测试Date类型的时间字段
+     * Date字段与LocalDateTime字段由同一个时间点转换
+     */
+    @Test
+    public void testFillDateFields() {
+        DateEntity entity = new DateEntity();
+        AutoFillUtils.fillInsertInfo(entity);
+
+        assertNotNull(entity.createTime);
+        assertNotNull(entity.updateTime);
+        // Date只精确到毫秒
+        assertEquals(entity.updateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                entity.createTime.getTime(), "Date字段与LocalDateTime字段应是同一个时间点");
+    }
+
+    /**
+     * 测试注解开关和字段类型
+     * 关闭的字段、类型不符的字段不填充，没有当前用户时不填充用户字段
+     */
+    @Test
+    public void testDisabledAndMismatchedFields() {
+        PartialEntity entity = new PartialEntity();
+        AutoFillUtils.fillInsertInfo(entity);
+        assertNull(entity.createBy, "类型不是Long的用户字段不应填充");
+        assertNull(entity.createTime, "关闭的字段不应填充");
+        assertNotNull(entity.updateTime);
+
+        UserUtils.clear();
+        SetterEntity anonymous = new SetterEntity();
+        AutoFillUtils.fillInsertInfo(anonymous);
+        assertNull(anonymous.createBy, "没有当前用户时不应填充创建人");
+        assertNotNull(anonymous.createTime, "没有当前用户时仍应填充时间");
+    }
+
+    /**
+     * 测试是否需要填充
+     * 没有注解或没有可填充字段的类共用空访问器
+     */
+    @Test
+    public void testIsEnabled() {
+        assertTrue(AutoFillAccessor.of(SetterEntity.class).isEnabled());
+        assertSame(AutoFillAccessor.of(SetterEntity.class), AutoFillAccessor.of(SetterEntity.class),
+                "访问器应按类缓存");
+        assertFalse(AutoFillAccessor.of(String.class).isEnabled(), "没有注解的类不需要填充");
+        assertFalse(AutoFillAccessor.of(EmptyEntity.class).isEnabled(), "没有可填充字段的类不需要填充");
+        assertFalse(AutoFillUtils.needAutoFill(null));
+
+        AutoFillUtils.fillInsertInfo(null);
+        AutoFillUtils.fillInsertInfo("不需要填充的对象");
+    }
+
+    @AutoFill
+    public static class SetterEntity {
+        private Long createBy;
+        private LocalDateTime createTime;
+        private Long updateBy;
+        private LocalDateTime updateTime;
+        private int setterCalls;
+
+        public void setCreateBy(Long createBy) {
+            this.createBy = createBy;
+            setterCalls++;
+        }
+
+        public void setCreateTime(LocalDateTime createTime) {
+            this.createTime = createTime;
+            setterCalls++;
+        }
+
+        public void setUpdateBy(Long updateBy) {
+            this.updateBy = updateBy;
+            setterCalls++;
+        }
+
+        public void setUpdateTime(LocalDateTime updateTime) {
+            this.updateTime = updateTime;
+            setterCalls++;
+        }
+    }
+
+    public static class FieldBase {
+        private Long createBy;
+
+        public Long getCreateBy() {
+            return createBy;
+        }
+    }
+
+    @AutoFill
+    public static class FieldEntity extends FieldBase {
+        private LocalDateTime createTime;
+        private Long updateBy;
+        private LocalDateTime updateTime;
+    }
+
+    @AutoFill
+    public static class DateEntity {
+        private Date createTime;
+        private LocalDateTime updateTime;
+    }
+
+    @AutoFill(fillCreateTime = false)
+    public static class PartialEntity {
+        private String createBy;
+        private LocalDateTime createTime;
+        private LocalDateTime updateTime;
+    }
+
+    @AutoFill
+    public static class EmptyEntity {
+        private String name;
+    }
+}
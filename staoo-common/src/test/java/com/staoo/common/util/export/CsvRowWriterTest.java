@@ -0,0 +1,86 @@
+package com.staoo.common.util.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV导出器测试
+ * 验证BOM、RFC 4180转义和公式注入防护
+ * @author staoo
+ */
+public class CsvRowWriterTest {
+
+    /**
+     * 测试表头和BOM
+     */
+    @Test
+    public void testHeaderAndBom() throws IOException {
+        String csv = write(List.of("编号", "名称"));
+        assertTrue(csv.startsWith("﻿"), "应以UTF-8 BOM开头");
+        assertEquals("﻿编号,名称\r\n", csv);
+    }
+
+    /**
+     * 测试关闭
+     * 关闭时刷出缓冲，但不关闭底层输出流
+     */
+    @Test
+    public void testCloseKeepsStreamOpen() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean[] closed = new boolean[1];
+        OutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        CsvRowWriter writer = new CsvRowWriter(out, List.of("h"));
+        writer.writeRow(List.of("v"));
+        writer.close();
+        assertFalse(closed[0], "不应关闭底层输出流");
+        assertEquals("﻿h\r\nv\r\n", bytes.toString(StandardCharsets.UTF_8), "关闭时应刷出缓冲");
+    }
+
+    /**
+     * 测试转义
+     * 含逗号、引号和换行的字段加引号，引号双写；数值和null原样写出
+     */
+    @Test
+    public void testEscape() throws IOException {
+        String csv = write(List.of("h"), Arrays.asList("a,b", "say \"hi\"", "line1\nline2", "cr\r", 12.5, null, "plain"));
+        assertEquals("﻿h\r\n\"a,b\",\"say \"\"hi\"\"\",\"line1\nline2\",\"cr\r\",12.5,,plain\r\n", csv);
+    }
+
+    /**
+     * 测试公式注入防护
+     * 以=、+、-、@开头的字符串前加单引号，数值不受影响
+     */
+    @Test
+    public void testFormulaInjection() throws IOException {
+        String csv = write(List.of("h"), Arrays.asList("=SUM(A1)", "+1", "-1", "@cmd", -1, "a=b"));
+        assertEquals("﻿h\r\n'=SUM(A1),'+1,'-1,'@cmd,-1,a=b\r\n", csv);
+
+        csv = write(List.of("h"), List.of("=HYPERLINK(\"x\",\"y\")"));
+        assertEquals("﻿h\r\n\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"\r\n", csv, "加单引号后仍需按规则转义");
+    }
+
+    @SafeVarargs
+    private static String write(List<String> headers, List<?>... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvRowWriter writer = new CsvRowWriter(out, headers)) {
+            for (List<?> row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
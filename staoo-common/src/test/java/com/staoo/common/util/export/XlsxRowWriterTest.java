@@ -0,0 +1,113 @@
+package com.staoo.common.util.export;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * XLSX导出器测试
+ * 验证工作簿结构完整、XML特殊字符被转义、非法控制字符被去掉，以及数值和空单元格的写法
+ * @author staoo
+ */
+public class XlsxRowWriterTest {
+
+    /**
+     * 测试工作簿结构
+     * 关闭后写入内容类型、关系、工作簿和样式，且不关闭底层输出流
+     */
+    @Test
+    public void testWorkbookEntries() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean[] closed = new boolean[1];
+        OutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        XlsxRowWriter writer = new XlsxRowWriter(out, List.of("编号"));
+        writer.writeRow(List.of(1));
+        writer.close();
+        writer.close();
+        assertFalse(closed[0], "不应关闭底层输出流");
+
+        Map<String, String> entries = unzip(bytes.toByteArray());
+        assertEquals(List.of("xl/worksheets/sheet1.xml", "[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/styles.xml"), List.copyOf(entries.keySet()));
+        for (String content : entries.values()) {
+            parse(content);
+        }
+        assertTrue(entries.get("[Content_Types].xml").contains("/xl/worksheets/sheet1.xml"));
+    }
+
+    /**
+     * 测试转义
+     * XML特殊字符被转义，XML不允许的控制字符被去掉，制表符和换行保留
+     */
+    @Test
+    public void testEscape() throws Exception {
+        String sheet = writeSheet(List.of("<a> & \"b\" 'c'", "x\u0000y\u0008z", "tab\tline\n"));
+        Document document = parse(sheet);
+        NodeList texts = document.getElementsByTagName("t");
+        assertEquals("h", texts.item(0).getTextContent());
+        assertEquals("<a> & \"b\" 'c'", texts.item(1).getTextContent());
+        assertEquals("xyz", texts.item(2).getTextContent(), "控制字符应被去掉");
+        assertEquals("tab\tline\n", texts.item(3).getTextContent());
+        assertFalse(sheet.contains("<a>"), "尖括号应被转义");
+    }
+
+    /**
+     * 测试数值和空单元格
+     * 有限数值写为数值单元格，NaN和无穷写为字符串，null写为空单元格
+     */
+    @Test
+    public void testNumbersAndNull() throws Exception {
+        String sheet = writeSheet(Arrays.asList(42, 1.5, Double.NaN, null, "=1+1"));
+        assertTrue(sheet.contains("<c><v>42</v></c><c><v>1.5</v></c>"), sheet);
+        assertTrue(sheet.contains("<t xml:space=\"preserve\">NaN</t>"), sheet);
+        assertTrue(sheet.contains("<c/>"), sheet);
+        assertTrue(sheet.contains("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">=1+1</t></is></c>"),
+                "内联字符串不会被当作公式: " + sheet);
+        assertTrue(sheet.contains("<row r=\"2\">"), "数据行从第2行开始");
+    }
+
+    private static String writeSheet(List<?> row) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxRowWriter writer = new XlsxRowWriter(out, List.of("h"))) {
+            writer.writeRow(row);
+        }
+        return unzip(out.toByteArray()).get("xl/worksheets/sheet1.xml");
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static Document parse(String xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
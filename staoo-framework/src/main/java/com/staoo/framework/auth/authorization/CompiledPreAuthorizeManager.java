@@ -0,0 +1,179 @@
+package com.staoo.framework.auth.authorization;
+
+import com.staoo.common.auth.PermissionDictionary;
+import com.staoo.common.util.UserUtils;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 编译型@PreAuthorize鉴权
+ * 把hasAuthority、hasAnyAuthority和@ss.hasPermi、@ss.hasAnyPermi、@ss.hasRole、@ss.hasAnyRoles
+ * 这几种只含字面量的表达式在启动时编译为权限字典中的编号，调用时只做位图判断，不解析也不执行SpEL；
+ * 其余表达式交给Spring Security的表达式实现。hasAuthority判断的是当前用户的菜单权限，与@ss.hasPermi相同；
+ * 超级管理员拥有全部权限
+ */
+public class CompiledPreAuthorizeManager implements AuthorizationManager<MethodInvocation>,
+        ApplicationContextAware, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(CompiledPreAuthorizeManager.class);
+
+    private static final Pattern SIMPLE_EXPRESSION = Pattern.compile(
+            "\\s*(hasAuthority|hasAnyAuthority|@ss\\.hasPermi|@ss\\.hasAnyPermi|@ss\\.hasRole|@ss\\.hasAnyRoles)"
+                    + "\\(\\s*('[^']*'(?:\\s*,\\s*'[^']*')*)\\s*\\)\\s*");
+    private static final Pattern LITERAL = Pattern.compile("'([^']*)'");
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Map<MethodKey, Rule> rules = new ConcurrentHashMap<>();
+    private final PreAuthorizeAuthorizationManager expressionManager = new PreAuthorizeAuthorizationManager();
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+        // 表达式中的@ss等Bean引用需要通过容器解析
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        expressionManager.setExpressionHandler(expressionHandler);
+    }
+
+    /**
+     * 启动时预先编译所有控制器方法的表达式，首次请求不再解析注解
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        int compiled = 0;
+        int expressions = 0;
+        for (Object controller : applicationContext.getBeansWithAnnotation(RestController.class).values()) {
+            Class<?> targetClass = AopProxyUtils.ultimateTargetClass(controller);
+            for (Method method : targetClass.getMethods()) {
+                Rule rule = rules.computeIfAbsent(new MethodKey(method, targetClass), this::compile);
+                if (rule == Rule.EXPRESSION) {
+                    expressions++;
+                } else if (rule != Rule.NONE) {
+                    compiled++;
+                }
+            }
+        }
+        logger.info("@PreAuthorize表达式编译完成，位图判断: {}，SpEL: {}", compiled, expressions);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null ? AopProxyUtils.ultimateTargetClass(target)
+                : invocation.getMethod().getDeclaringClass();
+        Rule rule = rules.computeIfAbsent(new MethodKey(invocation.getMethod(), targetClass), this::compile);
+        if (rule == Rule.NONE) {
+            return null;
+        }
+        if (rule == Rule.EXPRESSION) {
+            return expressionManager.check(authentication, invocation);
+        }
+        return rule.test() ? GRANTED : DENIED;
+    }
+
+    private Rule compile(MethodKey key) {
+        Method method = AopUtils.getMostSpecificMethod(key.method, key.targetClass);
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(key.targetClass, PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return Rule.NONE;
+        }
+        Matcher matcher = SIMPLE_EXPRESSION.matcher(preAuthorize.value());
+        if (!matcher.matches()) {
+            return Rule.EXPRESSION;
+        }
+        String function = matcher.group(1);
+        // @ss.hasAnyPermi和@ss.hasAnyRoles的参数是以逗号分隔的单个字符串
+        boolean commaSeparated = function.startsWith("@ss.hasAny");
+        List<String> names = new ArrayList<>();
+        Matcher literal = LITERAL.matcher(matcher.group(2));
+        while (literal.find()) {
+            for (String name : commaSeparated ? literal.group(1).split(",") : new String[]{literal.group(1)}) {
+                if (!name.trim().isEmpty()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        boolean role = function.startsWith("@ss.hasRole") || function.startsWith("@ss.hasAnyRoles");
+        PermissionDictionary dictionary = role ? PermissionDictionary.ROLES : PermissionDictionary.PERMISSIONS;
+        int[] indexes = new int[names.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = dictionary.intern(names.get(i));
+        }
+        return role ? new Rule(null, indexes) : new Rule(indexes, null);
+    }
+
+    /**
+     * 方法与目标类的组合，同一个接口方法在不同实现类上可能有不同的注解
+     */
+    private static final class MethodKey {
+        private final Method method;
+        private final Class<?> targetClass;
+
+        private MethodKey(Method method, Class<?> targetClass) {
+            this.method = method;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof MethodKey other
+                    && method.equals(other.method) && targetClass == other.targetClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() * 31 + targetClass.hashCode();
+        }
+    }
+
+    /**
+     * 编译规则
+     */
+    private static final class Rule {
+        static final Rule NONE = new Rule(null, null);
+        static final Rule EXPRESSION = new Rule(null, null);
+
+        private final int[] permissions;
+        private final int[] roles;
+
+        private Rule(int[] permissions, int[] roles) {
+            this.permissions = permissions;
+            this.roles = roles;
+        }
+
+        boolean test() {
+            if (UserUtils.isSuperAdmin()) {
+                return true;
+            }
+            return permissions != null ? UserUtils.hasAnyPermission(permissions) : UserUtils.hasAnyRole(roles);
+        }
+    }
+}
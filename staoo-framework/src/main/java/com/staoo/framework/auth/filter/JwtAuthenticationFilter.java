@@ -1,10 +1,17 @@
 package com.staoo.framework.auth.filter;
 
+import com.staoo.common.auth.PermissionDictionary;
 import com.staoo.common.domain.UserInfo;
 import com.staoo.common.util.TenantContext;
 import com.staoo.common.util.UserUtils;
 import com.staoo.system.auth.jwt.JwtTokenProvider;
+import com.staoo.system.auth.jwt.VerifiedClaims;
+import com.staoo.system.security.UserAuthorities;
+import com.staoo.system.security.UserAuthorityResolver;
+import com.staoo.system.security.UserDetailsImpl;
+import com.staoo.system.security.UserStatusCache;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,8 +29,6 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
 
 /**
  * JWT认证过滤器
@@ -44,6 +49,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private UserAuthorityResolver userAuthorityResolver;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -52,18 +63,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             // 获取JWT令牌
             String jwt = getJwtFromRequest(request);
-            String deviceId = getDeviceIdFromRequest(request);
 
-            // 如果令牌存在且有效
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt, deviceId)) {
-                // 从令牌中获取用户名
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            // 如果令牌存在，验证一次并复用验证后的声明
+            if (StringUtils.hasText(jwt)) {
+                VerifiedClaims claims = tokenProvider.verify(jwt);
+                String username = claims.getSubject();
 
-                // 加载用户信息
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 刷新令牌只能在刷新接口使用
+                if (tokenProvider.isRefreshToken(claims)) {
+                    logger.warn("刷新令牌不能作为访问令牌使用，拒绝访问: {}", username);
+                    writeUnauthorized(response, "认证失败，请重新登录");
+                    return;
+                }
 
-                // 从令牌中获取租户信息
-                Map<String, Object> claims = tokenProvider.getAllClaimsFromToken(jwt);
+                // 会话被注销、被同一设备的新登录替换或超过最大会话数被淘汰
+                if (!tokenProvider.isSessionActive(claims)) {
+                    logger.warn("会话已失效，拒绝访问: {}", username);
+                    writeUnauthorized(response, "登录已失效，请重新登录");
+                    return;
+                }
+
+                Long userId = claims.getLong("userId");
+
+                // 由令牌声明构建用户，只通过缓存校验用户状态，不再每次请求查询用户表
+                UserDetails userDetails;
+                if (userId != null) {
+                    if (!userStatusCache.isEnabled(userId)) {
+                        logger.warn("用户已被禁用或删除，拒绝访问: {}", username);
+                        writeUnauthorized(response, "用户已被禁用，请联系管理员");
+                        return;
+                    }
+                    userDetails = UserDetailsImpl.fromToken(userId, username, null);
+                } else {
+                    // 没有用户ID的令牌（如第三方应用令牌）仍按用户名加载
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                }
 
                 // 设置Spring Security上下文
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -76,30 +110,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // 设置当前用户到UserUtils
                 UserInfo userInfo = new UserInfo();
                 userInfo.setUsername(username);
-                if (claims.containsKey("userId")) {
-                    userInfo.setId(Long.valueOf(claims.get("userId").toString()));
+                userInfo.setId(userId);
+                if (claims.containsKey("nickname")) {
+                    userInfo.setNickname(claims.getString("nickname"));
                 }
                 if (claims.containsKey("tenantId")) {
-                    userInfo.setTenantId(Long.valueOf(claims.get("tenantId").toString()));
+                    userInfo.setTenantId(claims.getLong("tenantId"));
                     // 设置租户信息到TenantContext
                     TenantContext.setTenantId(userInfo.getTenantId());
                     logger.debug("已设置租户ID: {}", userInfo.getTenantId());
                 }
                 if (claims.containsKey("tenantCode")) {
-                    userInfo.setTenantCode(claims.get("tenantCode").toString());
+                    userInfo.setTenantCode(claims.getString("tenantCode"));
                     // 设置租户编码到TenantContext
                     TenantContext.setTenantCode(userInfo.getTenantCode());
                     logger.debug("已设置租户编码: {}", userInfo.getTenantCode());
                 }
+                if (userId != null && claims.containsKey(UserAuthorityResolver.FINGERPRINT_CLAIM)) {
+                    // 令牌只携带权限集合指纹，角色和权限从缓存中取得
+                    UserAuthorities authorities = userAuthorityResolver.resolve(userId,
+                            claims.getString(UserAuthorityResolver.FINGERPRINT_CLAIM),
+                            claims.getLong(UserAuthorityResolver.VERSION_CLAIM));
+                    userInfo.setRoles(authorities.getRoles());
+                    userInfo.setRoleSet(authorities.getRoleSet());
+                    userInfo.setPermissions(authorities.getPermissions());
+                    userInfo.setPermissionSet(authorities.getPermissionSet());
+                }
+                // 第三方应用令牌仍直接携带权限列表
                 if (claims.containsKey("roles")) {
-                    userInfo.setRoles((List<String>) claims.get("roles"));
+                    userInfo.setRoles(claims.getStringList("roles"));
+                    userInfo.setRoleSet(claims.getBitSet("roles", PermissionDictionary.ROLES));
                 }
                 if (claims.containsKey("permissions")) {
-                    userInfo.setPermissions((List<String>) claims.get("permissions"));
+                    userInfo.setPermissions(claims.getStringList("permissions"));
+                    userInfo.setPermissionSet(claims.getBitSet("permissions", PermissionDictionary.PERMISSIONS));
                 }
                 // 从claims中获取admin字段并设置isSuperAdmin属性
                 if (claims.containsKey("admin")) {
-                    Integer adminValue = (Integer) claims.get("admin");
+                    Long adminValue = claims.getLong("admin");
                     userInfo.setIsSuperAdmin(adminValue != null && adminValue == 1);
                 }
                 UserUtils.setCurrentUser(userInfo);
@@ -107,14 +155,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (ExpiredJwtException e) {
             logger.error("无法设置用户认证: {}", e.getMessage());
-            // 设置401未授权状态码
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            // 设置错误消息
-            response.setContentType("application/json;charset=UTF-8");
-            response.getWriter().write("{\"code\": 401, \"message\": \"认证失败，请重新登录\"}");
             logger.warn("JWT令牌已过期，拒绝访问: {}", request.getRequestURI());
             // 可以设置响应头提示令牌过期
             response.setHeader("Token-Expired", "true");
+            writeUnauthorized(response, "认证失败，请重新登录");
+            return;
+        } catch (JwtException e) {
+            // 签名无效或令牌已被撤销（登出、强制下线）
+            logger.warn("JWT令牌无效，拒绝访问: {}, {}", request.getRequestURI(), e.getMessage());
+            writeUnauthorized(response, "认证失败，请重新登录");
             return;
         }
 
@@ -122,6 +171,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 返回401未授权响应
+     *
+     * @param response HTTP响应
+     * @param message  错误消息
+     */
+    private void writeUnauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write("{\"code\": 401, \"message\": \"" + message + "\"}");
+    }
+
     /**
      * 从请求头中提取JWT令牌
      *
@@ -136,22 +197,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    /**
-     * 从请求中提取设备ID
-     *
-     * @param request HTTP请求
-     * @return 设备ID
-     */
-    private String getDeviceIdFromRequest(HttpServletRequest request) {
-        // 从请求头或参数中获取设备ID
-        String deviceId = request.getHeader("Device-Id");
-        if (!StringUtils.hasText(deviceId)) {
-            deviceId = request.getParameter("deviceId");
-        }
-        // 如果没有提供设备ID，默认为unknown
-        return StringUtils.hasText(deviceId) ? deviceId : "unknown";
-    }
-
     /**
      * 配置哪些请求不需要经过过滤器
      *
@@ -0,0 +1,38 @@
+package com.staoo.framework.auth.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 登录失败计数存储配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.auth.login-limit")
+public class LoginAttemptStoreProperties {
+
+    /**
+     * 计数存储：local为进程内（单节点），redis为Redis（多节点）
+     */
+    private String store = "local";
+
+    /**
+     * Redis键前缀
+     */
+    private String keyPrefix = "auth:login-limit:";
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+}
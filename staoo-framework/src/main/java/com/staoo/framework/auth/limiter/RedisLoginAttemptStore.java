@@ -0,0 +1,81 @@
+package com.staoo.framework.auth.limiter;
+
+import com.staoo.system.auth.limiter.LoginAttemptStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+
+/**
+ * 基于Redis的登录失败计数存储
+ * 每个键一个哈希，保存窗口起点、当前窗口计数、上一窗口计数和锁定截止时间，计数和锁定由Lua脚本原子完成，
+ * 与进程内实现使用相同的滑动窗口规则，所有节点共享同一份计数；键的过期时间覆盖窗口和锁定时长，无需清理
+ */
+@Component
+@ConditionalOnProperty(prefix = "staoo.auth.login-limit", name = "store", havingValue = "redis")
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+
+    /**
+     * 记录一次失败
+     * KEYS: 计数键；ARGV: 当前时间、窗口长度、最大失败次数、锁定时长
+     * 返回锁定截止时间，未锁定时返回0
+     */
+    private static final RedisScript<Long> RECORD_FAILURE_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1])\n"
+                    + "local window = tonumber(ARGV[2])\n"
+                    + "local values = redis.call('HMGET', KEYS[1], 'ws', 'cur', 'prev', 'lock')\n"
+                    + "local ws = tonumber(values[1]) or 0\n"
+                    + "local cur = tonumber(values[2]) or 0\n"
+                    + "local prev = tonumber(values[3]) or 0\n"
+                    + "local lock = tonumber(values[4]) or 0\n"
+                    + "local start = now - now % window\n"
+                    + "if start ~= ws then\n"
+                    + "  if start - ws == window then prev = cur else prev = 0 end\n"
+                    + "  cur = 0\n"
+                    + "  ws = start\n"
+                    + "end\n"
+                    + "cur = cur + 1\n"
+                    + "if prev * (window - (now - ws)) / window + cur >= tonumber(ARGV[3]) then\n"
+                    + "  lock = now + tonumber(ARGV[4])\n"
+                    + "end\n"
+                    + "redis.call('HSET', KEYS[1], 'ws', ws, 'cur', cur, 'prev', prev, 'lock', lock)\n"
+                    + "redis.call('PEXPIRE', KEYS[1], math.max(ws + 2 * window, lock) - now)\n"
+                    + "if lock > now then return lock end\n"
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LoginAttemptStoreProperties properties;
+
+    public RedisLoginAttemptStore(StringRedisTemplate redisTemplate, LoginAttemptStoreProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public long recordFailure(String key, long windowMillis, int maxFailures, long lockMillis) {
+        Long lockedUntil = redisTemplate.execute(RECORD_FAILURE_SCRIPT,
+                Collections.singletonList(properties.getKeyPrefix() + key),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(windowMillis),
+                String.valueOf(maxFailures), String.valueOf(lockMillis));
+        return lockedUntil == null ? 0 : lockedUntil;
+    }
+
+    @Override
+    public long getLockedUntil(String key) {
+        Object value = redisTemplate.opsForHash().get(properties.getKeyPrefix() + key, "lock");
+        if (value == null) {
+            return 0;
+        }
+        long lockedUntil = Long.parseLong(value.toString());
+        return lockedUntil > System.currentTimeMillis() ? lockedUntil : 0;
+    }
+
+    @Override
+    public void reset(String key) {
+        redisTemplate.delete(properties.getKeyPrefix() + key);
+    }
+}
@@ -0,0 +1,161 @@
+package com.staoo.framework.auth.revocation;
+
+import com.staoo.system.auth.revocation.TokenRevocationSync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 基于Redis的令牌撤销同步
+ * 撤销记录保存在有序集合中（成员为令牌ID，分数为过期时间），同时发布到同名频道，写入和发布在一个管道中完成。
+ * 各节点订阅频道实时接收撤销记录，启动时加载尚未过期的记录，并定期全量重新同步以补上订阅断开期间错过的消息，
+ * 同时清除已过期的记录。消息格式为 {过期时间}:{令牌ID}
+ */
+@Component
+@ConditionalOnProperty(prefix = "staoo.auth.revocation", name = "sync", havingValue = "redis")
+public class RedisTokenRevocationSync implements TokenRevocationSync, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(RedisTokenRevocationSync.class);
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE;
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationSyncProperties properties;
+    private final List<BiConsumer<String, Long>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile RedisMessageListenerContainer container;
+    private volatile ScheduledExecutorService scheduler;
+
+    public RedisTokenRevocationSync(StringRedisTemplate redisTemplate, TokenRevocationSyncProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void publish(String tokenId, long expireAt) {
+        byte[] key = properties.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] member = tokenId.getBytes(StandardCharsets.UTF_8);
+        byte[] message = (expireAt + ":" + tokenId).getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(key, expireAt, member);
+            connection.publish(key, message);
+            return null;
+        });
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Long> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.addMessageListener((message, pattern) -> onMessage(message),
+                new ChannelTopic(properties.getKey()));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        container = listenerContainer;
+
+        long interval = Math.max(1000, properties.getResyncIntervalMillis());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 订阅之后再加载已有记录，两者之间发布的记录不会遗漏
+        scheduler.execute(this::resyncQuietly);
+        scheduler.scheduleWithFixedDelay(this::resyncQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Redis令牌撤销同步已启动，键: {}", properties.getKey());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService currentScheduler = scheduler;
+        if (currentScheduler != null) {
+            currentScheduler.shutdownNow();
+            scheduler = null;
+        }
+        RedisMessageListenerContainer currentContainer = container;
+        if (currentContainer != null) {
+            try {
+                currentContainer.stop();
+                currentContainer.destroy();
+            } catch (Exception e) {
+                logger.warn("关闭令牌撤销订阅失败: {}", e.getMessage());
+            }
+            container = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void onMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(':');
+        if (index <= 0 || index == body.length() - 1) {
+            logger.warn("无法解析的令牌撤销消息: {}", body);
+            return;
+        }
+        try {
+            notifyListeners(body.substring(index + 1), Long.parseLong(body.substring(0, index)));
+        } catch (NumberFormatException e) {
+            logger.warn("无法解析的令牌撤销消息: {}", body);
+        }
+    }
+
+    /**
+     * 清除过期记录并加载所有尚未过期的记录
+     */
+    private void resyncQuietly() {
+        try {
+            long now = System.currentTimeMillis();
+            ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+            zSet.removeRangeByScore(properties.getKey(), Double.NEGATIVE_INFINITY, now);
+            Set<ZSetOperations.TypedTuple<String>> revoked =
+                    zSet.rangeByScoreWithScores(properties.getKey(), now, Double.POSITIVE_INFINITY);
+            if (revoked == null) {
+                return;
+            }
+            for (ZSetOperations.TypedTuple<String> tuple : revoked) {
+                if (tuple.getValue() != null && tuple.getScore() != null) {
+                    notifyListeners(tuple.getValue(), tuple.getScore().longValue());
+                }
+            }
+            logger.debug("令牌撤销记录已同步，数量: {}", revoked.size());
+        } catch (Exception e) {
+            logger.warn("同步令牌撤销记录失败: {}", e.getMessage());
+        }
+    }
+
+    private void notifyListeners(String tokenId, long expireAt) {
+        for (BiConsumer<String, Long> listener : listeners) {
+            listener.accept(tokenId, expireAt);
+        }
+    }
+}
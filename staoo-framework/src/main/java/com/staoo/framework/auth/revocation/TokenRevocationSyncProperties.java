@@ -0,0 +1,51 @@
+package com.staoo.framework.auth.revocation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌撤销同步配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.auth.revocation")
+public class TokenRevocationSyncProperties {
+
+    /**
+     * 同步方式：none为不同步（单节点），redis为通过Redis同步（多节点）
+     */
+    private String sync = "none";
+
+    /**
+     * Redis中保存撤销记录的有序集合键，同时作为发布订阅的频道名
+     */
+    private String key = "auth:revoked";
+
+    /**
+     * 全量重新同步和清理过期记录的间隔（毫秒），用于补上订阅断开期间错过的消息
+     */
+    private long resyncIntervalMillis = 60000;
+
+    public String getSync() {
+        return sync;
+    }
+
+    public void setSync(String sync) {
+        this.sync = sync;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getResyncIntervalMillis() {
+        return resyncIntervalMillis;
+    }
+
+    public void setResyncIntervalMillis(long resyncIntervalMillis) {
+        this.resyncIntervalMillis = resyncIntervalMillis;
+    }
+}
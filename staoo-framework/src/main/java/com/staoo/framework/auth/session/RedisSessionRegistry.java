@@ -0,0 +1,286 @@
+package com.staoo.framework.auth.session;
+
+import com.staoo.system.auth.session.SessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的会话注册表
+ * 每个用户两个键：哈希 {prefix}{用户名} 保存设备ID到会话ID的映射，有序集合 {prefix}{用户名}:order 按签发时间保存设备ID。
+ * 注册、注销都由Lua脚本原子完成；键名使用{用户名}哈希标签，Redis集群下同一用户的键在同一个槽。
+ * 每个请求的会话校验先查本地近端缓存，后台线程用管道批量刷新正在使用的缓存条目，
+ * 本节点的注册和注销立即更新近端缓存，其他节点的变更最迟在近端缓存有效期后生效
+ */
+@Component
+@ConditionalOnProperty(prefix = "staoo.auth.session", name = "store", havingValue = "redis")
+public class RedisSessionRegistry implements SessionRegistry, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(RedisSessionRegistry.class);
+
+    /**
+     * 注册会话：清理过期会话，替换同一设备的旧会话，超过最大会话数时淘汰最早签发的会话
+     * KEYS: 哈希键、有序集合键；ARGV: 设备ID、会话ID、签发时间、过期界限、最大会话数、有效期
+     * 返回被替换或淘汰的会话ID
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REGISTER_SCRIPT = new DefaultRedisScript<>(
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[4])\n"
+                    + "for _, device in ipairs(expired) do redis.call('HDEL', KEYS[1], device) end\n"
+                    + "if #expired > 0 then redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[4]) end\n"
+                    + "local evicted = {}\n"
+                    + "local old = redis.call('HGET', KEYS[1], ARGV[1])\n"
+                    + "if old then table.insert(evicted, old) end\n"
+                    + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])\n"
+                    + "redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])\n"
+                    + "local max = tonumber(ARGV[5])\n"
+                    + "local count = redis.call('ZCARD', KEYS[2])\n"
+                    + "if max > 0 and count > max then\n"
+                    + "  for _, device in ipairs(redis.call('ZRANGE', KEYS[2], 0, count - max - 1)) do\n"
+                    + "    local sid = redis.call('HGET', KEYS[1], device)\n"
+                    + "    if sid then table.insert(evicted, sid) end\n"
+                    + "    redis.call('HDEL', KEYS[1], device)\n"
+                    + "    redis.call('ZREM', KEYS[2], device)\n"
+                    + "  end\n"
+                    + "end\n"
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[6])\n"
+                    + "redis.call('PEXPIRE', KEYS[2], ARGV[6])\n"
+                    + "return evicted",
+            List.class);
+
+    /**
+     * 注销设备会话，会话ID不为空时只有匹配才注销
+     * KEYS: 哈希键、有序集合键；ARGV: 设备ID、会话ID（可为空字符串）
+     */
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            "local sid = redis.call('HGET', KEYS[1], ARGV[1])\n"
+                    + "if not sid or (ARGV[2] ~= '' and sid ~= ARGV[2]) then return 0 end\n"
+                    + "redis.call('HDEL', KEYS[1], ARGV[1])\n"
+                    + "redis.call('ZREM', KEYS[2], ARGV[1])\n"
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 注销用户的所有会话，依次返回被注销的会话ID和签发时间
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REMOVE_ALL_SCRIPT = new DefaultRedisScript<>(
+            "local removed = {}\n"
+                    + "local devices = redis.call('ZRANGE', KEYS[2], 0, -1, 'WITHSCORES')\n"
+                    + "for i = 1, #devices, 2 do\n"
+                    + "  local sid = redis.call('HGET', KEYS[1], devices[i])\n"
+                    + "  if sid then\n"
+                    + "    table.insert(removed, sid)\n"
+                    + "    table.insert(removed, devices[i + 1])\n"
+                    + "  end\n"
+                    + "end\n"
+                    + "redis.call('DEL', KEYS[1], KEYS[2])\n"
+                    + "return removed",
+            List.class);
+
+    /**
+     * 在日志组件之后启动的普通阶段
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE;
+
+    private final StringRedisTemplate redisTemplate;
+    private final SessionRegistryProperties properties;
+
+    // 近端缓存，key: 用户名 + \0 + 设备ID
+    private final Map<String, NearEntry> nearCache = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService scheduler;
+
+    public RedisSessionRegistry(StringRedisTemplate redisTemplate, SessionRegistryProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> register(String username, String deviceId, String sessionId, long issuedAt, int maxSessions,
+                                 long ttlMillis) {
+        List<String> evicted = redisTemplate.execute(REGISTER_SCRIPT, keys(username),
+                deviceId, sessionId, String.valueOf(issuedAt), String.valueOf(issuedAt - ttlMillis),
+                String.valueOf(maxSessions), String.valueOf(ttlMillis));
+        // 被淘汰的其他设备的近端缓存条目直接丢弃，下次校验时重新读取
+        if (evicted != null && !evicted.isEmpty()) {
+            nearCache.values().removeIf(entry -> entry.username.equals(username));
+        }
+        putNear(username, deviceId, sessionId);
+        return evicted != null ? evicted : Collections.emptyList();
+    }
+
+    @Override
+    public boolean isActive(String username, String deviceId, String sessionId) {
+        long now = System.currentTimeMillis();
+        String key = nearKey(username, deviceId);
+        NearEntry entry = nearCache.get(key);
+        if (entry == null || now - entry.loadedAt >= properties.getNearCacheTtlMillis()) {
+            String current = (String) redisTemplate.opsForHash().get(keys(username).get(0), deviceId);
+            entry = putNear(username, deviceId, current);
+        }
+        entry.lastAccess = now;
+        return sessionId.equals(entry.sessionId);
+    }
+
+    @Override
+    public boolean remove(String username, String deviceId, String sessionId) {
+        Long removed = redisTemplate.execute(REMOVE_SCRIPT, keys(username), deviceId,
+                sessionId != null ? sessionId : "");
+        nearCache.remove(nearKey(username, deviceId));
+        return removed != null && removed > 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> removeAll(String username) {
+        List<String> removed = redisTemplate.execute(REMOVE_ALL_SCRIPT, keys(username));
+        nearCache.values().removeIf(entry -> entry.username.equals(username));
+        if (removed == null || removed.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> sessions = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < removed.size(); i += 2) {
+            // 有序集合的分值以浮点数字符串返回
+            sessions.put(removed.get(i), (long) Double.parseDouble(removed.get(i + 1)));
+        }
+        return sessions;
+    }
+
+    @Override
+    public int countSessions(String username) {
+        Long count = redisTemplate.opsForZSet().zCard(keys(username).get(1));
+        return count != null ? count.intValue() : 0;
+    }
+
+    /**
+     * 刷新近端缓存：丢弃一个有效期内没有被访问的条目，其余条目用一次管道批量重新读取
+     */
+    void refreshNearCache() {
+        long now = System.currentTimeMillis();
+        long ttl = properties.getNearCacheTtlMillis();
+        List<NearEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, NearEntry> cached : nearCache.entrySet()) {
+            NearEntry entry = cached.getValue();
+            if (now - entry.lastAccess >= ttl) {
+                nearCache.remove(cached.getKey(), entry);
+            } else {
+                entries.add(entry);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (NearEntry entry : entries) {
+                hGet(connection, keys(entry.username).get(0), entry.deviceId);
+            }
+            return null;
+        });
+        for (int i = 0; i < entries.size() && i < results.size(); i++) {
+            NearEntry old = entries.get(i);
+            NearEntry fresh = new NearEntry(old.username, old.deviceId, (String) results.get(i), now);
+            fresh.lastAccess = old.lastAccess;
+            // 刷新期间本节点已更新过的条目不覆盖
+            nearCache.replace(nearKey(old.username, old.deviceId), old, fresh);
+        }
+    }
+
+    @Override
+    public void start() {
+        long interval = Math.max(100, properties.getRefreshIntervalMillis());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-near-cache-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Redis会话注册表已启动，近端缓存有效期: {}毫秒", properties.getNearCacheTtlMillis());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+        }
+        nearCache.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refreshNearCache();
+        } catch (Exception e) {
+            logger.warn("刷新会话近端缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private NearEntry putNear(String username, String deviceId, String sessionId) {
+        NearEntry entry = new NearEntry(username, deviceId, sessionId, System.currentTimeMillis());
+        String key = nearKey(username, deviceId);
+        if (nearCache.size() < properties.getNearCacheSize() || nearCache.containsKey(key)) {
+            nearCache.put(key, entry);
+        }
+        return entry;
+    }
+
+    private void hGet(RedisConnection connection, String key, String field) {
+        connection.hashCommands().hGet(key.getBytes(StandardCharsets.UTF_8), field.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> keys(String username) {
+        String hashKey = properties.getKeyPrefix() + "{" + username + "}";
+        return List.of(hashKey, hashKey + ":order");
+    }
+
+    private String nearKey(String username, String deviceId) {
+        return username + '\0' + deviceId;
+    }
+
+    /**
+     * 近端缓存条目，sessionId为null表示该设备没有会话
+     */
+    private static final class NearEntry {
+        private final String username;
+        private final String deviceId;
+        private final String sessionId;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private NearEntry(String username, String deviceId, String sessionId, long loadedAt) {
+            this.username = username;
+            this.deviceId = deviceId;
+            this.sessionId = sessionId;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
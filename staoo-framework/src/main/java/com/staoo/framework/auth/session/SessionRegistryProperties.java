@@ -0,0 +1,77 @@
+package com.staoo.framework.auth.session;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 会话注册表配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.auth.session")
+public class SessionRegistryProperties {
+
+    /**
+     * 会话存储：local为进程内（单节点），redis为Redis（多节点）
+     */
+    private String store = "local";
+
+    /**
+     * Redis键前缀
+     */
+    private String keyPrefix = "auth:session:";
+
+    /**
+     * 本地近端缓存的有效期（毫秒），其他节点注销的会话最迟在此时间后失效
+     */
+    private long nearCacheTtlMillis = 5000;
+
+    /**
+     * 本地近端缓存的最大条数
+     */
+    private int nearCacheSize = 10000;
+
+    /**
+     * 近端缓存后台刷新间隔（毫秒），刷新时用管道批量读取正在使用的会话
+     */
+    private long refreshIntervalMillis = 1000;
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public long getNearCacheTtlMillis() {
+        return nearCacheTtlMillis;
+    }
+
+    public void setNearCacheTtlMillis(long nearCacheTtlMillis) {
+        this.nearCacheTtlMillis = nearCacheTtlMillis;
+    }
+
+    public int getNearCacheSize() {
+        return nearCacheSize;
+    }
+
+    public void setNearCacheSize(int nearCacheSize) {
+        this.nearCacheSize = nearCacheSize;
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+}
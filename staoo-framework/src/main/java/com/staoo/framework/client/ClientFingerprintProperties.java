@@ -0,0 +1,55 @@
+package com.staoo.framework.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 客户端指纹配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.client")
+public class ClientFingerprintProperties {
+
+    /**
+     * User-Agent解析结果缓存的最大条数
+     */
+    private int cacheSize = 4096;
+
+    /**
+     * 参与解析和缓存的User-Agent最大长度，超出部分忽略
+     */
+    private int maxUserAgentLength = 512;
+
+    /**
+     * 受信任的代理（IP或CIDR），只有来自这些地址的X-Forwarded-For才会被采用
+     */
+    private List<String> trustedProxies = new ArrayList<>(List.of(
+            "127.0.0.0/8", "::1/128", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "fc00::/7"));
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getMaxUserAgentLength() {
+        return maxUserAgentLength;
+    }
+
+    public void setMaxUserAgentLength(int maxUserAgentLength) {
+        this.maxUserAgentLength = maxUserAgentLength;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+}
@@ -0,0 +1,170 @@
+package com.staoo.framework.client;
+
+import com.staoo.system.domain.ClientFingerprint;
+import com.staoo.system.service.ClientFingerprintService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 客户端指纹服务实现类
+ * User-Agent解析结果放在分段的LRU缓存中，按User-Agent的哈希选择分段，每个分段单独加锁；
+ * 客户端IP只信任来自受信任代理的转发请求头
+ */
+@Service
+public class ClientFingerprintServiceImpl implements ClientFingerprintService {
+    private static final Logger logger = LoggerFactory.getLogger(ClientFingerprintServiceImpl.class);
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * X-Forwarded-For之外的兼容请求头，只取第一个合法地址
+     */
+    private static final String[] FALLBACK_HEADERS = {"X-Real-IP", "Proxy-Client-IP", "WL-Proxy-Client-IP"};
+
+    private final int maxUserAgentLength;
+    private final Segment[] segments;
+    private final List<byte[]> trustedNetworks = new ArrayList<>();
+    private final List<Integer> trustedPrefixes = new ArrayList<>();
+
+    public ClientFingerprintServiceImpl(ClientFingerprintProperties properties) {
+        this.maxUserAgentLength = Math.max(64, properties.getMaxUserAgentLength());
+        int segmentCapacity = Math.max(1, properties.getCacheSize() / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        for (String proxy : properties.getTrustedProxies()) {
+            addTrustedProxy(proxy);
+        }
+    }
+
+    @Override
+    public ClientFingerprint parseUserAgent(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return ClientFingerprint.UNKNOWN;
+        }
+        String key = userAgent.length() > maxUserAgentLength ? userAgent.substring(0, maxUserAgentLength) : userAgent;
+        int hash = key.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        ClientFingerprint fingerprint = segment.get(key);
+        if (fingerprint == null) {
+            // 解析在锁外进行，并发解析同一个User-Agent的结果相同，后写入的覆盖即可
+            fingerprint = UserAgentParser.parse(key);
+            segment.put(key, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public String resolveClientIp(HttpServletRequest request) {
+        byte[] remote = IpAddresses.parse(request.getRemoteAddr());
+        if (remote == null) {
+            return request.getRemoteAddr();
+        }
+        if (!isTrusted(remote)) {
+            return IpAddresses.format(remote);
+        }
+        // 从右向左跳过受信任的代理，第一个不受信任的地址就是客户端地址，左侧的内容可以被客户端伪造
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            byte[] client = null;
+            for (int i = hops.length - 1; i >= 0; i--) {
+                byte[] hop = IpAddresses.parse(hops[i]);
+                if (hop == null) {
+                    break;
+                }
+                client = hop;
+                if (!isTrusted(hop)) {
+                    break;
+                }
+            }
+            if (client != null) {
+                return IpAddresses.format(client);
+            }
+        }
+        for (String header : FALLBACK_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null && !value.isBlank() && !"unknown".equalsIgnoreCase(value)) {
+                byte[] address = IpAddresses.parse(value.split(",")[0]);
+                if (address != null) {
+                    return IpAddresses.format(address);
+                }
+            }
+        }
+        return IpAddresses.format(remote);
+    }
+
+    @Override
+    public String normalizeIp(String ip) {
+        byte[] address = IpAddresses.parse(ip);
+        return address == null ? null : IpAddresses.format(address);
+    }
+
+    private boolean isTrusted(byte[] address) {
+        for (int i = 0; i < trustedNetworks.size(); i++) {
+            if (IpAddresses.matches(address, trustedNetworks.get(i), trustedPrefixes.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addTrustedProxy(String proxy) {
+        if (proxy == null || proxy.isBlank()) {
+            return;
+        }
+        String value = proxy.trim();
+        int slash = value.indexOf('/');
+        byte[] network = IpAddresses.parse(slash >= 0 ? value.substring(0, slash) : value);
+        int prefix;
+        try {
+            prefix = slash >= 0 ? Integer.parseInt(value.substring(slash + 1)) : Integer.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            network = null;
+            prefix = 0;
+        }
+        if (network == null) {
+            logger.warn("忽略非法的受信任代理配置: {}", proxy);
+            return;
+        }
+        // IPv4映射地址的前缀按IPv4计算
+        if (network.length == 4 && slash >= 0 && value.indexOf(':') >= 0) {
+            prefix -= 96;
+        }
+        int maxPrefix = network.length * 8;
+        trustedNetworks.add(network);
+        trustedPrefixes.add(Math.max(0, Math.min(prefix, maxPrefix)));
+    }
+
+    /**
+     * 按访问顺序淘汰的缓存分段
+     */
+    private static final class Segment {
+        private final Map<String, ClientFingerprint> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ClientFingerprint> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized ClientFingerprint get(String key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(String key, ClientFingerprint fingerprint) {
+            entries.put(key, fingerprint);
+        }
+    }
+}
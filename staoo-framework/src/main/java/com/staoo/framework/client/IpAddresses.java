@@ -0,0 +1,217 @@
+package com.staoo.framework.client;
+
+/**
+ * IP地址解析和格式化
+ * 只解析IP字面量，不做DNS查询
+ */
+final class IpAddresses {
+
+    private IpAddresses() {
+    }
+
+    /**
+     * 解析IP地址
+     * @param value 可带端口（1.2.3.4:80、[::1]:80）、方括号或区域标识（fe80::1%eth0）
+     * @return IPv4为4字节，IPv6为16字节（IPv4映射地址转为4字节），不是合法IP时返回null
+     */
+    static byte[] parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String ip = value.trim();
+        if (ip.length() >= 2 && ip.charAt(0) == '"' && ip.charAt(ip.length() - 1) == '"') {
+            ip = ip.substring(1, ip.length() - 1).trim();
+        }
+        if (ip.isEmpty()) {
+            return null;
+        }
+        if (ip.charAt(0) == '[') {
+            int end = ip.indexOf(']');
+            if (end < 0) {
+                return null;
+            }
+            ip = ip.substring(1, end);
+        } else if (ip.indexOf(':') >= 0 && ip.indexOf(':') == ip.lastIndexOf(':') && ip.indexOf('.') > 0) {
+            // IPv4带端口
+            ip = ip.substring(0, ip.indexOf(':'));
+        }
+        int zone = ip.indexOf('%');
+        if (zone >= 0) {
+            ip = ip.substring(0, zone);
+        }
+        byte[] address = ip.indexOf(':') >= 0 ? parseIpv6(ip) : parseIpv4(ip);
+        if (address != null && address.length == 16 && isIpv4Mapped(address)) {
+            byte[] ipv4 = new byte[4];
+            System.arraycopy(address, 12, ipv4, 0, 4);
+            return ipv4;
+        }
+        return address;
+    }
+
+    /**
+     * 格式化IP地址，IPv6按RFC 5952压缩最长的连续零组
+     */
+    static String format(byte[] address) {
+        if (address.length == 4) {
+            return (address[0] & 0xff) + "." + (address[1] & 0xff) + "." + (address[2] & 0xff) + "." + (address[3] & 0xff);
+        }
+        int[] groups = new int[8];
+        for (int i = 0; i < 8; i++) {
+            groups[i] = ((address[i * 2] & 0xff) << 8) | (address[i * 2 + 1] & 0xff);
+        }
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            if (groups[i] != 0) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < 8 && groups[i] == 0) {
+                i++;
+            }
+            if (i - start > bestLength) {
+                bestStart = start;
+                bestLength = i - start;
+            }
+        }
+        StringBuilder builder = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                builder.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ':') {
+                builder.append(':');
+            }
+            builder.append(Integer.toHexString(groups[i]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 判断地址是否在网段内
+     */
+    static boolean matches(byte[] address, byte[] network, int prefixLength) {
+        if (address.length != network.length) {
+            return false;
+        }
+        int fullBytes = prefixLength / 8;
+        for (int i = 0; i < fullBytes; i++) {
+            if (address[i] != network[i]) {
+                return false;
+            }
+        }
+        int remainingBits = prefixLength % 8;
+        if (remainingBits == 0) {
+            return true;
+        }
+        int mask = (0xff << (8 - remainingBits)) & 0xff;
+        return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+    }
+
+    private static boolean isIpv4Mapped(byte[] address) {
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return (address[10] & 0xff) == 0xff && (address[11] & 0xff) == 0xff;
+    }
+
+    private static byte[] parseIpv4(String ip) {
+        byte[] address = new byte[4];
+        int part = 0;
+        int value = -1;
+        for (int i = 0; i <= ip.length(); i++) {
+            char c = i < ip.length() ? ip.charAt(i) : '.';
+            if (c == '.') {
+                if (value < 0 || part >= 4) {
+                    return null;
+                }
+                address[part++] = (byte) value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = value < 0 ? c - '0' : value * 10 + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        return part == 4 ? address : null;
+    }
+
+    private static byte[] parseIpv6(String ip) {
+        byte[] address = new byte[16];
+        int doubleColon = ip.indexOf("::");
+        if (doubleColon >= 0 && ip.indexOf("::", doubleColon + 1) >= 0) {
+            return null;
+        }
+        String head = doubleColon >= 0 ? ip.substring(0, doubleColon) : ip;
+        String tail = doubleColon >= 0 ? ip.substring(doubleColon + 2) : "";
+        if (doubleColon >= 0 && head.indexOf('.') >= 0) {
+            return null;
+        }
+        int[] headGroups = parseGroups(head);
+        int[] tailGroups = parseGroups(tail);
+        if (headGroups == null || tailGroups == null) {
+            return null;
+        }
+        int total = headGroups.length + tailGroups.length;
+        if (doubleColon >= 0 ? total > 7 : total != 8) {
+            return null;
+        }
+        int index = 0;
+        for (int group : headGroups) {
+            address[index++] = (byte) (group >> 8);
+            address[index++] = (byte) group;
+        }
+        index = 16 - tailGroups.length * 2;
+        for (int group : tailGroups) {
+            address[index++] = (byte) (group >> 8);
+            address[index++] = (byte) group;
+        }
+        return address;
+    }
+
+    /**
+     * 解析冒号分隔的16位组，最后一组可以是IPv4（占两组）
+     */
+    private static int[] parseGroups(String part) {
+        if (part.isEmpty()) {
+            return new int[0];
+        }
+        String[] items = part.split(":", -1);
+        int count = items.length;
+        boolean embeddedIpv4 = items[count - 1].indexOf('.') >= 0;
+        int[] groups = new int[embeddedIpv4 ? count + 1 : count];
+        for (int i = 0; i < count; i++) {
+            String item = items[i];
+            if (embeddedIpv4 && i == count - 1) {
+                byte[] ipv4 = parseIpv4(item);
+                if (ipv4 == null) {
+                    return null;
+                }
+                groups[i] = ((ipv4[0] & 0xff) << 8) | (ipv4[1] & 0xff);
+                groups[i + 1] = ((ipv4[2] & 0xff) << 8) | (ipv4[3] & 0xff);
+                continue;
+            }
+            if (item.isEmpty() || item.length() > 4) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < item.length(); j++) {
+                int digit = Character.digit(item.charAt(j), 16);
+                if (digit < 0) {
+                    return null;
+                }
+                value = (value << 4) | digit;
+            }
+            groups[i] = value;
+        }
+        return groups;
+    }
+}
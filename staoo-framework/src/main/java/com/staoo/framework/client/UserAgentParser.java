@@ -0,0 +1,255 @@
+package com.staoo.framework.client;
+
+import com.staoo.system.domain.ClientFingerprint;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * User-Agent解析器
+ * 先把User-Agent切分为产品标记（名称/版本）和括号内的注释，再按固定的优先级识别：
+ * 基于Chromium的浏览器（Edge、Opera、微信等）同时带有Chrome和Safari标记，所以先匹配更具体的标记
+ */
+final class UserAgentParser {
+
+    /**
+     * 浏览器标记，按优先级排列：{标记, 浏览器名称}
+     */
+    private static final String[][] BROWSER_TOKENS = {
+            {"Edg", "Edge"}, {"EdgA", "Edge"}, {"EdgiOS", "Edge"}, {"Edge", "Edge"},
+            {"OPR", "Opera"}, {"OPT", "Opera"}, {"Opera", "Opera"},
+            {"MicroMessenger", "WeChat"}, {"DingTalk", "DingTalk"}, {"AlipayClient", "Alipay"},
+            {"SamsungBrowser", "Samsung Internet"}, {"UCBrowser", "UC Browser"}, {"QQBrowser", "QQ Browser"},
+            {"MQQBrowser", "QQ Browser"}, {"HuaweiBrowser", "Huawei Browser"}, {"MiuiBrowser", "MIUI Browser"},
+            {"YaBrowser", "Yandex"}, {"Firefox", "Firefox"}, {"FxiOS", "Firefox"},
+            {"CriOS", "Chrome"}, {"Chrome", "Chrome"}, {"Chromium", "Chromium"}
+    };
+
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private static final String[] BOT_KEYWORDS = {"bot", "spider", "crawler", "slurp", "headless"};
+
+    /**
+     * 渲染引擎和兼容性标记，不能作为客户端名称
+     */
+    private static final Set<String> LAYOUT_TOKENS = Set.of("Mozilla", "AppleWebKit", "KHTML,", "like", "Gecko",
+            "Version", "Mobile", "Safari");
+
+    private UserAgentParser() {
+    }
+
+    static ClientFingerprint parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return ClientFingerprint.UNKNOWN;
+        }
+        Map<String, String> products = new LinkedHashMap<>();
+        List<String> comments = new ArrayList<>();
+        tokenize(userAgent, products, comments);
+
+        String lower = userAgent.toLowerCase(Locale.ROOT);
+        boolean bot = false;
+        for (String keyword : BOT_KEYWORDS) {
+            if (lower.contains(keyword)) {
+                bot = true;
+                break;
+            }
+        }
+
+        String[] browser = bot ? detectBot(products, comments) : detectBrowser(products, comments);
+        String[] os = detectOs(comments);
+        String deviceType = bot ? "Bot" : detectDevice(products, comments, os[0]);
+        return new ClientFingerprint(browser[0], browser[1], os[0], os[1], deviceType);
+    }
+
+    /**
+     * 切分产品标记和注释，如“Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/120.0”
+     * 注释按分号拆分为多项
+     */
+    private static void tokenize(String userAgent, Map<String, String> products, List<String> comments) {
+        int length = userAgent.length();
+        int i = 0;
+        while (i < length) {
+            char c = userAgent.charAt(i);
+            if (c == '(') {
+                int depth = 1;
+                int start = ++i;
+                while (i < length && depth > 0) {
+                    char ch = userAgent.charAt(i);
+                    if (ch == '(') {
+                        depth++;
+                    } else if (ch == ')') {
+                        depth--;
+                    }
+                    i++;
+                }
+                String comment = userAgent.substring(start, depth == 0 ? i - 1 : i);
+                for (String item : comment.split(";")) {
+                    if (!item.isBlank()) {
+                        comments.add(item.trim());
+                    }
+                }
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(userAgent.charAt(i)) && userAgent.charAt(i) != '(') {
+                    i++;
+                }
+                String token = userAgent.substring(start, i);
+                int slash = token.indexOf('/');
+                String name = slash >= 0 ? token.substring(0, slash) : token;
+                String version = slash >= 0 ? token.substring(slash + 1) : null;
+                if (!name.isEmpty()) {
+                    products.putIfAbsent(name, version);
+                }
+            }
+        }
+    }
+
+    private static String[] detectBrowser(Map<String, String> products, List<String> comments) {
+        for (String[] rule : BROWSER_TOKENS) {
+            if (products.containsKey(rule[0])) {
+                return new String[]{rule[1], products.get(rule[0])};
+            }
+        }
+        if (products.containsKey("Safari") && products.containsKey("Version")) {
+            return new String[]{"Safari", products.get("Version")};
+        }
+        for (String comment : comments) {
+            if (comment.startsWith("MSIE ")) {
+                return new String[]{"Internet Explorer", comment.substring(5).trim()};
+            }
+        }
+        if (products.containsKey("Trident") || comments.stream().anyMatch(comment -> comment.startsWith("Trident/"))) {
+            for (String comment : comments) {
+                if (comment.startsWith("rv:")) {
+                    return new String[]{"Internet Explorer", comment.substring(3).trim()};
+                }
+            }
+            return new String[]{"Internet Explorer", null};
+        }
+        if (products.containsKey("Safari")) {
+            return new String[]{"Safari", null};
+        }
+        // 非浏览器客户端（如curl、okhttp、PostmanRuntime）使用第一个产品标记
+        for (Map.Entry<String, String> product : products.entrySet()) {
+            if (!LAYOUT_TOKENS.contains(product.getKey())) {
+                return new String[]{product.getKey(), product.getValue()};
+            }
+        }
+        return new String[]{"Other", null};
+    }
+
+    /**
+     * 爬虫名称一般写在注释中，如“compatible; Googlebot/2.1; +http://www.google.com/bot.html”
+     */
+    private static String[] detectBot(Map<String, String> products, List<String> comments) {
+        List<String> candidates = new ArrayList<>(comments);
+        candidates.addAll(products.keySet());
+        for (String candidate : candidates) {
+            String lower = candidate.toLowerCase(Locale.ROOT);
+            if (candidate.length() > MAX_NAME_LENGTH || candidate.startsWith("+") || lower.startsWith("http")) {
+                continue;
+            }
+            for (String keyword : BOT_KEYWORDS) {
+                if (lower.contains(keyword)) {
+                    int slash = candidate.indexOf('/');
+                    if (slash < 0) {
+                        return new String[]{candidate, products.get(candidate)};
+                    }
+                    return new String[]{candidate.substring(0, slash), candidate.substring(slash + 1)};
+                }
+            }
+        }
+        return new String[]{"Bot", null};
+    }
+
+    private static String[] detectOs(List<String> comments) {
+        for (String comment : comments) {
+            if (comment.startsWith("Windows NT ")) {
+                return new String[]{"Windows", windowsVersion(comment.substring(11).trim())};
+            }
+            if (comment.startsWith("Windows Phone")) {
+                return new String[]{"Windows Phone", null};
+            }
+            if (comment.startsWith("HarmonyOS")) {
+                return new String[]{"HarmonyOS", version(comment, "HarmonyOS")};
+            }
+            if (comment.startsWith("Android")) {
+                return new String[]{"Android", version(comment, "Android")};
+            }
+            int iosIndex = comment.indexOf("iPhone OS ");
+            if (iosIndex >= 0) {
+                return new String[]{"iOS", firstWord(comment.substring(iosIndex + 10)).replace('_', '.')};
+            }
+            if (comment.startsWith("CPU OS ")) {
+                return new String[]{"iPadOS", firstWord(comment.substring(7)).replace('_', '.')};
+            }
+            int macIndex = comment.indexOf("Mac OS X");
+            if (macIndex >= 0) {
+                String version = firstWord(comment.substring(macIndex + 8).trim()).replace('_', '.');
+                return new String[]{"macOS", version.isEmpty() ? null : version};
+            }
+            if (comment.startsWith("CrOS")) {
+                return new String[]{"Chrome OS", null};
+            }
+        }
+        for (String comment : comments) {
+            if (comment.startsWith("iPhone") || comment.startsWith("iPad") || comment.startsWith("iPod")) {
+                return new String[]{"iOS", null};
+            }
+            if (comment.contains("Linux") || comment.startsWith("X11")) {
+                return new String[]{"Linux", null};
+            }
+        }
+        return new String[]{"Other", null};
+    }
+
+    private static String detectDevice(Map<String, String> products, List<String> comments, String os) {
+        for (String comment : comments) {
+            if (comment.startsWith("iPad") || comment.contains("Tablet")) {
+                return "Tablet";
+            }
+        }
+        if (products.containsKey("Mobile") || products.containsKey("MicroMessenger") || "iOS".equals(os)) {
+            return "Mobile";
+        }
+        if ("Android".equals(os) || "HarmonyOS".equals(os)) {
+            // Android平板的User-Agent不带Mobile标记
+            return "Tablet";
+        }
+        if ("Windows".equals(os) || "macOS".equals(os) || "Linux".equals(os) || "Chrome OS".equals(os)) {
+            return "Desktop";
+        }
+        return "Unknown";
+    }
+
+    private static String windowsVersion(String nt) {
+        return switch (nt) {
+            case "10.0" -> "10";
+            case "6.3" -> "8.1";
+            case "6.2" -> "8";
+            case "6.1" -> "7";
+            case "6.0" -> "Vista";
+            case "5.1", "5.2" -> "XP";
+            default -> nt;
+        };
+    }
+
+    private static String version(String comment, String name) {
+        String version = firstWord(comment.substring(name.length()).trim());
+        return version.isEmpty() ? null : version;
+    }
+
+    private static String firstWord(String text) {
+        int end = 0;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != ')') {
+            end++;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -0,0 +1,72 @@
+package com.staoo.framework.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 租户数据源分片配置
+ * 启用后以路由数据源作为主数据源，staoo-system和staoo-flow的Mapper无需任何改动即可按租户路由
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "staoo.datasource.shard", name = "enabled", havingValue = "true")
+public class TenantDataSourceConfig {
+
+    /**
+     * 主库，沿用spring.datasource配置
+     */
+    @Bean(name = "masterDataSource")
+    @ConfigurationProperties(prefix = "spring.datasource.druid")
+    public DruidDataSource masterDataSource(DataSourceProperties properties) {
+        DruidDataSource dataSource = new DruidDataSource();
+        dataSource.setName("master");
+        dataSource.setUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setDriverClassName(properties.getDriverClassName());
+        return dataSource;
+    }
+
+    /**
+     * 租户路由数据源
+     */
+    @Bean(name = "dataSource")
+    @Primary
+    public TenantRoutingDataSource dataSource(@Qualifier("masterDataSource") DruidDataSource masterDataSource,
+                                              TenantShardProperties properties) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        properties.getShards().forEach((name, config) -> {
+            if (TenantRoutingDataSource.MASTER_KEY.equals(name)) {
+                throw new IllegalStateException("分片名称不能使用保留名称: " + name);
+            }
+            shards.put(name, createShardDataSource(name, config, masterDataSource));
+        });
+        return new TenantRoutingDataSource(masterDataSource, shards);
+    }
+
+    /**
+     * 创建分片数据源，连接池检测等配置与主库保持一致
+     */
+    private DruidDataSource createShardDataSource(String name, TenantShardProperties.ShardConfig config,
+                                                  DruidDataSource masterDataSource) {
+        DruidDataSource dataSource = masterDataSource.cloneDruidDataSource();
+        dataSource.setName("shard-" + name);
+        dataSource.setUrl(config.getUrl());
+        dataSource.setUsername(config.getUsername());
+        dataSource.setPassword(config.getPassword());
+        dataSource.setDriverClassName(config.getDriverClassName());
+        dataSource.setInitialSize(config.getInitialSize());
+        dataSource.setMinIdle(config.getMinIdle());
+        dataSource.setMaxActive(config.getMaxActive());
+        return dataSource;
+    }
+}
@@ -0,0 +1,49 @@
+package com.staoo.framework.datasource;
+
+/**
+ * 租户路由上下文
+ * 保存当前语句的路由提示，由租户插件在创建JDBC语句前设置；
+ * 只有标记为分片语句时才路由到租户分片，未经过租户插件的访问（如Flowable引擎、JdbcTemplate）固定访问主库
+ */
+public final class TenantRouteContext {
+    private static final ThreadLocal<Boolean> SHARD_ROUTE = new ThreadLocal<>();
+
+    private TenantRouteContext() {
+    }
+
+    /**
+     * 获取当前路由提示
+     * @return true表示路由到租户分片，null表示未设置
+     */
+    public static Boolean get() {
+        return SHARD_ROUTE.get();
+    }
+
+    /**
+     * 设置当前语句是否路由到租户分片
+     * @param shardRoute 是否路由到租户分片
+     */
+    public static void set(boolean shardRoute) {
+        SHARD_ROUTE.set(shardRoute);
+    }
+
+    /**
+     * 恢复之前的路由提示，用于嵌套语句执行结束后还原外层语句的路由
+     * @param previous 之前的路由提示
+     */
+    public static void restore(Boolean previous) {
+        if (previous == null) {
+            SHARD_ROUTE.remove();
+        } else {
+            SHARD_ROUTE.set(previous);
+        }
+    }
+
+    /**
+     * 判断当前语句是否路由到租户分片
+     * @return 是否路由到租户分片
+     */
+    public static boolean isShardRoute() {
+        return Boolean.TRUE.equals(SHARD_ROUTE.get());
+    }
+}
@@ -0,0 +1,211 @@
+package com.staoo.framework.datasource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 租户路由连接
+ * 事务管理器和MyBatis拿到的是这个连接的代理，真实连接在创建语句时才按当前语句的路由提示获取，
+ * 每个数据源最多获取一个真实连接并在连接关闭前一直复用。这样事务开始时即使还没有路由提示，
+ * 事务中的每条语句仍然访问各自的数据源；自动提交、只读和隔离级别先记录下来，获取真实连接时再应用，
+ * 提交、回滚和关闭作用于全部已获取的真实连接。
+ * 同时访问主库和租户分片的事务按数据源依次提交，不是跨库原子的
+ */
+final class TenantRoutingConnection implements InvocationHandler {
+
+    private final Supplier<Object> lookupKey;
+    private final Map<Object, DataSource> dataSources;
+    private final String username;
+    private final String password;
+
+    /**
+     * 已获取的真实连接，按获取顺序提交
+     * key: 路由键
+     */
+    private final Map<Object, Connection> targets = new LinkedHashMap<>();
+
+    private boolean autoCommit;
+    private boolean readOnly;
+    private int transactionIsolation;
+    private boolean closed;
+
+    private TenantRoutingConnection(Supplier<Object> lookupKey, Map<Object, DataSource> dataSources,
+                                    String username, String password, boolean autoCommit, int transactionIsolation) {
+        this.lookupKey = lookupKey;
+        this.dataSources = dataSources;
+        this.username = username;
+        this.password = password;
+        this.autoCommit = autoCommit;
+        this.transactionIsolation = transactionIsolation;
+    }
+
+    /**
+     * 创建连接代理
+     * @param lookupKey 获取当前语句的路由键
+     * @param dataSources 路由键对应的数据源
+     * @param username 用户名，为null时使用数据源的配置
+     * @param password 密码
+     * @param autoCommit 真实连接默认的自动提交
+     * @param transactionIsolation 真实连接默认的隔离级别
+     * @return 连接代理
+     */
+    static Connection create(Supplier<Object> lookupKey, Map<Object, DataSource> dataSources,
+                             String username, String password, boolean autoCommit, int transactionIsolation) {
+        return (Connection) Proxy.newProxyInstance(TenantRoutingConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new TenantRoutingConnection(lookupKey, dataSources, username, password, autoCommit, transactionIsolation));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "租户路由连接" + targets.keySet();
+            case "unwrap":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                break;
+            case "isWrapperFor":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+                break;
+            case "isClosed":
+                return closed;
+            case "close":
+                close();
+                return null;
+            case "getAutoCommit":
+                return autoCommit;
+            case "isReadOnly":
+                return readOnly;
+            case "getTransactionIsolation":
+                return transactionIsolation;
+            case "setAutoCommit":
+                autoCommit = (Boolean) args[0];
+                return applyToTargets(method, args);
+            case "setReadOnly":
+                readOnly = (Boolean) args[0];
+                return applyToTargets(method, args);
+            case "setTransactionIsolation":
+                transactionIsolation = (Integer) args[0];
+                return applyToTargets(method, args);
+            case "commit":
+                return applyToTargets(method, args);
+            case "rollback":
+                if (args == null || args.length == 0) {
+                    return applyToTargets(method, args);
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (closed) {
+            throw new SQLException("连接已关闭");
+        }
+        // 创建语句、保存点、元数据等按当前路由选择真实连接
+        return invokeTarget(currentTarget(), method, args);
+    }
+
+    /**
+     * 获取当前语句路由到的真实连接，首次访问该数据源时获取
+     */
+    private Connection currentTarget() throws SQLException {
+        Object key = lookupKey.get();
+        Connection target = targets.get(key);
+        if (target != null) {
+            return target;
+        }
+        DataSource dataSource = dataSources.get(key);
+        if (dataSource == null) {
+            throw new IllegalStateException("未配置的数据源分片: " + key);
+        }
+        target = username != null ? dataSource.getConnection(username, password) : dataSource.getConnection();
+        try {
+            if (target.getAutoCommit() != autoCommit) {
+                target.setAutoCommit(autoCommit);
+            }
+            if (readOnly) {
+                target.setReadOnly(true);
+            }
+            if (target.getTransactionIsolation() != transactionIsolation) {
+                target.setTransactionIsolation(transactionIsolation);
+            }
+        } catch (SQLException | RuntimeException e) {
+            target.close();
+            throw e;
+        }
+        targets.put(key, target);
+        return target;
+    }
+
+    /**
+     * 在全部已获取的真实连接上调用，任一连接失败时其余连接仍然执行，最后抛出第一个异常
+     */
+    private Object applyToTargets(Method method, Object[] args) throws Throwable {
+        if (closed) {
+            throw new SQLException("连接已关闭");
+        }
+        Throwable failure = null;
+        for (Connection target : targets.values()) {
+            try {
+                invokeTarget(target, method, args);
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    private void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SQLException failure = null;
+        for (Connection target : targets.values()) {
+            try {
+                target.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        targets.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static Object invokeTarget(Connection target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
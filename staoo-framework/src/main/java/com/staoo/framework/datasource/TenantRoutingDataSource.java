@@ -0,0 +1,192 @@
+package com.staoo.framework.datasource;
+
+import com.staoo.common.util.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 租户路由数据源
+ * 按TenantContext中的租户ID选择数据源，未分配分片、没有租户上下文或语句未标记为分片语句时使用主库。
+ * 事务管理器在事务开始时就获取连接，此时还没有语句的路由提示，因此返回的是{@link TenantRoutingConnection}，
+ * 真实连接在创建语句时才按路由提示获取，事务内的每条语句都访问各自的数据源
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(TenantRoutingDataSource.class);
+
+    /**
+     * 主库的路由键
+     */
+    public static final String MASTER_KEY = "master";
+
+    private final DataSource masterDataSource;
+    private final Map<String, DataSource> shardDataSources;
+
+    /**
+     * 全部数据源，key: 路由键
+     */
+    private final Map<Object, DataSource> routeDataSources;
+
+    /**
+     * 真实连接默认的自动提交和隔离级别，首次获取连接时从主库读取
+     */
+    private volatile Boolean defaultAutoCommit;
+    private volatile int defaultTransactionIsolation;
+
+    /**
+     * 租户与分片的映射，整体替换以保证读取时无锁
+     * key: 租户ID，value: 分片名称
+     */
+    private volatile Map<Long, String> tenantShards = Collections.emptyMap();
+
+    public TenantRoutingDataSource(DataSource masterDataSource, Map<String, DataSource> shardDataSources) {
+        this.masterDataSource = masterDataSource;
+        this.shardDataSources = Collections.unmodifiableMap(new LinkedHashMap<>(shardDataSources));
+
+        Map<Object, DataSource> routes = new HashMap<>(shardDataSources);
+        routes.put(MASTER_KEY, masterDataSource);
+        this.routeDataSources = Collections.unmodifiableMap(routes);
+        setTargetDataSources(new HashMap<>(routes));
+        setDefaultTargetDataSource(masterDataSource);
+        // 未知的分片名称不能静默落到主库，否则会把大租户的数据写到主库
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null || !TenantRouteContext.isShardRoute()) {
+            return MASTER_KEY;
+        }
+        return tenantShards.getOrDefault(tenantId, MASTER_KEY);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (defaultAutoCommit == null) {
+            loadConnectionDefaults();
+        }
+        return TenantRoutingConnection.create(this::determineCurrentLookupKey, routeDataSources, username, password,
+                defaultAutoCommit, defaultTransactionIsolation);
+    }
+
+    private synchronized void loadConnectionDefaults() throws SQLException {
+        if (defaultAutoCommit != null) {
+            return;
+        }
+        try (Connection connection = masterDataSource.getConnection()) {
+            defaultTransactionIsolation = connection.getTransactionIsolation();
+            defaultAutoCommit = connection.getAutoCommit();
+        }
+    }
+
+    /**
+     * 替换全部租户分片映射
+     * @param mappings 租户ID与分片名称的映射
+     */
+    public void updateTenantShards(Map<Long, String> mappings) {
+        Map<Long, String> copy = new HashMap<>();
+        mappings.forEach((tenantId, shardKey) -> {
+            checkShardKey(shardKey);
+            if (!MASTER_KEY.equals(shardKey)) {
+                copy.put(tenantId, shardKey);
+            }
+        });
+        this.tenantShards = copy;
+    }
+
+    /**
+     * 修改单个租户的分片
+     * @param tenantId 租户ID
+     * @param shardKey 分片名称，为null或master时使用主库
+     */
+    public synchronized void assignTenant(Long tenantId, String shardKey) {
+        Map<Long, String> copy = new HashMap<>(tenantShards);
+        if (shardKey == null || MASTER_KEY.equals(shardKey)) {
+            copy.remove(tenantId);
+        } else {
+            checkShardKey(shardKey);
+            copy.put(tenantId, shardKey);
+        }
+        this.tenantShards = copy;
+    }
+
+    /**
+     * 获取租户当前所在的分片
+     * @param tenantId 租户ID
+     * @return 分片名称，主库返回master
+     */
+    public String getShardKey(Long tenantId) {
+        return tenantShards.getOrDefault(tenantId, MASTER_KEY);
+    }
+
+    /**
+     * 获取全部租户分片映射（不含使用主库的租户）
+     * @return 租户分片映射
+     */
+    public Map<Long, String> getTenantShards() {
+        return Collections.unmodifiableMap(tenantShards);
+    }
+
+    /**
+     * 按分片名称获取数据源
+     * @param shardKey 分片名称，master表示主库
+     * @return 数据源
+     */
+    public DataSource getDataSource(String shardKey) {
+        if (shardKey == null || MASTER_KEY.equals(shardKey)) {
+            return masterDataSource;
+        }
+        checkShardKey(shardKey);
+        return shardDataSources.get(shardKey);
+    }
+
+    /**
+     * 判断分片是否存在
+     * @param shardKey 分片名称
+     * @return 是否存在
+     */
+    public boolean containsShard(String shardKey) {
+        return MASTER_KEY.equals(shardKey) || shardDataSources.containsKey(shardKey);
+    }
+
+    public DataSource getMasterDataSource() {
+        return masterDataSource;
+    }
+
+    /**
+     * 关闭分片数据源，主库由容器管理
+     */
+    @Override
+    public void destroy() {
+        for (Map.Entry<String, DataSource> entry : shardDataSources.entrySet()) {
+            if (entry.getValue() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("关闭分片数据源失败: {}", entry.getKey(), e);
+                }
+            }
+        }
+    }
+
+    private void checkShardKey(String shardKey) {
+        if (!containsShard(shardKey)) {
+            throw new IllegalArgumentException("未配置的数据源分片: " + shardKey);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.staoo.framework.datasource;
+
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+import com.staoo.system.domain.Tenant;
+import com.staoo.system.mapper.TenantMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 租户分片管理
+ * 启动时从sys_tenant加载租户与分片的映射，并提供在分片之间迁移租户的工具
+ */
+@Component
+public class TenantShardManager implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(TenantShardManager.class);
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final ObjectProvider<TenantRoutingDataSource> routingDataSources;
+    private final TenantMapper tenantMapper;
+    private final TenantShardProperties properties;
+
+    public TenantShardManager(ObjectProvider<TenantRoutingDataSource> routingDataSources,
+                              TenantMapper tenantMapper,
+                              TenantShardProperties properties) {
+        this.routingDataSources = routingDataSources;
+        this.tenantMapper = tenantMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (routingDataSources.getIfAvailable() != null) {
+            reload();
+        }
+    }
+
+    /**
+     * 从sys_tenant重新加载租户分片映射
+     * 其他节点迁移租户后调用此方法同步
+     * @return 已分配分片的租户数
+     */
+    public int reload() {
+        TenantRoutingDataSource routingDataSource = getRoutingDataSource();
+        Map<Long, String> mappings = new HashMap<>();
+        for (Tenant tenant : tenantMapper.getShardList()) {
+            mappings.put(tenant.getId(), tenant.getShardKey());
+        }
+        routingDataSource.updateTenantShards(mappings);
+        logger.info("租户分片映射加载完成，共{}个租户使用独立分片", mappings.size());
+        return mappings.size();
+    }
+
+    /**
+     * 查询已分配分片的租户
+     * @return 租户列表（仅包含ID、名称和分片）
+     */
+    public List<Tenant> listTenantShards() {
+        getRoutingDataSource();
+        return tenantMapper.getShardList();
+    }
+
+    /**
+     * 将租户迁移到目标分片
+     * 迁移前应停用租户，迁移期间写入的数据不会被复制；
+     * 目标分片中该租户的旧数据会先被清除，因此失败后可以直接重试
+     * @param tenantId 租户ID
+     * @param targetShard 目标分片，master表示主库
+     * @param deleteSource 迁移完成后是否删除源分片中的数据
+     * @return 每张表复制的行数
+     */
+    public Map<String, Integer> moveTenant(Long tenantId, String targetShard, boolean deleteSource) {
+        TenantRoutingDataSource routingDataSource = getRoutingDataSource();
+        if (!routingDataSource.containsShard(targetShard)) {
+            throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(), "数据源分片不存在: " + targetShard);
+        }
+        Tenant tenant = tenantMapper.getById(tenantId);
+        if (tenant == null) {
+            throw new BusinessException(StatusCodeEnum.TENANT_NOT_FOUND);
+        }
+        String sourceShard = routingDataSource.getShardKey(tenantId);
+        if (sourceShard.equals(targetShard)) {
+            throw new BusinessException(StatusCodeEnum.OPERATION_NOT_ALLOWED.getCode(), "租户已在目标分片: " + targetShard);
+        }
+
+        JdbcTemplate source = new JdbcTemplate(routingDataSource.getDataSource(sourceShard));
+        // MySQL驱动按行流式读取，避免大租户的数据一次性加载到内存
+        source.setFetchSize(Integer.MIN_VALUE);
+        JdbcTemplate target = new JdbcTemplate(routingDataSource.getDataSource(targetShard));
+        Map<String, Integer> copied = new LinkedHashMap<>();
+        for (String table : properties.getTables()) {
+            if (!TABLE_NAME_PATTERN.matcher(table).matches()) {
+                throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(), "非法的分片表名: " + table);
+            }
+            copied.put(table, copyTable(table, tenantId, source, target));
+        }
+
+        // 先切换映射再删除源数据，删除失败不影响租户访问
+        tenantMapper.updateShardKey(tenantId, TenantRoutingDataSource.MASTER_KEY.equals(targetShard) ? null : targetShard);
+        routingDataSource.assignTenant(tenantId, targetShard);
+        logger.info("租户{}已从分片{}迁移到分片{}，复制行数: {}", tenantId, sourceShard, targetShard, copied);
+
+        if (deleteSource) {
+            for (String table : properties.getTables()) {
+                source.update("DELETE FROM " + table + " WHERE tenant_id = ?", tenantId);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * 分批复制单张表中租户的数据
+     */
+    private int copyTable(String table, Long tenantId, JdbcTemplate source, JdbcTemplate target) {
+        target.update("DELETE FROM " + table + " WHERE tenant_id = ?", tenantId);
+
+        int batchSize = Math.max(1, properties.getMigrateBatchSize());
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        String[] insertSql = new String[1];
+        int[] count = new int[1];
+        source.query("SELECT * FROM " + table + " WHERE tenant_id = ?", (RowCallbackHandler) rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            if (insertSql[0] == null) {
+                insertSql[0] = buildInsertSql(table, metaData);
+            }
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                target.batchUpdate(insertSql[0], batch);
+                count[0] += batch.size();
+                batch.clear();
+            }
+        }, tenantId);
+        if (!batch.isEmpty()) {
+            target.batchUpdate(insertSql[0], batch);
+            count[0] += batch.size();
+        }
+        return count[0];
+    }
+
+    private String buildInsertSql(String table, ResultSetMetaData metaData) throws SQLException {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (i > 1) {
+                columns.append(", ");
+                values.append(", ");
+            }
+            columns.append('`').append(metaData.getColumnName(i)).append('`');
+            values.append('?');
+        }
+        return "INSERT INTO " + table + " (" + columns + ") VALUES (" + values + ")";
+    }
+
+    private TenantRoutingDataSource getRoutingDataSource() {
+        TenantRoutingDataSource routingDataSource = routingDataSources.getIfAvailable();
+        if (routingDataSource == null) {
+            throw new BusinessException(StatusCodeEnum.OPERATION_NOT_ALLOWED.getCode(), "未启用租户数据源分片");
+        }
+        return routingDataSource;
+    }
+}
@@ -0,0 +1,142 @@
+package com.staoo.framework.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 租户数据源分片配置属性
+ * 大租户可以分配到独立的数据源，未分配的租户使用主库（spring.datasource）
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.datasource.shard")
+public class TenantShardProperties {
+
+    /**
+     * 是否启用租户数据源分片
+     */
+    private boolean enabled = false;
+
+    /**
+     * 分片数据源
+     * key: 分片名称（对应sys_tenant.shard_key）
+     */
+    private Map<String, ShardConfig> shards = new LinkedHashMap<>();
+
+    /**
+     * 按租户分片的表（表中必须包含tenant_id字段）
+     * 只有涉及这些表的语句才路由到租户所在的分片，迁移租户时复制这些表的数据；
+     * 日志表由后台线程批量写入，只能保存在主库，配置为分片表时启动失败
+     */
+    private List<String> tables = new ArrayList<>();
+
+    /**
+     * 迁移时每批复制的行数
+     */
+    private int migrateBatchSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, ShardConfig> getShards() {
+        return shards;
+    }
+
+    public void setShards(Map<String, ShardConfig> shards) {
+        this.shards = shards;
+    }
+
+    public List<String> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<String> tables) {
+        this.tables = tables;
+    }
+
+    public int getMigrateBatchSize() {
+        return migrateBatchSize;
+    }
+
+    public void setMigrateBatchSize(int migrateBatchSize) {
+        this.migrateBatchSize = migrateBatchSize;
+    }
+
+    /**
+     * 单个分片数据源配置
+     */
+    public static class ShardConfig {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName = "com.mysql.cj.jdbc.Driver";
+        private int initialSize = 5;
+        private int minIdle = 5;
+        private int maxActive = 20;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public int getInitialSize() {
+            return initialSize;
+        }
+
+        public void setInitialSize(int initialSize) {
+            this.initialSize = initialSize;
+        }
+
+        public int getMinIdle() {
+            return minIdle;
+        }
+
+        public void setMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+        }
+
+        public int getMaxActive() {
+            return maxActive;
+        }
+
+        public void setMaxActive(int maxActive) {
+            this.maxActive = maxActive;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.staoo.framework.datasource;
+
+import com.alibaba.druid.DbType;
+import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.ast.statement.SQLInsertInto;
+import com.staoo.framework.plugin.tenant.TenantSqlTemplate;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户分片路由判断
+ * 只有涉及分片表的语句才路由到租户所在的分片，其余语句访问主库
+ */
+@Component
+public class TenantShardRouter {
+    private static final Logger logger = LoggerFactory.getLogger(TenantShardRouter.class);
+
+    /**
+     * 只能保存在主库的表
+     * 操作日志和登录日志由写入线程或预写文件重放线程批量入库，批次中混有多个租户且没有租户上下文，
+     * 按租户分片会把分片租户的日志写到主库
+     */
+    private static final Set<String> MASTER_ONLY_TABLES = Set.of(
+            "sys_operation_log", "sys_operation_log_term", "sys_operation_log_rollup", "sys_login_log");
+
+    private final boolean enabled;
+
+    /**
+     * 按租户分片的表（小写）
+     */
+    private final Set<String> shardTables;
+
+    /**
+     * INSERT语句是否写入分片表
+     * key: 语句ID
+     */
+    private final Map<String, Boolean> insertRoutes = new ConcurrentHashMap<>();
+
+    public TenantShardRouter(TenantShardProperties properties) {
+        this.enabled = properties.isEnabled();
+        Set<String> tables = new HashSet<>();
+        for (String table : properties.getTables()) {
+            String name = table.toLowerCase(Locale.ROOT);
+            if (enabled && MASTER_ONLY_TABLES.contains(name)) {
+                throw new IllegalStateException("日志表只能保存在主库，不能配置为分片表: " + table);
+            }
+            tables.add(name);
+        }
+        this.shardTables = tables;
+    }
+
+    /**
+     * 根据SQL模板设置当前语句的路由
+     * @param template SQL模板
+     */
+    public void route(TenantSqlTemplate template) {
+        if (enabled) {
+            TenantRouteContext.set(isShardStatement(template));
+        }
+    }
+
+    /**
+     * 设置INSERT语句的路由，目标表按语句ID解析一次后缓存
+     * @param ms MappedStatement对象
+     * @param parameter 参数对象
+     */
+    public void routeInsert(MappedStatement ms, Object parameter) {
+        if (enabled) {
+            TenantRouteContext.set(insertRoutes.computeIfAbsent(ms.getId(), id -> isShardInsert(ms, parameter)));
+        }
+    }
+
+    /**
+     * 设置当前语句固定访问主库
+     */
+    public void routeMaster() {
+        if (enabled) {
+            TenantRouteContext.set(false);
+        }
+    }
+
+    /**
+     * 判断语句是否涉及分片表
+     */
+    private boolean isShardStatement(TenantSqlTemplate template) {
+        if (!template.isRewritten()) {
+            return false;
+        }
+        // 字符串方式改写的SQL无法确定涉及的表，按租户分片处理
+        if (template.getTenantTables().isEmpty()) {
+            return true;
+        }
+        for (String table : template.getTenantTables()) {
+            if (shardTables.contains(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断INSERT语句的目标表是否为分片表
+     */
+    private boolean isShardInsert(MappedStatement ms, Object parameter) {
+        try {
+            String sql = ms.getBoundSql(parameter).getSql();
+            List<SQLStatement> statements = SQLUtils.parseStatements(sql, DbType.mysql);
+            for (SQLStatement statement : statements) {
+                if (statement instanceof SQLInsertInto insert && insert.getTableName() != null) {
+                    String table = SQLUtils.normalize(insert.getTableName().getSimpleName()).toLowerCase(Locale.ROOT);
+                    if (shardTables.contains(table)) {
+                        return true;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("无法解析INSERT语句的目标表，使用主库: {}, {}", ms.getId(), e.getMessage());
+        }
+        return false;
+    }
+}
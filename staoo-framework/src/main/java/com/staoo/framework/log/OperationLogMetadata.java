@@ -0,0 +1,104 @@
+package com.staoo.framework.log;
+
+import com.staoo.common.annotation.LogOperation;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 操作日志方法元数据
+ * 每个@LogOperation方法解析一次注解和参数类型，执行时不再反射
+ */
+public final class OperationLogMetadata {
+    private final String module;
+    private final String operationType;
+    private final String content;
+    private final boolean recordRequestParams;
+    private final boolean recordRequestBody;
+    private final boolean recordResponseResult;
+    private final boolean ignoreException;
+    private final double sampleRate;
+
+    /**
+     * 需要记录的参数下标（已排除文件、请求响应对象和校验结果）
+     */
+    private final int[] loggableParameterIndexes;
+
+    private OperationLogMetadata(LogOperation logOperation, int[] loggableParameterIndexes) {
+        this.module = logOperation.module();
+        this.operationType = logOperation.operationType();
+        this.content = logOperation.content();
+        this.recordRequestParams = logOperation.recordRequestParams();
+        this.recordRequestBody = logOperation.recordRequestBody();
+        this.recordResponseResult = logOperation.recordResponseResult();
+        this.ignoreException = logOperation.ignoreException();
+        this.sampleRate = Math.max(0D, Math.min(1D, logOperation.sampleRate()));
+        this.loggableParameterIndexes = loggableParameterIndexes;
+    }
+
+    /**
+     * 解析方法元数据
+     * @param method 方法
+     * @param logOperation 方法上的注解
+     * @return 方法元数据
+     */
+    public static OperationLogMetadata of(Method method, LogOperation logOperation) {
+        List<Integer> indexes = new ArrayList<>();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (isLoggable(parameterTypes[i])) {
+                indexes.add(i);
+            }
+        }
+        return new OperationLogMetadata(logOperation, indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static boolean isLoggable(Class<?> type) {
+        return !MultipartFile.class.isAssignableFrom(type)
+                && !MultipartFile[].class.isAssignableFrom(type)
+                && !ServletRequest.class.isAssignableFrom(type)
+                && !ServletResponse.class.isAssignableFrom(type)
+                && !BindingResult.class.isAssignableFrom(type);
+    }
+
+    public String getModule() {
+        return module;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public boolean isRecordRequestParams() {
+        return recordRequestParams;
+    }
+
+    public boolean isRecordRequestBody() {
+        return recordRequestBody;
+    }
+
+    public boolean isRecordResponseResult() {
+        return recordResponseResult;
+    }
+
+    public boolean isIgnoreException() {
+        return ignoreException;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int[] getLoggableParameterIndexes() {
+        return loggableParameterIndexes;
+    }
+}
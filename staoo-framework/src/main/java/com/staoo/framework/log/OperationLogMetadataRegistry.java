@@ -0,0 +1,60 @@
+package com.staoo.framework.log;
+
+import com.staoo.common.annotation.LogOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 操作日志方法元数据注册表
+ * 启动时扫描所有Bean上的@LogOperation方法并缓存元数据，运行时按Method查表
+ */
+@Component
+public class OperationLogMetadataRegistry implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogMetadataRegistry.class);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private final Map<Method, OperationLogMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String beanName : applicationContext.getBeanDefinitionNames()) {
+            Class<?> beanType = applicationContext.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType), this::get,
+                    method -> method.isAnnotationPresent(LogOperation.class));
+        }
+        logger.info("操作日志方法元数据初始化完成，共{}个方法", metadataCache.size());
+    }
+
+    /**
+     * 获取方法元数据，启动后动态出现的方法首次访问时解析
+     * @param method 方法
+     * @return 方法元数据，方法上没有@LogOperation时返回null
+     */
+    public OperationLogMetadata get(Method method) {
+        OperationLogMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            LogOperation logOperation = AnnotatedElementUtils.findMergedAnnotation(method, LogOperation.class);
+            if (logOperation == null) {
+                return null;
+            }
+            metadata = metadataCache.computeIfAbsent(method, m -> OperationLogMetadata.of(m, logOperation));
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,108 @@
+package com.staoo.framework.log;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 操作日志请求参数和响应结果的序列化配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.log.payload")
+public class OperationLogPayloadProperties {
+
+    /**
+     * 请求参数序列化后的最大字节数（UTF-8），超出部分截断
+     */
+    private int maxParamsBytes = 8192;
+
+    /**
+     * 响应结果序列化后的最大字节数（UTF-8），超出部分截断
+     */
+    private int maxResultBytes = 8192;
+
+    /**
+     * 错误信息的最大字节数（UTF-8），超出部分截断
+     */
+    private int maxErrorBytes = 2048;
+
+    /**
+     * 对象嵌套的最大深度，超出的层级不再展开
+     */
+    private int maxDepth = 4;
+
+    /**
+     * 集合、数组和Map最多记录的元素个数
+     */
+    private int maxCollectionSize = 20;
+
+    /**
+     * 单个字符串最多记录的字符数
+     */
+    private int maxStringLength = 512;
+
+    /**
+     * 需要脱敏的字段名（不区分大小写）
+     */
+    private List<String> maskFields = new ArrayList<>(List.of(
+            "password", "oldPassword", "newPassword", "confirmPassword",
+            "token", "accessToken", "refreshToken", "secret", "smsCode", "verifyCode"));
+
+    public int getMaxParamsBytes() {
+        return maxParamsBytes;
+    }
+
+    public void setMaxParamsBytes(int maxParamsBytes) {
+        this.maxParamsBytes = maxParamsBytes;
+    }
+
+    public int getMaxResultBytes() {
+        return maxResultBytes;
+    }
+
+    public void setMaxResultBytes(int maxResultBytes) {
+        this.maxResultBytes = maxResultBytes;
+    }
+
+    public int getMaxErrorBytes() {
+        return maxErrorBytes;
+    }
+
+    public void setMaxErrorBytes(int maxErrorBytes) {
+        this.maxErrorBytes = maxErrorBytes;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxCollectionSize() {
+        return maxCollectionSize;
+    }
+
+    public void setMaxCollectionSize(int maxCollectionSize) {
+        this.maxCollectionSize = maxCollectionSize;
+    }
+
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    public void setMaxStringLength(int maxStringLength) {
+        this.maxStringLength = maxStringLength;
+    }
+
+    public List<String> getMaskFields() {
+        return maskFields;
+    }
+
+    public void setMaskFields(List<String> maskFields) {
+        this.maskFields = maskFields;
+    }
+}
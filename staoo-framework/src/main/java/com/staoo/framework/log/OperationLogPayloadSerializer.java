@@ -0,0 +1,338 @@
+package com.staoo.framework.log;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONFactory;
+import com.alibaba.fastjson2.writer.FieldWriter;
+import com.alibaba.fastjson2.writer.ObjectWriter;
+import com.alibaba.fastjson2.writer.ObjectWriterProvider;
+import com.staoo.common.domain.TableResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 操作日志参数和结果序列化器
+ * 边遍历边写入，按字节预算、嵌套深度和集合大小截断，敏感字段脱敏；
+ * 预算用完立即停止遍历，不会先生成完整的JSON再截取，单个字段的内存占用不超过预算。
+ * 在请求线程中调用，日志快照入队前参数、结果和错误信息都已截断，
+ * 队列占用的内存不超过 队列容量 ×（参数、结果和错误信息的字节预算之和）加上固定字段
+ */
+@Component
+public class OperationLogPayloadSerializer {
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogPayloadSerializer.class);
+
+    /**
+     * 脱敏后的值
+     */
+    private static final String MASK = "******";
+
+    /**
+     * 截断标记
+     */
+    private static final String ELLIPSIS = "...";
+
+    private final OperationLogPayloadProperties properties;
+    private final ObjectWriterProvider writerProvider = JSONFactory.getDefaultObjectWriterProvider();
+    private final Set<String> maskFields = new HashSet<>();
+
+    public OperationLogPayloadSerializer(OperationLogPayloadProperties properties) {
+        this.properties = properties;
+        for (String field : properties.getMaskFields()) {
+            maskFields.add(field.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * 序列化请求参数
+     * @param params 需要记录的参数
+     * @return JSON数组，超出预算时截断
+     */
+    public String serializeParams(Object[] params) {
+        if (params.length == 0) {
+            return "";
+        }
+        return serialize(params, properties.getMaxParamsBytes());
+    }
+
+    /**
+     * 序列化响应结果，分页结果只记录分页信息
+     * @param result 响应结果
+     * @return JSON，超出预算时截断
+     */
+    public String serializeResult(Object result) {
+        if (result instanceof TableResult<?> tableResult) {
+            return "{\"total\":" + tableResult.getTotal()
+                    + ",\"page\":" + tableResult.getPage()
+                    + ",\"pagesize\":" + tableResult.getPagesize()
+                    + ",\"listSize\":" + (tableResult.getList() != null ? tableResult.getList().size() : 0) + "}";
+        }
+        return serialize(result, properties.getMaxResultBytes());
+    }
+
+    /**
+     * 截断错误信息，按原文记录，不做JSON转义
+     * @param message 错误信息
+     * @return 超出预算时截断的错误信息
+     */
+    public String serializeError(String message) {
+        if (message == null) {
+            return null;
+        }
+        BoundedOutput out = newOutput(properties.getMaxErrorBytes());
+        try {
+            out.append(message);
+        } catch (BudgetExceededException e) {
+            out.builder.append(ELLIPSIS);
+        }
+        return out.builder.toString();
+    }
+
+    private String serialize(Object value, int maxBytes) {
+        BoundedOutput out = newOutput(maxBytes);
+        try {
+            writeValue(out, value, 0);
+        } catch (BudgetExceededException e) {
+            // 预算用完，保留已写入的部分
+            out.builder.append(ELLIPSIS);
+        } catch (Exception e) {
+            logger.error("序列化操作日志内容失败", e);
+            out.builder.append(ELLIPSIS);
+        }
+        return out.builder.toString();
+    }
+
+    /**
+     * 创建输出，预留截断标记的字节
+     */
+    private static BoundedOutput newOutput(int maxBytes) {
+        return new BoundedOutput(Math.max(maxBytes, ELLIPSIS.length() + 1) - ELLIPSIS.length());
+    }
+
+    private void writeValue(BoundedOutput out, Object value, int depth) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence text) {
+            writeString(out, text);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writeNumber(out, value);
+        } else if (value instanceof Character || value instanceof Enum<?>) {
+            writeString(out, value.toString());
+        } else if (value instanceof Date || value instanceof TemporalAccessor) {
+            // 时间类型沿用fastjson2的默认格式
+            out.append(JSON.toJSONString(value));
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(out, map, depth);
+        } else if (value instanceof Collection<?> collection) {
+            writeCollection(out, collection, depth);
+        } else if (value.getClass().isArray()) {
+            writeArray(out, value, depth);
+        } else {
+            writeBean(out, value, depth);
+        }
+    }
+
+    private void writeMap(BoundedOutput out, Map<?, ?> map, int depth) {
+        if (depth >= properties.getMaxDepth()) {
+            writeString(out, "{size=" + map.size() + "}");
+            return;
+        }
+        out.append('{');
+        int count = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (count == properties.getMaxCollectionSize()) {
+                out.append(',');
+                writeString(out, ELLIPSIS);
+                out.append(':');
+                out.append(String.valueOf(map.size()));
+                break;
+            }
+            if (count++ > 0) {
+                out.append(',');
+            }
+            String name = String.valueOf(entry.getKey());
+            writeString(out, name);
+            out.append(':');
+            writeField(out, name, entry.getValue(), depth + 1);
+        }
+        out.append('}');
+    }
+
+    private void writeCollection(BoundedOutput out, Collection<?> collection, int depth) {
+        if (depth >= properties.getMaxDepth()) {
+            writeString(out, "[size=" + collection.size() + "]");
+            return;
+        }
+        out.append('[');
+        int count = 0;
+        Iterator<?> iterator = collection.iterator();
+        while (iterator.hasNext()) {
+            Object element = iterator.next();
+            if (count > 0) {
+                out.append(',');
+            }
+            if (count == properties.getMaxCollectionSize()) {
+                writeString(out, "...(" + collection.size() + ")");
+                break;
+            }
+            writeValue(out, element, depth + 1);
+            count++;
+        }
+        out.append(']');
+    }
+
+    private void writeArray(BoundedOutput out, Object array, int depth) {
+        int length = Array.getLength(array);
+        // 二进制内容只记录长度
+        if (array instanceof byte[] || depth >= properties.getMaxDepth()) {
+            writeString(out, array.getClass().getComponentType().getSimpleName() + "[" + length + "]");
+            return;
+        }
+        out.append('[');
+        int limit = Math.min(length, properties.getMaxCollectionSize());
+        for (int i = 0; i < limit; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeValue(out, Array.get(array, i), depth + 1);
+        }
+        if (length > limit) {
+            out.append(',');
+            writeString(out, "...(" + length + ")");
+        }
+        out.append(']');
+    }
+
+    /**
+     * 普通对象使用fastjson2解析出的属性列表，字段名和取值方式与JSON.toJSONString一致
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void writeBean(BoundedOutput out, Object bean, int depth) {
+        ObjectWriter objectWriter = writerProvider.getObjectWriter(bean.getClass());
+        List<FieldWriter> fieldWriters = objectWriter.getFieldWriters();
+        if (fieldWriters == null || fieldWriters.isEmpty()) {
+            writeString(out, bean.toString());
+            return;
+        }
+        if (depth >= properties.getMaxDepth()) {
+            writeString(out, bean.getClass().getSimpleName());
+            return;
+        }
+        out.append('{');
+        int count = 0;
+        for (FieldWriter fieldWriter : fieldWriters) {
+            Object fieldValue;
+            try {
+                fieldValue = fieldWriter.getFieldValue(bean);
+            } catch (Exception e) {
+                continue;
+            }
+            if (fieldValue == null) {
+                continue;
+            }
+            if (count++ > 0) {
+                out.append(',');
+            }
+            writeString(out, fieldWriter.fieldName);
+            out.append(':');
+            writeField(out, fieldWriter.fieldName, fieldValue, depth + 1);
+        }
+        out.append('}');
+    }
+
+    private void writeField(BoundedOutput out, String name, Object value, int depth) {
+        if (value != null && maskFields.contains(name.toLowerCase(Locale.ROOT))) {
+            writeString(out, MASK);
+        } else {
+            writeValue(out, value, depth);
+        }
+    }
+
+    private void writeNumber(BoundedOutput out, Object value) {
+        if ((value instanceof Double d && !Double.isFinite(d)) || (value instanceof Float f && !Float.isFinite(f))) {
+            out.append("null");
+        } else {
+            out.append(value.toString());
+        }
+    }
+
+    /**
+     * 逐字符写入并转义，超过长度限制的字符串截断，不复制原字符串
+     */
+    private void writeString(BoundedOutput out, CharSequence text) {
+        int length = text.length();
+        int limit = Math.min(length, properties.getMaxStringLength());
+        out.append('"');
+        for (int i = 0; i < limit; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        if (length > limit) {
+            out.append(ELLIPSIS);
+        }
+        out.append('"');
+    }
+
+    /**
+     * 带字节预算的输出，按UTF-8编码计算字节数
+     */
+    private static final class BoundedOutput {
+        private final StringBuilder builder;
+        private int remaining;
+
+        private BoundedOutput(int maxBytes) {
+            this.builder = new StringBuilder(Math.min(maxBytes, 1024));
+            this.remaining = maxBytes;
+        }
+
+        private void append(char c) {
+            // 代理对的两个字符各按2字节计算，合计与UTF-8的4字节一致
+            int bytes = c < 0x80 ? 1 : (c < 0x800 || Character.isSurrogate(c) ? 2 : 3);
+            if (bytes > remaining) {
+                throw BudgetExceededException.INSTANCE;
+            }
+            remaining -= bytes;
+            builder.append(c);
+        }
+
+        private void append(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                append(text.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * 预算用完时中止遍历，单例且不生成堆栈
+     */
+    private static final class BudgetExceededException extends RuntimeException {
+        private static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super("operation log payload budget exceeded", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.staoo.framework.log;
+
+import com.staoo.common.domain.OperationLogBase;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 操作日志快照
+ * 在请求线程中采集日志所需的请求信息，参数和结果也在请求线程中按字节预算序列化，
+ * 快照只保存序列化后的字符串，不引用方法参数和返回值，创建后不可变；
+ * 写入线程只负责入库，不再访问请求对象、线程上下文和业务对象
+ */
+public final class OperationLogSnapshot {
+    private final OperationLogMetadata metadata;
+    private final String requestUrl;
+    private final String requestMethod;
+    private final String ip;
+    private final String browser;
+    private final String os;
+    private final Long userId;
+    private final String username;
+    private final Long tenantId;
+    private final LocalDateTime operationTime;
+    private final long executionTime;
+    private final boolean failed;
+    private final String errorMessage;
+
+    /**
+     * 序列化后的请求参数，为null表示不记录
+     */
+    private final String requestParams;
+
+    /**
+     * 序列化后的响应结果，为null表示不记录
+     */
+    private final String responseResult;
+
+    private OperationLogSnapshot(Builder builder) {
+        this.metadata = builder.metadata;
+        this.requestUrl = builder.requestUrl;
+        this.requestMethod = builder.requestMethod;
+        this.ip = builder.ip;
+        this.browser = builder.browser;
+        this.os = builder.os;
+        this.userId = builder.userId;
+        this.username = builder.username;
+        this.tenantId = builder.tenantId;
+        this.operationTime = builder.operationTime;
+        this.executionTime = builder.executionTime;
+        this.failed = builder.failed;
+        this.errorMessage = builder.errorMessage;
+        this.requestParams = builder.requestParams;
+        this.responseResult = builder.responseResult;
+    }
+
+    /**
+     * 创建快照构建器
+     * @param metadata 操作日志元数据
+     * @param serializer 参数和结果序列化器
+     * @return 构建器
+     */
+    public static Builder builder(OperationLogMetadata metadata, OperationLogPayloadSerializer serializer) {
+        return new Builder(metadata, serializer);
+    }
+
+    /**
+     * 在写入线程中生成操作日志实体
+     * @return 操作日志
+     */
+    public OperationLogBase toOperationLog() {
+        OperationLogBase operationLogBase = new OperationLogBase();
+
+        // 设置操作基本信息
+        operationLogBase.setModule(metadata.getModule());
+        operationLogBase.setOperationType(metadata.getOperationType());
+        operationLogBase.setContent(metadata.getContent());
+
+        // 设置时间信息
+        operationLogBase.setCreateTime(operationTime);
+        operationLogBase.setUpdateTime(operationTime);
+        operationLogBase.setOperationTime(operationTime);
+        operationLogBase.setExecutionTime(executionTime);
+
+        // 设置请求信息
+        operationLogBase.setRequestUrl(requestUrl);
+        operationLogBase.setRequestMethod(requestMethod);
+        operationLogBase.setIp(ip);
+        operationLogBase.setBrowser(browser);
+        operationLogBase.setOs(os);
+
+        // 设置用户和租户信息
+        operationLogBase.setUserId(userId);
+        operationLogBase.setUsername(username);
+        operationLogBase.setTenantId(tenantId);
+
+        // 设置请求参数和响应结果
+        operationLogBase.setRequestParams(requestParams);
+        operationLogBase.setResponseResult(responseResult);
+
+        // 设置状态和错误信息
+        if (failed) {
+            operationLogBase.setStatus(0);
+            operationLogBase.setErrorMessage(errorMessage);
+        } else {
+            operationLogBase.setStatus(1);
+        }
+        return operationLogBase;
+    }
+
+    /**
+     * 操作日志快照构建器
+     */
+    public static final class Builder {
+        private final OperationLogMetadata metadata;
+        private final OperationLogPayloadSerializer serializer;
+        private String requestUrl;
+        private String requestMethod;
+        private String ip;
+        private String browser;
+        private String os;
+        private Long userId;
+        private String username;
+        private Long tenantId;
+        private LocalDateTime operationTime;
+        private long executionTime;
+        private boolean failed;
+        private String errorMessage;
+        private String requestParams;
+        private String responseResult;
+
+        /**
+         * 是否命中参数和结果的采样
+         */
+        private final boolean sampled;
+
+        private Builder(OperationLogMetadata metadata, OperationLogPayloadSerializer serializer) {
+            this.metadata = metadata;
+            this.serializer = serializer;
+            double sampleRate = metadata.getSampleRate();
+            this.sampled = sampleRate >= 1D || (sampleRate > 0D && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
+
+        public Builder request(String requestUrl, String requestMethod, String ip) {
+            this.requestUrl = requestUrl;
+            this.requestMethod = requestMethod;
+            this.ip = ip;
+            return this;
+        }
+
+        public Builder client(String browser, String os) {
+            this.browser = browser;
+            this.os = os;
+            return this;
+        }
+
+        public Builder user(Long userId, String username, Long tenantId) {
+            this.userId = userId;
+            this.username = username;
+            this.tenantId = tenantId;
+            return this;
+        }
+
+        public Builder timing(LocalDateTime operationTime, long executionTime) {
+            this.operationTime = operationTime;
+            this.executionTime = executionTime;
+            return this;
+        }
+
+        public Builder error(Throwable exception) {
+            if (exception != null) {
+                this.failed = true;
+                this.errorMessage = serializer.serializeError(exception.getMessage());
+            }
+            return this;
+        }
+
+        /**
+         * 按元数据选取需要记录的参数并立即序列化，文件参数在运行时再过滤一次（声明类型可能是Object）
+         * 未命中采样且没有失败时不记录，因此应在error之后调用
+         * @param args 方法参数
+         * @return 构建器
+         */
+        public Builder params(Object[] args) {
+            if (!metadata.isRecordRequestParams() || args == null || !(sampled || failed)) {
+                return this;
+            }
+            int[] indexes = metadata.getLoggableParameterIndexes();
+            Object[] copy = new Object[indexes.length];
+            int size = 0;
+            for (int index : indexes) {
+                Object arg = index < args.length ? args[index] : null;
+                if (!(arg instanceof MultipartFile || arg instanceof MultipartFile[])) {
+                    copy[size++] = arg;
+                }
+            }
+            this.requestParams = serializer.serializeParams(size == copy.length ? copy : Arrays.copyOf(copy, size));
+            return this;
+        }
+
+        /**
+         * 立即序列化响应结果，应在error之后调用
+         * @param result 响应结果
+         * @return 构建器
+         */
+        public Builder result(Object result) {
+            if (metadata.isRecordResponseResult() && result != null && (sampled || failed)) {
+                this.responseResult = serializer.serializeResult(result);
+            }
+            return this;
+        }
+
+        public OperationLogSnapshot build() {
+            return new OperationLogSnapshot(this);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.staoo.framework.log;
+
+import com.staoo.common.domain.OperationLogBase;
+import com.staoo.framework.log.rollup.OperationLogRollupAggregator;
+import com.staoo.framework.log.spool.LogSpoolChannel;
+import com.staoo.framework.log.spool.LogSpoolManager;
+import com.staoo.system.mapper.OperationLogMapper;
+import com.staoo.system.service.OperationLogSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 操作日志异步写入器
+ * 请求线程采集的日志快照先进入有界环形队列，由少量写入线程按批次大小或时间窗口通过insertBatch批量入库，
+ * 队列满时按配置的策略丢弃、阻塞或写入本地预写文件，应用关闭时把队列中的日志写完。
+ * 一个批次中混有多个租户的日志且写入线程没有租户上下文，操作日志表始终写入主库，不能配置为租户分片表
+ */
+@Component
+public class OperationLogWriter implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogWriter.class);
+
+    /**
+     * 在Web服务器停止之后再停止，保证处理中的请求产生的日志能够入队
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /**
+     * 操作日志预写通道名称
+     */
+    private static final String SPOOL_NAME = "operation-log";
+
+    @Autowired
+    private OperationLogMapper operationLogMapper;
+
+    @Autowired
+    private OperationLogWriterProperties properties;
+
+    @Autowired
+    private LogSpoolManager spoolManager;
+
+    @Autowired
+    private OperationLogRollupAggregator rollupAggregator;
+
+    @Autowired
+    private OperationLogSearchService searchService;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final List<Thread> drainers = new ArrayList<>();
+
+    private volatile BlockingQueue<OperationLogSnapshot> queue;
+    private volatile boolean running;
+    private volatile LogSpoolChannel<OperationLogBase> spool;
+
+    /**
+     * 提交一条操作日志快照，不会抛出异常
+     * @param snapshot 操作日志快照
+     * @return 是否进入队列或预写文件
+     */
+    public boolean submit(OperationLogSnapshot snapshot) {
+        BlockingQueue<OperationLogSnapshot> current = queue;
+        if (current != null && running && current.offer(snapshot)) {
+            accepted.increment();
+            return true;
+        }
+        return handleOverflow(snapshot, current);
+    }
+
+    /**
+     * 获取写入统计
+     * @return 写入统计
+     */
+    public OperationLogWriterStats getStats() {
+        BlockingQueue<OperationLogSnapshot> current = queue;
+        return new OperationLogWriterStats(
+                current != null ? current.size() : 0,
+                properties.getQueueCapacity(),
+                accepted.sum(), written.sum(), dropped.sum(), spilled.sum(), failed.sum(),
+                properties.getOverflowPolicy());
+    }
+
+    @Override
+    public void start() {
+        if (spool == null) {
+            // 预写文件中积压的日志由LogSpoolManager的重放线程写入数据库
+            spool = spoolManager.register(SPOOL_NAME, OperationLogBase.class, this::replay);
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        running = true;
+        int threads = Math.max(1, properties.getDrainerThreads());
+        for (int i = 0; i < threads; i++) {
+            Thread drainer = new Thread(this::drain, "operation-log-writer-" + i);
+            drainer.setDaemon(true);
+            drainer.start();
+            drainers.add(drainer);
+        }
+        logger.info("操作日志写入器已启动，队列容量: {}, 写入线程: {}, 溢出策略: {}",
+                properties.getQueueCapacity(), threads, properties.getOverflowPolicy());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.currentTimeMillis() + properties.getShutdownTimeoutMillis();
+        for (Thread drainer : drainers) {
+            try {
+                drainer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        drainers.clear();
+
+        // 超时未写完的日志
+        List<OperationLogSnapshot> remaining = new ArrayList<>();
+        if (queue != null) {
+            queue.drainTo(remaining);
+        }
+        if (!remaining.isEmpty()) {
+            if (properties.getOverflowPolicy() == OverflowPolicy.SPILL) {
+                spill(toOperationLogs(remaining));
+            } else {
+                dropped.add(remaining.size());
+                logger.warn("关闭时仍有{}条操作日志未写入，已丢弃", remaining.size());
+            }
+        }
+        logger.info("操作日志写入器已停止，累计写入: {}, 丢弃: {}, 溢出: {}, 失败: {}",
+                written.sum(), dropped.sum(), spilled.sum(), failed.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 写入线程：攒够一批或时间窗口结束时写入，停止后继续写完队列中的日志
+     */
+    private void drain() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.getFlushIntervalMillis()));
+        List<OperationLogSnapshot> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OperationLogSnapshot first = queue.poll(windowNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    OperationLogSnapshot next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 停止时由stop()处理队列中剩余的日志
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } catch (Exception e) {
+                logger.error("操作日志写入线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 把快照转换为日志实体并批量写入数据库，失败时按策略写入预写文件
+     */
+    private void flush(List<OperationLogSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        List<OperationLogBase> batch = toOperationLogs(snapshots);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            operationLogMapper.insertBatch(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            if (properties.getOverflowPolicy() == OverflowPolicy.SPILL) {
+                logger.error("批量写入操作日志失败，{}条日志写入预写文件", batch.size(), e);
+                spill(batch);
+            } else {
+                logger.error("批量写入操作日志失败，丢弃{}条日志", batch.size(), e);
+            }
+            return;
+        }
+        afterInsert(batch);
+    }
+
+    /**
+     * 队列满或写入器未运行时的处理
+     */
+    private boolean handleOverflow(OperationLogSnapshot snapshot, BlockingQueue<OperationLogSnapshot> current) {
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK:
+                if (current != null && running) {
+                    try {
+                        if (current.offer(snapshot, properties.getBlockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                            accepted.increment();
+                            return true;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                break;
+            case SPILL:
+                return spill(toOperationLogs(List.of(snapshot)));
+            default:
+                break;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * 把快照转换为操作日志实体，单条转换失败不影响同批的其他日志
+     */
+    private List<OperationLogBase> toOperationLogs(List<OperationLogSnapshot> snapshots) {
+        List<OperationLogBase> logs = new ArrayList<>(snapshots.size());
+        for (OperationLogSnapshot snapshot : snapshots) {
+            try {
+                logs.add(snapshot.toOperationLog());
+            } catch (Exception e) {
+                failed.increment();
+                logger.error("生成操作日志失败", e);
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * 写入预写文件并计入溢出统计
+     */
+    private boolean spill(List<OperationLogBase> logs) {
+        LogSpoolChannel<OperationLogBase> current = spool;
+        int appended = 0;
+        if (current != null) {
+            for (OperationLogBase log : logs) {
+                if (current.append(log)) {
+                    appended++;
+                }
+            }
+        }
+        spilled.add(appended);
+        if (appended < logs.size()) {
+            dropped.add(logs.size() - appended);
+            logger.error("写入操作日志预写文件失败，丢弃{}条日志", logs.size() - appended);
+        }
+        return appended == logs.size();
+    }
+
+    /**
+     * 重放预写文件中的日志，失败时抛出异常由预写通道稍后重试
+     */
+    private void replay(List<OperationLogBase> logs) {
+        operationLogMapper.insertBatch(logs);
+        written.add(logs.size());
+        afterInsert(logs);
+    }
+
+    /**
+     * 日志入库后累加小时汇总并建立检索词，检索词写入失败不影响已入库的日志，也不会重试
+     */
+    private void afterInsert(List<OperationLogBase> logs) {
+        rollupAggregator.record(logs);
+        try {
+            searchService.index(logs);
+        } catch (Exception e) {
+            logger.error("建立操作日志检索词失败，{}条日志无法按关键词检索", logs.size(), e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.staoo.framework.log;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 操作日志异步写入配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.log.operation")
+public class OperationLogWriterProperties {
+
+    /**
+     * 队列容量
+     * 快照入队前参数、结果和错误信息已按staoo.log.payload的字节预算截断，队列内存占用随容量线性有界
+     */
+    private int queueCapacity = 8192;
+
+    /**
+     * 写入线程数
+     */
+    private int drainerThreads = 1;
+
+    /**
+     * 每批写入的最大条数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 批次等待时间窗口（毫秒），未攒满一批时最多等待这么久就写入
+     */
+    private long flushIntervalMillis = 1000;
+
+    /**
+     * 队列满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * BLOCK策略下的最长阻塞时间（毫秒）
+     */
+    private long blockTimeoutMillis = 100;
+
+    /**
+     * 关闭时等待队列写完的最长时间（毫秒）
+     */
+    private long shutdownTimeoutMillis = 10000;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getDrainerThreads() {
+        return drainerThreads;
+    }
+
+    public void setDrainerThreads(int drainerThreads) {
+        this.drainerThreads = drainerThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    public void setBlockTimeoutMillis(long blockTimeoutMillis) {
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    public long getShutdownTimeoutMillis() {
+        return shutdownTimeoutMillis;
+    }
+
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+}
@@ -0,0 +1,77 @@
+package com.staoo.framework.log;
+
+/**
+ * 操作日志写入统计
+ */
+public class OperationLogWriterStats {
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long accepted;
+    private final long written;
+    private final long dropped;
+    private final long spilled;
+    private final long failed;
+    private final OverflowPolicy overflowPolicy;
+
+    public OperationLogWriterStats(int queueDepth, int queueCapacity, long accepted, long written,
+                                   long dropped, long spilled, long failed, OverflowPolicy overflowPolicy) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.accepted = accepted;
+        this.written = written;
+        this.dropped = dropped;
+        this.spilled = spilled;
+        this.failed = failed;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * 当前队列中等待写入的条数
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 进入队列的条数
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * 成功写入数据库的条数
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * 因队列满或关闭超时而丢弃的条数
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * 写入溢出文件的条数
+     */
+    public long getSpilled() {
+        return spilled;
+    }
+
+    /**
+     * 写入数据库失败的条数
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
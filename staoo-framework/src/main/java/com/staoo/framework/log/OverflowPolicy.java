@@ -0,0 +1,21 @@
+package com.staoo.framework.log;
+
+/**
+ * 日志队列溢出策略
+ */
+public enum OverflowPolicy {
+    /**
+     * 丢弃新日志
+     */
+    DROP,
+
+    /**
+     * 阻塞调用线程，超时后丢弃
+     */
+    BLOCK,
+
+    /**
+     * 写入本地预写文件（staoo.log.spool），由后台线程重放入库
+     */
+    SPILL
+}
@@ -0,0 +1,43 @@
+package com.staoo.framework.log;
+
+import com.staoo.framework.log.spool.LogSpoolChannel;
+import com.staoo.framework.log.spool.LogSpoolManager;
+import com.staoo.system.domain.LoginLog;
+import com.staoo.system.mapper.LoginLogMapper;
+import com.staoo.system.service.LoginLogAppender;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 登录日志预写追加器
+ * 登录日志先追加到本地预写文件，由重放线程批量写入sys_login_log，数据库变慢时不阻塞登录。
+ * 重放的批次中混有多个租户的日志且没有租户上下文，sys_login_log始终写入主库，不能配置为租户分片表
+ */
+@Component
+@ConditionalOnProperty(prefix = "staoo.log.spool", name = "login-log", havingValue = "true")
+public class SpooledLoginLogAppender implements LoginLogAppender {
+
+    /**
+     * 登录日志预写通道名称
+     */
+    private static final String SPOOL_NAME = "login-log";
+
+    private final LoginLogMapper loginLogMapper;
+    private final LogSpoolChannel<LoginLog> spool;
+
+    public SpooledLoginLogAppender(LoginLogMapper loginLogMapper, LogSpoolManager spoolManager) {
+        this.loginLogMapper = loginLogMapper;
+        this.spool = spoolManager.register(SPOOL_NAME, LoginLog.class, this::replay);
+    }
+
+    @Override
+    public boolean append(LoginLog loginLog) {
+        return spool.append(loginLog);
+    }
+
+    private void replay(List<LoginLog> loginLogs) {
+        loginLogMapper.insertLoginLogBatch(loginLogs);
+    }
+}
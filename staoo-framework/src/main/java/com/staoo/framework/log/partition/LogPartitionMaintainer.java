@@ -0,0 +1,97 @@
+package com.staoo.framework.log.partition;
+
+import com.staoo.system.domain.LogPartition;
+import com.staoo.system.service.LogPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日志表分区维护
+ * 启用后在启动时及每隔一段时间为日志表预建未来的分区，并删除超出保留期的整个分区。
+ * 节点之间不做协调，多节点部署时只应在一个节点启用，避免多个节点同时对同一张表执行分区DDL
+ */
+@Component
+public class LogPartitionMaintainer implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(LogPartitionMaintainer.class);
+
+    @Autowired
+    private LogPartitionProperties properties;
+
+    @Autowired
+    private LogPartitionService logPartitionService;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * 查询所有日志表的分区
+     * @return 每张表的分区列表，未分区的表为空列表
+     */
+    public Map<String, List<LogPartition>> listPartitions() {
+        Map<String, List<LogPartition>> result = new LinkedHashMap<>();
+        for (String table : properties.getTables()) {
+            result.put(table, logPartitionService.listPartitions(table));
+        }
+        return result;
+    }
+
+    /**
+     * 立即维护所有日志表的分区
+     * @return 每张表新建和删除的分区
+     */
+    public synchronized Map<String, Map<String, List<String>>> maintain() {
+        Map<String, Map<String, List<String>>> result = new LinkedHashMap<>();
+        for (String table : properties.getTables()) {
+            Map<String, List<String>> changes = new LinkedHashMap<>();
+            try {
+                changes.put("created", logPartitionService.createPartitions(table,
+                        properties.getGranularity(), properties.getPrecreate()));
+                changes.put("dropped", logPartitionService.dropExpiredPartitions(table,
+                        properties.getGranularity(), properties.getRetention()));
+            } catch (Exception e) {
+                logger.error("维护日志表{}的分区失败", table, e);
+            }
+            result.put(table, changes);
+        }
+        return result;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-partition-maintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, properties.getIntervalMinutes());
+        scheduler.scheduleWithFixedDelay(this::maintain, 0, interval, TimeUnit.MINUTES);
+        logger.info("日志表分区维护已启动，粒度: {}，预建: {}，保留: {}",
+                properties.getGranularity(), properties.getPrecreate(), properties.getRetention());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
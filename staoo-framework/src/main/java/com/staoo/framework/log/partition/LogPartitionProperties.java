@@ -0,0 +1,94 @@
+package com.staoo.framework.log.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日志表分区维护配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.log.partition")
+public class LogPartitionProperties {
+
+    /**
+     * 是否启用分区维护（表需要先按database-update.sql改为分区表），多节点部署时只在一个节点启用
+     */
+    private boolean enabled = false;
+
+    /**
+     * 分区粒度，DAYS或MONTHS
+     */
+    private ChronoUnit granularity = ChronoUnit.MONTHS;
+
+    /**
+     * 预建的周期数（含当前周期）
+     */
+    private int precreate = 3;
+
+    /**
+     * 保留的周期数（含当前周期），小于等于0表示不删除，默认不删除
+     */
+    private int retention = 0;
+
+    /**
+     * 维护间隔（分钟）
+     */
+    private long intervalMinutes = 60;
+
+    /**
+     * 需要维护分区的日志表
+     */
+    private List<String> tables = new ArrayList<>(List.of("sys_operation_log", "sys_operation_log_term", "sys_login_log"));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public ChronoUnit getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(ChronoUnit granularity) {
+        this.granularity = granularity;
+    }
+
+    public int getPrecreate() {
+        return precreate;
+    }
+
+    public void setPrecreate(int precreate) {
+        this.precreate = precreate;
+    }
+
+    public int getRetention() {
+        return retention;
+    }
+
+    public void setRetention(int retention) {
+        this.retention = retention;
+    }
+
+    public long getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public void setIntervalMinutes(long intervalMinutes) {
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public List<String> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<String> tables) {
+        this.tables = tables;
+    }
+}
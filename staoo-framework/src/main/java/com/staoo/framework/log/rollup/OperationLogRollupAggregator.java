@@ -0,0 +1,258 @@
+package com.staoo.framework.log.rollup;
+
+import com.staoo.common.domain.OperationLogBase;
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+import com.staoo.system.domain.OperationLogRollup;
+import com.staoo.system.service.SystemOperationLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 操作日志小时汇总累加器
+ * 操作日志入库成功后按租户、小时、模块、操作类型、状态和操作人在内存中累加计数，
+ * 定时把增量累加到sys_operation_log_rollup表，统计接口只查询汇总表
+ */
+@Component
+public class OperationLogRollupAggregator implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogRollupAggregator.class);
+
+    /**
+     * 在日志写入器和预写文件重放停止之后再停止，保证关闭前入库的日志都计入汇总
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 12288;
+
+    @Autowired
+    private OperationLogRollupProperties properties;
+
+    @Autowired
+    private SystemOperationLogService operationLogService;
+
+    private final Map<RollupKey, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 上次写入时从内存移除的计数器，请求线程可能在移除前取到了计数器、移除后才累加，
+     * 下次写入时再取一次值后丢弃，只在flush中访问
+     */
+    private List<Map.Entry<RollupKey, LongAdder>> retired = new ArrayList<>();
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * 累加已入库的操作日志，不会抛出异常
+     * @param logs 已入库的操作日志
+     */
+    public void record(List<OperationLogBase> logs) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (OperationLogBase log : logs) {
+            try {
+                counters.computeIfAbsent(RollupKey.of(log), key -> new LongAdder()).increment();
+            } catch (Exception e) {
+                logger.warn("累加操作日志汇总失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 把内存中的增量写入汇总表，写入失败时增量放回内存等待下次写入
+     * @return 写入的汇总行数
+     */
+    public synchronized int flush() {
+        LocalDateTime retainFrom = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                .minusHours(Math.max(1, properties.getRetainHours()));
+        Map<RollupKey, Long> pending = new LinkedHashMap<>();
+        for (Map.Entry<RollupKey, LongAdder> entry : retired) {
+            pending.merge(entry.getKey(), entry.getValue().sumThenReset(), Long::sum);
+        }
+        List<Map.Entry<RollupKey, LongAdder>> nextRetired = new ArrayList<>();
+        for (Map.Entry<RollupKey, LongAdder> entry : counters.entrySet()) {
+            RollupKey key = entry.getKey();
+            LongAdder counter = entry.getValue();
+            // 先取值再移除，移除后把期间到达的计数一并取出；之后到达的计数会重新创建计数器
+            long count = counter.sumThenReset();
+            if (key.statHour.isBefore(retainFrom) && counters.remove(key, counter)) {
+                count += counter.sumThenReset();
+                nextRetired.add(Map.entry(key, counter));
+            }
+            pending.merge(key, count, Long::sum);
+        }
+        retired = nextRetired;
+
+        List<OperationLogRollup> rollups = new ArrayList<>();
+        for (Map.Entry<RollupKey, Long> entry : pending.entrySet()) {
+            if (entry.getValue() > 0) {
+                rollups.add(entry.getKey().toRollup(entry.getValue()));
+            }
+        }
+        if (rollups.isEmpty()) {
+            return 0;
+        }
+        try {
+            operationLogService.saveRollups(rollups);
+            return rollups.size();
+        } catch (Exception e) {
+            for (Map.Entry<RollupKey, Long> entry : pending.entrySet()) {
+                if (entry.getValue() > 0) {
+                    counters.computeIfAbsent(entry.getKey(), key -> new LongAdder()).add(entry.getValue());
+                }
+            }
+            logger.error("写入操作日志汇总失败，{}条汇总稍后重试", rollups.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 先写入内存中的增量，再从原始日志回填时间范围内的汇总
+     * 回填用原始日志的计数覆盖汇总行，而其他节点可能还有同一小时尚未写入的计数，写入时会在回填结果上再累加一次。
+     * 因此只回填所有节点都已写入并移除计数的小时，即早于 当前整点 - retain-hours 再减去一个写入间隔的小时，
+     * 结束时间晚于该时间时截断；预写文件重放积压的旧日志期间也不应回填
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 回填的汇总行数
+     */
+    public synchronized long backfill(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime settledBefore = LocalDateTime.now()
+                .minus(Math.max(1000, properties.getFlushIntervalMillis()), ChronoUnit.MILLIS)
+                .truncatedTo(ChronoUnit.HOURS)
+                .minusHours(Math.max(1, properties.getRetainHours()));
+        if (startTime != null && !startTime.isBefore(settledBefore)) {
+            throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(),
+                    "只能回填" + settledBefore + "之前的汇总，之后的小时其他节点可能还有未写入的计数");
+        }
+        flush();
+        return operationLogService.backfillRollups(startTime,
+                endTime != null && endTime.isAfter(settledBefore) ? settledBefore : endTime);
+    }
+
+    /**
+     * 内存中待写入的汇总键数
+     * @return 汇总键数
+     */
+    public int getPendingKeys() {
+        return counters.size();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "operation-log-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, properties.getFlushIntervalMillis());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+            flushQuietly();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("写入操作日志汇总异常", e);
+        }
+    }
+
+    /**
+     * 汇总维度，空值统一为汇总表的列默认值
+     */
+    private static final class RollupKey {
+        private final long tenantId;
+        private final LocalDateTime statHour;
+        private final String module;
+        private final String operationType;
+        private final int status;
+        private final long userId;
+        private final int hash;
+
+        private RollupKey(long tenantId, LocalDateTime statHour, String module, String operationType,
+                          int status, long userId) {
+            this.tenantId = tenantId;
+            this.statHour = statHour;
+            this.module = module;
+            this.operationType = operationType;
+            this.status = status;
+            this.userId = userId;
+            this.hash = Objects.hash(tenantId, statHour, module, operationType, status, userId);
+        }
+
+        static RollupKey of(OperationLogBase log) {
+            LocalDateTime time = log.getOperationTime() != null ? log.getOperationTime() : LocalDateTime.now();
+            return new RollupKey(
+                    log.getTenantId() != null ? log.getTenantId() : 0L,
+                    time.truncatedTo(ChronoUnit.HOURS),
+                    log.getModule() != null ? log.getModule() : "",
+                    log.getOperationType() != null ? log.getOperationType() : "",
+                    log.getStatus() != null ? log.getStatus() : 1,
+                    log.getUserId() != null ? log.getUserId() : 0L);
+        }
+
+        OperationLogRollup toRollup(long count) {
+            OperationLogRollup rollup = new OperationLogRollup();
+            rollup.setTenantId(tenantId);
+            rollup.setStatHour(statHour);
+            rollup.setModule(module);
+            rollup.setOperationType(operationType);
+            rollup.setStatus(status);
+            rollup.setUserId(userId);
+            rollup.setOpCount(count);
+            return rollup;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey other)) {
+                return false;
+            }
+            return tenantId == other.tenantId && status == other.status && userId == other.userId
+                    && statHour.equals(other.statHour) && module.equals(other.module)
+                    && operationType.equals(other.operationType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
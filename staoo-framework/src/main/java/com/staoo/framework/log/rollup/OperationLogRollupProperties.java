@@ -0,0 +1,51 @@
+package com.staoo.framework.log.rollup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 操作日志小时汇总配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.log.rollup")
+public class OperationLogRollupProperties {
+
+    /**
+     * 是否在写入操作日志时累加小时汇总
+     */
+    private boolean enabled = true;
+
+    /**
+     * 内存计数写入汇总表的间隔（毫秒）
+     */
+    private long flushIntervalMillis = 60000;
+
+    /**
+     * 早于多少小时的计数在写入后从内存移除，回填汇总只能回填这之前的小时
+     */
+    private int retainHours = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public int getRetainHours() {
+        return retainHours;
+    }
+
+    public void setRetainHours(int retainHours) {
+        this.retainHours = retainHours;
+    }
+}
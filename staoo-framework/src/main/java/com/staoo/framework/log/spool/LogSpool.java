@@ -0,0 +1,367 @@
+package com.staoo.framework.log.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射的只追加分段文件
+ * 文件名为 {name}-{序号}.seg，每条记录为 [长度int][CRC32 int][内容]，长度为-1表示分段结束；
+ * 已重放的位置记录在 {name}.checkpoint 中（先写临时文件再原子替换），重放完的分段在提交检查点后删除。
+ * 启动时从最后一个分段中找出最后一条完整的记录，截断崩溃时写了一半的记录。
+ * 重放和提交检查点不是原子的，崩溃后可能重复重放最后一批，即至少一次
+ */
+public class LogSpool implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(LogSpool.class);
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_MARKER = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final String name;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean forceOnAppend;
+    private final Pattern segmentPattern;
+    private final CRC32 crc = new CRC32();
+
+    private long firstSeq;
+    private long writeSeq;
+    private MappedByteBuffer writeBuffer;
+    private int writePos;
+
+    private long readSeq;
+    private int readPos;
+    private long readBufferSeq = -1;
+    private MappedByteBuffer readBuffer;
+
+    private long appended;
+    private long rejected;
+    private boolean closed;
+
+    private LogSpool(String name, Path directory, int segmentSize, int maxSegments, boolean forceOnAppend) {
+        this.name = name;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(2, maxSegments);
+        this.forceOnAppend = forceOnAppend;
+        this.segmentPattern = Pattern.compile(Pattern.quote(name) + "-(\\d+)" + Pattern.quote(SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 打开或创建预写文件，恢复写入位置和检查点
+     * @param name 通道名称
+     * @param directory 目录
+     * @param segmentSize 分段大小
+     * @param maxSegments 最多保留的分段数
+     * @param forceOnAppend 是否每次追加后刷盘
+     * @return 预写文件
+     * @throws IOException 文件读写失败
+     */
+    public static LogSpool open(String name, Path directory, int segmentSize, int maxSegments,
+                                boolean forceOnAppend) throws IOException {
+        LogSpool spool = new LogSpool(name, directory, segmentSize, maxSegments, forceOnAppend);
+        spool.recover();
+        return spool;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        TreeSet<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            firstSeq = 1;
+            writeSeq = 1;
+            writeBuffer = map(writeSeq);
+            writePos = 0;
+        } else {
+            firstSeq = segments.first();
+            writeSeq = segments.last();
+            writeBuffer = map(writeSeq);
+            writePos = scanEnd(writeBuffer);
+            // 清除崩溃时写了一半的记录，之后追加的记录不会和残留数据混在一起
+            for (int i = writePos; i < segmentSize; i++) {
+                writeBuffer.put(i, (byte) 0);
+            }
+        }
+
+        long[] checkpoint = readCheckpoint();
+        if (checkpoint == null || checkpoint[0] < firstSeq || checkpoint[0] > writeSeq) {
+            readSeq = firstSeq;
+            readPos = 0;
+        } else {
+            readSeq = checkpoint[0];
+            readPos = (int) Math.min(checkpoint[1], readSeq == writeSeq ? writePos : segmentSize);
+        }
+        logger.info("日志预写文件[{}]已打开，分段: {}~{}，写入位置: {}，重放位置: {}/{}",
+                name, firstSeq, writeSeq, writePos, readSeq, readPos);
+    }
+
+    /**
+     * 追加一条记录
+     * @param payload 记录内容
+     * @return 是否追加成功，记录过大、分段数超出上限或已关闭时返回false
+     */
+    public synchronized boolean append(byte[] payload) {
+        int length = HEADER_SIZE + payload.length;
+        // 每个分段末尾保留结束标记的位置
+        if (closed || length > segmentSize - 4) {
+            rejected++;
+            return false;
+        }
+        try {
+            if (writePos + length > segmentSize - 4) {
+                if (writeSeq - firstSeq + 1 >= maxSegments) {
+                    rejected++;
+                    return false;
+                }
+                rotate();
+            }
+        } catch (IOException e) {
+            logger.error("日志预写文件[{}]切换分段失败", name, e);
+            rejected++;
+            return false;
+        }
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+        writeBuffer.put(writePos + HEADER_SIZE, payload);
+        writeBuffer.putInt(writePos + 4, (int) crc.getValue());
+        writeBuffer.putInt(writePos, payload.length);
+        writePos += length;
+        if (forceOnAppend) {
+            writeBuffer.force();
+        }
+        appended++;
+        return true;
+    }
+
+    /**
+     * 从检查点开始读取一批记录，不移动检查点
+     * @param maxRecords 最多读取的记录数
+     * @return 读取结果，没有新记录时记录列表为空
+     */
+    public synchronized Batch read(int maxRecords) {
+        List<byte[]> records = new ArrayList<>();
+        long seq = readSeq;
+        int pos = readPos;
+        try {
+            while (records.size() < maxRecords && !closed) {
+                boolean current = seq == writeSeq;
+                MappedByteBuffer buffer = current ? writeBuffer : readBuffer(seq);
+                int limit = current ? writePos : segmentSize;
+                byte[] record = readRecord(buffer, pos, limit);
+                if (record != null) {
+                    records.add(record);
+                    pos += HEADER_SIZE + record.length;
+                    continue;
+                }
+                if (current) {
+                    break;
+                }
+                // 当前分段已读完，进入下一个分段
+                seq++;
+                pos = 0;
+            }
+        } catch (IOException e) {
+            logger.error("读取日志预写文件[{}]失败", name, e);
+        }
+        return new Batch(records, seq, pos);
+    }
+
+    /**
+     * 记录已成功重放，写入检查点并删除已读完的分段
+     * @param batch 已重放的批次
+     * @throws IOException 写入检查点失败
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        if (closed) {
+            return;
+        }
+        writeCheckpoint(batch.seq, batch.pos);
+        readSeq = batch.seq;
+        readPos = batch.pos;
+        while (firstSeq < readSeq) {
+            if (readBufferSeq == firstSeq) {
+                readBuffer = null;
+                readBufferSeq = -1;
+            }
+            Files.deleteIfExists(segmentPath(firstSeq));
+            firstSeq++;
+        }
+    }
+
+    /**
+     * 获取统计信息
+     * @return 统计信息
+     */
+    public synchronized LogSpoolStats getStats() {
+        return new LogSpoolStats(name, writeSeq - firstSeq + 1, writeSeq, writePos, readSeq, readPos,
+                hasPending(), appended, rejected);
+    }
+
+    /**
+     * 是否有未重放的记录
+     * @return 是否有未重放的记录
+     */
+    public synchronized boolean hasPending() {
+        return readSeq < writeSeq || readPos < writePos;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeBuffer.force();
+        writeBuffer = null;
+        readBuffer = null;
+    }
+
+    private void rotate() throws IOException {
+        writeBuffer.putInt(writePos, END_MARKER);
+        writeBuffer.force();
+        writeSeq++;
+        writeBuffer = map(writeSeq);
+        writePos = 0;
+    }
+
+    private byte[] readRecord(MappedByteBuffer buffer, int pos, int limit) {
+        if (buffer == null || pos + HEADER_SIZE > limit) {
+            return null;
+        }
+        int length = buffer.getInt(pos);
+        if (length <= 0 || pos + HEADER_SIZE + length > limit) {
+            return null;
+        }
+        byte[] record = new byte[length];
+        buffer.get(pos + HEADER_SIZE, record);
+        crc.reset();
+        crc.update(record, 0, length);
+        if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+            logger.warn("日志预写文件[{}]在位置{}校验失败，忽略该分段剩余内容", name, pos);
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * 找到分段中最后一条完整记录之后的位置
+     */
+    private int scanEnd(MappedByteBuffer buffer) {
+        int pos = 0;
+        byte[] record;
+        while ((record = readRecord(buffer, pos, segmentSize - 4)) != null) {
+            pos += HEADER_SIZE + record.length;
+        }
+        return pos;
+    }
+
+    private MappedByteBuffer readBuffer(long seq) throws IOException {
+        if (readBufferSeq != seq) {
+            if (!Files.exists(segmentPath(seq))) {
+                // 分段文件被手工删除时跳过
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(seq), StandardOpenOption.READ)) {
+                readBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentSize));
+            }
+            readBufferSeq = seq;
+        }
+        return readBuffer;
+    }
+
+    private MappedByteBuffer map(long seq) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 映射在通道关闭后仍然有效
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private TreeSet<Long> listSegments() throws IOException {
+        TreeSet<Long> segments = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = segmentPattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        return segments;
+    }
+
+    private long[] readCheckpoint() {
+        Path path = directory.resolve(name + CHECKPOINT_SUFFIX);
+        try {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            String[] parts = Files.readString(path, StandardCharsets.UTF_8).trim().split(",");
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (Exception e) {
+            logger.warn("日志预写文件[{}]检查点无法读取，从第一个分段开始重放", name, e);
+            return null;
+        }
+    }
+
+    private void writeCheckpoint(long seq, int pos) throws IOException {
+        Path path = directory.resolve(name + CHECKPOINT_SUFFIX);
+        Path temp = directory.resolve(name + CHECKPOINT_SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(StandardCharsets.UTF_8.encode(seq + "," + pos));
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%s-%020d%s", name, seq, SEGMENT_SUFFIX));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 一批读取结果及其之后的位置
+     */
+    public static final class Batch {
+        private final List<byte[]> records;
+        private final long seq;
+        private final int pos;
+
+        private Batch(List<byte[]> records, long seq, int pos) {
+            this.records = records;
+            this.seq = seq;
+            this.pos = pos;
+        }
+
+        public List<byte[]> getRecords() {
+            return records;
+        }
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+}
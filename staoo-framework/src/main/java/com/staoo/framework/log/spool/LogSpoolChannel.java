@@ -0,0 +1,87 @@
+package com.staoo.framework.log.spool;
+
+import com.alibaba.fastjson2.JSON;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 日志预写通道
+ * 把日志对象以JSON追加到预写文件，由LogSpoolManager的重放线程分批交给入库方法
+ * @param <T> 日志类型
+ */
+public class LogSpoolChannel<T> {
+    private static final Logger logger = LoggerFactory.getLogger(LogSpoolChannel.class);
+
+    private final LogSpool spool;
+    private final Class<T> type;
+    private final Consumer<List<T>> sink;
+    private volatile long nextReplayTime;
+
+    LogSpoolChannel(LogSpool spool, Class<T> type, Consumer<List<T>> sink) {
+        this.spool = spool;
+        this.type = type;
+        this.sink = sink;
+    }
+
+    /**
+     * 追加一条日志，不会抛出异常
+     * @param log 日志
+     * @return 是否追加成功
+     */
+    public boolean append(T log) {
+        try {
+            return spool.append(JSON.toJSONBytes(log));
+        } catch (Exception e) {
+            logger.error("写入日志预写文件[{}]失败", spool.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 重放一批日志
+     * @param batchSize 每批条数
+     * @param retryIntervalMillis 失败后的重试间隔
+     * @return 重放的条数，没有待重放的日志或入库失败时返回0
+     */
+    int replay(int batchSize, long retryIntervalMillis) {
+        if (System.currentTimeMillis() < nextReplayTime) {
+            return 0;
+        }
+        LogSpool.Batch batch = spool.read(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<T> logs = new ArrayList<>(batch.getRecords().size());
+        for (byte[] record : batch.getRecords()) {
+            try {
+                logs.add(JSON.parseObject(record, type));
+            } catch (Exception e) {
+                // 无法解析的记录跳过，避免阻塞后续重放
+                logger.error("日志预写文件[{}]中的记录无法解析，已跳过", spool.getName(), e);
+            }
+        }
+        try {
+            if (!logs.isEmpty()) {
+                sink.accept(logs);
+            }
+            spool.commit(batch);
+            return logs.size();
+        } catch (Exception e) {
+            nextReplayTime = System.currentTimeMillis() + retryIntervalMillis;
+            logger.warn("重放日志预写文件[{}]失败，{}毫秒后重试: {}", spool.getName(), retryIntervalMillis, e.getMessage());
+            return 0;
+        }
+    }
+
+    public LogSpoolStats getStats() {
+        return spool.getStats();
+    }
+
+    LogSpool getSpool() {
+        return spool;
+    }
+}
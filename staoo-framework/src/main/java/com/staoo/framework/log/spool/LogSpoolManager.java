@@ -0,0 +1,134 @@
+package com.staoo.framework.log.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 日志预写文件管理
+ * 管理各个日志通道的预写文件，并由一个后台线程把积压的日志分批重放入库
+ */
+@Component
+public class LogSpoolManager implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(LogSpoolManager.class);
+
+    /**
+     * 先于日志写入器启动、晚于其停止，保证写入器停止时仍可写入预写文件
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+
+    @Autowired
+    private LogSpoolProperties properties;
+
+    private final Map<String, LogSpoolChannel<?>> channels = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread replayer;
+
+    /**
+     * 注册日志通道，打开或恢复对应的预写文件
+     * @param name 通道名称，同时作为文件名前缀
+     * @param type 日志类型
+     * @param sink 批量入库方法，抛出异常表示入库失败，稍后重试
+     * @param <T> 日志类型
+     * @return 日志通道
+     */
+    public synchronized <T> LogSpoolChannel<T> register(String name, Class<T> type, Consumer<List<T>> sink) {
+        if (channels.containsKey(name)) {
+            throw new IllegalStateException("日志预写通道已注册: " + name);
+        }
+        try {
+            LogSpool spool = LogSpool.open(name, Paths.get(properties.getDirectory()),
+                    properties.getSegmentSize(), properties.getMaxSegments(), properties.isForceOnAppend());
+            LogSpoolChannel<T> channel = new LogSpoolChannel<>(spool, type, sink);
+            channels.put(name, channel);
+            return channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开日志预写文件失败: " + name, e);
+        }
+    }
+
+    /**
+     * 获取所有通道的统计
+     * @return 统计列表
+     */
+    public List<LogSpoolStats> getStats() {
+        List<LogSpoolStats> stats = new ArrayList<>();
+        for (LogSpoolChannel<?> channel : channels.values()) {
+            stats.add(channel.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        replayer = new Thread(this::replayLoop, "log-spool-replayer");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (replayer != null) {
+            replayer.interrupt();
+            try {
+                replayer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            replayer = null;
+        }
+        for (LogSpoolChannel<?> channel : channels.values()) {
+            channel.getSpool().close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 重放线程：有积压时连续重放，没有积压时按间隔轮询
+     */
+    private void replayLoop() {
+        int batchSize = Math.max(1, properties.getReplayBatchSize());
+        while (running) {
+            int replayed = 0;
+            for (LogSpoolChannel<?> channel : channels.values()) {
+                try {
+                    replayed += channel.replay(batchSize, properties.getRetryIntervalMillis());
+                } catch (Exception e) {
+                    logger.error("日志预写文件重放异常", e);
+                }
+            }
+            if (replayed > 0) {
+                continue;
+            }
+            try {
+                Thread.sleep(Math.max(1, properties.getReplayIntervalMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
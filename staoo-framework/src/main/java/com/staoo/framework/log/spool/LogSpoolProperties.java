@@ -0,0 +1,118 @@
+package com.staoo.framework.log.spool;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志本地预写文件配置属性
+ * 数据库不可用或写入过慢时，日志先追加到内存映射的分段文件中，由后台线程分批重放入库
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.log.spool")
+public class LogSpoolProperties {
+
+    /**
+     * 分段文件所在目录
+     */
+    private String directory = "logs/spool";
+
+    /**
+     * 单个分段文件大小（字节）
+     */
+    private int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * 每个通道最多保留的分段文件数，超出后新日志被拒绝，避免占满磁盘
+     */
+    private int maxSegments = 64;
+
+    /**
+     * 每次追加后是否立即刷盘
+     * 关闭时由操作系统异步回写，进程崩溃不丢数据，只有机器掉电可能丢失最近的记录
+     */
+    private boolean forceOnAppend = false;
+
+    /**
+     * 每批重放的记录数
+     */
+    private int replayBatchSize = 200;
+
+    /**
+     * 重放线程的轮询间隔（毫秒）
+     */
+    private long replayIntervalMillis = 1000;
+
+    /**
+     * 重放失败后的重试间隔（毫秒）
+     */
+    private long retryIntervalMillis = 30000;
+
+    /**
+     * 登录日志是否先写入预写文件再异步入库
+     */
+    private boolean loginLog = false;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    public boolean isForceOnAppend() {
+        return forceOnAppend;
+    }
+
+    public void setForceOnAppend(boolean forceOnAppend) {
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    public void setReplayBatchSize(int replayBatchSize) {
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    public long getReplayIntervalMillis() {
+        return replayIntervalMillis;
+    }
+
+    public void setReplayIntervalMillis(long replayIntervalMillis) {
+        this.replayIntervalMillis = replayIntervalMillis;
+    }
+
+    public long getRetryIntervalMillis() {
+        return retryIntervalMillis;
+    }
+
+    public void setRetryIntervalMillis(long retryIntervalMillis) {
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    public boolean isLoginLog() {
+        return loginLog;
+    }
+
+    public void setLoginLog(boolean loginLog) {
+        this.loginLog = loginLog;
+    }
+}
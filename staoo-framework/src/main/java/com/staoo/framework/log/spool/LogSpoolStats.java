@@ -0,0 +1,86 @@
+package com.staoo.framework.log.spool;
+
+/**
+ * 日志预写文件统计
+ */
+public class LogSpoolStats {
+    private final String name;
+    private final long segments;
+    private final long writeSegment;
+    private final int writePosition;
+    private final long replaySegment;
+    private final int replayPosition;
+    private final boolean pending;
+    private final long appended;
+    private final long rejected;
+
+    public LogSpoolStats(String name, long segments, long writeSegment, int writePosition,
+                         long replaySegment, int replayPosition, boolean pending, long appended, long rejected) {
+        this.name = name;
+        this.segments = segments;
+        this.writeSegment = writeSegment;
+        this.writePosition = writePosition;
+        this.replaySegment = replaySegment;
+        this.replayPosition = replayPosition;
+        this.pending = pending;
+        this.appended = appended;
+        this.rejected = rejected;
+    }
+
+    /**
+     * 通道名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前保留的分段数
+     */
+    public long getSegments() {
+        return segments;
+    }
+
+    /**
+     * 正在写入的分段序号
+     */
+    public long getWriteSegment() {
+        return writeSegment;
+    }
+
+    public int getWritePosition() {
+        return writePosition;
+    }
+
+    /**
+     * 检查点所在的分段序号
+     */
+    public long getReplaySegment() {
+        return replaySegment;
+    }
+
+    public int getReplayPosition() {
+        return replayPosition;
+    }
+
+    /**
+     * 是否有未重放的记录
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * 本次启动以来追加的记录数
+     */
+    public long getAppended() {
+        return appended;
+    }
+
+    /**
+     * 本次启动以来被拒绝的记录数（记录过大或分段数超出上限）
+     */
+    public long getRejected() {
+        return rejected;
+    }
+}
@@ -1,17 +1,27 @@
 package com.staoo.framework.plugin;
 
-import com.staoo.common.util.AutoFillUtils;
+import com.staoo.common.util.AutoFillAccessor;
+import com.staoo.common.util.UserUtils;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.plugin.*;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * MyBatis自动填充插件
  * 用于在数据库操作时自动填充创建人、创建时间、更新人和更新时间字段
+ * 批量操作的集合、数组和多参数Map中的每个实体都会被填充
  */
 @Intercepts({
         @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
@@ -24,9 +34,15 @@ public class MyBatisAutoFillPlugin implements Interceptor {
      */
     private static final String[] IGNORE_SQL_PREFIX = {
             "com.staoo.system.mapper.TenantMapper.",
-            "com.staoo.system.mapper.OperationLogMapper."
+            "com.staoo.system.mapper.OperationLogMapper.",
+            "com.staoo.system.mapper.OperationLogRollupMapper."
     };
 
+    /**
+     * 参数容器的最大嵌套层级，如ParamMap -> List -> 实体
+     */
+    private static final int MAX_DEPTH = 3;
+
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
         // 获取参数
@@ -41,14 +57,22 @@ public class MyBatisAutoFillPlugin implements Interceptor {
 
         // 根据SQL类型进行自动填充
         SqlCommandType sqlCommandType = ms.getSqlCommandType();
-        if (sqlCommandType == SqlCommandType.INSERT) {
-            // 插入操作，填充创建信息
-            AutoFillUtils.fillCreateInfo(parameter);
-            // 同时填充更新信息，确保更新人和更新时间也被设置
-            AutoFillUtils.fillUpdateInfo(parameter);
-        } else if (sqlCommandType == SqlCommandType.UPDATE) {
-            // 更新操作，填充更新信息
-            AutoFillUtils.fillUpdateInfo(parameter);
+        if (sqlCommandType == SqlCommandType.INSERT || sqlCommandType == SqlCommandType.UPDATE) {
+            List<Object> targets = new ArrayList<>();
+            collectTargets(parameter, targets, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+            if (!targets.isEmpty()) {
+                // 同一条语句中的所有对象使用同一个用户和时间点
+                Long currentUserId = UserUtils.getCurrentUserId();
+                LocalDateTime now = LocalDateTime.now();
+                for (Object target : targets) {
+                    AutoFillAccessor accessor = AutoFillAccessor.of(target.getClass());
+                    if (sqlCommandType == SqlCommandType.INSERT) {
+                        // 插入操作，填充创建信息，同时填充更新信息，确保更新人和更新时间也被设置
+                        accessor.fillCreate(target, currentUserId, now);
+                    }
+                    accessor.fillUpdate(target, currentUserId, now);
+                }
+            }
         }
 
         // 继续执行原始操作
@@ -66,6 +90,36 @@ public class MyBatisAutoFillPlugin implements Interceptor {
         // 可以通过properties获取配置信息
     }
 
+    /**
+     * 收集参数中需要自动填充的对象
+     * 支持单个实体、Collection、数组以及Map（包括MyBatis的ParamMap）中的值，
+     * ParamMap中同一个对象会以多个名称出现，按对象标识去重
+     * @param value 参数值
+     * @param targets 需要填充的对象
+     * @param visited 已访问的对象
+     * @param depth 嵌套层级
+     */
+    private void collectTargets(Object value, List<Object> targets, Set<Object> visited, int depth) {
+        if (value == null || depth > MAX_DEPTH || !visited.add(value)) {
+            return;
+        }
+        if (value instanceof Map<?, ?> map) {
+            for (Object item : map.values()) {
+                collectTargets(item, targets, visited, depth + 1);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                collectTargets(item, targets, visited, depth + 1);
+            }
+        } else if (value instanceof Object[] array) {
+            for (Object item : array) {
+                collectTargets(item, targets, visited, depth + 1);
+            }
+        } else if (AutoFillAccessor.of(value.getClass()).isEnabled()) {
+            targets.add(value);
+        }
+    }
+
     /**
      * 判断是否需要忽略自动填充
      * @param ms MappedStatement对象
@@ -1,6 +1,14 @@
 package com.staoo.framework.plugin;
 
 import com.staoo.common.util.TenantContext;
+import com.staoo.framework.datasource.TenantRouteContext;
+import com.staoo.framework.datasource.TenantShardRouter;
+import com.staoo.framework.plugin.tenant.TenantSqlRewriter;
+import com.staoo.framework.plugin.tenant.TenantSqlSource;
+import com.staoo.framework.plugin.tenant.TenantSqlTemplate;
+import com.staoo.framework.plugin.tenant.TenantStatementInfo;
+import com.staoo.framework.plugin.tenant.TenantStatementRegistry;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -9,43 +17,76 @@ import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.plugin.*;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * MyBatis多租户插件
  * 用于在SQL执行时自动添加租户ID过滤条件
+ * SQL改写结果按语句缓存，包装后的MappedStatement在调用间复用
+ * 忽略的表和语句由配置（staoo.tenant）和@TenantIgnore注解决定
+ * 启用数据源分片时同时为每条语句设置路由提示
+ * 游标查询（queryCursor）与普通查询一样追加租户条件
  */
 @Intercepts({
         @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class}),
         @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
 })
 @Component
 public class MyBatisTenantPlugin implements Interceptor {
 
-    // 不需要进行租户隔离的表
-    private static final Set<String> IGNORE_TABLES = new HashSet<>(Arrays.asList(
-            // 租户表本身不需要租户过滤
-            "sys_tenant", 
-            // 系统配置表
-            "sys_config"
-    ));
+    @Autowired
+    private TenantSqlRewriter sqlRewriter;
 
-    // 不需要进行租户隔离的SQL ID前缀
-    private static final Set<String> IGNORE_SQL_PREFIX = new HashSet<>(Arrays.asList(
-            "com.staoo.system.mapper.TenantMapper."
-    ));
+    @Autowired
+    private TenantStatementRegistry statementRegistry;
+
+    @Autowired
+    private TenantShardRouter shardRouter;
+
+    /**
+     * 已包装租户SqlSource的MappedStatement缓存
+     * key: 语句ID
+     */
+    private final Map<String, MappedStatement> tenantStatements = new ConcurrentHashMap<>();
 
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
+        // 嵌套执行的语句（如selectKey）结束后需要还原外层语句的路由
+        Boolean previousRoute = TenantRouteContext.get();
+        try {
+            return doIntercept(invocation);
+        } finally {
+            TenantRouteContext.restore(previousRoute);
+        }
+    }
+
+    private Object doIntercept(Invocation invocation) throws Throwable {
         // 获取参数
         Object[] args = invocation.getArgs();
         MappedStatement ms = (MappedStatement) args[0];
-        Object parameter = args[1];
 
-        // 检查是否需要忽略租户过滤
-        if (shouldIgnoreTenantFilter(ms)) {
+        // 已经是租户语句
+        if (ms.getSqlSource() instanceof TenantSqlSource) {
+            return invocation.proceed();
+        }
+
+        // 按启动时的分类检查是否需要忽略租户过滤
+        TenantStatementInfo statementInfo = statementRegistry.resolve(ms);
+        if (statementInfo.isIgnored()) {
+            if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+                // INSERT不需要租户条件，但写入分片表时仍需路由到租户分片
+                shardRouter.routeInsert(ms, args[1]);
+            } else {
+                // 全局表只存在于主库
+                shardRouter.routeMaster();
+            }
             return invocation.proceed();
         }
 
@@ -56,79 +97,23 @@ public class MyBatisTenantPlugin implements Interceptor {
             return invocation.proceed();
         }
 
-        // 获取BoundSql
-        BoundSql boundSql = ms.getBoundSql(parameter);
-        String originalSql = boundSql.getSql();
-
-        // 处理SQL，添加租户ID过滤条件
-        String newSql = addTenantFilter(originalSql, tenantId, ms.getSqlCommandType());
-
-        // 创建新的BoundSql
-        BoundSql newBoundSql = new BoundSql(ms.getConfiguration(), newSql, boundSql.getParameterMappings(), parameter);
-
-        // 创建新的MappedStatement
-        MappedStatement newMs = copyFromMappedStatement(ms, new BoundSqlSqlSource(newBoundSql));
-
-        // 替换参数
-        args[0] = newMs;
-
-        return invocation.proceed();
-    }
-
-    /**
-     * 检查是否需要忽略租户过滤
-     */
-    private boolean shouldIgnoreTenantFilter(MappedStatement ms) {
-        // 检查SQL ID是否需要忽略
-        String sqlId = ms.getId();
-        for (String prefix : IGNORE_SQL_PREFIX) {
-            if (sqlId.startsWith(prefix)) {
-                return true;
-            }
-        }
-
-        // 检查表名是否需要忽略
-        BoundSql boundSql = ms.getBoundSql(null);
-        String sql = boundSql.getSql().toUpperCase();
-        for (String table : IGNORE_TABLES) {
-            if (sql.contains("FROM " + table.toUpperCase()) || sql.contains("UPDATE " + table.toUpperCase())) {
-                return true;
-            }
+        if (args.length == 6) {
+            // 其他插件（如分页插件）已生成BoundSql，直接改写并重新计算缓存键
+            Executor executor = (Executor) invocation.getTarget();
+            BoundSql originalBoundSql = (BoundSql) args[5];
+            TenantSqlTemplate template = sqlRewriter.getTemplate(ms.getId(), originalBoundSql.getSql(), ms.getSqlCommandType());
+            shardRouter.route(template);
+            BoundSql boundSql = sqlRewriter.rewrite(ms, originalBoundSql, tenantId, template);
+            args[4] = executor.createCacheKey(ms, args[1], (RowBounds) args[2], boundSql);
+            args[5] = boundSql;
+            return invocation.proceed();
         }
 
-        return false;
-    }
+        // 替换为复用的租户语句
+        args[0] = tenantStatements.computeIfAbsent(ms.getId(),
+                id -> copyFromMappedStatement(ms, new TenantSqlSource(ms, sqlRewriter, shardRouter, statementInfo.getTemplate())));
 
-    /**
-     * 添加租户ID过滤条件
-     */
-    private String addTenantFilter(String sql, Long tenantId, SqlCommandType commandType) {
-        if (commandType == SqlCommandType.SELECT) {
-            // 处理查询语句
-            return addWhereCondition(sql, "tenant_id = " + tenantId);
-        } else if (commandType == SqlCommandType.UPDATE) {
-            // 处理更新语句
-            return addWhereCondition(sql, "tenant_id = " + tenantId);
-        } else if (commandType == SqlCommandType.DELETE) {
-            // 处理删除语句
-            return addWhereCondition(sql, "tenant_id = " + tenantId);
-        }
-        return sql;
-    }
-
-    /**
-     * 在SQL语句中添加WHERE条件
-     */
-    private String addWhereCondition(String sql, String condition) {
-        sql = sql.trim();
-        int whereIndex = sql.toUpperCase().indexOf("WHERE ");
-        if (whereIndex > 0) {
-            // 已有WHERE条件，添加AND
-            return sql.substring(0, whereIndex + 6) + condition + " AND " + sql.substring(whereIndex + 6);
-        } else {
-            // 没有WHERE条件，添加WHERE
-            return sql + " WHERE " + condition;
-        }
+        return invocation.proceed();
     }
 
     /**
@@ -142,7 +127,10 @@ public class MyBatisTenantPlugin implements Interceptor {
         builder.statementType(ms.getStatementType());
         builder.keyGenerator(ms.getKeyGenerator());
         if (ms.getKeyProperties() != null && ms.getKeyProperties().length > 0) {
-            builder.keyProperty(ms.getKeyProperties()[0]);
+            builder.keyProperty(String.join(",", ms.getKeyProperties()));
+        }
+        if (ms.getKeyColumns() != null && ms.getKeyColumns().length > 0) {
+            builder.keyColumn(String.join(",", ms.getKeyColumns()));
         }
         builder.timeout(ms.getTimeout());
         builder.parameterMap(ms.getParameterMap());
@@ -151,6 +139,9 @@ public class MyBatisTenantPlugin implements Interceptor {
         builder.cache(ms.getCache());
         builder.flushCacheRequired(ms.isFlushCacheRequired());
         builder.useCache(ms.isUseCache());
+        builder.resultOrdered(ms.isResultOrdered());
+        builder.databaseId(ms.getDatabaseId());
+        builder.lang(ms.getLang());
 
         return builder.build();
     }
@@ -164,20 +155,4 @@ public class MyBatisTenantPlugin implements Interceptor {
     public void setProperties(Properties properties) {
         // 可以通过properties配置一些参数
     }
-
-    /**
-     * SqlSource实现类
-     */
-    public static class BoundSqlSqlSource implements SqlSource {
-        private BoundSql boundSql;
-
-        public BoundSqlSqlSource(BoundSql boundSql) {
-            this.boundSql = boundSql;
-        }
-
-        @Override
-        public BoundSql getBoundSql(Object parameterObject) {
-            return boundSql;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.staoo.framework.plugin.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 租户隔离配置类
+ * 用于读取配置文件中不需要租户隔离的表和语句
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.tenant")
+public class TenantProperties {
+
+    /**
+     * 不需要进行租户隔离的表
+     */
+    private List<String> ignoreTables = new ArrayList<>(Arrays.asList("sys_tenant", "sys_config", "sys_dict_item"));
+
+    /**
+     * 不需要进行租户隔离的SQL ID前缀
+     */
+    private List<String> ignoreStatements = new ArrayList<>();
+
+    public List<String> getIgnoreTables() {
+        return ignoreTables;
+    }
+
+    public void setIgnoreTables(List<String> ignoreTables) {
+        this.ignoreTables = ignoreTables;
+    }
+
+    public List<String> getIgnoreStatements() {
+        return ignoreStatements;
+    }
+
+    public void setIgnoreStatements(List<String> ignoreStatements) {
+        this.ignoreStatements = ignoreStatements;
+    }
+}
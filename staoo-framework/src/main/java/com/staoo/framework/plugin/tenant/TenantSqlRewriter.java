@@ -0,0 +1,308 @@
+package com.staoo.framework.plugin.tenant;
+
+import com.alibaba.druid.DbType;
+import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.SQLExpr;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.ast.expr.SQLBinaryOpExpr;
+import com.alibaba.druid.sql.ast.expr.SQLBinaryOperator;
+import com.alibaba.druid.sql.ast.expr.SQLIdentifierExpr;
+import com.alibaba.druid.sql.ast.expr.SQLPropertyExpr;
+import com.alibaba.druid.sql.ast.statement.SQLDeleteStatement;
+import com.alibaba.druid.sql.ast.statement.SQLExprTableSource;
+import com.alibaba.druid.sql.ast.statement.SQLJoinTableSource;
+import com.alibaba.druid.sql.ast.statement.SQLSelectQueryBlock;
+import com.alibaba.druid.sql.ast.statement.SQLSelectStatement;
+import com.alibaba.druid.sql.ast.statement.SQLTableSource;
+import com.alibaba.druid.sql.ast.statement.SQLUpdateStatement;
+import com.alibaba.druid.sql.dialect.mysql.ast.statement.MySqlSelectQueryBlock;
+import com.alibaba.druid.sql.dialect.mysql.visitor.MySqlASTVisitorAdapter;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户SQL改写器
+ * 基于Druid SQL解析器在语法树上追加租户条件，支持连接、子查询、UNION和别名，
+ * 改写结果按(语句ID, 原始SQL)缓存为模板，稳定运行后每次执行只是一次Map查找
+ */
+@Component
+public class TenantSqlRewriter {
+    private static final Logger logger = LoggerFactory.getLogger(TenantSqlRewriter.class);
+
+    /**
+     * 租户字段名
+     */
+    public static final String TENANT_COLUMN = "tenant_id";
+
+    /**
+     * 租户ID附加参数名
+     */
+    public static final String TENANT_PARAMETER = "__staoo_tenant_id";
+
+    /**
+     * 每个语句最多缓存的SQL模板数，防止动态SQL组合过多导致缓存无限增长
+     */
+    private static final int MAX_TEMPLATES_PER_STATEMENT = 256;
+
+    private static final SQLUtils.FormatOption FORMAT_OPTION = new SQLUtils.FormatOption(true, false);
+
+    /**
+     * 不需要进行租户隔离的表（小写）
+     */
+    private final Set<String> ignoreTables;
+
+    /**
+     * SQL模板缓存
+     * key: 语句ID, value: (原始SQL -> 模板)
+     */
+    private final Map<String, Map<String, TenantSqlTemplate>> templateCache = new ConcurrentHashMap<>();
+
+    public TenantSqlRewriter(TenantProperties tenantProperties) {
+        Set<String> tables = new HashSet<>();
+        for (String table : tenantProperties.getIgnoreTables()) {
+            tables.add(table.toLowerCase(Locale.ROOT));
+        }
+        this.ignoreTables = tables;
+    }
+
+    /**
+     * 为BoundSql追加租户条件
+     * 租户ID作为JDBC参数绑定，所有租户共用同一条SQL，便于预编译语句缓存和SQL统计合并
+     * @param ms MappedStatement对象
+     * @param boundSql 原始BoundSql
+     * @param tenantId 租户ID
+     * @return 改写后的BoundSql，不需要改写时返回原对象
+     */
+    public BoundSql rewrite(MappedStatement ms, BoundSql boundSql, Long tenantId) {
+        return rewrite(ms, boundSql, tenantId, getTemplate(ms.getId(), boundSql.getSql(), ms.getSqlCommandType()));
+    }
+
+    /**
+     * 使用已确定的模板为BoundSql追加租户条件
+     * @param ms MappedStatement对象
+     * @param boundSql 原始BoundSql
+     * @param tenantId 租户ID
+     * @param template SQL模板
+     * @return 改写后的BoundSql，不需要改写时返回原对象
+     */
+    public BoundSql rewrite(MappedStatement ms, BoundSql boundSql, Long tenantId, TenantSqlTemplate template) {
+        if (!template.isRewritten()) {
+            return boundSql;
+        }
+
+        Configuration configuration = ms.getConfiguration();
+        List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+        ParameterMapping tenantMapping = new ParameterMapping.Builder(configuration, TENANT_PARAMETER, Long.class).build();
+        for (int index : template.getTenantParameterIndexes()) {
+            parameterMappings.add(Math.min(index, parameterMappings.size()), tenantMapping);
+        }
+
+        BoundSql newBoundSql = new BoundSql(configuration, template.getSql(), parameterMappings, boundSql.getParameterObject());
+        // 复制foreach等动态标签生成的附加参数
+        boundSql.getAdditionalParameters().forEach(newBoundSql::setAdditionalParameter);
+        newBoundSql.setAdditionalParameter(TENANT_PARAMETER, tenantId);
+        return newBoundSql;
+    }
+
+    /**
+     * 获取SQL模板，缓存未命中时解析并改写
+     * @param statementId 语句ID
+     * @param sql 原始SQL
+     * @param commandType SQL类型
+     * @return SQL模板
+     */
+    public TenantSqlTemplate getTemplate(String statementId, String sql, SqlCommandType commandType) {
+        Map<String, TenantSqlTemplate> templates = templateCache.computeIfAbsent(statementId, k -> new ConcurrentHashMap<>());
+        TenantSqlTemplate template = templates.get(sql);
+        if (template == null) {
+            template = buildTemplate(statementId, sql, commandType);
+            if (templates.size() < MAX_TEMPLATES_PER_STATEMENT) {
+                templates.putIfAbsent(sql, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * 解析SQL并生成模板
+     */
+    TenantSqlTemplate buildTemplate(String statementId, String sql, SqlCommandType commandType) {
+        if (commandType != SqlCommandType.SELECT
+                && commandType != SqlCommandType.UPDATE
+                && commandType != SqlCommandType.DELETE) {
+            return TenantSqlTemplate.passthrough(sql);
+        }
+
+        try {
+            List<SQLStatement> statements = SQLUtils.parseStatements(sql, DbType.mysql);
+            Set<String> tenantTables = new LinkedHashSet<>();
+            TenantConditionVisitor visitor = new TenantConditionVisitor(tenantTables);
+            StringBuilder markedSql = new StringBuilder();
+            for (SQLStatement statement : statements) {
+                if (statement instanceof SQLUpdateStatement) {
+                    SQLUpdateStatement update = (SQLUpdateStatement) statement;
+                    update.setWhere(appendConditions(update.getWhere(), collectConditions(update.getTableSource(), tenantTables)));
+                } else if (statement instanceof SQLDeleteStatement) {
+                    SQLDeleteStatement delete = (SQLDeleteStatement) statement;
+                    // 多表删除时条件作用在FROM子句的表上
+                    SQLTableSource tableSource = delete.getFrom() != null ? delete.getFrom() : delete.getTableSource();
+                    delete.setWhere(appendConditions(delete.getWhere(), collectConditions(tableSource, tenantTables)));
+                } else if (!(statement instanceof SQLSelectStatement)) {
+                    continue;
+                }
+                // 处理语句中所有的查询块（包括子查询和UNION分支）
+                statement.accept(visitor);
+            }
+            for (SQLStatement statement : statements) {
+                if (markedSql.length() > 0) {
+                    markedSql.append(";\n");
+                }
+                markedSql.append(SQLUtils.toSQLString(statement, DbType.mysql, FORMAT_OPTION));
+            }
+            // 没有需要隔离的表时保持原始SQL不变
+            if (markedSql.indexOf(TenantSqlTemplate.TENANT_MARKER) < 0) {
+                return TenantSqlTemplate.passthrough(sql);
+            }
+            return TenantSqlTemplate.of(markedSql.toString(), tenantTables);
+        } catch (Exception e) {
+            // 无法解析的SQL退回到字符串拼接方式
+            logger.warn("租户SQL解析失败，使用字符串方式追加租户条件: {}, {}", statementId, e.getMessage());
+            return TenantSqlTemplate.of(addWhereCondition(sql, TENANT_COLUMN + " = " + TenantSqlTemplate.TENANT_MARKER),
+                    Collections.emptySet());
+        }
+    }
+
+    /**
+     * 收集表源上需要追加到WHERE的租户条件
+     * 外连接中可为空一侧的表条件追加到ON中，避免外连接退化为内连接
+     * @param tableSource 表源
+     * @param tenantTables 收集追加了租户条件的表
+     * @return 租户条件列表
+     */
+    private List<SQLExpr> collectConditions(SQLTableSource tableSource, Set<String> tenantTables) {
+        List<SQLExpr> conditions = new ArrayList<>();
+        collectConditions(tableSource, conditions, tenantTables);
+        return conditions;
+    }
+
+    private void collectConditions(SQLTableSource tableSource, List<SQLExpr> conditions, Set<String> tenantTables) {
+        if (tableSource instanceof SQLExprTableSource) {
+            SQLExpr condition = buildCondition((SQLExprTableSource) tableSource, tenantTables);
+            if (condition != null) {
+                conditions.add(condition);
+            }
+        } else if (tableSource instanceof SQLJoinTableSource) {
+            SQLJoinTableSource join = (SQLJoinTableSource) tableSource;
+            SQLJoinTableSource.JoinType joinType = join.getJoinType();
+            if (joinType == SQLJoinTableSource.JoinType.LEFT_OUTER_JOIN) {
+                collectConditions(join.getLeft(), conditions, tenantTables);
+                join.setCondition(appendConditions(join.getCondition(), collectConditions(join.getRight(), tenantTables)));
+            } else if (joinType == SQLJoinTableSource.JoinType.RIGHT_OUTER_JOIN) {
+                join.setCondition(appendConditions(join.getCondition(), collectConditions(join.getLeft(), tenantTables)));
+                collectConditions(join.getRight(), conditions, tenantTables);
+            } else if (joinType == SQLJoinTableSource.JoinType.FULL_OUTER_JOIN) {
+                List<SQLExpr> joinConditions = collectConditions(join.getLeft(), tenantTables);
+                joinConditions.addAll(collectConditions(join.getRight(), tenantTables));
+                join.setCondition(appendConditions(join.getCondition(), joinConditions));
+            } else {
+                collectConditions(join.getLeft(), conditions, tenantTables);
+                collectConditions(join.getRight(), conditions, tenantTables);
+            }
+        }
+        // 子查询表源由visitor单独处理其内部查询块
+    }
+
+    /**
+     * 为单个表构建租户条件
+     */
+    private SQLExpr buildCondition(SQLExprTableSource tableSource, Set<String> tenantTables) {
+        String tableName = tableSource.getTableName();
+        if (tableName == null) {
+            return null;
+        }
+        tableName = SQLUtils.normalize(tableName).toLowerCase(Locale.ROOT);
+        if (ignoreTables.contains(tableName)) {
+            return null;
+        }
+        tenantTables.add(tableName);
+        SQLExpr owner = tableSource.getAlias() != null
+                ? new SQLIdentifierExpr(tableSource.getAlias())
+                : tableSource.getExpr().clone();
+        return new SQLBinaryOpExpr(new SQLPropertyExpr(owner, TENANT_COLUMN), SQLBinaryOperator.Equality,
+                new SQLIdentifierExpr(TenantSqlTemplate.TENANT_MARKER), DbType.mysql);
+    }
+
+    /**
+     * 将租户条件以AND方式追加到已有条件之前
+     */
+    private SQLExpr appendConditions(SQLExpr where, List<SQLExpr> conditions) {
+        SQLExpr result = where;
+        for (int i = conditions.size() - 1; i >= 0; i--) {
+            result = result == null
+                    ? conditions.get(i)
+                    : new SQLBinaryOpExpr(conditions.get(i), SQLBinaryOperator.BooleanAnd, result, DbType.mysql);
+        }
+        return result;
+    }
+
+    /**
+     * 在SQL语句中添加WHERE条件（解析失败时的兜底方式）
+     */
+    private static String addWhereCondition(String sql, String condition) {
+        sql = sql.trim();
+        int whereIndex = sql.toUpperCase().indexOf("WHERE ");
+        if (whereIndex > 0) {
+            // 已有WHERE条件，添加AND
+            return sql.substring(0, whereIndex + 6) + condition + " AND " + sql.substring(whereIndex + 6);
+        } else {
+            // 没有WHERE条件，添加WHERE
+            return sql + " WHERE " + condition;
+        }
+    }
+
+    /**
+     * 查询块访问器
+     * 为每个查询块（包括子查询、UNION分支）的直接表源追加租户条件
+     */
+    private class TenantConditionVisitor extends MySqlASTVisitorAdapter {
+        private final Set<String> tenantTables;
+
+        TenantConditionVisitor(Set<String> tenantTables) {
+            this.tenantTables = tenantTables;
+        }
+
+        @Override
+        public boolean visit(SQLSelectQueryBlock x) {
+            return visitQueryBlock(x);
+        }
+
+        @Override
+        public boolean visit(MySqlSelectQueryBlock x) {
+            return visitQueryBlock(x);
+        }
+
+        private boolean visitQueryBlock(SQLSelectQueryBlock x) {
+            List<SQLExpr> conditions = collectConditions(x.getFrom(), tenantTables);
+            if (!conditions.isEmpty()) {
+                x.setWhere(appendConditions(x.getWhere(), conditions));
+            }
+            return true;
+        }
+    }
+}
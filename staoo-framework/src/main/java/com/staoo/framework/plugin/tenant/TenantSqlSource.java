@@ -0,0 +1,45 @@
+package com.staoo.framework.plugin.tenant;
+
+import com.staoo.common.util.TenantContext;
+import com.staoo.framework.datasource.TenantShardRouter;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * 租户SqlSource
+ * 包装原始SqlSource，在生成BoundSql时按当前租户追加过滤条件，
+ * 不持有任何参数状态，因此包装后的MappedStatement可以在所有调用间复用
+ */
+public class TenantSqlSource implements SqlSource {
+    private final MappedStatement original;
+    private final TenantSqlRewriter rewriter;
+    private final TenantShardRouter shardRouter;
+
+    /**
+     * 启动时预先生成的模板，动态SQL为null
+     */
+    private final TenantSqlTemplate template;
+
+    public TenantSqlSource(MappedStatement original, TenantSqlRewriter rewriter, TenantShardRouter shardRouter,
+                           TenantSqlTemplate template) {
+        this.original = original;
+        this.rewriter = rewriter;
+        this.shardRouter = shardRouter;
+        this.template = template;
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+        BoundSql boundSql = original.getSqlSource().getBoundSql(parameterObject);
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            return boundSql;
+        }
+        TenantSqlTemplate sqlTemplate = template != null ? template
+                : rewriter.getTemplate(original.getId(), boundSql.getSql(), original.getSqlCommandType());
+        // BoundSql在创建JDBC语句之前生成，此时设置的路由对本条语句生效
+        shardRouter.route(sqlTemplate);
+        return rewriter.rewrite(original, boundSql, tenantId, sqlTemplate);
+    }
+}
@@ -0,0 +1,124 @@
+package com.staoo.framework.plugin.tenant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 租户SQL模板
+ * 改写后的SQL中租户条件以JDBC占位符表示，同一语句的所有租户共用一条SQL，
+ * 模板记录每个租户占位符在参数列表中的位置，执行时据此插入租户参数
+ */
+public final class TenantSqlTemplate {
+
+    /**
+     * 改写时写入SQL的租户ID占位标记
+     */
+    static final String TENANT_MARKER = "__staoo_tenant_id__";
+
+    private static final int[] NO_INDEXES = new int[0];
+
+    /**
+     * 可执行的SQL（租户条件为?占位符）
+     */
+    private final String sql;
+
+    /**
+     * 租户参数在参数列表中的插入位置（按插入顺序，已计入之前插入的租户参数）
+     */
+    private final int[] tenantParameterIndexes;
+
+    /**
+     * 追加了租户条件的表
+     */
+    private final Set<String> tenantTables;
+
+    private TenantSqlTemplate(String sql, int[] tenantParameterIndexes, Set<String> tenantTables) {
+        this.sql = sql;
+        this.tenantParameterIndexes = tenantParameterIndexes;
+        this.tenantTables = tenantTables;
+    }
+
+    /**
+     * 创建不需要改写的模板
+     * @param sql 原始SQL
+     * @return SQL模板
+     */
+    public static TenantSqlTemplate passthrough(String sql) {
+        return new TenantSqlTemplate(sql, NO_INDEXES, Collections.emptySet());
+    }
+
+    /**
+     * 根据带租户标记的SQL创建模板
+     * @param markedSql 带租户标记的SQL
+     * @param tenantTables 追加了租户条件的表
+     * @return SQL模板
+     */
+    public static TenantSqlTemplate of(String markedSql, Set<String> tenantTables) {
+        List<Integer> indexes = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(markedSql.length());
+        int placeholders = 0;
+        int from = 0;
+        int index;
+        while ((index = markedSql.indexOf(TENANT_MARKER, from)) >= 0) {
+            String fragment = markedSql.substring(from, index);
+            placeholders += countPlaceholders(fragment);
+            indexes.add(placeholders++);
+            sql.append(fragment).append('?');
+            from = index + TENANT_MARKER.length();
+        }
+        sql.append(markedSql, from, markedSql.length());
+        return new TenantSqlTemplate(sql.toString(), indexes.stream().mapToInt(Integer::intValue).toArray(),
+                Collections.unmodifiableSet(tenantTables));
+    }
+
+    /**
+     * 是否包含租户条件
+     * @return 是否被改写
+     */
+    public boolean isRewritten() {
+        return tenantParameterIndexes.length > 0;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int[] getTenantParameterIndexes() {
+        return tenantParameterIndexes;
+    }
+
+    public Set<String> getTenantTables() {
+        return tenantTables;
+    }
+
+    /**
+     * 统计SQL片段中的?占位符数量，忽略字符串、带引号标识符和注释中的?
+     * 标记之间的片段不会截断引号，因此可以逐段统计
+     */
+    private static int countPlaceholders(String fragment) {
+        int count = 0;
+        int length = fragment.length();
+        for (int i = 0; i < length; i++) {
+            char c = fragment.charAt(i);
+            if (c == '?') {
+                count++;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                // 跳过引号内容，支持反斜杠转义
+                for (i++; i < length && fragment.charAt(i) != c; i++) {
+                    if (fragment.charAt(i) == '\\' && c != '`') {
+                        i++;
+                    }
+                }
+            } else if (c == '/' && i + 1 < length && fragment.charAt(i + 1) == '*') {
+                int end = fragment.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '#' || (c == '-' && i + 1 < length && fragment.charAt(i + 1) == '-')) {
+                int end = fragment.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            }
+        }
+        return count;
+    }
+}
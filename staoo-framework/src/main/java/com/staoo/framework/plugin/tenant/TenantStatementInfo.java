@@ -0,0 +1,86 @@
+package com.staoo.framework.plugin.tenant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 租户语句分类信息
+ * 记录单个MappedStatement的租户隔离分类结果，用于执行时快速决策和审计
+ */
+public class TenantStatementInfo {
+
+    /**
+     * 语句ID
+     */
+    private final String statementId;
+
+    /**
+     * SQL类型
+     */
+    private final SqlCommandType commandType;
+
+    /**
+     * 分类
+     */
+    private final TenantStatementPolicy policy;
+
+    /**
+     * 分类原因
+     */
+    private final String reason;
+
+    /**
+     * 静态SQL预先生成的模板，动态SQL或忽略的语句为null
+     */
+    private final TenantSqlTemplate template;
+
+    public TenantStatementInfo(String statementId, SqlCommandType commandType, TenantStatementPolicy policy,
+                               String reason, TenantSqlTemplate template) {
+        this.statementId = statementId;
+        this.commandType = commandType;
+        this.policy = policy;
+        this.reason = reason;
+        this.template = template;
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public SqlCommandType getCommandType() {
+        return commandType;
+    }
+
+    public TenantStatementPolicy getPolicy() {
+        return policy;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * 获取追加了租户条件的表
+     * @return 表名集合
+     */
+    public Set<String> getTenantTables() {
+        return template != null ? template.getTenantTables() : Collections.emptySet();
+    }
+
+    @JsonIgnore
+    public TenantSqlTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * 是否忽略租户过滤
+     * @return 是否忽略
+     */
+    @JsonIgnore
+    public boolean isIgnored() {
+        return policy == TenantStatementPolicy.IGNORED;
+    }
+}
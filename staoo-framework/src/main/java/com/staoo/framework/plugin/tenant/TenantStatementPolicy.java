@@ -0,0 +1,32 @@
+package com.staoo.framework.plugin.tenant;
+
+/**
+ * 租户语句分类枚举
+ * 定义MappedStatement在租户隔离中的处理方式
+ */
+public enum TenantStatementPolicy {
+    /**
+     * 静态SQL，启动时已生成租户过滤模板
+     */
+    TENANT("租户过滤"),
+
+    /**
+     * 不需要租户过滤
+     */
+    IGNORED("忽略"),
+
+    /**
+     * 动态SQL，每次执行时按实际SQL分析
+     */
+    DYNAMIC("动态分析");
+
+    private final String name;
+
+    TenantStatementPolicy(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
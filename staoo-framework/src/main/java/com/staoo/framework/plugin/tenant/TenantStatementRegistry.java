@@ -0,0 +1,195 @@
+package com.staoo.framework.plugin.tenant;
+
+import com.staoo.common.annotation.TenantIgnore;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户语句注册表
+ * 启动时对MyBatis Configuration中的全部语句进行一次分类（租户过滤/忽略/动态分析），
+ * 执行时只需按语句ID查表，忽略和预分类的语句不再做任何SQL分析
+ */
+@Component
+public class TenantStatementRegistry implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(TenantStatementRegistry.class);
+
+    /**
+     * PageHelper为分页查询自动生成的count语句ID后缀
+     */
+    private static final String COUNT_SUFFIX = "_COUNT";
+
+    private final ObjectProvider<SqlSessionFactory> sqlSessionFactories;
+    private final TenantSqlRewriter sqlRewriter;
+    private final TenantProperties tenantProperties;
+
+    /**
+     * 语句分类信息
+     * key: 语句ID
+     */
+    private final Map<String, TenantStatementInfo> statements = new ConcurrentHashMap<>();
+
+    public TenantStatementRegistry(ObjectProvider<SqlSessionFactory> sqlSessionFactories,
+                                   TenantSqlRewriter sqlRewriter,
+                                   TenantProperties tenantProperties) {
+        this.sqlSessionFactories = sqlSessionFactories;
+        this.sqlRewriter = sqlRewriter;
+        this.tenantProperties = tenantProperties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        sqlSessionFactories.orderedStream().forEach(factory -> register(factory.getConfiguration()));
+
+        Map<TenantStatementPolicy, Integer> summary = new EnumMap<>(TenantStatementPolicy.class);
+        for (TenantStatementInfo info : statements.values()) {
+            summary.merge(info.getPolicy(), 1, Integer::sum);
+        }
+        logger.info("租户语句注册表初始化完成，共{}条语句，分类统计: {}", statements.size(), summary);
+    }
+
+    /**
+     * 注册Configuration中的全部语句
+     * @param configuration MyBatis配置
+     */
+    public void register(Configuration configuration) {
+        for (String name : configuration.getMappedStatementNames()) {
+            // 跳过短名称，短名称可能存在歧义
+            if (name.indexOf('.') < 0) {
+                continue;
+            }
+            MappedStatement ms = configuration.getMappedStatement(name, false);
+            statements.computeIfAbsent(ms.getId(), id -> classify(ms));
+        }
+    }
+
+    /**
+     * 获取语句分类，未注册的语句（如运行时动态创建的语句）首次访问时分类
+     * @param ms MappedStatement对象
+     * @return 分类信息
+     */
+    public TenantStatementInfo resolve(MappedStatement ms) {
+        TenantStatementInfo info = statements.get(ms.getId());
+        if (info == null) {
+            info = statements.computeIfAbsent(ms.getId(), id -> classify(ms));
+        }
+        return info;
+    }
+
+    /**
+     * 获取全部语句分类信息
+     * @param policy 分类，为null时返回全部
+     * @return 按语句ID排序的分类信息
+     */
+    public List<TenantStatementInfo> list(TenantStatementPolicy policy) {
+        List<TenantStatementInfo> result = new ArrayList<>();
+        for (TenantStatementInfo info : statements.values()) {
+            if (policy == null || info.getPolicy() == policy) {
+                result.add(info);
+            }
+        }
+        result.sort(Comparator.comparing(TenantStatementInfo::getStatementId));
+        return result;
+    }
+
+    /**
+     * 对语句进行分类
+     */
+    private TenantStatementInfo classify(MappedStatement ms) {
+        String id = ms.getId();
+        SqlCommandType commandType = ms.getSqlCommandType();
+
+        for (String prefix : tenantProperties.getIgnoreStatements()) {
+            if (id.startsWith(prefix)) {
+                return ignored(ms, "配置忽略: " + prefix);
+            }
+        }
+        if (isAnnotatedIgnore(id)) {
+            return ignored(ms, "@TenantIgnore");
+        }
+        if (commandType != SqlCommandType.SELECT
+                && commandType != SqlCommandType.UPDATE
+                && commandType != SqlCommandType.DELETE) {
+            return ignored(ms, "语句类型无需租户条件");
+        }
+
+        SqlSource sqlSource = ms.getSqlSource();
+        if (sqlSource instanceof DynamicSqlSource || sqlSource instanceof ProviderSqlSource
+                || sqlSource instanceof TenantSqlSource) {
+            return new TenantStatementInfo(id, commandType, TenantStatementPolicy.DYNAMIC, "动态SQL", null);
+        }
+
+        try {
+            // 静态SQL与参数无关，启动时即可生成模板
+            String sql = sqlSource.getBoundSql(null).getSql();
+            TenantSqlTemplate template = sqlRewriter.buildTemplate(id, sql, commandType);
+            if (!template.isRewritten()) {
+                return ignored(ms, "未涉及租户表");
+            }
+            return new TenantStatementInfo(id, commandType, TenantStatementPolicy.TENANT, "静态SQL", template);
+        } catch (Exception e) {
+            logger.warn("租户语句预分类失败，改为动态分析: {}, {}", id, e.getMessage());
+            return new TenantStatementInfo(id, commandType, TenantStatementPolicy.DYNAMIC, "预分类失败", null);
+        }
+    }
+
+    private TenantStatementInfo ignored(MappedStatement ms, String reason) {
+        return new TenantStatementInfo(ms.getId(), ms.getSqlCommandType(), TenantStatementPolicy.IGNORED, reason, null);
+    }
+
+    /**
+     * 判断Mapper接口或方法上是否标注了@TenantIgnore
+     */
+    private boolean isAnnotatedIgnore(String statementId) {
+        int index = statementId.lastIndexOf('.');
+        if (index <= 0) {
+            return false;
+        }
+        String className = statementId.substring(0, index);
+        String methodName = statementId.substring(index + 1);
+        // selectKey等附属语句的ID形如 method!selectKey
+        int suffixIndex = methodName.indexOf('!');
+        if (suffixIndex > 0) {
+            methodName = methodName.substring(0, suffixIndex);
+        }
+        // PageHelper的count语句ID形如 method_COUNT，需要与数据查询使用相同的判断
+        String countSourceName = methodName.endsWith(COUNT_SUFFIX) && methodName.length() > COUNT_SUFFIX.length()
+                ? methodName.substring(0, methodName.length() - COUNT_SUFFIX.length()) : null;
+
+        Class<?> mapperClass;
+        try {
+            mapperClass = ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 只有XML没有接口的命名空间
+            return false;
+        }
+        if (mapperClass.isAnnotationPresent(TenantIgnore.class)) {
+            return true;
+        }
+        for (Method method : mapperClass.getMethods()) {
+            if ((method.getName().equals(methodName) || method.getName().equals(countSourceName))
+                    && method.isAnnotationPresent(TenantIgnore.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
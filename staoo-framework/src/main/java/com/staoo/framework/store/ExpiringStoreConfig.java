@@ -0,0 +1,52 @@
+package com.staoo.framework.store;
+
+import com.staoo.common.store.ExpiringStore;
+import com.staoo.common.store.LocalExpiringStore;
+import com.staoo.system.security.PermissionVersionCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 过期键值存储配置
+ * 按staoo.store.type创建进程内或Redis实现，两者只会创建一个；
+ * 使用Redis时权限版本号也保存在Redis中，进程内存储时由PermissionVersion使用进程内计数器
+ */
+@Configuration
+public class ExpiringStoreConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExpiringStoreConfig.class);
+
+    /**
+     * 进程内存储，默认
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "staoo.store", name = "type", havingValue = "local", matchIfMissing = true)
+    public ExpiringStore localExpiringStore(ExpiringStoreProperties properties) {
+        logger.info("过期键值存储: 进程内，最大条目数: {}", properties.getMaxSize());
+        return new LocalExpiringStore(properties.getTickMillis(), properties.getMaxSize());
+    }
+
+    /**
+     * Redis存储
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "staoo.store", name = "type", havingValue = "redis")
+    public ExpiringStore redisExpiringStore(StringRedisTemplate redisTemplate, ExpiringStoreProperties properties) {
+        logger.info("过期键值存储: Redis，键前缀: {}", properties.getKeyPrefix());
+        return new RedisExpiringStore(redisTemplate, properties.getKeyPrefix());
+    }
+
+    /**
+     * Redis权限版本号计数器，使用独立的键，不受存储最大条目数的限制
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "staoo.store", name = "type", havingValue = "redis")
+    public PermissionVersionCounter redisPermissionVersionCounter(StringRedisTemplate redisTemplate,
+                                                                  ExpiringStoreProperties properties) {
+        return new RedisPermissionVersionCounter(redisTemplate,
+                properties.getKeyPrefix() + "auth:permission-version");
+    }
+}
@@ -0,0 +1,64 @@
+package com.staoo.framework.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 过期键值存储配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "staoo.store")
+public class ExpiringStoreProperties {
+
+    /**
+     * 存储类型：local为进程内（单节点），redis为Redis（多节点，验证码等数据在节点切换后仍然有效）
+     */
+    private String type = "local";
+
+    /**
+     * Redis键前缀
+     */
+    private String keyPrefix = "store:";
+
+    /**
+     * 进程内存储的最大条目数
+     */
+    private int maxSize = 100000;
+
+    /**
+     * 进程内存储的时间轮刻度（毫秒）
+     */
+    private long tickMillis = 1000;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+}
@@ -0,0 +1,73 @@
+package com.staoo.framework.store;
+
+import com.staoo.common.store.ExpiringStore;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的过期键值存储
+ * 过期由Redis的键过期完成，计数由Lua脚本原子地加一并在首次创建时设置过期时间
+ */
+public class RedisExpiringStore implements ExpiringStore {
+
+    /**
+     * KEYS: 计数键；ARGV: 有效期（毫秒）
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('INCR', KEYS[1])\n"
+                    + "if value == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end\n"
+                    + "return value",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+
+    public RedisExpiringStore(StringRedisTemplate redisTemplate, String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(keyPrefix + key);
+    }
+
+    @Override
+    public boolean put(String key, String value, long ttlMillis) {
+        redisTemplate.opsForValue().set(keyPrefix + key, value, Duration.ofMillis(ttlMillis));
+        return true;
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, long ttlMillis) {
+        return Boolean.TRUE.equals(
+                redisTemplate.opsForValue().setIfAbsent(keyPrefix + key, value, Duration.ofMillis(ttlMillis)));
+    }
+
+    @Override
+    public long increment(String key, long ttlMillis) {
+        Long value = redisTemplate.execute(INCREMENT_SCRIPT, Collections.singletonList(keyPrefix + key),
+                String.valueOf(ttlMillis));
+        return value == null ? -1 : value;
+    }
+
+    @Override
+    public long getTtl(String key) {
+        Long ttl = redisTemplate.getExpire(keyPrefix + key, TimeUnit.MILLISECONDS);
+        // -2表示键不存在，-1表示没有过期时间
+        if (ttl == null || ttl == -2) {
+            return 0;
+        }
+        return ttl == -1 ? Long.MAX_VALUE : ttl;
+    }
+
+    @Override
+    public boolean remove(String key) {
+        return Boolean.TRUE.equals(redisTemplate.delete(keyPrefix + key));
+    }
+}
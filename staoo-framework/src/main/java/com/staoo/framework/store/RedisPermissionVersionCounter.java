@@ -0,0 +1,34 @@
+package com.staoo.framework.store;
+
+import com.staoo.system.security.PermissionVersionCounter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 基于Redis的权限版本号计数器
+ * 版本号保存在一个独立的键中，由INCR原子递增，所有节点读取同一个键
+ */
+public class RedisPermissionVersionCounter implements PermissionVersionCounter {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+
+    public RedisPermissionVersionCounter(StringRedisTemplate redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public long get() {
+        String value = redisTemplate.opsForValue().get(key);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    @Override
+    public long increment() {
+        Long value = redisTemplate.opsForValue().increment(key);
+        if (value == null) {
+            throw new IllegalStateException("Redis未返回递增后的权限版本号");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,194 @@
+package com.staoo.framework.auth.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis会话注册表测试
+ * 在Redis容器中执行注册、注销的Lua脚本，并用两个注册表实例模拟两个节点验证近端缓存的刷新，没有Docker时跳过
+ * @author staoo
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisSessionRegistryTest {
+
+    private static final String USERNAME = "admin";
+    private static final long TTL = 3_600_000L;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RedisSessionRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        registry = new RedisSessionRegistry(redisTemplate, properties(60_000));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    /**
+     * 测试同一设备重新登录
+     * 新会话替换同一设备的旧会话，并返回被替换的会话ID
+     */
+    @Test
+    public void testRegisterReplacesSameDevice() {
+        long now = System.currentTimeMillis();
+        assertEquals(List.of(), registry.register(USERNAME, "pc", "s1", now, 3, TTL));
+        assertEquals(List.of("s1"), registry.register(USERNAME, "pc", "s2", now + 1, 3, TTL), "应返回被替换的会话");
+
+        assertTrue(registry.isActive(USERNAME, "pc", "s2"), "新会话应有效");
+        assertFalse(registry.isActive(USERNAME, "pc", "s1"), "被替换的会话应失效");
+        assertEquals(1, registry.countSessions(USERNAME));
+        assertEquals("s2", redisTemplate.opsForHash().get("auth:session:{admin}", "pc"));
+        assertTrue(redisTemplate.getExpire("auth:session:{admin}:order") > 0, "键应设置有效期");
+    }
+
+    /**
+     * 测试超过最大会话数
+     * 淘汰最早签发的会话，其他节点缓存的被淘汰会话在下次读取时失效
+     */
+    @Test
+    public void testRegisterEvictsOldest() {
+        long now = System.currentTimeMillis();
+        registry.register(USERNAME, "pc", "s1", now, 2, TTL);
+        registry.register(USERNAME, "phone", "s2", now + 1, 2, TTL);
+        assertTrue(registry.isActive(USERNAME, "pc", "s1"));
+
+        assertEquals(List.of("s1"), registry.register(USERNAME, "pad", "s3", now + 2, 2, TTL), "应淘汰最早签发的会话");
+        assertEquals(2, registry.countSessions(USERNAME));
+        assertFalse(registry.isActive(USERNAME, "pc", "s1"), "被淘汰的会话应失效");
+        assertTrue(registry.isActive(USERNAME, "phone", "s2"));
+        assertTrue(registry.isActive(USERNAME, "pad", "s3"));
+
+        assertEquals(List.of(), registry.register("other", "pc", "s9", now, 2, TTL), "其他用户不受影响");
+        assertEquals(2, registry.countSessions(USERNAME));
+    }
+
+    /**
+     * 测试过期会话的清理
+     * 注册时清理签发时间早于有效期的会话，过期会话不计入最大会话数也不作为被淘汰的会话返回
+     */
+    @Test
+    public void testRegisterPurgesExpired() {
+        long now = System.currentTimeMillis();
+        registry.register(USERNAME, "old", "s0", now - TTL - 1, 1, TTL);
+        assertEquals(List.of(), registry.register(USERNAME, "pc", "s1", now, 1, TTL), "过期会话不应作为被淘汰的会话返回");
+        assertEquals(1, registry.countSessions(USERNAME));
+        assertNull(redisTemplate.opsForHash().get("auth:session:{admin}", "old"), "过期会话应被清理");
+    }
+
+    /**
+     * 测试注销设备会话
+     * 会话ID不匹配时不注销，会话ID为null时注销该设备的当前会话
+     */
+    @Test
+    public void testRemove() {
+        long now = System.currentTimeMillis();
+        registry.register(USERNAME, "pc", "s1", now, 3, TTL);
+        registry.register(USERNAME, "phone", "s2", now + 1, 3, TTL);
+
+        assertFalse(registry.remove(USERNAME, "pc", "other"), "会话ID不匹配时不应注销");
+        assertTrue(registry.isActive(USERNAME, "pc", "s1"));
+        assertTrue(registry.remove(USERNAME, "pc", "s1"));
+        assertFalse(registry.isActive(USERNAME, "pc", "s1"), "注销后会话应失效");
+        assertFalse(registry.remove(USERNAME, "pc", "s1"), "重复注销应返回false");
+
+        assertTrue(registry.remove(USERNAME, "phone", null), "会话ID为null时注销当前会话");
+        assertEquals(0, registry.countSessions(USERNAME));
+    }
+
+    /**
+     * 测试注销用户的所有会话
+     */
+    @Test
+    public void testRemoveAll() {
+        long now = System.currentTimeMillis();
+        registry.register(USERNAME, "pc", "s1", now, 3, TTL);
+        registry.register(USERNAME, "phone", "s2", now + 1, 3, TTL);
+        registry.register("other", "pc", "s3", now, 3, TTL);
+
+        assertEquals(Map.of("s1", now, "s2", now + 1), registry.removeAll(USERNAME), "应返回被注销的会话和签发时间");
+        assertEquals(0, registry.countSessions(USERNAME));
+        assertFalse(registry.isActive(USERNAME, "pc", "s1"));
+        assertFalse(registry.isActive(USERNAME, "phone", "s2"));
+        assertTrue(registry.isActive("other", "pc", "s3"), "其他用户不受影响");
+        assertEquals(Map.of(), registry.removeAll(USERNAME), "没有会话时返回空集合");
+    }
+
+    /**
+     * 测试近端缓存的刷新
+     * 其他节点的变更在刷新前读取近端缓存，刷新后生效；本节点的变更立即生效
+     */
+    @Test
+    public void testNearCacheRefresh() {
+        RedisSessionRegistry otherNode = new RedisSessionRegistry(redisTemplate, properties(60_000));
+        long now = System.currentTimeMillis();
+        registry.register(USERNAME, "pc", "s1", now, 3, TTL);
+        assertTrue(otherNode.isActive(USERNAME, "pc", "s1"), "其他节点应读取到会话");
+
+        registry.register(USERNAME, "pc", "s2", now + 1, 3, TTL);
+        assertTrue(registry.isActive(USERNAME, "pc", "s2"), "本节点的变更应立即生效");
+        assertTrue(otherNode.isActive(USERNAME, "pc", "s1"), "刷新前其他节点读取近端缓存");
+
+        otherNode.refreshNearCache();
+        assertFalse(otherNode.isActive(USERNAME, "pc", "s1"), "刷新后被替换的会话应失效");
+        assertTrue(otherNode.isActive(USERNAME, "pc", "s2"), "刷新后应读取到新会话");
+
+        registry.removeAll(USERNAME);
+        otherNode.refreshNearCache();
+        assertFalse(otherNode.isActive(USERNAME, "pc", "s2"), "刷新后被注销的会话应失效");
+    }
+
+    /**
+     * 测试近端缓存过期
+     * 有效期内没有访问的条目在刷新时丢弃，过期的条目在校验时重新读取
+     */
+    @Test
+    public void testNearCacheExpiry() throws InterruptedException {
+        RedisSessionRegistry otherNode = new RedisSessionRegistry(redisTemplate, properties(50));
+        long now = System.currentTimeMillis();
+        registry.register(USERNAME, "pc", "s1", now, 3, TTL);
+        assertTrue(otherNode.isActive(USERNAME, "pc", "s1"));
+
+        registry.remove(USERNAME, "pc", "s1");
+        Thread.sleep(100);
+        otherNode.refreshNearCache();
+        assertFalse(otherNode.isActive(USERNAME, "pc", "s1"), "近端缓存过期后应重新读取");
+    }
+
+    private static SessionRegistryProperties properties(long nearCacheTtlMillis) {
+        SessionRegistryProperties properties = new SessionRegistryProperties();
+        properties.setStore("redis");
+        properties.setNearCacheTtlMillis(nearCacheTtlMillis);
+        return properties;
+    }
+}
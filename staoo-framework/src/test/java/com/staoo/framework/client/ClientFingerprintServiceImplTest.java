@@ -0,0 +1,111 @@
+package com.staoo.framework.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 客户端指纹服务测试
+ * 验证只信任来自受信任代理的X-Forwarded-For，并从右向左跳过代理链中受信任的地址
+ * @author staoo
+ */
+public class ClientFingerprintServiceImplTest {
+
+    private final ClientFingerprintServiceImpl service = new ClientFingerprintServiceImpl(new ClientFingerprintProperties());
+
+    /**
+     * 测试不受信任的来源
+     * 直接访问的客户端伪造的转发请求头被忽略
+     */
+    @Test
+    public void testUntrustedRemote() {
+        assertEquals("203.0.113.5", resolve("203.0.113.5", "X-Forwarded-For", "198.51.100.7"));
+        assertEquals("203.0.113.5", resolve("203.0.113.5", "X-Real-IP", "198.51.100.7"));
+        assertEquals("2001:db8::5", resolve("2001:db8:0:0:0:0:0:5", null, null), "IPv6来源地址应格式化");
+    }
+
+    /**
+     * 测试代理链
+     * 从右向左跳过受信任的代理，第一个不受信任的地址为客户端，其左侧可被伪造的内容被忽略
+     */
+    @Test
+    public void testForwardedForChain() {
+        assertEquals("198.51.100.7", resolve("10.0.0.1", "X-Forwarded-For", "198.51.100.7"));
+        assertEquals("198.51.100.7", resolve("10.0.0.1", "X-Forwarded-For", "6.6.6.6, 198.51.100.7, 10.0.0.2"),
+                "最左侧的伪造地址应被忽略");
+        assertEquals("10.0.0.3", resolve("10.0.0.1", "X-Forwarded-For", "10.0.0.3, 192.168.0.2"),
+                "全部为受信任代理时取最左侧的地址");
+        assertEquals("198.51.100.7", resolve("10.0.0.1", "X-Forwarded-For", "unknown, 198.51.100.7"),
+                "遇到非法地址时停止，使用已找到的地址");
+        assertEquals("10.0.0.1", resolve("10.0.0.1", "X-Forwarded-For", "198.51.100.7, garbage"),
+                "最右侧就是非法地址时使用来源地址");
+    }
+
+    /**
+     * 测试IPv6代理链
+     * 支持方括号、端口、区域标识和IPv4映射地址
+     */
+    @Test
+    public void testForwardedForIpv6() {
+        assertEquals("2001:db8::1", resolve("0:0:0:0:0:0:0:1", "X-Forwarded-For", "[2001:db8::1]:51234"));
+        assertEquals("2001:db8::1", resolve("::1", "X-Forwarded-For", "2001:db8::1, fd00::2%eth0"),
+                "带区域标识的受信任代理应被跳过");
+        assertEquals("198.51.100.7", resolve("::ffff:10.0.0.1", "X-Forwarded-For", "::ffff:198.51.100.7"),
+                "IPv4映射地址按IPv4判断和格式化");
+    }
+
+    /**
+     * 测试兼容请求头
+     * 没有X-Forwarded-For时取兼容请求头中的第一个合法地址
+     */
+    @Test
+    public void testFallbackHeaders() {
+        assertEquals("198.51.100.9", resolve("10.0.0.1", "X-Real-IP", "198.51.100.9"));
+        assertEquals("198.51.100.9", resolve("10.0.0.1", "Proxy-Client-IP", "198.51.100.9, 10.0.0.2"));
+        assertEquals("10.0.0.1", resolve("10.0.0.1", "X-Real-IP", "unknown"), "unknown应被忽略");
+    }
+
+    /**
+     * 测试受信任代理配置
+     * 非法配置被忽略，IPv4映射形式的网段按IPv4前缀计算
+     */
+    @Test
+    public void testTrustedProxyConfig() {
+        ClientFingerprintProperties properties = new ClientFingerprintProperties();
+        properties.setTrustedProxies(List.of("bad", "10.0.0.0/x", "::ffff:100.64.0.0/106"));
+        ClientFingerprintServiceImpl custom = new ClientFingerprintServiceImpl(properties);
+
+        MockHttpServletRequest request = request("100.64.1.1", "X-Forwarded-For", "198.51.100.7");
+        assertEquals("198.51.100.7", custom.resolveClientIp(request), "映射形式的网段应按/10匹配");
+        request = request("10.0.0.1", "X-Forwarded-For", "198.51.100.7");
+        assertEquals("10.0.0.1", custom.resolveClientIp(request), "未配置的代理不受信任");
+    }
+
+    /**
+     * 测试IP规范化和User-Agent缓存
+     */
+    @Test
+    public void testNormalizeAndCache() {
+        assertEquals("1.2.3.4", service.normalizeIp("::ffff:1.2.3.4"));
+        assertEquals("fe80::1", service.normalizeIp("FE80:0:0:0:0:0:0:1%1"));
+        assertNull(service.normalizeIp("bad"));
+        String userAgent = "curl/8.4.0";
+        assertSame(service.parseUserAgent(userAgent), service.parseUserAgent(userAgent), "相同User-Agent应命中缓存");
+    }
+
+    private String resolve(String remoteAddr, String header, String value) {
+        return service.resolveClientIp(request(remoteAddr, header, value));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,81 @@
+package com.staoo.framework.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IP地址解析测试
+ * 验证IPv4、IPv6（含端口、方括号、区域标识和IPv4映射地址）的解析、RFC 5952格式化以及网段匹配
+ * @author staoo
+ */
+public class IpAddressesTest {
+
+    /**
+     * 测试IPv4解析
+     * 可带端口和引号，非法地址返回null
+     */
+    @Test
+    public void testParseIpv4() {
+        assertEquals("192.168.1.10", normalize("192.168.1.10"));
+        assertEquals("192.168.1.10", normalize(" 192.168.1.10:8080 "), "应去掉端口");
+        assertEquals("192.168.1.10", normalize("\"192.168.1.10\""), "应去掉引号");
+        for (String invalid : new String[]{null, "", "unknown", "256.1.1.1", "1.2.3", "1.2.3.4.5", "1..2.3", "a.b.c.d"}) {
+            assertNull(IpAddresses.parse(invalid), "非法地址应返回null: " + invalid);
+        }
+    }
+
+    /**
+     * 测试IPv6解析
+     * 支持方括号加端口、区域标识，IPv4映射地址转为IPv4
+     */
+    @Test
+    public void testParseIpv6() {
+        assertEquals("::1", normalize("0:0:0:0:0:0:0:1"));
+        assertEquals("::1", normalize("[::1]:8080"), "应去掉方括号和端口");
+        assertEquals("fe80::1", normalize("fe80::1%eth0"), "应去掉区域标识");
+        assertEquals("fe80::1", normalize("[fe80::1%25eth0]:443"), "方括号内的区域标识也应去掉");
+        assertEquals("192.168.1.10", normalize("::ffff:192.168.1.10"), "IPv4映射地址应转为IPv4");
+        assertEquals(4, IpAddresses.parse("::ffff:c0a8:010a").length, "十六进制的IPv4映射地址应转为IPv4");
+        assertEquals("64:ff9b::c000:201", normalize("64:ff9b::192.0.2.1"), "内嵌IPv4应占两组");
+        for (String invalid : new String[]{"1::2::3", "12345::1", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "g::1",
+                "[::1", "1.2.3.4::1", "::1:"}) {
+            assertNull(IpAddresses.parse(invalid), "非法地址应返回null: " + invalid);
+        }
+    }
+
+    /**
+     * 测试IPv6格式化
+     * 压缩最长的连续零组，长度相同时压缩第一段，单个零组不压缩，十六进制小写且去掉前导零
+     */
+    @Test
+    public void testFormatIpv6() {
+        assertEquals("2001:db8::1", normalize("2001:0DB8:0000:0000:0000:0000:0000:0001"));
+        assertEquals("2001:db8::1:0:0:1", normalize("2001:db8:0:0:1:0:0:1"));
+        assertEquals("2001:db8:0:1:1:1:1:1", normalize("2001:db8:0:1:1:1:1:1"));
+        assertEquals("2001:0:0:1::1", normalize("2001:0:0:1:0:0:0:1"));
+        assertEquals("::", normalize("::"));
+        assertEquals("1::", normalize("1:0:0:0:0:0:0:0"));
+    }
+
+    /**
+     * 测试网段匹配
+     */
+    @Test
+    public void testMatches() {
+        assertTrue(IpAddresses.matches(IpAddresses.parse("10.1.2.3"), IpAddresses.parse("10.0.0.0"), 8));
+        assertTrue(IpAddresses.matches(IpAddresses.parse("172.31.255.255"), IpAddresses.parse("172.16.0.0"), 12));
+        assertFalse(IpAddresses.matches(IpAddresses.parse("172.32.0.1"), IpAddresses.parse("172.16.0.0"), 12));
+        assertTrue(IpAddresses.matches(IpAddresses.parse("fd12::1"), IpAddresses.parse("fc00::"), 7));
+        assertFalse(IpAddresses.matches(IpAddresses.parse("fe80::1"), IpAddresses.parse("fc00::"), 7));
+        assertTrue(IpAddresses.matches(IpAddresses.parse("1.2.3.4"), IpAddresses.parse("1.2.3.4"), 32));
+        assertFalse(IpAddresses.matches(IpAddresses.parse("::1"), IpAddresses.parse("127.0.0.0"), 8),
+                "IPv4和IPv6不应匹配");
+    }
+
+    private static String normalize(String value) {
+        byte[] address = IpAddresses.parse(value);
+        assertNotNull(address, "应能解析: " + value);
+        return IpAddresses.format(address);
+    }
+}
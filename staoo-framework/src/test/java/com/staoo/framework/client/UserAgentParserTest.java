@@ -0,0 +1,87 @@
+package com.staoo.framework.client;
+
+import com.staoo.system.domain.ClientFingerprint;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User-Agent解析器测试
+ * 验证常见浏览器、内嵌浏览器、爬虫和非浏览器客户端的识别结果
+ * @author staoo
+ */
+public class UserAgentParserTest {
+
+    /**
+     * 测试桌面浏览器
+     * 基于Chromium的Edge同时带有Chrome和Safari标记，应识别为Edge
+     */
+    @Test
+    public void testDesktopBrowsers() {
+        String chrome = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                + "Chrome/120.0.0.0 Safari/537.36";
+        assertFingerprint(UserAgentParser.parse(chrome), "Chrome", "120.0.0.0", "Windows", "10", "Desktop");
+        assertFingerprint(UserAgentParser.parse(chrome + " Edg/120.0.2210.91"),
+                "Edge", "120.0.2210.91", "Windows", "10", "Desktop");
+        assertEquals("Chrome 120", UserAgentParser.parse(chrome).getBrowser(), "浏览器描述只带主版本号");
+
+        assertFingerprint(UserAgentParser.parse("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 "
+                        + "(KHTML, like Gecko) Version/17.1 Safari/605.1.15"),
+                "Safari", "17.1", "macOS", "10.15.7", "Desktop");
+        assertFingerprint(UserAgentParser.parse("Mozilla/5.0 (Windows NT 6.1; Trident/7.0; rv:11.0) like Gecko"),
+                "Internet Explorer", "11.0", "Windows", "7", "Desktop");
+    }
+
+    /**
+     * 测试移动设备
+     * iPhone为手机，iPad为平板，不带Mobile标记的Android为平板
+     */
+    @Test
+    public void testMobileDevices() {
+        assertFingerprint(UserAgentParser.parse("Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) "
+                        + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Mobile/15E148 Safari/604.1"),
+                "Safari", "17.1", "iOS", "17.1", "Mobile");
+        assertFingerprint(UserAgentParser.parse("Mozilla/5.0 (iPad; CPU OS 16_6 like Mac OS X) AppleWebKit/605.1.15 "
+                        + "(KHTML, like Gecko) Version/16.6 Mobile/15E148 Safari/604.1"),
+                "Safari", "16.6", "iPadOS", "16.6", "Tablet");
+        assertFingerprint(UserAgentParser.parse("Mozilla/5.0 (Linux; Android 12; SM-X700) AppleWebKit/537.36 "
+                        + "(KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36"),
+                "Chrome", "120.0.0.0", "Android", "12", "Tablet");
+    }
+
+    /**
+     * 测试内嵌浏览器
+     * 微信标记后紧跟括号注释时仍能取到版本号
+     */
+    @Test
+    public void testEmbeddedBrowser() {
+        assertFingerprint(UserAgentParser.parse("Mozilla/5.0 (Linux; Android 13; V2148A Build/TP1A.220624.014; wv) "
+                        + "AppleWebKit/537.36 (KHTML, like Gecko) Version/4.0 Chrome/107.0.5304.141 Mobile "
+                        + "Safari/537.36 XWEB/5023 MicroMessenger/8.0.37.2380(0x2800253D) WeChat/arm64 Weixin "
+                        + "NetType/WIFI Language/zh_CN"),
+                "WeChat", "8.0.37.2380", "Android", "13", "Mobile");
+    }
+
+    /**
+     * 测试爬虫和非浏览器客户端
+     */
+    @Test
+    public void testBotsAndClients() {
+        assertFingerprint(UserAgentParser.parse(
+                        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)"),
+                "Googlebot", "2.1", "Other", null, "Bot");
+        assertFingerprint(UserAgentParser.parse("curl/8.4.0"), "curl", "8.4.0", "Other", null, "Unknown");
+        assertSame(ClientFingerprint.UNKNOWN, UserAgentParser.parse(null), "空User-Agent应返回UNKNOWN");
+        assertSame(ClientFingerprint.UNKNOWN, UserAgentParser.parse("  "), "空白User-Agent应返回UNKNOWN");
+        assertEquals("Other", UserAgentParser.parse("Mozilla/5.0 (").getBrowserName(), "未闭合的注释不应导致异常");
+    }
+
+    private static void assertFingerprint(ClientFingerprint fingerprint, String browserName, String browserVersion,
+                                          String osName, String osVersion, String deviceType) {
+        assertEquals(browserName, fingerprint.getBrowserName(), "浏览器名称不符: " + fingerprint);
+        assertEquals(browserVersion, fingerprint.getBrowserVersion(), "浏览器版本不符: " + fingerprint);
+        assertEquals(osName, fingerprint.getOsName(), "操作系统名称不符: " + fingerprint);
+        assertEquals(osVersion, fingerprint.getOsVersion(), "操作系统版本不符: " + fingerprint);
+        assertEquals(deviceType, fingerprint.getDeviceType(), "设备类型不符: " + fingerprint);
+    }
+}
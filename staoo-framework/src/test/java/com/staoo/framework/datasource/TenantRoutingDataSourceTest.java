@@ -0,0 +1,162 @@
+package com.staoo.framework.datasource;
+
+import com.staoo.common.util.TenantContext;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户路由数据源测试
+ * 使用两个H2内存库分别作为主库和分片，验证事务内外的语句都按各自的路由提示访问数据源
+ * @author staoo
+ */
+public class TenantRoutingDataSourceTest {
+
+    private static final Long SHARD_TENANT = 1L;
+    private static final Long MASTER_TENANT = 2L;
+
+    private JdbcTemplate master;
+    private JdbcTemplate shard;
+    private TenantRoutingDataSource routingDataSource;
+    private JdbcTemplate routing;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource masterDataSource = h2("routing_master");
+        DataSource shardDataSource = h2("routing_shard1");
+        master = new JdbcTemplate(masterDataSource);
+        shard = new JdbcTemplate(shardDataSource);
+        for (JdbcTemplate template : new JdbcTemplate[]{master, shard}) {
+            template.execute("DROP TABLE IF EXISTS t_order");
+            template.execute("CREATE TABLE t_order (id BIGINT PRIMARY KEY, tenant_id BIGINT, name VARCHAR(64))");
+        }
+
+        routingDataSource = new TenantRoutingDataSource(masterDataSource, Map.of("shard1", shardDataSource));
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.updateTenantShards(Map.of(SHARD_TENANT, "shard1"));
+        routing = new JdbcTemplate(routingDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routingDataSource));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        TenantRouteContext.restore(null);
+    }
+
+    /**
+     * 测试事务外的路由
+     * 分片租户的分片语句访问分片，未标记为分片语句时访问主库
+     */
+    @Test
+    public void testRouteOutsideTransaction() {
+        TenantContext.setTenantId(SHARD_TENANT);
+        TenantRouteContext.set(true);
+        insert(1L, "分片语句");
+        TenantRouteContext.set(false);
+        insert(2L, "主库语句");
+
+        assertEquals(1, count(shard, 1L), "分片语句应写入分片");
+        assertEquals(0, count(master, 1L), "分片语句不应写入主库");
+        assertEquals(1, count(master, 2L), "主库语句应写入主库");
+        assertEquals(0, count(shard, 2L), "主库语句不应写入分片");
+    }
+
+    /**
+     * 测试未分配分片的租户
+     * 即使语句标记为分片语句也访问主库
+     */
+    @Test
+    public void testUnassignedTenantUsesMaster() {
+        TenantContext.setTenantId(MASTER_TENANT);
+        TenantRouteContext.set(true);
+        insert(1L, "未分配分片");
+
+        assertEquals(1, count(master, 1L), "未分配分片的租户应写入主库");
+        assertEquals(0, count(shard, 1L), "未分配分片的租户不应写入分片");
+    }
+
+    /**
+     * 测试事务内的路由
+     * 事务开始时还没有路由提示，事务内的语句仍按各自的路由提示访问数据源，提交作用于全部数据源
+     */
+    @Test
+    public void testRouteInsideTransaction() {
+        TenantContext.setTenantId(SHARD_TENANT);
+        transactionTemplate.executeWithoutResult(status -> {
+            TenantRouteContext.set(true);
+            insert(1L, "分片语句");
+            TenantRouteContext.set(false);
+            insert(2L, "主库语句");
+            TenantRouteContext.set(true);
+            assertEquals(1, routing.queryForObject("SELECT COUNT(*) FROM t_order", Integer.class),
+                    "事务内应读到本事务写入分片的数据");
+        });
+
+        assertEquals(1, count(shard, 1L), "事务内的分片语句应写入分片");
+        assertEquals(0, count(master, 1L), "事务内的分片语句不应写入主库");
+        assertEquals(1, count(master, 2L), "事务内的主库语句应写入主库");
+        assertEquals(0, count(shard, 2L), "事务内的主库语句不应写入分片");
+    }
+
+    /**
+     * 测试事务回滚
+     * 回滚作用于事务中访问过的全部数据源
+     */
+    @Test
+    public void testRollbackInsideTransaction() {
+        TenantContext.setTenantId(SHARD_TENANT);
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            TenantRouteContext.set(true);
+            insert(1L, "分片语句");
+            TenantRouteContext.set(false);
+            insert(2L, "主库语句");
+            throw new IllegalStateException("回滚");
+        }));
+
+        assertEquals(0, count(shard, 1L), "回滚后分片中不应有数据");
+        assertEquals(0, count(master, 2L), "回滚后主库中不应有数据");
+    }
+
+    /**
+     * 测试租户迁移后的路由
+     * 修改租户分片后，新的语句访问新的数据源
+     */
+    @Test
+    public void testAssignTenant() {
+        TenantContext.setTenantId(SHARD_TENANT);
+        TenantRouteContext.set(true);
+        routingDataSource.assignTenant(SHARD_TENANT, TenantRoutingDataSource.MASTER_KEY);
+        insert(1L, "迁回主库");
+        assertEquals(1, count(master, 1L), "迁回主库后应写入主库");
+        assertEquals(TenantRoutingDataSource.MASTER_KEY, routingDataSource.getShardKey(SHARD_TENANT));
+
+        assertThrows(IllegalArgumentException.class, () -> routingDataSource.assignTenant(SHARD_TENANT, "unknown"),
+                "未配置的分片应抛出异常");
+    }
+
+    private void insert(Long id, String name) {
+        routing.update("INSERT INTO t_order (id, tenant_id, name) VALUES (?, ?, ?)", id, TenantContext.getTenantId(), name);
+    }
+
+    private static int count(JdbcTemplate template, Long id) {
+        return template.queryForObject("SELECT COUNT(*) FROM t_order WHERE id = ?", Integer.class, id);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
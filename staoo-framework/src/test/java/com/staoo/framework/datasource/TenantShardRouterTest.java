@@ -0,0 +1,39 @@
+package com.staoo.framework.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户分片路由判断测试
+ * 验证日志表不能配置为分片表
+ * @author staoo
+ */
+public class TenantShardRouterTest {
+
+    /**
+     * 测试日志表配置为分片表
+     * 启用分片时启动失败，未启用分片时不检查
+     */
+    @Test
+    public void testRejectLogTables() {
+        for (String table : List.of("sys_operation_log", "SYS_OPERATION_LOG_TERM", "sys_operation_log_rollup",
+                "sys_login_log")) {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> new TenantShardRouter(properties(true, "sys_user", table)), "日志表不能配置为分片表: " + table);
+            assertTrue(e.getMessage().contains(table), "异常信息应包含表名");
+        }
+
+        assertDoesNotThrow(() -> new TenantShardRouter(properties(false, "sys_operation_log")), "未启用分片时不检查");
+        assertDoesNotThrow(() -> new TenantShardRouter(properties(true, "sys_user", "sys_dept")));
+    }
+
+    private TenantShardProperties properties(boolean enabled, String... tables) {
+        TenantShardProperties properties = new TenantShardProperties();
+        properties.setEnabled(enabled);
+        properties.setTables(List.of(tables));
+        return properties;
+    }
+}
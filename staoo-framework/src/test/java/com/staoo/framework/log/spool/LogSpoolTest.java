@@ -0,0 +1,164 @@
+package com.staoo.framework.log.spool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日志预写文件测试
+ * 验证追加、重放、检查点、分段切换，以及崩溃时写了一半的记录在重新打开后被截断
+ * @author staoo
+ */
+public class LogSpoolTest {
+
+    private static final String NAME = "test";
+    private static final int SEGMENT_SIZE = 4096;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("log-spool");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * 测试追加和重放
+     * 提交检查点后重新打开，已重放的记录不再读出
+     */
+    @Test
+    public void testAppendReadCommit() throws IOException {
+        try (LogSpool spool = open(SEGMENT_SIZE, 4)) {
+            assertTrue(spool.append(bytes("a")));
+            assertTrue(spool.append(bytes("b")));
+            assertTrue(spool.append(bytes("c")));
+
+            LogSpool.Batch batch = spool.read(2);
+            assertEquals(List.of("a", "b"), strings(batch));
+            // 未提交时再次读取仍从检查点开始
+            assertEquals(List.of("a", "b"), strings(spool.read(2)));
+            spool.commit(batch);
+            assertTrue(spool.hasPending(), "还有未重放的记录");
+        }
+
+        try (LogSpool spool = open(SEGMENT_SIZE, 4)) {
+            LogSpool.Batch batch = spool.read(10);
+            assertEquals(List.of("c"), strings(batch), "重新打开后从检查点继续重放");
+            spool.commit(batch);
+            assertFalse(spool.hasPending(), "全部记录已重放");
+        }
+    }
+
+    /**
+     * 测试崩溃时写了一半的记录
+     * 重新打开时截断到最后一条完整记录，之后追加的记录可以正常读出
+     */
+    @Test
+    public void testRecoverAfterTruncatedWrite() throws IOException {
+        try (LogSpool spool = open(SEGMENT_SIZE, 4)) {
+            spool.append(bytes("first"));
+            spool.append(bytes("second"));
+        }
+        // 模拟崩溃：在最后一条记录之后写入长度和部分内容，校验值不匹配
+        int end = (8 + "first".length()) + (8 + "second".length());
+        try (FileChannel channel = FileChannel.open(segment(1), StandardOpenOption.WRITE)) {
+            ByteBuffer partial = ByteBuffer.allocate(8 + 4);
+            partial.putInt(100).putInt(12345).put(bytes("part"));
+            partial.flip();
+            channel.write(partial, end);
+        }
+
+        try (LogSpool spool = open(SEGMENT_SIZE, 4)) {
+            assertEquals(end, spool.getStats().getWritePosition(), "写入位置应回到最后一条完整记录之后");
+            assertTrue(spool.append(bytes("third")));
+            assertEquals(List.of("first", "second", "third"), strings(spool.read(10)));
+        }
+    }
+
+    /**
+     * 测试校验失败的记录
+     * 内容损坏的记录及其之后的内容不再读出
+     */
+    @Test
+    public void testCorruptedRecord() throws IOException {
+        try (LogSpool spool = open(SEGMENT_SIZE, 4)) {
+            spool.append(bytes("good"));
+            spool.append(bytes("bad"));
+        }
+        try (FileChannel channel = FileChannel.open(segment(1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("x")), 8 + "good".length() + 8);
+        }
+
+        try (LogSpool spool = open(SEGMENT_SIZE, 4)) {
+            assertEquals(List.of("good"), strings(spool.read(10)));
+        }
+    }
+
+    /**
+     * 测试分段切换
+     * 跨分段读取，提交后删除已读完的分段，分段数达到上限时拒绝追加
+     */
+    @Test
+    public void testRotateAndLimit() throws IOException {
+        // 每个分段可以放下两条记录
+        int segmentSize = 2 * (8 + 16) + 4;
+        try (LogSpool spool = open(segmentSize, 2)) {
+            byte[] record = new byte[16];
+            assertTrue(spool.append(record));
+            assertTrue(spool.append(record));
+            assertTrue(spool.append(record), "第三条记录写入第二个分段");
+            assertTrue(spool.append(record));
+            assertFalse(spool.append(record), "分段数达到上限时拒绝追加");
+            assertFalse(spool.append(new byte[segmentSize]), "超过分段大小的记录应被拒绝");
+            assertEquals(2, spool.getStats().getRejected());
+
+            LogSpool.Batch batch = spool.read(10);
+            assertEquals(4, batch.getRecords().size(), "应跨分段读出全部记录");
+            spool.commit(batch);
+            assertFalse(Files.exists(segment(1)), "已读完的分段应被删除");
+            assertTrue(spool.append(record), "删除分段后可以继续追加");
+        }
+    }
+
+    private LogSpool open(int segmentSize, int maxSegments) throws IOException {
+        return LogSpool.open(NAME, directory, segmentSize, maxSegments, false);
+    }
+
+    private Path segment(long seq) {
+        return directory.resolve(String.format("%s-%020d.seg", NAME, seq));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(LogSpool.Batch batch) {
+        List<String> values = new ArrayList<>();
+        for (byte[] record : batch.getRecords()) {
+            values.add(new String(record, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+}
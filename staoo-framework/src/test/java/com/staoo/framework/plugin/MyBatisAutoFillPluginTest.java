@@ -0,0 +1,155 @@
+package com.staoo.framework.plugin;
+
+import com.staoo.common.annotation.AutoFill;
+import com.staoo.common.domain.UserInfo;
+import com.staoo.common.util.UserUtils;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MyBatis自动填充插件测试
+ * 验证批量参数中Map、Collection和数组的遍历：同一个实体以多个名称出现时只填充一次，同一条语句共用一个时间点
+ * @author staoo
+ */
+public class MyBatisAutoFillPluginTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final MyBatisAutoFillPlugin plugin = new MyBatisAutoFillPlugin();
+    private final Configuration configuration = new Configuration();
+
+    @BeforeEach
+    public void setUp() {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setId(USER_ID);
+        UserUtils.setCurrentUser(userInfo);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        UserUtils.clear();
+    }
+
+    /**
+     * 测试批量插入的参数
+     * ParamMap中同一个列表以list、collection和param1三个名称出现，数组中又包含同一批实体，
+     * 每个实体只填充一次，所有实体使用同一个时间点
+     */
+    @Test
+    public void testFillBatchInsertOnce() throws Throwable {
+        List<CountingEntity> entities = List.of(new CountingEntity(), new CountingEntity(), new CountingEntity());
+        MapperMethod.ParamMap<Object> paramMap = new MapperMethod.ParamMap<>();
+        paramMap.put("list", entities);
+        paramMap.put("collection", entities);
+        paramMap.put("param1", entities);
+        paramMap.put("array", entities.toArray());
+
+        assertEquals(1, intercept("com.staoo.system.mapper.UserMapper.insertBatch", SqlCommandType.INSERT, paramMap));
+
+        LocalDateTime now = entities.get(0).createTime;
+        assertNotNull(now);
+        for (CountingEntity entity : entities) {
+            assertEquals(4, entity.setterCalls, "每个实体的每个字段应只填充一次");
+            assertEquals(USER_ID, entity.createBy);
+            assertEquals(USER_ID, entity.updateBy);
+            assertSame(now, entity.createTime, "同一条语句中的实体应使用同一个时间点");
+            assertSame(now, entity.updateTime, "创建时间和更新时间应使用同一个时间点");
+        }
+    }
+
+    /**
+     * 测试批量更新的参数
+     * 更新时只填充更新信息，嵌套在Map中的集合同样被遍历
+     */
+    @Test
+    public void testFillBatchUpdate() throws Throwable {
+        CountingEntity first = new CountingEntity();
+        CountingEntity second = new CountingEntity();
+        MapperMethod.ParamMap<Object> paramMap = new MapperMethod.ParamMap<>();
+        paramMap.put("entities", List.of(first, second));
+        paramMap.put("param1", Collections.singletonMap("entity", first));
+        paramMap.put("param2", "不需要填充的参数");
+
+        intercept("com.staoo.system.mapper.UserMapper.updateBatch", SqlCommandType.UPDATE, paramMap);
+
+        for (CountingEntity entity : List.of(first, second)) {
+            assertEquals(2, entity.setterCalls, "更新时只应填充更新人和更新时间各一次");
+            assertNull(entity.createBy, "更新时不应填充创建人");
+            assertNull(entity.createTime, "更新时不应填充创建时间");
+            assertEquals(USER_ID, entity.updateBy);
+        }
+        assertSame(first.updateTime, second.updateTime, "同一条语句中的实体应使用同一个时间点");
+    }
+
+    /**
+     * 测试不填充的语句
+     * 忽略的Mapper和查询语句不填充
+     */
+    @Test
+    public void testSkipIgnoredStatements() throws Throwable {
+        CountingEntity ignored = new CountingEntity();
+        intercept("com.staoo.system.mapper.OperationLogMapper.insertBatch", SqlCommandType.INSERT, List.of(ignored));
+        assertEquals(0, ignored.setterCalls, "忽略的Mapper不应填充");
+
+        CountingEntity selected = new CountingEntity();
+        intercept("com.staoo.system.mapper.UserMapper.selectList", SqlCommandType.SELECT, selected);
+        assertEquals(0, selected.setterCalls, "查询语句不应填充");
+    }
+
+    /**
+     * 通过插件执行一次Executor.update，原始调用固定返回1
+     */
+    private Object intercept(String id, SqlCommandType sqlCommandType, Object parameter) throws Throwable {
+        MappedStatement ms = new MappedStatement.Builder(configuration, id,
+                parameterObject -> new BoundSql(configuration, "", Collections.emptyList(), parameterObject),
+                sqlCommandType).build();
+        Executor executor = (Executor) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Executor.class}, (proxy, method, args) -> 1);
+        return plugin.intercept(new Invocation(executor,
+                Executor.class.getMethod("update", MappedStatement.class, Object.class), new Object[]{ms, parameter}));
+    }
+
+    @AutoFill
+    public static class CountingEntity {
+        private Long createBy;
+        private LocalDateTime createTime;
+        private Long updateBy;
+        private LocalDateTime updateTime;
+        private int setterCalls;
+
+        public void setCreateBy(Long createBy) {
+            this.createBy = createBy;
+            setterCalls++;
+        }
+
+        public void setCreateTime(LocalDateTime createTime) {
+            this.createTime = createTime;
+            setterCalls++;
+        }
+
+        public void setUpdateBy(Long updateBy) {
+            this.updateBy = updateBy;
+            setterCalls++;
+        }
+
+        public void setUpdateTime(LocalDateTime updateTime) {
+            this.updateTime = updateTime;
+            setterCalls++;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.staoo.framework.plugin.tenant;
+
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户SQL改写器测试
+ * 验证连接、外连接ON条件、子查询和忽略表的改写结果，以及租户参数位置与改写后SQL一致
+ * @author staoo
+ */
+public class TenantSqlRewriterTest {
+
+    private final TenantSqlRewriter rewriter = new TenantSqlRewriter(new TenantProperties());
+
+    /**
+     * 测试内连接
+     * 两张表的租户条件都追加到WHERE
+     */
+    @Test
+    public void testInnerJoin() {
+        TenantSqlTemplate template = select("SELECT u.id FROM sys_user u JOIN sys_role r ON u.role_id = r.id WHERE u.name = ?");
+
+        String sql = normalize(template.getSql());
+        String where = sql.substring(sql.indexOf(" where "));
+        assertTrue(where.contains("u.tenant_id = ?"), sql);
+        assertTrue(where.contains("r.tenant_id = ?"), sql);
+        assertTrue(template.getTenantTables().containsAll(List.of("sys_user", "sys_role")));
+        assertIndexesMatchSql(template);
+    }
+
+    /**
+     * 测试左外连接
+     * 可为空一侧的表条件追加到ON中，避免外连接退化为内连接
+     */
+    @Test
+    public void testLeftJoin() {
+        TenantSqlTemplate template = select(
+                "SELECT u.id, d.name FROM sys_user u LEFT JOIN sys_department d ON u.dept_id = d.id WHERE u.status = ?");
+
+        String sql = normalize(template.getSql());
+        int on = sql.indexOf(" on ");
+        int where = sql.indexOf(" where ");
+        assertTrue(on > 0 && where > on, sql);
+        assertTrue(sql.substring(on, where).contains("d.tenant_id = ?"), "右表条件应在ON中: " + sql);
+        assertFalse(sql.substring(where).contains("d.tenant_id"), "右表条件不应在WHERE中: " + sql);
+        assertTrue(sql.substring(where).contains("u.tenant_id = ?"), "左表条件应在WHERE中: " + sql);
+        assertIndexesMatchSql(template);
+    }
+
+    /**
+     * 测试右外连接
+     * 可为空的是左表，左表条件追加到ON中
+     */
+    @Test
+    public void testRightJoin() {
+        TenantSqlTemplate template = select(
+                "SELECT u.id FROM sys_user u RIGHT JOIN sys_department d ON u.dept_id = d.id AND d.status = ?");
+
+        String sql = normalize(template.getSql());
+        int where = sql.indexOf(" where ");
+        assertTrue(where > 0, sql);
+        assertTrue(sql.substring(sql.indexOf(" on "), where).contains("u.tenant_id = ?"), "左表条件应在ON中: " + sql);
+        assertTrue(sql.substring(where).contains("d.tenant_id = ?"), "右表条件应在WHERE中: " + sql);
+        assertIndexesMatchSql(template);
+    }
+
+    /**
+     * 测试子查询
+     * 子查询中的表同样追加租户条件
+     */
+    @Test
+    public void testSubQuery() {
+        TenantSqlTemplate template = select(
+                "SELECT id FROM sys_user WHERE dept_id IN (SELECT id FROM sys_department WHERE name = ?) AND status = ?");
+
+        String sql = normalize(template.getSql());
+        assertTrue(sql.contains("sys_user.tenant_id = ?"), sql);
+        assertTrue(sql.contains("sys_department.tenant_id = ?"), sql);
+        assertEquals(2, template.getTenantParameterIndexes().length);
+        assertIndexesMatchSql(template);
+    }
+
+    /**
+     * 测试UPDATE和DELETE
+     * SET中的参数在租户参数之前
+     */
+    @Test
+    public void testUpdateAndDelete() {
+        TenantSqlTemplate update = rewriter.buildTemplate("test.update",
+                "UPDATE sys_user SET name = ? WHERE id = ?", SqlCommandType.UPDATE);
+        assertArrayEquals(new int[]{1}, update.getTenantParameterIndexes(), update.getSql());
+        assertIndexesMatchSql(update);
+
+        TenantSqlTemplate delete = rewriter.buildTemplate("test.delete",
+                "DELETE FROM sys_user WHERE id = ?", SqlCommandType.DELETE);
+        assertArrayEquals(new int[]{0}, delete.getTenantParameterIndexes(), delete.getSql());
+    }
+
+    /**
+     * 测试不需要改写的语句
+     * 忽略表和INSERT保持原始SQL
+     */
+    @Test
+    public void testPassthrough() {
+        String configSql = "SELECT * FROM sys_config WHERE config_key = ?";
+        TenantSqlTemplate config = select(configSql);
+        assertFalse(config.isRewritten(), "忽略表不应被改写");
+        assertEquals(configSql, config.getSql());
+
+        String insertSql = "INSERT INTO sys_user (name) VALUES (?)";
+        TenantSqlTemplate insert = rewriter.buildTemplate("test.insert", insertSql, SqlCommandType.INSERT);
+        assertFalse(insert.isRewritten(), "INSERT不应被改写");
+        assertEquals(insertSql, insert.getSql());
+    }
+
+    /**
+     * 测试模板缓存
+     * 相同语句ID和SQL返回同一个模板
+     */
+    @Test
+    public void testTemplateCache() {
+        String sql = "SELECT * FROM sys_user WHERE id = ?";
+        TenantSqlTemplate first = rewriter.getTemplate("test.cache", sql, SqlCommandType.SELECT);
+        assertSame(first, rewriter.getTemplate("test.cache", sql, SqlCommandType.SELECT));
+    }
+
+    private TenantSqlTemplate select(String sql) {
+        TenantSqlTemplate template = rewriter.buildTemplate("test.select", sql, SqlCommandType.SELECT);
+        assertNotNull(template);
+        return template;
+    }
+
+    /**
+     * 改写后SQL中紧跟在"tenant_id = "之后的?就是租户参数，其位置应与模板记录的位置一致
+     */
+    private static void assertIndexesMatchSql(TenantSqlTemplate template) {
+        String sql = normalize(template.getSql());
+        List<Integer> expected = new ArrayList<>();
+        int placeholder = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                if (sql.startsWith("tenant_id = ", i - "tenant_id = ".length())) {
+                    expected.add(placeholder);
+                }
+                placeholder++;
+            }
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), template.getTenantParameterIndexes(),
+                "租户参数位置应与改写后的SQL一致: " + template.getSql());
+    }
+
+    private static String normalize(String sql) {
+        return sql.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,65 @@
+package com.staoo.framework.plugin.tenant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户SQL模板测试
+ * 验证租户占位符在参数列表中的位置计算，字符串、带引号标识符和注释中的?不计入参数
+ * @author staoo
+ */
+public class TenantSqlTemplateTest {
+
+    private static final String M = TenantSqlTemplate.TENANT_MARKER;
+
+    /**
+     * 测试租户占位符位置
+     * 位置已计入之前插入的租户参数
+     */
+    @Test
+    public void testTenantParameterIndexes() {
+        TenantSqlTemplate template = TenantSqlTemplate.of(
+                "SELECT * FROM a JOIN b ON b.tenant_id = " + M + " WHERE a.tenant_id = " + M + " AND a.x = ? AND a.y = ?",
+                Set.of("a", "b"));
+
+        assertTrue(template.isRewritten(), "包含租户标记的SQL应被改写");
+        assertArrayEquals(new int[]{0, 1}, template.getTenantParameterIndexes());
+        assertEquals("SELECT * FROM a JOIN b ON b.tenant_id = ? WHERE a.tenant_id = ? AND a.x = ? AND a.y = ?",
+                template.getSql());
+
+        template = TenantSqlTemplate.of("UPDATE a SET x = ? WHERE a.tenant_id = " + M + " AND id = ?", Set.of("a"));
+        assertArrayEquals(new int[]{1}, template.getTenantParameterIndexes(), "SET中的参数在租户参数之前");
+    }
+
+    /**
+     * 测试引号和注释中的?
+     * 字符串、带引号标识符和注释中的?不是JDBC参数
+     */
+    @Test
+    public void testIgnoreQuotedPlaceholders() {
+        TenantSqlTemplate template = TenantSqlTemplate.of(
+                "SELECT * FROM a WHERE a.x = ? AND a.y = '?' AND `c?` = \"?\" /* ? */ AND a.tenant_id = " + M
+                        + " AND a.z = ? -- ?\n AND b.tenant_id = " + M + " # ?\n AND a.w = ?",
+                Set.of("a", "b"));
+        assertArrayEquals(new int[]{1, 3}, template.getTenantParameterIndexes());
+
+        template = TenantSqlTemplate.of("SELECT * FROM a WHERE a.x = 'it\\'s ?' AND a.y = 'it''s ?' AND a.z = ?"
+                + " AND a.tenant_id = " + M, Set.of("a"));
+        assertArrayEquals(new int[]{1}, template.getTenantParameterIndexes(), "转义的引号不应结束字符串");
+    }
+
+    /**
+     * 测试不需要改写的模板
+     */
+    @Test
+    public void testPassthrough() {
+        TenantSqlTemplate template = TenantSqlTemplate.passthrough("SELECT * FROM sys_config WHERE id = ?");
+        assertFalse(template.isRewritten(), "直通模板不应被改写");
+        assertEquals(0, template.getTenantParameterIndexes().length);
+        assertTrue(template.getTenantTables().isEmpty());
+        assertEquals("SELECT * FROM sys_config WHERE id = ?", template.getSql());
+    }
+}
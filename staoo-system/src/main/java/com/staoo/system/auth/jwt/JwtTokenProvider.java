@@ -1,20 +1,28 @@
 package com.staoo.system.auth.jwt;
 
-import io.jsonwebtoken.Claims;
+import com.staoo.system.auth.revocation.TokenRevocationService;
+import com.staoo.system.auth.session.LocalSessionRegistry;
+import com.staoo.system.auth.session.SessionRegistry;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 /**
  * JWT令牌提供者
@@ -23,11 +31,35 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class JwtTokenProvider {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
-    // 存储用户会话信息，用于多端登录控制
-    // key: username + deviceId, value: token
-    private final Map<String, String> userSessions = new ConcurrentHashMap<>();
-    // 存储用户当前活跃会话数
-    private final Map<String, Integer> userActiveSessions = new ConcurrentHashMap<>();
+    /**
+     * 会话ID声明
+     */
+    public static final String SESSION_ID_CLAIM = "sid";
+    /**
+     * 设备ID声明
+     */
+    public static final String DEVICE_ID_CLAIM = "did";
+    /**
+     * 令牌类型声明，只有刷新令牌携带
+     */
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    /**
+     * 刷新令牌的令牌类型
+     */
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+    /**
+     * 未提供设备ID时使用的设备ID
+     */
+    private static final String DEFAULT_DEVICE_ID = "unknown";
+    /**
+     * 验证缓存的分段数
+     */
+    private static final int VERIFY_CACHE_SEGMENTS = 16;
+    // 会话注册表，用于多端登录控制，未配置时使用进程内实现
+    @Autowired(required = false)
+    private SessionRegistry sessionRegistry;
+    @Autowired
+    private TokenRevocationService revocationService;
     @Value("${jwt.secret}")
     private String jwtSecret;
     @Value("${jwt.expiration}")
@@ -38,6 +70,14 @@ public class JwtTokenProvider {
     private String jwtIssuer;
     @Value("${system.login.max-sessions}")
     private int maxSessions;
+    // 验证缓存的最大条数，按分段近似限制，0表示不缓存
+    @Value("${jwt.verify-cache-size:10000}")
+    private int verifyCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    // 已验证令牌的缓存，按签名的哈希分段，每个分段按访问顺序淘汰
+    private VerifiedCacheSegment[] verifiedCache;
 
     /**
      * 获取JWT过期时间
@@ -47,9 +87,29 @@ public class JwtTokenProvider {
     }
 
     /**
-     * 获取JWT密钥
+     * 初始化签名密钥和解析器，只在启动时解码一次密钥
+     */
+    @PostConstruct
+    public void init() {
+        this.signingKey = resolveSigningKey();
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        if (verifyCacheSize > 0) {
+            int segmentCapacity = Math.max(1, verifyCacheSize / VERIFY_CACHE_SEGMENTS);
+            this.verifiedCache = new VerifiedCacheSegment[VERIFY_CACHE_SEGMENTS];
+            for (int i = 0; i < VERIFY_CACHE_SEGMENTS; i++) {
+                verifiedCache[i] = new VerifiedCacheSegment(segmentCapacity);
+            }
+        }
+        if (sessionRegistry == null) {
+            sessionRegistry = new LocalSessionRegistry();
+        }
+        logger.info("JWT会话注册表: {}", sessionRegistry.getClass().getSimpleName());
+    }
+
+    /**
+     * 解析JWT密钥
      */
-    private SecretKey getSignInKey() {
+    private SecretKey resolveSigningKey() {
         try {
             // 首先尝试使用标准的Base64解码
             return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
@@ -65,6 +125,46 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * 验证令牌并返回声明，签名和有效期只校验一次
+     * 开启验证缓存时，以签名部分为键缓存验证结果直到令牌过期，同一令牌的后续请求不再计算HMAC，
+     * 缓存满时淘汰所在分段最久未访问的条目；
+     * 撤销检查只访问本地内存，命中缓存时同样检查
+     *
+     * @param token JWT令牌
+     * @return 已验证的声明
+     * @throws io.jsonwebtoken.ExpiredJwtException 令牌已过期
+     * @throws io.jsonwebtoken.JwtException       令牌格式或签名无效，或令牌已被撤销
+     */
+    public VerifiedClaims verify(String token) {
+        String signature = verifiedCache != null ? signatureOf(token) : null;
+        VerifiedCacheSegment segment = null;
+        if (signature != null) {
+            int hash = signature.hashCode();
+            segment = verifiedCache[(hash ^ (hash >>> 16)) & (VERIFY_CACHE_SEGMENTS - 1)];
+            VerifiedClaims cached = segment.get(signature, token, System.currentTimeMillis());
+            if (cached != null) {
+                return checkRevoked(cached);
+            }
+        }
+
+        VerifiedClaims claims = new VerifiedClaims(jwtParser.parseClaimsJws(token).getBody());
+        if (segment != null) {
+            segment.put(signature, new CachedClaims(token, claims));
+        }
+        return checkRevoked(claims);
+    }
+
+    /**
+     * 已撤销的令牌视为无效
+     */
+    private VerifiedClaims checkRevoked(VerifiedClaims claims) {
+        if (revocationService.isRevoked(claims.getId(), claims.getExpirationMillis())) {
+            throw new JwtException("令牌已被撤销");
+        }
+        return claims;
+    }
+
     /**
      * 生成访问令牌
      *
@@ -74,46 +174,60 @@ public class JwtTokenProvider {
      * @return JWT访问令牌
      */
     public String generateAccessToken(String username, String deviceId, Map<String, Object> claims) {
-        // 检查用户会话数是否超过限制
-        checkAndCleanSessions(username, deviceId);
-
-        // 生成新令牌
+        if (deviceId == null || deviceId.isEmpty()) {
+            deviceId = DEFAULT_DEVICE_ID;
+        }
+        // 生成新令牌，令牌中记录会话ID和设备ID，用于校验会话是否仍然有效；令牌ID与会话ID相同，撤销会话即撤销令牌
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        Date expiryDate = new Date(accessTokenExpiration(now.getTime()));
+        String sessionId = UUID.randomUUID().toString().replace("-", "");
+        Map<String, Object> tokenClaims = claims != null ? new HashMap<>(claims) : new HashMap<>();
+        tokenClaims.put(SESSION_ID_CLAIM, sessionId);
+        tokenClaims.put(DEVICE_ID_CLAIM, deviceId);
 
         String token = Jwts.builder()
-                           .setClaims(claims != null ? claims : new HashMap<>())
+                           .setClaims(tokenClaims)
+                           .setId(sessionId)
                            .setSubject(username)
                            .setIssuer(jwtIssuer)
                            .setIssuedAt(now)
                            .setExpiration(expiryDate)
-                           .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+                           .signWith(signingKey, SignatureAlgorithm.HS512)
                            .compact();
 
-        // 存储会话信息
-        String sessionKey = getSessionKey(username, deviceId);
-        userSessions.put(sessionKey, token);
-        userActiveSessions.put(username, userActiveSessions.getOrDefault(username, 0) + 1);
+        // 注册会话，同一设备的旧会话被替换，超过最大会话数时淘汰最早的会话；
+        // 会话在刷新令牌有效期内保持有效，访问令牌过期后仍可用刷新令牌续期
+        List<String> evicted = sessionRegistry.register(username, deviceId, sessionId, now.getTime(), maxSessions,
+                Math.max(jwtExpiration, jwtRefreshExpiration));
+        if (!evicted.isEmpty()) {
+            logger.info("用户会话已被替换或淘汰: {}, 数量: {}", username, evicted.size());
+        }
 
         return token;
     }
 
     /**
-     * 生成刷新令牌
+     * 为访问令牌生成刷新令牌
+     * 刷新令牌携带访问令牌的会话ID和设备ID，会话被注销、替换或淘汰后刷新令牌随之失效
      *
-     * @param username 用户名
+     * @param accessToken 同一次登录签发的访问令牌
      * @return JWT刷新令牌
      */
-    public String generateRefreshToken(String username) {
+    public String generateRefreshToken(String accessToken) {
+        VerifiedClaims accessClaims = verify(accessToken);
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtRefreshExpiration);
 
         return Jwts.builder()
-                   .setSubject(username)
+                   .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
+                   .claim(SESSION_ID_CLAIM, accessClaims.getString(SESSION_ID_CLAIM))
+                   .claim(DEVICE_ID_CLAIM, accessClaims.getString(DEVICE_ID_CLAIM))
+                   .setId(UUID.randomUUID().toString().replace("-", ""))
+                   .setSubject(accessClaims.getSubject())
                    .setIssuer(jwtIssuer)
                    .setIssuedAt(now)
                    .setExpiration(expiryDate)
-                   .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+                   .signWith(signingKey, SignatureAlgorithm.HS512)
                    .compact();
     }
 
@@ -124,47 +238,27 @@ public class JwtTokenProvider {
      * @return 用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(getSignInKey())
-                            .build()
-                            .parseClaimsJws(token)
-                            .getBody();
-
-        return claims.getSubject();
+        return verify(token).getSubject();
     }
 
     /**
      * 验证令牌
      *
      * @param token    JWT令牌
-     * @param deviceId 设备ID
+     * @param deviceId 设备ID，会话以令牌中的设备ID为准
      * @return 令牌是否有效
      */
     public boolean validateToken(String token, String deviceId) {
 
         // 解析令牌
-        Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(getSignInKey())
-                            .build()
-                            .parseClaimsJws(token)
-                            .getBody();
-
-        String username = claims.getSubject();
-        String sessionKey = getSessionKey(username, deviceId);
-
-        // 检查令牌是否在会话中
-//            String storedToken = userSessions.get(sessionKey);
-//            if (storedToken == null || !storedToken.equals(token)) {
-//                logger.warn("令牌不在有效会话中: {}", username);
-//                return false;
-//            }
-
-        // 检查令牌是否过期
-        Date expiration = claims.getExpiration();
-        if (expiration != null && expiration.before(new Date())) {
-            logger.warn("令牌已过期: {}", username);
-            // 移除过期会话
-            removeSession(username, deviceId);
+        VerifiedClaims claims = verify(token);
+
+        if (isRefreshToken(claims)) {
+            logger.warn("刷新令牌不能作为访问令牌使用: {}", claims.getSubject());
+            return false;
+        }
+        if (!isSessionActive(claims)) {
+            logger.warn("令牌不在有效会话中: {}", claims.getSubject());
             return false;
         }
 
@@ -172,6 +266,52 @@ public class JwtTokenProvider {
 
     }
 
+    /**
+     * 判断令牌所属的会话是否有效
+     * 没有会话ID的令牌（升级前签发的访问令牌、第三方应用令牌）不受会话控制
+     *
+     * @param claims 已验证的声明
+     * @return 会话是否有效
+     */
+    public boolean isSessionActive(VerifiedClaims claims) {
+        String sessionId = claims.getString(SESSION_ID_CLAIM);
+        if (sessionId == null) {
+            return true;
+        }
+        return sessionRegistry.isActive(claims.getSubject(), claims.getString(DEVICE_ID_CLAIM), sessionId);
+    }
+
+    /**
+     * 判断是否为刷新令牌，刷新令牌只能用于续期，不能作为访问令牌
+     *
+     * @param claims 已验证的声明
+     * @return 是否为刷新令牌
+     */
+    public boolean isRefreshToken(VerifiedClaims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.getString(TOKEN_TYPE_CLAIM));
+    }
+
+    /**
+     * 验证刷新令牌，令牌类型不符或所属会话已失效时视为无效
+     *
+     * @param refreshToken JWT刷新令牌
+     * @return 已验证的声明
+     * @throws JwtException 令牌无效、已被撤销、不是刷新令牌或所属会话已失效
+     */
+    public VerifiedClaims verifyRefreshToken(String refreshToken) {
+        VerifiedClaims claims = verify(refreshToken);
+        if (!isRefreshToken(claims)) {
+            throw new JwtException("不是刷新令牌");
+        }
+        // 没有会话ID的刷新令牌是升级前签发的，无法确认会话状态，需要重新登录
+        String sessionId = claims.getString(SESSION_ID_CLAIM);
+        if (sessionId == null
+                || !sessionRegistry.isActive(claims.getSubject(), claims.getString(DEVICE_ID_CLAIM), sessionId)) {
+            throw new JwtException("刷新令牌所属的会话已失效");
+        }
+        return claims;
+    }
+
     /**
      * 从令牌中获取所有声明
      *
@@ -179,12 +319,7 @@ public class JwtTokenProvider {
      * @return 声明Map
      */
     public Map<String, Object> getAllClaimsFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(getSignInKey())
-                            .build()
-                            .parseClaimsJws(token)
-                            .getBody();
-        return claims;
+        return verify(token).getClaims();
     }
 
     /**
@@ -194,7 +329,30 @@ public class JwtTokenProvider {
      * @param deviceId 设备ID
      */
     public void logout(String username, String deviceId) {
-        removeSession(username, deviceId);
+        if (sessionRegistry.remove(username, deviceId, null)) {
+            logger.info("用户会话已注销: {}, 设备ID: {}", username, deviceId);
+        }
+    }
+
+    /**
+     * 注销令牌所属的会话并撤销令牌，同一设备上之后签发的会话不受影响
+     *
+     * @param token JWT访问令牌
+     * @return 是否注销了会话
+     */
+    public boolean logout(String token) {
+        VerifiedClaims claims = verify(token);
+        revocationService.revoke(claims.getId(), claims.getExpirationMillis());
+        String sessionId = claims.getString(SESSION_ID_CLAIM);
+        if (sessionId == null) {
+            return false;
+        }
+        String deviceId = claims.getString(DEVICE_ID_CLAIM);
+        boolean removed = sessionRegistry.remove(claims.getSubject(), deviceId, sessionId);
+        if (removed) {
+            logger.info("用户会话已注销: {}, 设备ID: {}", claims.getSubject(), deviceId);
+        }
+        return removed;
     }
 
     /**
@@ -203,74 +361,103 @@ public class JwtTokenProvider {
      * @param username 用户名
      */
     public void logoutAll(String username) {
-        // 遍历并移除所有用户会话
-        userSessions.keySet().removeIf(key -> key.startsWith(username + ":"));
-        // 重置用户活跃会话数
-        userActiveSessions.remove(username);
-        logger.info("用户所有会话已注销: {}", username);
+        Map<String, Long> removed = sessionRegistry.removeAll(username);
+        logger.info("用户所有会话已注销: {}, 数量: {}", username, removed.size());
     }
 
     /**
-     * 检查并清理用户会话
+     * 强制下线：注销指定用户的所有会话并撤销这些会话的访问令牌
+     * 会话ID即访问令牌ID，撤销记录按令牌过期时间分桶，因此按会话的签发时间还原令牌的过期时间
      *
      * @param username 用户名
-     * @param deviceId 设备ID
+     * @return 下线的会话数
      */
-    private void checkAndCleanSessions(String username, String deviceId) {
-        String sessionKey = getSessionKey(username, deviceId);
-        Integer currentSessions = userActiveSessions.getOrDefault(username, 0);
-
-        // 如果用户会话数已达到最大限制，且新设备不是已有会话，则需要清理
-        if (currentSessions >= maxSessions && !userSessions.containsKey(sessionKey)) {
-            // 这里可以根据业务需求决定清理策略
-            // 简单策略：清理最早的会话（实际应用中可能需要记录会话创建时间）
-            int sessionsToRemove = currentSessions - maxSessions + 1;
-            int removedCount = 0;
-
-            for (String key : userSessions.keySet()) {
-                if (key.startsWith(username + ":")) {
-                    userSessions.remove(key);
-                    removedCount++;
-                    if (removedCount >= sessionsToRemove) {
-                        break;
-                    }
-                }
-            }
-
-            // 更新会话计数
-            userActiveSessions.put(username, maxSessions);
-            logger.info("用户会话数已达到上限，已清理旧会话: {}, 剩余会话数: {}", username, maxSessions);
+    public int forceLogout(String username) {
+        Map<String, Long> removed = sessionRegistry.removeAll(username);
+        for (Map.Entry<String, Long> session : removed.entrySet()) {
+            revocationService.revoke(session.getKey(), accessTokenExpiration(session.getValue()));
         }
+        logger.info("用户已被强制下线: {}, 会话数: {}", username, removed.size());
+        return removed.size();
     }
 
     /**
-     * 移除指定会话
+     * 撤销令牌（如刷新令牌），令牌无效时忽略
      *
-     * @param username 用户名
-     * @param deviceId 设备ID
+     * @param token JWT令牌
      */
-    private void removeSession(String username, String deviceId) {
-        String sessionKey = getSessionKey(username, deviceId);
-        if (userSessions.containsKey(sessionKey)) {
-            userSessions.remove(sessionKey);
-            int currentSessions = userActiveSessions.getOrDefault(username, 0);
-            if (currentSessions > 0) {
-                userActiveSessions.put(username, currentSessions - 1);
-            } else {
-                userActiveSessions.remove(username);
-            }
-            logger.info("用户会话已注销: {}, 设备ID: {}", username, deviceId);
+    public void revoke(String token) {
+        try {
+            VerifiedClaims claims = verify(token);
+            revocationService.revoke(claims.getId(), claims.getExpirationMillis());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("撤销无效令牌被忽略: {}", e.getMessage());
         }
     }
 
     /**
-     * 获取会话键
-     *
-     * @param username 用户名
-     * @param deviceId 设备ID
-     * @return 会话键
+     * 按签发时间计算访问令牌的过期时间，令牌的exp声明只精确到秒，这里同样截断到秒，与验证时读取的过期时间一致
+     */
+    private long accessTokenExpiration(long issuedAt) {
+        return (issuedAt + jwtExpiration) / 1000 * 1000;
+    }
+
+    /**
+     * 获取令牌的签名部分，格式不正确时返回null
+     */
+    private String signatureOf(String token) {
+        if (token == null) {
+            return null;
+        }
+        int index = token.lastIndexOf('.');
+        return index > 0 && index < token.length() - 1 ? token.substring(index + 1) : null;
+    }
+
+    /**
+     * 验证缓存条目，保存完整令牌用于比对
+     */
+    private static final class CachedClaims {
+        private final String token;
+        private final VerifiedClaims claims;
+
+        private CachedClaims(String token, VerifiedClaims claims) {
+            this.token = token;
+            this.claims = claims;
+        }
+    }
+
+    /**
+     * 按访问顺序淘汰的验证缓存分段，写入和淘汰都是O(1)，不需要扫描整个缓存
      */
-    private String getSessionKey(String username, String deviceId) {
-        return username + ":" + deviceId;
+    private static final class VerifiedCacheSegment {
+        private final Map<String, CachedClaims> entries;
+
+        private VerifiedCacheSegment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * 获取未过期的验证结果，签名相同但令牌其他部分不同说明令牌被篡改，视为未命中
+         */
+        private synchronized VerifiedClaims get(String signature, String token, long now) {
+            CachedClaims cached = entries.get(signature);
+            if (cached == null || !cached.token.equals(token)) {
+                return null;
+            }
+            if (now >= cached.claims.getExpirationMillis()) {
+                entries.remove(signature);
+                return null;
+            }
+            return cached.claims;
+        }
+
+        private synchronized void put(String signature, CachedClaims cached) {
+            entries.put(signature, cached);
+        }
     }
 }
@@ -0,0 +1,145 @@
+package com.staoo.system.auth.jwt;
+
+import com.staoo.common.auth.PermissionBitSet;
+import com.staoo.common.auth.PermissionDictionary;
+import io.jsonwebtoken.Claims;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已验证的JWT声明
+ * 签名和有效期校验通过后生成，不可变，可以被验证缓存在多个请求之间共享
+ */
+public final class VerifiedClaims {
+    private final String id;
+    private final String subject;
+    private final String issuer;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Map<String, Object> claims;
+    // 列表声明转换后的位图，随验证缓存复用
+    private final Map<String, PermissionBitSet> bitSets = new ConcurrentHashMap<>();
+
+    VerifiedClaims(Claims claims) {
+        this.id = claims.getId();
+        this.subject = claims.getSubject();
+        this.issuer = claims.getIssuer();
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : claims.entrySet()) {
+            Object value = entry.getValue();
+            // 列表声明（角色、权限）也要拷贝为只读，避免调用方修改缓存中的内容
+            if (value instanceof List<?> list) {
+                value = Collections.unmodifiableList(new ArrayList<>(list));
+            }
+            copy.put(entry.getKey(), value);
+        }
+        this.claims = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * 令牌ID（jti），用于撤销令牌
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 用户名（sub）
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt == null ? null : new Date(issuedAt.getTime());
+    }
+
+    public Date getExpiration() {
+        return expiration == null ? null : new Date(expiration.getTime());
+    }
+
+    /**
+     * 过期时间的毫秒数，没有过期时间时返回Long.MAX_VALUE
+     */
+    public long getExpirationMillis() {
+        return expiration == null ? Long.MAX_VALUE : expiration.getTime();
+    }
+
+    /**
+     * 全部声明，只读
+     */
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    public boolean containsKey(String name) {
+        return claims.containsKey(name);
+    }
+
+    public Object get(String name) {
+        return claims.get(name);
+    }
+
+    /**
+     * 获取字符串声明
+     * @param name 声明名称
+     * @return 声明值，不存在时返回null
+     */
+    public String getString(String name) {
+        Object value = claims.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 获取数值声明，JSON反序列化后可能是Integer、Long或字符串
+     * @param name 声明名称
+     * @return 声明值，不存在或无法转换时返回null
+     */
+    public Long getLong(String name) {
+        Object value = claims.get(name);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value != null) {
+            try {
+                return Long.valueOf(value.toString());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取字符串列表声明
+     * @param name 声明名称
+     * @return 只读列表，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(String name) {
+        Object value = claims.get(name);
+        return value instanceof List<?> ? (List<String>) value : null;
+    }
+
+    /**
+     * 获取列表声明对应的位图，转换结果随声明缓存，同一令牌的后续请求不再逐个查找字典
+     * @param name 声明名称，如roles、permissions
+     * @param dictionary 字典
+     * @return 位图，不存在时返回空位图
+     */
+    public PermissionBitSet getBitSet(String name, PermissionDictionary dictionary) {
+        return bitSets.computeIfAbsent(name, key -> PermissionBitSet.of(dictionary, getStringList(key)));
+    }
+}
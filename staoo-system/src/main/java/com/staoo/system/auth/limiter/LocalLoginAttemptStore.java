@@ -0,0 +1,223 @@
+package com.staoo.system.auth.limiter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内登录失败计数存储
+ * 每个键一个计数器，键内的操作在该计数器的锁内完成，不同键之间互不阻塞。
+ * 计数器按过期时间挂在哈希时间轮上，每次操作顺带推进时间轮，过期的计数器被移除，不需要后台线程；
+ * 计数器数量达到上限时不再为新键计数，已有的键（如攻击者的IP）不受影响。只适用于单节点部署
+ */
+public class LocalLoginAttemptStore implements LoginAttemptStore {
+    private static final Logger logger = LoggerFactory.getLogger(LocalLoginAttemptStore.class);
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final LongSupplier clock;
+    private final long tickMillis;
+    private final int maxEntries;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Queue<Counter>[] wheel = new Queue[WHEEL_SIZE];
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    // 已处理到的时间刻度，只在advanceLock内修改
+    private volatile long currentTick;
+    private volatile long nextFullWarnTime;
+
+    /**
+     * @param tickMillis 时间轮刻度（毫秒）
+     * @param maxEntries 最多保存的计数器数量
+     */
+    public LocalLoginAttemptStore(long tickMillis, int maxEntries) {
+        this(tickMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    /**
+     * 使用指定时钟，供测试控制时间
+     */
+    LocalLoginAttemptStore(long tickMillis, int maxEntries, LongSupplier clock) {
+        this.clock = clock;
+        this.tickMillis = Math.max(100, tickMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = clock.getAsLong() / this.tickMillis;
+    }
+
+    @Override
+    public long recordFailure(String key, long windowMillis, int maxFailures, long lockMillis) {
+        long now = clock.getAsLong();
+        advance(now);
+        while (true) {
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                if (counters.size() >= maxEntries) {
+                    warnFull(now);
+                    return 0;
+                }
+                Counter created = new Counter(key);
+                counter = counters.putIfAbsent(key, created);
+                if (counter == null) {
+                    counter = created;
+                }
+            }
+            synchronized (counter) {
+                // 计数器已被时间轮移除，重新获取
+                if (counter.discarded) {
+                    continue;
+                }
+                counter.roll(now, windowMillis);
+                counter.current++;
+                if (counter.count(now, windowMillis) >= maxFailures) {
+                    counter.lockedUntil = now + lockMillis;
+                }
+                long expireAt = Math.max(counter.windowStart + 2 * windowMillis, counter.lockedUntil);
+                if (!counter.scheduled) {
+                    counter.scheduled = true;
+                    schedule(counter, expireAt);
+                }
+                counter.expireAt = expireAt;
+                return counter.lockedUntil > now ? counter.lockedUntil : 0;
+            }
+        }
+    }
+
+    @Override
+    public long getLockedUntil(String key) {
+        long now = clock.getAsLong();
+        advance(now);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return 0;
+        }
+        synchronized (counter) {
+            return counter.lockedUntil > now ? counter.lockedUntil : 0;
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        synchronized (counter) {
+            counter.discarded = true;
+            counters.remove(key, counter);
+        }
+    }
+
+    /**
+     * 当前保存的计数器数量
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    private void schedule(Counter counter, long expireAt) {
+        long tick = Math.max(expireAt / tickMillis, currentTick + 1);
+        wheel[(int) (tick & (WHEEL_SIZE - 1))].add(counter);
+    }
+
+    /**
+     * 推进时间轮到当前时间，处理经过的每个槽：过期的计数器移除，未过期的按新的过期时间重新挂上
+     * 只有一个线程推进，其他线程直接返回
+     */
+    private void advance(long now) {
+        long target = now / tickMillis;
+        if (target <= currentTick || !advanceLock.tryLock()) {
+            return;
+        }
+        try {
+            // 间隔超过一圈时每个槽只需处理一次
+            long from = Math.max(currentTick + 1, target - WHEEL_SIZE + 1);
+            for (long tick = from; tick <= target; tick++) {
+                Queue<Counter> slot = wheel[(int) (tick & (WHEEL_SIZE - 1))];
+                // 只处理推进前已在槽内的计数器，重新挂到同一个槽的计数器留到下一圈
+                List<Counter> due = new ArrayList<>();
+                for (int i = slot.size(); i > 0; i--) {
+                    Counter counter = slot.poll();
+                    if (counter == null) {
+                        break;
+                    }
+                    due.add(counter);
+                }
+                for (Counter counter : due) {
+                    expireOrReschedule(counter, now);
+                }
+            }
+            currentTick = target;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    private void expireOrReschedule(Counter counter, long now) {
+        synchronized (counter) {
+            if (counter.discarded) {
+                return;
+            }
+            if (counter.expireAt <= now) {
+                counter.discarded = true;
+                counters.remove(counter.key, counter);
+            } else {
+                schedule(counter, counter.expireAt);
+            }
+        }
+    }
+
+    private void warnFull(long now) {
+        if (now >= nextFullWarnTime) {
+            nextFullWarnTime = now + 60000;
+            logger.warn("登录失败计数器数量已达上限{}，新的键暂不计数", maxEntries);
+        }
+    }
+
+    /**
+     * 滑动窗口计数器
+     */
+    private static final class Counter {
+        private final String key;
+        private long windowStart;
+        private int current;
+        private int previous;
+        private long lockedUntil;
+        private long expireAt;
+        private boolean scheduled;
+        private boolean discarded;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+
+        /**
+         * 进入新的窗口时，上一窗口的计数变为当前窗口的计数或清零
+         */
+        private void roll(long now, long windowMillis) {
+            long start = now - now % windowMillis;
+            if (start != windowStart) {
+                previous = start - windowStart == windowMillis ? current : 0;
+                current = 0;
+                windowStart = start;
+            }
+        }
+
+        /**
+         * 滑动窗口内的失败次数，上一窗口的计数按仍在滑动窗口内的比例折算
+         */
+        private double count(long now, long windowMillis) {
+            return previous * (double) (windowMillis - (now - windowStart)) / windowMillis + current;
+        }
+    }
+}
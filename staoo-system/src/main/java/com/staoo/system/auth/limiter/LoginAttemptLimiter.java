@@ -0,0 +1,146 @@
+package com.staoo.system.auth.limiter;
+
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 登录失败限制器
+ * 按账号和按IP两个维度分别计数：同一账号在窗口内失败次数过多时锁定账号，
+ * 同一IP对不同账号的失败次数过多（撞库）时锁定该IP。计数存储未配置时使用进程内实现
+ */
+@Component
+public class LoginAttemptLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptLimiter.class);
+
+    private static final String USER_KEY_PREFIX = "user:";
+    private static final String IP_KEY_PREFIX = "ip:";
+
+    @Autowired(required = false)
+    private LoginAttemptStore store;
+
+    // 同一账号窗口内允许的失败次数
+    @Value("${system.login.max-retry-count}")
+    private int maxRetryCount;
+
+    // 账号锁定时长（秒）
+    @Value("${system.login.lock-time}")
+    private long lockTime;
+
+    @Value("${staoo.auth.login-limit.window-seconds:900}")
+    private long windowSeconds;
+
+    // 同一IP窗口内允许的失败次数，0表示不按IP限制
+    @Value("${staoo.auth.login-limit.ip-max-failures:20}")
+    private int ipMaxFailures;
+
+    // IP锁定时长（秒）
+    @Value("${staoo.auth.login-limit.ip-lock-seconds:1800}")
+    private long ipLockSeconds;
+
+    @Value("${staoo.auth.login-limit.tick-millis:1000}")
+    private long tickMillis;
+
+    @Value("${staoo.auth.login-limit.max-entries:100000}")
+    private int maxEntries;
+
+    @PostConstruct
+    public void init() {
+        if (store == null) {
+            store = new LocalLoginAttemptStore(tickMillis, maxEntries);
+        }
+        logger.info("登录失败计数存储: {}", store.getClass().getSimpleName());
+    }
+
+    /**
+     * 在登录失败限制下执行认证：已锁定时直接拒绝，认证失败时计数，成功时清除账号的计数
+     * 只有认证失败（AUTHENTICATION_FAILED）计数，参数错误和系统异常不计数；IP的计数在成功后保留
+     *
+     * @param principal 账号（用户名、手机号），为空时只按IP限制
+     * @param ip 客户端IP，为空时只按账号限制
+     * @param authenticator 认证逻辑
+     * @param <T> 认证结果类型
+     * @return 认证结果
+     */
+    public <T> T attempt(String principal, String ip, Supplier<T> authenticator) {
+        checkAllowed(principal, ip);
+        T result;
+        try {
+            result = authenticator.get();
+        } catch (BusinessException e) {
+            if (Objects.equals(e.getCode(), StatusCodeEnum.AUTHENTICATION_FAILED.getCode())) {
+                onFailure(principal, ip);
+            }
+            throw e;
+        }
+        if (StringUtils.hasText(principal)) {
+            store.reset(USER_KEY_PREFIX + principal);
+        }
+        return result;
+    }
+
+    /**
+     * 检查账号和IP是否被锁定
+     *
+     * @param principal 账号，可为空
+     * @param ip 客户端IP，可为空
+     * @throws BusinessException 已被锁定
+     */
+    public void checkAllowed(String principal, String ip) {
+        if (StringUtils.hasText(principal)) {
+            long lockedUntil = store.getLockedUntil(USER_KEY_PREFIX + principal);
+            if (lockedUntil > 0) {
+                throw new BusinessException(StatusCodeEnum.AUTHENTICATION_FAILED.getCode(),
+                        "用户已被锁定，请" + remainingMinutes(lockedUntil) + "分钟后重试");
+            }
+        }
+        if (ipMaxFailures > 0 && StringUtils.hasText(ip)) {
+            long lockedUntil = store.getLockedUntil(IP_KEY_PREFIX + ip);
+            if (lockedUntil > 0) {
+                throw new BusinessException(StatusCodeEnum.AUTHENTICATION_FAILED.getCode(),
+                        "登录失败次数过多，请" + remainingMinutes(lockedUntil) + "分钟后重试");
+            }
+        }
+    }
+
+    /**
+     * 账号是否被锁定
+     *
+     * @param principal 账号
+     * @return 是否被锁定
+     */
+    public boolean isLocked(String principal) {
+        return StringUtils.hasText(principal) && store.getLockedUntil(USER_KEY_PREFIX + principal) > 0;
+    }
+
+    /**
+     * 记录一次认证失败
+     *
+     * @param principal 账号，可为空
+     * @param ip 客户端IP，可为空
+     */
+    public void onFailure(String principal, String ip) {
+        long windowMillis = windowSeconds * 1000;
+        if (StringUtils.hasText(principal)
+                && store.recordFailure(USER_KEY_PREFIX + principal, windowMillis, maxRetryCount, lockTime * 1000) > 0) {
+            logger.warn("用户 [{}] 登录失败次数过多，已被锁定", principal);
+        }
+        if (ipMaxFailures > 0 && StringUtils.hasText(ip)
+                && store.recordFailure(IP_KEY_PREFIX + ip, windowMillis, ipMaxFailures, ipLockSeconds * 1000) > 0) {
+            logger.warn("IP [{}] 登录失败次数过多，已被锁定", ip);
+        }
+    }
+
+    private long remainingMinutes(long lockedUntil) {
+        return Math.max(1, (lockedUntil - System.currentTimeMillis() + 59999) / 60000);
+    }
+}
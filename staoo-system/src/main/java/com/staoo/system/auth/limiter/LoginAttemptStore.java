@@ -0,0 +1,32 @@
+package com.staoo.system.auth.limiter;
+
+/**
+ * 登录失败计数存储
+ * 每个键一个滑动窗口计数器：当前窗口计数加上按剩余比例折算的上一窗口计数，达到上限时锁定。
+ * 未配置实现时使用进程内实现，多节点部署时应使用共享存储使各节点的锁定规则一致
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * 记录一次登录失败
+     * @param key 计数键
+     * @param windowMillis 滑动窗口长度（毫秒）
+     * @param maxFailures 窗口内允许的最大失败次数
+     * @param lockMillis 达到上限后的锁定时长（毫秒）
+     * @return 锁定截止时间（毫秒），未锁定时返回0
+     */
+    long recordFailure(String key, long windowMillis, int maxFailures, long lockMillis);
+
+    /**
+     * 获取锁定截止时间
+     * @param key 计数键
+     * @return 锁定截止时间（毫秒），未锁定或已解锁时返回0
+     */
+    long getLockedUntil(String key);
+
+    /**
+     * 清除计数和锁定
+     * @param key 计数键
+     */
+    void reset(String key);
+}
@@ -0,0 +1,191 @@
+package com.staoo.system.auth.revocation;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 已撤销令牌索引
+ * 按令牌过期时间分桶，桶组成一个覆盖令牌最长有效期的环；每个桶有一个布隆过滤器和一个精确集合。
+ * 查询时根据令牌的过期时间直接定位到一个桶，布隆过滤器判定不存在时只需几次内存访问；
+ * 判定可能存在时再查精确集合，因此没有误判。桶过期后被新的时间段复用，撤销记录随令牌过期自动清除
+ */
+public final class RevokedTokenIndex {
+
+    private final LongSupplier clock;
+    private final long bucketMillis;
+    private final int bitsMask;
+    private final int hashCount;
+    private final AtomicReferenceArray<Bucket> ring;
+    // 过期时间超出环覆盖范围的撤销记录，key: 令牌ID，value: 过期时间
+    private final Map<String, Long> overflow = new ConcurrentHashMap<>();
+
+    /**
+     * @param bucketMillis 桶的时间跨度
+     * @param maxLifetimeMillis 令牌最长有效期
+     * @param expectedPerBucket 每个桶预计的撤销数，用于计算布隆过滤器大小
+     * @param falsePositiveRate 布隆过滤器期望的误判率
+     */
+    public RevokedTokenIndex(long bucketMillis, long maxLifetimeMillis, int expectedPerBucket,
+                             double falsePositiveRate) {
+        this(bucketMillis, maxLifetimeMillis, expectedPerBucket, falsePositiveRate, System::currentTimeMillis);
+    }
+
+    /**
+     * 使用指定时钟，供测试控制时间
+     */
+    RevokedTokenIndex(long bucketMillis, long maxLifetimeMillis, int expectedPerBucket, double falsePositiveRate,
+                      LongSupplier clock) {
+        this.clock = clock;
+        this.bucketMillis = Math.max(1000, bucketMillis);
+        int slots = (int) Math.min(Integer.MAX_VALUE - 8, maxLifetimeMillis / this.bucketMillis + 2);
+        this.ring = new AtomicReferenceArray<>(slots);
+        int expected = Math.max(16, expectedPerBucket);
+        double bits = -expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // 位数取2的幂，用掩码代替取模
+        int size = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(64, Math.ceil(bits))) - 1) << 1;
+        this.bitsMask = size - 1;
+        this.hashCount = Math.max(1, (int) Math.round((double) size / expected * Math.log(2)));
+    }
+
+    /**
+     * 添加撤销记录
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     */
+    public void add(String tokenId, long expireAt) {
+        long now = clock.getAsLong();
+        if (tokenId == null || expireAt <= now) {
+            return;
+        }
+        long epoch = expireAt / bucketMillis;
+        if (epoch - now / bucketMillis >= ring.length()) {
+            overflow.put(tokenId, expireAt);
+            return;
+        }
+        Bucket bucket = bucketFor(epoch);
+        // 先写精确集合再置位，查询看到布隆过滤器的位时精确集合一定已包含该令牌
+        bucket.exact.add(tokenId);
+        long h1 = hash(tokenId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) ((h1 + i * h2) & bitsMask);
+            long mask = 1L << (bit & 63);
+            int word = bit >>> 6;
+            long current;
+            while (((current = bucket.bits.get(word)) & mask) == 0 && !bucket.bits.compareAndSet(word, current, current | mask)) {
+                // 并发置位失败时重试
+            }
+        }
+    }
+
+    /**
+     * 判断令牌是否已撤销
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     * @return 是否已撤销
+     */
+    public boolean contains(String tokenId, long expireAt) {
+        if (tokenId == null) {
+            return false;
+        }
+        long epoch = expireAt / bucketMillis;
+        Bucket bucket = ring.get(slot(epoch));
+        if (bucket != null && bucket.epoch == epoch) {
+            long h1 = hash(tokenId);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            boolean maybe = true;
+            for (int i = 0; i < hashCount && maybe; i++) {
+                int bit = (int) ((h1 + i * h2) & bitsMask);
+                maybe = (bucket.bits.get(bit >>> 6) & (1L << (bit & 63))) != 0;
+            }
+            if (maybe && bucket.exact.contains(tokenId)) {
+                return true;
+            }
+        }
+        return !overflow.isEmpty() && overflow.containsKey(tokenId);
+    }
+
+    /**
+     * 清除已过期的桶和溢出记录
+     */
+    public void purge() {
+        long now = clock.getAsLong();
+        long currentEpoch = now / bucketMillis;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.epoch < currentEpoch) {
+                ring.compareAndSet(i, bucket, null);
+            }
+        }
+        overflow.values().removeIf(expireAt -> expireAt <= now);
+    }
+
+    /**
+     * 当前保存的撤销记录数（包含尚未清除的过期记录）
+     */
+    public int size() {
+        int size = overflow.size();
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null) {
+                size += bucket.exact.size();
+            }
+        }
+        return size;
+    }
+
+    private Bucket bucketFor(long epoch) {
+        int slot = slot(epoch);
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.epoch == epoch) {
+                return bucket;
+            }
+            // 槽位为空或属于已过期的时间段，替换为新桶
+            Bucket created = new Bucket(epoch, (bitsMask >>> 6) + 1);
+            if (ring.compareAndSet(slot, bucket, created)) {
+                return created;
+            }
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring.length());
+    }
+
+    /**
+     * FNV-1a哈希再做一次混淆
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final AtomicLongArray bits;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        private Bucket(long epoch, int words) {
+            this.epoch = epoch;
+            this.bits = new AtomicLongArray(words);
+        }
+    }
+}
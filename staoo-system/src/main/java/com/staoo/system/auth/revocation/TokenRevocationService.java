@@ -0,0 +1,97 @@
+package com.staoo.system.auth.revocation;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌撤销服务
+ * 撤销记录保存在本地的RevokedTokenIndex中，每次请求的检查只访问内存；
+ * 配置了TokenRevocationSync时撤销记录同步到其他节点
+ */
+@Component
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Value("${staoo.auth.revocation.bucket-millis:60000}")
+    private long bucketMillis;
+
+    @Value("${staoo.auth.revocation.expected-per-bucket:1024}")
+    private int expectedPerBucket;
+
+    @Value("${staoo.auth.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired(required = false)
+    private TokenRevocationSync revocationSync;
+
+    private RevokedTokenIndex index;
+    private volatile long nextPurgeTime;
+
+    @PostConstruct
+    public void init() {
+        index = new RevokedTokenIndex(bucketMillis, Math.max(jwtExpiration, refreshExpiration),
+                expectedPerBucket, falsePositiveRate);
+        if (revocationSync != null) {
+            revocationSync.subscribe(index::add);
+        }
+    }
+
+    /**
+     * 撤销令牌，令牌过期后撤销记录自动清除
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     */
+    public void revoke(String tokenId, long expireAt) {
+        if (tokenId == null || expireAt <= System.currentTimeMillis()) {
+            return;
+        }
+        index.add(tokenId, expireAt);
+        purgeIfDue();
+        if (revocationSync != null) {
+            try {
+                revocationSync.publish(tokenId, expireAt);
+            } catch (Exception e) {
+                logger.error("同步令牌撤销记录失败，撤销仅在本节点生效: {}", tokenId, e);
+            }
+        }
+    }
+
+    /**
+     * 判断令牌是否已撤销
+     * @param tokenId 令牌ID，为空时视为未撤销
+     * @param expireAt 令牌过期时间（毫秒）
+     * @return 是否已撤销
+     */
+    public boolean isRevoked(String tokenId, long expireAt) {
+        return tokenId != null && index.contains(tokenId, expireAt);
+    }
+
+    /**
+     * 当前保存的撤销记录数
+     * @return 撤销记录数
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 过期的桶在写入时被复用，这里只定期释放不再写入的桶
+     */
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        if (now >= nextPurgeTime) {
+            nextPurgeTime = now + bucketMillis;
+            index.purge();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.staoo.system.auth.revocation;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 令牌撤销记录的跨节点同步
+ * 未配置实现时撤销记录只在本节点生效
+ */
+public interface TokenRevocationSync {
+
+    /**
+     * 发布撤销记录，同时持久化以便其他节点启动时加载
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     */
+    void publish(String tokenId, long expireAt);
+
+    /**
+     * 订阅撤销记录，包括其他节点发布的记录和启动时加载的尚未过期的记录
+     * @param listener 回调，参数为令牌ID和过期时间
+     */
+    void subscribe(BiConsumer<String, Long> listener);
+}
@@ -164,7 +164,7 @@ public class IAMLoginServiceImpl implements ThirdPartyLoginService {
         // 生成令牌
         String deviceId = request.getDeviceId() != null ? request.getDeviceId() : "iam_device";
         String token = jwtTokenProvider.generateAccessToken(user.getUsername(), deviceId, claims);
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getUsername());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(token);
         
         // 构建登录响应
         LoginResponse response = new LoginResponse();
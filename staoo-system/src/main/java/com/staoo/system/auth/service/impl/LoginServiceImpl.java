@@ -5,15 +5,17 @@ import com.staoo.common.exception.BusinessException;
 import com.staoo.common.util.UserUtils;
 import com.staoo.common.auth.dto.LoginRequest;
 import com.staoo.common.auth.dto.LoginResponse;
+import com.staoo.system.auth.limiter.LoginAttemptLimiter;
 import com.staoo.system.auth.service.LoginService;
 import com.staoo.system.auth.strategy.LoginStrategyFactory;
+import com.staoo.system.domain.ClientFingerprint;
 import com.staoo.system.domain.LoginLog;
+import com.staoo.system.service.ClientFingerprintService;
 import com.staoo.system.service.LoginLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -34,6 +36,12 @@ public class LoginServiceImpl implements LoginService {
     @Autowired
     private LoginStrategyFactory loginStrategyFactory;
 
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private ClientFingerprintService clientFingerprintService;
+
     @Override
     public LoginResponse login(LoginRequest request) {
         // 参数验证
@@ -79,9 +87,7 @@ public class LoginServiceImpl implements LoginService {
 
     @Override
     public boolean isUserLocked(String username) {
-        // 这个方法现在由各个具体的策略实现来处理
-        // 保留此方法以保持接口兼容性
-        return false;
+        return loginAttemptLimiter.isLocked(username);
     }
 
     @Override
@@ -94,10 +100,9 @@ public class LoginServiceImpl implements LoginService {
             loginLog.setIp(ip);
 
             // 获取浏览器和操作系统信息
-            String browser = getBrowser(userAgent);
-            String os = getOs(userAgent);
-            loginLog.setBrowser(browser);
-            loginLog.setOs(os);
+            ClientFingerprint client = clientFingerprintService.parseUserAgent(userAgent);
+            loginLog.setBrowser(client.getBrowser());
+            loginLog.setOs(client.getOs());
 
             // 保存登录日志
             loginLogService.addLoginLog(loginLog);
@@ -105,50 +110,4 @@ public class LoginServiceImpl implements LoginService {
             logger.error("记录登录日志失败: {}", e.getMessage(), e);
         }
     }
-
-    /**
-     * 获取浏览器信息
-     */
-    private String getBrowser(String userAgent) {
-        if (!StringUtils.hasText(userAgent)) {
-            return "Unknown";
-        }
-
-        if (userAgent.contains("MSIE")) {
-            return "Internet Explorer";
-        } else if (userAgent.contains("Firefox")) {
-            return "Firefox";
-        } else if (userAgent.contains("Chrome")) {
-            return "Chrome";
-        } else if (userAgent.contains("Safari")) {
-            return "Safari";
-        } else if (userAgent.contains("Opera")) {
-            return "Opera";
-        } else {
-            return "Other";
-        }
-    }
-
-    /**
-     * 获取操作系统信息
-     */
-    private String getOs(String userAgent) {
-        if (!StringUtils.hasText(userAgent)) {
-            return "Unknown";
-        }
-
-        if (userAgent.contains("Windows")) {
-            return "Windows";
-        } else if (userAgent.contains("Macintosh")) {
-            return "Mac OS";
-        } else if (userAgent.contains("Linux")) {
-            return "Linux";
-        } else if (userAgent.contains("Android")) {
-            return "Android";
-        } else if (userAgent.contains("iOS")) {
-            return "iOS";
-        } else {
-            return "Other";
-        }
-    }
 }
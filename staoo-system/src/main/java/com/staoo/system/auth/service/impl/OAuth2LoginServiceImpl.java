@@ -121,7 +121,7 @@ public class OAuth2LoginServiceImpl implements ThirdPartyLoginService {
         claims.put("loginType", LOGIN_TYPE);
         
         // 生成刷新令牌
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getUsername());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(token);
         
         // 构建登录响应
         LoginResponse response = new LoginResponse();
@@ -0,0 +1,137 @@
+package com.staoo.system.auth.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内会话注册表
+ * 每个用户一个按注册顺序排列的会话表，用户内的操作在该用户的锁内完成，不同用户之间互不阻塞；
+ * 只适用于单节点部署
+ */
+public class LocalSessionRegistry implements SessionRegistry {
+
+    // key: 用户名
+    private final Map<String, UserSessions> users = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> register(String username, String deviceId, String sessionId, long issuedAt, int maxSessions,
+                                 long ttlMillis) {
+        while (true) {
+            UserSessions sessions = users.computeIfAbsent(username, key -> new UserSessions());
+            synchronized (sessions) {
+                // 会话表已被并发的移除操作丢弃，重新获取
+                if (sessions.discarded) {
+                    continue;
+                }
+                List<String> evicted = new ArrayList<>();
+                sessions.removeExpired(System.currentTimeMillis());
+                Session old = sessions.byDevice.remove(deviceId);
+                if (old != null) {
+                    evicted.add(old.sessionId);
+                }
+                sessions.byDevice.put(deviceId, new Session(sessionId, issuedAt, issuedAt + ttlMillis));
+                if (maxSessions > 0) {
+                    // 按注册顺序淘汰最早的会话
+                    Iterator<Session> iterator = sessions.byDevice.values().iterator();
+                    while (sessions.byDevice.size() > maxSessions && iterator.hasNext()) {
+                        evicted.add(iterator.next().sessionId);
+                        iterator.remove();
+                    }
+                }
+                return evicted;
+            }
+        }
+    }
+
+    @Override
+    public boolean isActive(String username, String deviceId, String sessionId) {
+        UserSessions sessions = users.get(username);
+        if (sessions == null) {
+            return false;
+        }
+        synchronized (sessions) {
+            Session session = sessions.byDevice.get(deviceId);
+            return session != null && session.sessionId.equals(sessionId)
+                    && session.expireTime > System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public boolean remove(String username, String deviceId, String sessionId) {
+        UserSessions sessions = users.get(username);
+        if (sessions == null) {
+            return false;
+        }
+        synchronized (sessions) {
+            Session session = sessions.byDevice.get(deviceId);
+            if (session == null || (sessionId != null && !session.sessionId.equals(sessionId))) {
+                return false;
+            }
+            sessions.byDevice.remove(deviceId);
+            if (sessions.byDevice.isEmpty()) {
+                sessions.discarded = true;
+                users.remove(username, sessions);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public Map<String, Long> removeAll(String username) {
+        UserSessions sessions = users.get(username);
+        if (sessions == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (sessions) {
+            Map<String, Long> removed = new LinkedHashMap<>();
+            for (Session session : sessions.byDevice.values()) {
+                removed.put(session.sessionId, session.issuedAt);
+            }
+            sessions.byDevice.clear();
+            sessions.discarded = true;
+            users.remove(username, sessions);
+            return removed;
+        }
+    }
+
+    @Override
+    public int countSessions(String username) {
+        UserSessions sessions = users.get(username);
+        if (sessions == null) {
+            return 0;
+        }
+        synchronized (sessions) {
+            sessions.removeExpired(System.currentTimeMillis());
+            return sessions.byDevice.size();
+        }
+    }
+
+    /**
+     * 一个用户的会话，key: 设备ID，按注册顺序排列，访问时需持有该对象的锁
+     */
+    private static final class UserSessions {
+        private final LinkedHashMap<String, Session> byDevice = new LinkedHashMap<>();
+        private boolean discarded;
+
+        private void removeExpired(long now) {
+            byDevice.values().removeIf(session -> session.expireTime <= now);
+        }
+    }
+
+    private static final class Session {
+        private final String sessionId;
+        private final long issuedAt;
+        private final long expireTime;
+
+        private Session(String sessionId, long issuedAt, long expireTime) {
+            this.sessionId = sessionId;
+            this.issuedAt = issuedAt;
+            this.expireTime = expireTime;
+        }
+    }
+}
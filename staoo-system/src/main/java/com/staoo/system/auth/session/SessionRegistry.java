@@ -0,0 +1,56 @@
+package com.staoo.system.auth.session;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登录会话注册表
+ * 每个用户的每个设备最多一个会话，超过最大会话数时淘汰最早签发的会话。
+ * 默认使用进程内实现，多节点部署时由框架模块提供基于Redis的实现
+ */
+public interface SessionRegistry {
+    /**
+     * 注册会话，同一设备的旧会话被替换
+     * @param username 用户名
+     * @param deviceId 设备ID
+     * @param sessionId 会话ID，写入令牌的sid声明
+     * @param issuedAt 签发时间（毫秒）
+     * @param maxSessions 最大会话数，小于等于0表示不限制
+     * @param ttlMillis 会话有效期（毫秒），与刷新令牌有效期一致
+     * @return 被替换或淘汰的会话ID
+     */
+    List<String> register(String username, String deviceId, String sessionId, long issuedAt, int maxSessions,
+                          long ttlMillis);
+
+    /**
+     * 判断会话是否有效，每个请求都会调用
+     * @param username 用户名
+     * @param deviceId 设备ID
+     * @param sessionId 会话ID
+     * @return 会话是否有效
+     */
+    boolean isActive(String username, String deviceId, String sessionId);
+
+    /**
+     * 移除指定设备的会话
+     * @param username 用户名
+     * @param deviceId 设备ID
+     * @param sessionId 会话ID，不为空时只有设备当前的会话ID与之相同才移除，避免注销掉同一设备上更新的会话
+     * @return 是否移除了会话
+     */
+    boolean remove(String username, String deviceId, String sessionId);
+
+    /**
+     * 移除用户的所有会话
+     * @param username 用户名
+     * @return 被移除的会话，key: 会话ID，value: 签发时间（毫秒），用于计算令牌的过期时间
+     */
+    Map<String, Long> removeAll(String username);
+
+    /**
+     * 获取用户当前的有效会话数
+     * @param username 用户名
+     * @return 会话数
+     */
+    int countSessions(String username);
+}
@@ -6,7 +6,10 @@ import com.staoo.common.auth.dto.LoginRequest;
 import com.staoo.common.auth.dto.LoginResponse;
 import com.staoo.common.auth.dto.LoginResponse.UserInfo;
 import com.staoo.system.auth.jwt.JwtTokenProvider;
+import com.staoo.system.auth.limiter.LoginAttemptLimiter;
 import com.staoo.system.domain.User;
+import com.staoo.system.security.UserAuthorities;
+import com.staoo.system.security.UserAuthorityResolver;
 import com.staoo.system.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +30,12 @@ public abstract class AbstractLoginStrategy implements LoginStrategy {
     
     @Autowired
     protected JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    protected LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    protected UserAuthorityResolver userAuthorityResolver;
     
     /**
      * 检查用户状态是否有效
@@ -68,6 +77,11 @@ public abstract class AbstractLoginStrategy implements LoginStrategy {
             userInfo.setDepartment(department);
         }
         
+        // 角色和菜单权限
+        UserAuthorities authorities = userAuthorityResolver.load(user.getId());
+        userInfo.setRoles(authorities.getRoles());
+        userInfo.setPermissions(authorities.getPermissions());
+        
         // 创建登录响应
         LoginResponse response = new LoginResponse();
         response.setUserInfo(userInfo);
@@ -78,17 +92,12 @@ public abstract class AbstractLoginStrategy implements LoginStrategy {
             deviceId = "default_device";
         }
         
-        // 构建令牌载荷
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-        claims.put("username", user.getUsername());
-        claims.put("nickname", user.getNickname());
-        // 添加admin字段到claims中
-        claims.put("admin", user.getAdmin());
+        // 构建令牌载荷，包含用户ID、admin字段和权限集合指纹
+        Map<String, Object> claims = userAuthorityResolver.buildClaims(user, authorities);
         
         // 生成accessToken和refreshToken
         String accessToken = jwtTokenProvider.generateAccessToken(user.getUsername(), deviceId, claims);
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getUsername());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(accessToken);
         
         // 设置令牌信息
         response.setAccessToken(accessToken);
@@ -106,8 +115,8 @@ public abstract class AbstractLoginStrategy implements LoginStrategy {
         // 1. 验证请求参数
         validateRequest(request);
         
-        // 2. 执行具体的登录逻辑（由子类实现）
-        User user = authenticate(request);
+        // 2. 执行具体的登录逻辑（由子类实现），账号或IP失败次数过多时拒绝
+        User user = loginAttemptLimiter.attempt(request.getUsername(), request.getIp(), () -> authenticate(request));
         
         // 3. 检查用户状态
         checkUserStatus(user);
@@ -4,6 +4,7 @@ import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
 import com.staoo.common.auth.dto.LoginRequest;
 import com.staoo.common.auth.dto.LoginResponse;
+import com.staoo.system.auth.limiter.LoginAttemptLimiter;
 import com.staoo.system.auth.service.impl.IAMLoginServiceImpl;
 import com.staoo.system.auth.strategy.LoginStrategy;
 import com.staoo.system.domain.ThirdPartyLoginRequest;
@@ -27,6 +28,9 @@ public class IAMLoginStrategy implements LoginStrategy {
     @Autowired
     private IAMLoginServiceImpl iamLoginService;
     
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+    
     @Override
     public LoginResponse login(LoginRequest request) {
         // 转换为第三方登录请求
@@ -35,8 +39,8 @@ public class IAMLoginStrategy implements LoginStrategy {
         thirdPartyLoginRequest.setAuthCode(request.getPassword());
         thirdPartyLoginRequest.setUserAgent(request.getUserAgent());
         
-        // 调用现有的IAM登录服务
-        return iamLoginService.login(thirdPartyLoginRequest);
+        // 调用现有的IAM登录服务，应用ID和提供商不是账号，只按IP限制失败次数
+        return loginAttemptLimiter.attempt(null, request.getIp(), () -> iamLoginService.login(thirdPartyLoginRequest));
     }
     
     @Override
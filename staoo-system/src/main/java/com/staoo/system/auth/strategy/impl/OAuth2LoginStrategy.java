@@ -4,6 +4,7 @@ import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
 import com.staoo.common.auth.dto.LoginRequest;
 import com.staoo.common.auth.dto.LoginResponse;
+import com.staoo.system.auth.limiter.LoginAttemptLimiter;
 import com.staoo.system.auth.service.impl.OAuth2LoginServiceImpl;
 import com.staoo.system.auth.strategy.LoginStrategy;
 import com.staoo.system.domain.ThirdPartyLoginRequest;
@@ -26,13 +27,16 @@ public class OAuth2LoginStrategy implements LoginStrategy {
     @Autowired
     private OAuth2LoginServiceImpl oauth2LoginService;
     
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+    
     @Override
     public LoginResponse login(LoginRequest request) {
         // 转换为第三方登录请求
         ThirdPartyLoginRequest thirdPartyLoginRequest = convertToThirdPartyRequest(request);
         
-        // 调用现有的OAuth2登录服务
-        return oauth2LoginService.login(thirdPartyLoginRequest);
+        // 调用现有的OAuth2登录服务，应用ID和提供商不是账号，只按IP限制失败次数
+        return loginAttemptLimiter.attempt(null, request.getIp(), () -> oauth2LoginService.login(thirdPartyLoginRequest));
     }
     
     @Override
@@ -4,21 +4,19 @@ import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
 import com.staoo.common.auth.dto.LoginRequest;
 import com.staoo.system.auth.strategy.AbstractLoginStrategy;
-import com.staoo.system.auth.strategy.LoginStrategy;
+import com.staoo.system.domain.ClientFingerprint;
 import com.staoo.system.domain.LoginLog;
 import com.staoo.system.domain.User;
+import com.staoo.system.security.PasswordHasher;
+import com.staoo.system.service.ClientFingerprintService;
 import com.staoo.system.service.LoginLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 账号密码登录策略实现
@@ -31,19 +29,13 @@ public class PasswordLoginStrategy extends AbstractLoginStrategy {
     private static final String LOGIN_TYPE = "PASSWORD";
     
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
     
     @Autowired
     private LoginLogService loginLogService;
-    
-    @Value("${system.login.max-retry-count}")
-    private int maxRetryCount;
-    
-    @Value("${system.login.lock-time}")
-    private int lockTime;
-    
-    // 存储登录失败信息的Map
-    private final Map<String, LoginFailureInfo> loginFailureMap = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ClientFingerprintService clientFingerprintService;
     
     @Override
     public String getLoginType() {
@@ -63,32 +55,28 @@ public class PasswordLoginStrategy extends AbstractLoginStrategy {
         String password = request.getPassword();
         String ip = request.getIp();
         String userAgent = request.getUserAgent();
-        
-        // 检查用户是否被锁定
-        if (isUserLocked(username)) {
-            String message = "用户已被锁定，请" + lockTime + "分钟后重试";
-            recordLoginLog(username, false, message, ip, userAgent);
-            throw new BusinessException(StatusCodeEnum.AUTHENTICATION_FAILED, message);
-        }
+
+        // 失败次数由AbstractLoginStrategy中的LoginAttemptLimiter统计和锁定
         
         try {
             // 查询用户信息
             User user = userService.getByUsername(username);
             if (user == null) {
-                handleLoginFailure(username);
                 recordLoginLog(username, false, "用户不存在", ip, userAgent);
                 throw new BusinessException(StatusCodeEnum.AUTHENTICATION_FAILED, "用户名或密码错误");
             }
             
             // 验证密码
-            if (!passwordEncoder.matches(password, user.getPassword())) {
-                handleLoginFailure(username);
+            if (!passwordHasher.matches(password, user.getPassword())) {
                 recordLoginLog(username, false, "密码错误", ip, userAgent);
                 throw new BusinessException(StatusCodeEnum.AUTHENTICATION_FAILED, "用户名或密码错误");
             }
-            
-            // 清除登录失败记录
-            loginFailureMap.remove(username);
+
+            // 哈希强度低于配置时按配置的强度重新计算，随下面的登录信息一起保存
+            String upgradedPassword = passwordHasher.upgrade(password, user.getPassword());
+            if (upgradedPassword != null) {
+                user.setPassword(upgradedPassword);
+            }
             
             // 更新用户最后登录时间和IP
             updateUserLoginInfo(user, ip);
@@ -106,48 +94,6 @@ public class PasswordLoginStrategy extends AbstractLoginStrategy {
         }
     }
     
-    /**
-     * 处理登录失败
-     */
-    private void handleLoginFailure(String username) {
-        LoginFailureInfo info = loginFailureMap.computeIfAbsent(username, k -> new LoginFailureInfo());
-        info.incrementCount();
-        
-        // 检查是否达到最大重试次数
-        if (info.getCount() >= maxRetryCount) {
-            info.setLocked(true);
-            info.setLockTime(LocalDateTime.now());
-            logger.warn("用户 [{}] 登录失败次数过多，已被锁定", username);
-        }
-    }
-    
-    /**
-     * 检查用户是否被锁定
-     */
-    private boolean isUserLocked(String username) {
-        LoginFailureInfo info = loginFailureMap.get(username);
-        if (info == null || !info.isLocked()) {
-            return false;
-        }
-        
-        // 检查锁定时间是否已过
-        LocalDateTime lockTime = info.getLockTime();
-        if (lockTime == null) {
-            return false;
-        }
-        
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime unlockTime = lockTime.plusMinutes(this.lockTime);
-        
-        // 如果锁定时间已过，解除锁定
-        if (now.isAfter(unlockTime)) {
-            loginFailureMap.remove(username);
-            return false;
-        }
-        
-        return true;
-    }
-    
     /**
      * 更新用户最后登录时间和IP
      */
@@ -173,10 +119,9 @@ public class PasswordLoginStrategy extends AbstractLoginStrategy {
             loginLog.setIp(ip);
             
             // 获取浏览器和操作系统信息
-            String browser = getBrowser(userAgent);
-            String os = getOs(userAgent);
-            loginLog.setBrowser(browser);
-            loginLog.setOs(os);
+            ClientFingerprint client = clientFingerprintService.parseUserAgent(userAgent);
+            loginLog.setBrowser(client.getBrowser());
+            loginLog.setOs(client.getOs());
             
             // 保存登录日志
             loginLogService.addLoginLog(loginLog);
@@ -184,83 +129,4 @@ public class PasswordLoginStrategy extends AbstractLoginStrategy {
             logger.error("记录登录日志失败: {}", e.getMessage(), e);
         }
     }
-    
-    /**
-     * 获取浏览器信息
-     */
-    private String getBrowser(String userAgent) {
-        if (!StringUtils.hasText(userAgent)) {
-            return "Unknown";
-        }
-        
-        if (userAgent.contains("MSIE")) {
-            return "Internet Explorer";
-        } else if (userAgent.contains("Firefox")) {
-            return "Firefox";
-        } else if (userAgent.contains("Chrome")) {
-            return "Chrome";
-        } else if (userAgent.contains("Safari")) {
-            return "Safari";
-        } else if (userAgent.contains("Opera")) {
-            return "Opera";
-        } else {
-            return "Other";
-        }
-    }
-    
-    /**
-     * 获取操作系统信息
-     */
-    private String getOs(String userAgent) {
-        if (!StringUtils.hasText(userAgent)) {
-            return "Unknown";
-        }
-        
-        if (userAgent.contains("Windows")) {
-            return "Windows";
-        } else if (userAgent.contains("Macintosh")) {
-            return "Mac OS";
-        } else if (userAgent.contains("Linux")) {
-            return "Linux";
-        } else if (userAgent.contains("Android")) {
-            return "Android";
-        } else if (userAgent.contains("iOS")) {
-            return "iOS";
-        } else {
-            return "Other";
-        }
-    }
-    
-    /**
-     * 登录失败信息内部类
-     */
-    private static class LoginFailureInfo {
-        private int count = 0;
-        private boolean locked = false;
-        private LocalDateTime lockTime;
-        
-        public int getCount() {
-            return count;
-        }
-        
-        public void incrementCount() {
-            this.count++;
-        }
-        
-        public boolean isLocked() {
-            return locked;
-        }
-        
-        public void setLocked(boolean locked) {
-            this.locked = locked;
-        }
-        
-        public LocalDateTime getLockTime() {
-            return lockTime;
-        }
-        
-        public void setLockTime(LocalDateTime lockTime) {
-            this.lockTime = lockTime;
-        }
-    }
 }
\ No newline at end of file
@@ -3,9 +3,12 @@ package com.staoo.system.auth.strategy.impl;
 import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
 import com.staoo.common.auth.dto.LoginRequest;
+import com.staoo.common.store.ExpiringStore;
 import com.staoo.system.auth.strategy.AbstractLoginStrategy;
+import com.staoo.system.domain.ClientFingerprint;
 import com.staoo.system.domain.LoginLog;
 import com.staoo.system.domain.User;
+import com.staoo.system.service.ClientFingerprintService;
 import com.staoo.system.service.LoginLogService;
 import com.staoo.system.service.SmsService;
 import org.slf4j.Logger;
@@ -14,10 +17,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,12 +39,24 @@ public class SmsLoginStrategy extends AbstractLoginStrategy {
     // 验证码长度
     private static final int SMS_CODE_LENGTH = 6;
 
-    // 存储验证码信息的Map
-    private final Map<String, SmsCodeInfo> smsCodeMap = new ConcurrentHashMap<>();
+    // 每个验证码允许的校验次数，超过后验证码作废
+    private static final int SMS_CODE_MAX_ATTEMPTS = 5;
+
+    // 验证码键前缀
+    private static final String SMS_CODE_KEY_PREFIX = "sms:code:";
+
+    // 验证码校验次数键前缀
+    private static final String SMS_CODE_ATTEMPTS_KEY_PREFIX = "sms:code-attempts:";
+
+    @Autowired
+    private ExpiringStore expiringStore;
 
     @Autowired
     private LoginLogService loginLogService;
 
+    @Autowired
+    private ClientFingerprintService clientFingerprintService;
+
     @Autowired
     private SmsService smsService;
 
@@ -95,9 +109,6 @@ public class SmsLoginStrategy extends AbstractLoginStrategy {
             // 记录登录日志
             recordLoginLog(phoneNumber, true, "手机验证码登录成功", ip, userAgent);
 
-            // 验证码使用后移除
-            smsCodeMap.remove(phoneNumber);
-
             return user;
         } catch (BusinessException e) {
             throw e;
@@ -128,14 +139,19 @@ public class SmsLoginStrategy extends AbstractLoginStrategy {
         // 生成验证码
         String code = smsService.generateVerificationCode(SMS_CODE_LENGTH);
 
-        // 存储验证码信息
-        SmsCodeInfo smsCodeInfo = new SmsCodeInfo();
-        smsCodeInfo.setCode(code);
-        smsCodeInfo.setCreateTime(LocalDateTime.now());
-        smsCodeMap.put(phoneNumber, smsCodeInfo);
+        // 存储验证码，新验证码的校验次数重新计算
+        long expirationMillis = TimeUnit.MINUTES.toMillis(SMS_CODE_EXPIRATION);
+        if (!expiringStore.put(SMS_CODE_KEY_PREFIX + phoneNumber, code, expirationMillis)) {
+            throw new BusinessException(StatusCodeEnum.TOO_MANY_REQUESTS.getCode(), "短信服务繁忙，请稍后再试");
+        }
+        expiringStore.remove(SMS_CODE_ATTEMPTS_KEY_PREFIX + phoneNumber);
 
         // 发送验证码短信
-        return smsService.sendVerificationCode(phoneNumber, code);
+        boolean sent = smsService.sendVerificationCode(phoneNumber, code);
+        if (!sent) {
+            expiringStore.remove(SMS_CODE_KEY_PREFIX + phoneNumber);
+        }
+        return sent;
     }
 
     /**
@@ -149,25 +165,33 @@ public class SmsLoginStrategy extends AbstractLoginStrategy {
             return false;
         }
 
-        SmsCodeInfo smsCodeInfo = smsCodeMap.get(phoneNumber);
-        if (smsCodeInfo == null) {
+        String codeKey = SMS_CODE_KEY_PREFIX + phoneNumber;
+        String attemptsKey = SMS_CODE_ATTEMPTS_KEY_PREFIX + phoneNumber;
+
+        // 校验次数超过上限时验证码作废，防止穷举
+        long attempts = expiringStore.increment(attemptsKey, TimeUnit.MINUTES.toMillis(SMS_CODE_EXPIRATION));
+        if (attempts < 0 || attempts > SMS_CODE_MAX_ATTEMPTS) {
+            if (expiringStore.remove(codeKey)) {
+                logger.warn("手机号[{}]的验证码校验次数过多，已作废", phoneNumber);
+            }
             return false;
         }
 
-        // 检查验证码是否过期
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expireTime = smsCodeInfo.getCreateTime().plusMinutes(SMS_CODE_EXPIRATION);
-        if (now.isAfter(expireTime)) {
-            smsCodeMap.remove(phoneNumber);
+        // 验证码过期后由存储自动删除
+        String expected = expiringStore.get(codeKey);
+        if (expected == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                code.getBytes(StandardCharsets.UTF_8))) {
             return false;
         }
 
-        // 验证验证码是否匹配
-        return code.equals(smsCodeInfo.getCode());
+        // 验证码只能使用一次，并发请求中只有删除成功的一个通过
+        if (!expiringStore.remove(codeKey)) {
+            return false;
+        }
+        expiringStore.remove(attemptsKey);
+        return true;
     }
 
-
-
     /**
      * 更新用户最后登录时间和IP
      */
@@ -193,10 +217,9 @@ public class SmsLoginStrategy extends AbstractLoginStrategy {
             loginLog.setIp(ip);
 
             // 获取浏览器和操作系统信息
-            String browser = getBrowser(userAgent);
-            String os = getOs(userAgent);
-            loginLog.setBrowser(browser);
-            loginLog.setOs(os);
+            ClientFingerprint client = clientFingerprintService.parseUserAgent(userAgent);
+            loginLog.setBrowser(client.getBrowser());
+            loginLog.setOs(client.getOs());
 
             // 保存登录日志
             loginLogService.addLoginLog(loginLog);
@@ -204,74 +227,4 @@ public class SmsLoginStrategy extends AbstractLoginStrategy {
             logger.error("记录登录日志失败: {}", e.getMessage(), e);
         }
     }
-
-    /**
-     * 获取浏览器信息
-     */
-    private String getBrowser(String userAgent) {
-        if (!StringUtils.hasText(userAgent)) {
-            return "Unknown";
-        }
-
-        if (userAgent.contains("MSIE")) {
-            return "Internet Explorer";
-        } else if (userAgent.contains("Firefox")) {
-            return "Firefox";
-        } else if (userAgent.contains("Chrome")) {
-            return "Chrome";
-        } else if (userAgent.contains("Safari")) {
-            return "Safari";
-        } else if (userAgent.contains("Opera")) {
-            return "Opera";
-        } else {
-            return "Other";
-        }
-    }
-
-    /**
-     * 获取操作系统信息
-     */
-    private String getOs(String userAgent) {
-        if (!StringUtils.hasText(userAgent)) {
-            return "Unknown";
-        }
-
-        if (userAgent.contains("Windows")) {
-            return "Windows";
-        } else if (userAgent.contains("Macintosh")) {
-            return "Mac OS";
-        } else if (userAgent.contains("Linux")) {
-            return "Linux";
-        } else if (userAgent.contains("Android")) {
-            return "Android";
-        } else if (userAgent.contains("iOS")) {
-            return "iOS";
-        } else {
-            return "Other";
-        }
-    }
-
-    /**
-     * 短信验证码信息内部类
-     */
-    private static class SmsCodeInfo {
-        private String code;
-        private LocalDateTime createTime;
-
-        public String getCode() {
-            return code;
-        }
-
-        public void setCode(String code) {
-            this.code = code;
-        }
-
-        public LocalDateTime getCreateTime() {
-            return createTime;
-        }
-
-        public void setCreateTime(LocalDateTime createTime) {
-            this.createTime = createTime;
-        }
-    }
 }
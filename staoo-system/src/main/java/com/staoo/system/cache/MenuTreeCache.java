@@ -0,0 +1,188 @@
+package com.staoo.system.cache;
+
+import com.staoo.system.domain.Menu;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 用户菜单树缓存
+ * 按租户和排序去重后的角色ID集合缓存已构建的菜单树，角色相同的用户共享同一棵树。
+ * 角色菜单关系变化时只失效包含该角色的菜单树，菜单增删改时全部失效；用户角色变化会使其角色ID集合变化，
+ * 自然命中另一项缓存，不需要失效。构建期间发生失效时丢弃构建结果，避免把旧数据写回缓存。
+ * 缓存还有过期时间，作为多节点部署时其他节点修改菜单或角色的兜底
+ */
+@Component
+public class MenuTreeCache {
+
+    @Value("${staoo.menu-tree-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${staoo.menu-tree-cache.max-size:1000}")
+    private int maxSize;
+
+    private final Map<RoleSetKey, Entry> entries = new ConcurrentHashMap<>();
+    // 每次失效时递增
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 获取角色集合对应的菜单树，未命中时构建
+     * @param tenantId 租户ID
+     * @param roleIds 角色ID集合
+     * @param loader 按排序去重后的角色ID构建菜单树
+     * @return 菜单树
+     */
+    public UserMenuTree get(Long tenantId, Collection<Long> roleIds, Function<List<Long>, List<Menu>> loader) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return UserMenuTree.EMPTY;
+        }
+        RoleSetKey key = new RoleSetKey(tenantId, roleIds);
+        if (key.roleIds.length == 0) {
+            return UserMenuTree.EMPTY;
+        }
+        return get(key, () -> loader.apply(key.roleIdList()));
+    }
+
+    /**
+     * 获取全部菜单构成的菜单树（超级管理员），未命中时构建
+     * @param tenantId 租户ID
+     * @param loader 构建菜单树
+     * @return 菜单树
+     */
+    public UserMenuTree getAll(Long tenantId, Supplier<List<Menu>> loader) {
+        return get(new RoleSetKey(tenantId, null), loader);
+    }
+
+    /**
+     * 角色菜单关系被修改或角色被删除后调用，失效包含该角色的菜单树
+     * @param roleId 角色ID
+     */
+    public void invalidateRole(Long roleId) {
+        if (roleId == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.keySet().removeIf(key -> key.contains(roleId));
+        });
+    }
+
+    /**
+     * 菜单增删改后调用，失效全部菜单树
+     */
+    public void clear() {
+        runNowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.clear();
+        });
+    }
+
+    private UserMenuTree get(RoleSetKey key, Supplier<List<Menu>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expireTime > now) {
+            return entry.tree;
+        }
+
+        long loadedGeneration = generation.get();
+        UserMenuTree tree = UserMenuTree.of(loader.get());
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(cached -> cached.expireTime <= now);
+        }
+        if (entries.size() < maxSize) {
+            Entry loaded = new Entry(tree, now + ttlSeconds * 1000);
+            entries.put(key, loaded);
+            // 构建期间发生失效，丢弃刚写入的菜单树
+            if (generation.get() != loadedGeneration) {
+                entries.remove(key, loaded);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * 在事务中调用时，提交后再执行一次，防止提交前被并发请求按旧数据重新构建
+     */
+    private void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * 租户和角色ID集合，角色ID为null表示全部菜单
+     */
+    private static final class RoleSetKey {
+        private final Long tenantId;
+        private final long[] roleIds;
+        private final int hash;
+
+        private RoleSetKey(Long tenantId, Collection<Long> roleIds) {
+            this.tenantId = tenantId;
+            if (roleIds == null) {
+                this.roleIds = null;
+            } else {
+                TreeSet<Long> sorted = new TreeSet<>();
+                for (Long roleId : roleIds) {
+                    if (roleId != null) {
+                        sorted.add(roleId);
+                    }
+                }
+                this.roleIds = sorted.stream().mapToLong(Long::longValue).toArray();
+            }
+            this.hash = Objects.hashCode(tenantId) * 31 + Arrays.hashCode(this.roleIds);
+        }
+
+        boolean contains(Long roleId) {
+            return roleIds != null && Arrays.binarySearch(roleIds, roleId) >= 0;
+        }
+
+        List<Long> roleIdList() {
+            List<Long> list = new ArrayList<>(roleIds.length);
+            for (long roleId : roleIds) {
+                list.add(roleId);
+            }
+            return list;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof RoleSetKey other
+                    && Objects.equals(tenantId, other.tenantId) && Arrays.equals(roleIds, other.roleIds));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final UserMenuTree tree;
+        private final long expireTime;
+
+        private Entry(UserMenuTree tree, long expireTime) {
+            this.tree = tree;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.staoo.system.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.staoo.system.domain.Menu;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 已构建的用户菜单树
+ * 角色相同的用户共享同一个实例，菜单列表及各级子菜单列表只读，调用方不能修改其中的菜单；
+ * ETag由菜单树内容计算，内容不变时在重建和节点之间保持不变
+ */
+public final class UserMenuTree {
+    /**
+     * 空菜单树
+     */
+    public static final UserMenuTree EMPTY = new UserMenuTree(Collections.emptyList());
+
+    private static final int ETAG_BYTES = 12;
+
+    private final List<Menu> menus;
+    private final String etag;
+
+    private UserMenuTree(List<Menu> menus) {
+        this.menus = menus;
+        this.etag = etag(menus);
+    }
+
+    /**
+     * 由构建好的菜单树创建，各级子菜单列表会被替换为只读列表
+     * @param menus 菜单树
+     * @return 用户菜单树
+     */
+    public static UserMenuTree of(List<Menu> menus) {
+        if (menus == null || menus.isEmpty()) {
+            return EMPTY;
+        }
+        return new UserMenuTree(freeze(menus));
+    }
+
+    /**
+     * 菜单树，只读
+     */
+    public List<Menu> getMenus() {
+        return menus;
+    }
+
+    /**
+     * 强ETag，含双引号
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 计算同时覆盖菜单树和权限列表的ETag，用于菜单和权限一并返回的接口
+     * @param permissions 权限列表
+     * @return 强ETag，含双引号
+     */
+    public String getEtag(Collection<String> permissions) {
+        return etag(Arrays.asList(etag, permissions == null ? Collections.emptySet() : new TreeSet<>(permissions)));
+    }
+
+    private static List<Menu> freeze(List<Menu> menus) {
+        List<Menu> copy = new ArrayList<>(menus.size());
+        for (Menu menu : menus) {
+            if (menu.getChildren() != null && !menu.getChildren().isEmpty()) {
+                menu.setChildren(freeze(menu.getChildren()));
+            } else {
+                menu.setChildren(Collections.emptyList());
+            }
+            copy.add(menu);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static String etag(Object content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(JSON.toJSONBytes(content));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, ETAG_BYTES)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
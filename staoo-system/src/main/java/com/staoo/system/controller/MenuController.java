@@ -2,7 +2,9 @@ package com.staoo.system.controller;
 
 import com.staoo.common.domain.AjaxResult;
 import com.staoo.common.domain.TableResult;
+import com.staoo.common.domain.UserInfo;
 import com.staoo.common.util.UserUtils;
+import com.staoo.system.cache.UserMenuTree;
 import com.staoo.system.domain.Menu;
 import com.staoo.system.mapstruct.IMenuMapper;
 import com.staoo.system.pojo.request.MenuQueryRequest;
@@ -15,7 +17,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,21 +42,28 @@ public class MenuController {
 
     /**
      * 获取当前用户的菜单导航
+     * 响应带有ETag，菜单和权限未变化时返回304
      *
+     * @param webRequest 当前请求
      * @return 当前用户的菜单导航数据
      */
     @GetMapping("/nav")
     @Operation(summary = "获取当前用户菜单导航", description = "获取当前登录用户的菜单导航数据")
-    public AjaxResult<Map<String, Object>> nav() {
+    public AjaxResult<Map<String, Object>> nav(WebRequest webRequest) {
         // 获取当前登录用户ID
         Long userId = UserUtils.getCurrentUserId();
 
         // 获取用户菜单树
-        List<Menu> menuTree = menuService.getUserMenuTree(userId);
-        List<MenuResponse> menuResponses = menuMapper.toResponseList(menuTree);
+        UserMenuTree menuTree = menuService.getUserMenuTreeWithEtag(userId);
 
-        // 获取用户权限
-        Set<String> permissions = menuService.getPermissionsByUserId(userId);
+        // 获取用户权限，认证时已解析的权限不再查询
+        UserInfo currentUser = UserUtils.getCurrentUser();
+        Collection<String> permissions = currentUser != null && currentUser.getPermissions() != null
+                ? currentUser.getPermissions() : menuService.getPermissionsByUserId(userId);
+        if (webRequest.checkNotModified(menuTree.getEtag(permissions))) {
+            return null;
+        }
+        List<MenuResponse> menuResponses = menuMapper.toResponseList(menuTree.getMenus());
 
         // 构建返回结果Map
         Map<String, Object> resultMap = new HashMap<>();
@@ -232,16 +243,22 @@ public class MenuController {
 
     /**
      * 查询用户菜单树结构
+     * 响应带有ETag，菜单树未变化时返回304
      *
      * @param userId 用户ID
+     * @param webRequest 当前请求
      * @return 菜单树结构
      */
     @GetMapping("/userTree/{userId}")
     @Operation(summary = "查询用户菜单树结构", description = "查询用户拥有的菜单树结构信息")
     @PreAuthorize("hasAnyAuthority('system:user:query')")
-    public AjaxResult<List<MenuResponse>> getUserMenuTree(@PathVariable("userId") @Parameter(description = "用户ID") Long userId) {
-        List<Menu> menuTree = menuService.getUserMenuTree(userId);
-        List<MenuResponse> responseList = menuMapper.toResponseList(menuTree);
+    public AjaxResult<List<MenuResponse>> getUserMenuTree(@PathVariable("userId") @Parameter(description = "用户ID") Long userId,
+                                                          WebRequest webRequest) {
+        UserMenuTree menuTree = menuService.getUserMenuTreeWithEtag(userId);
+        if (webRequest.checkNotModified(menuTree.getEtag())) {
+            return null;
+        }
+        List<MenuResponse> responseList = menuMapper.toResponseList(menuTree.getMenus());
         return AjaxResult.success(responseList);
     }
 
@@ -3,15 +3,22 @@ package com.staoo.system.controller;
 import com.staoo.common.domain.OperationLogBase;
 import com.staoo.common.domain.TableResult;
 import com.staoo.system.pojo.request.OperationLogQueryRequest;
+import com.staoo.system.pojo.response.OperationLogStatResponse;
 import com.staoo.common.domain.AjaxResult;
+import com.staoo.common.util.export.ExportFormat;
 import com.staoo.system.service.SystemOperationLogService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -151,55 +158,79 @@ public class OperationLogController {
 
     /**
      * 导出操作日志
-     * @param operationLogBase 查询条件
-     * @return 文件下载链接
+     * 边查询边写入响应，不在服务端生成文件
+     * @param request 查询条件
+     * @param format 导出格式：csv或xlsx，默认csv
+     * @param response HTTP响应
+     * @throws IOException 获取响应输出流失败
      */
     @GetMapping("/export")
-    public AjaxResult<String> export(OperationLogBase operationLogBase) {
-        String filePath = operationLogService.export(operationLogBase);
-        // 在实际项目中，这里应该返回一个可下载的文件链接
-        return AjaxResult.success(filePath);
+    public void export(OperationLogQueryRequest request,
+                       @RequestParam(required = false) String format,
+                       HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        String fileName = "operation_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + exportFormat.getExtension();
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=" + URLEncoder.encode(fileName, StandardCharsets.UTF_8));
+        operationLogService.export(request, exportFormat, response.getOutputStream());
     }
 
     /**
      * 统计指定时间范围内各模块的操作次数
-     * @param startTime 开始时间
-     * @param endTime 结束时间
+     * @param startTime 开始时间，向下取整到整点
+     * @param endTime 结束时间，向上取整到整点，不包含该整点
      * @return 统计结果
      */
     @GetMapping("/statistics/module")
-    public AjaxResult<List<OperationLogBase>> countByModule(
+    public AjaxResult<List<OperationLogStatResponse>> countByModule(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        List<OperationLogBase> statistics = operationLogService.countByModule(startTime, endTime);
+        List<OperationLogStatResponse> statistics = operationLogService.countByModule(startTime, endTime);
         return AjaxResult.success(statistics);
     }
 
     /**
      * 统计指定时间范围内各操作类型的操作次数
-     * @param startTime 开始时间
-     * @param endTime 结束时间
+     * @param startTime 开始时间，向下取整到整点
+     * @param endTime 结束时间，向上取整到整点，不包含该整点
      * @return 统计结果
      */
     @GetMapping("/statistics/type")
-    public AjaxResult<List<OperationLogBase>> countByOperationType(
+    public AjaxResult<List<OperationLogStatResponse>> countByOperationType(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        List<OperationLogBase> statistics = operationLogService.countByOperationType(startTime, endTime);
+        List<OperationLogStatResponse> statistics = operationLogService.countByOperationType(startTime, endTime);
+        return AjaxResult.success(statistics);
+    }
+
+    /**
+     * 统计指定时间范围内操作次数最多的操作人
+     * @param startTime 开始时间，向下取整到整点
+     * @param endTime 结束时间，向上取整到整点，不包含该整点
+     * @param limit 返回条数
+     * @return 统计结果
+     */
+    @GetMapping("/statistics/user")
+    public AjaxResult<List<OperationLogStatResponse>> countByUser(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Integer limit) {
+        List<OperationLogStatResponse> statistics = operationLogService.countByUser(startTime, endTime, limit);
         return AjaxResult.success(statistics);
     }
 
     /**
      * 统计指定时间范围内的操作总次数
-     * @param startTime 开始时间
-     * @param endTime 结束时间
+     * @param startTime 开始时间，向下取整到整点
+     * @param endTime 结束时间，向上取整到整点，不包含该整点
      * @return 操作总次数
      */
     @GetMapping("/statistics/total")
-    public AjaxResult<Integer> countTotalOperations(
+    public AjaxResult<Long> countTotalOperations(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        Integer total = operationLogService.countTotalOperations(startTime, endTime);
+        long total = operationLogService.countTotalOperations(startTime, endTime);
         return AjaxResult.success(total);
     }
 
@@ -209,8 +240,8 @@ public class OperationLogController {
      * @return 操作趋势数据
      */
     @GetMapping("/statistics/trend")
-    public ResponseEntity<List<OperationLogBase>> getOperationTrend(@RequestParam Integer days) {
-        List<OperationLogBase> trend = operationLogService.getOperationTrend(days);
+    public ResponseEntity<List<OperationLogStatResponse>> getOperationTrend(@RequestParam Integer days) {
+        List<OperationLogStatResponse> trend = operationLogService.getOperationTrend(days);
         return ResponseEntity.ok(trend);
     }
 }
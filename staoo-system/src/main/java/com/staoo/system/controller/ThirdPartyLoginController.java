@@ -5,6 +5,7 @@ import com.staoo.common.domain.AjaxResult;
 import com.staoo.system.auth.factory.ThirdPartyLoginFactory;
 import com.staoo.system.auth.service.ThirdPartyLoginService;
 import com.staoo.system.domain.ThirdPartyLoginRequest;
+import com.staoo.system.service.ClientFingerprintService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +29,9 @@ public class ThirdPartyLoginController {
     @Autowired
     private ThirdPartyLoginFactory thirdPartyLoginFactory;
 
+    @Autowired
+    private ClientFingerprintService clientFingerprintService;
+
     /**
      * 第三方登录接口
      * @param request 第三方登录请求
@@ -41,10 +45,8 @@ public class ThirdPartyLoginController {
             HttpServletRequest httpRequest) {
         logger.info("第三方登录请求: {}", request);
 
-        // 补充请求信息
-        if (request.getClientIp() == null) {
-            request.setClientIp(getClientIp(httpRequest));
-        }
+        // 补充请求信息，客户端IP由服务端获取，不依赖前端提交
+        request.setClientIp(clientFingerprintService.resolveClientIp(httpRequest));
         if (request.getUserAgent() == null) {
             request.setUserAgent(httpRequest.getHeader("User-Agent"));
         }
@@ -59,29 +61,4 @@ public class ThirdPartyLoginController {
 
         return AjaxResult.success(loginResponse);
     }
-
-    /**
-     * 获取客户端真实IP地址
-     * @param request HTTP请求对象
-     * @return 客户端IP地址
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("x-forwarded-for");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-
-        // 多级代理的情况下，第一个IP为客户端真实IP
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-
-        return ip;
-    }
 }
@@ -4,6 +4,7 @@ import com.github.pagehelper.Page;
 import com.staoo.common.domain.TableResult;
 import com.staoo.common.domain.AjaxResult;
 import com.staoo.common.domain.PageQuery;
+import com.staoo.system.auth.jwt.JwtTokenProvider;
 import com.staoo.system.domain.User;
 import com.staoo.system.pojo.request.UserQueryRequest;
 import com.staoo.system.service.UserService;
@@ -39,6 +40,9 @@ public class UserController {
     @Autowired
     private PasswordComplexityValidator passwordComplexityValidator;
 
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
     /**
      * 根据ID查询用户
      * @param id 用户ID
@@ -168,6 +172,22 @@ public class UserController {
         return AjaxResult.success(result);
     }
 
+    /**
+     * 强制用户下线，注销用户的所有会话并撤销已签发的访问令牌
+     * @param id 用户ID
+     * @return 下线的会话数
+     */
+    @PutMapping("/{id}/forceLogout")
+    @Operation(summary = "强制用户下线")
+    @PreAuthorize("@ss.hasPermi('system:user:edit')")
+    public AjaxResult<Integer> forceLogout(@PathVariable Long id) {
+        User user = userService.getById(id);
+        if (user == null) {
+            return AjaxResult.error("用户不存在");
+        }
+        return AjaxResult.success(jwtTokenProvider.forceLogout(user.getUsername()));
+    }
+
     /**
      * 更新用户头像
      * @param id 用户ID
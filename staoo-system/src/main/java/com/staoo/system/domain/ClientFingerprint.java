@@ -0,0 +1,107 @@
+package com.staoo.system.domain;
+
+import java.io.Serializable;
+
+/**
+ * 客户端指纹
+ * 从User-Agent解析出的浏览器、操作系统和设备类型，不可变，可在线程间共享
+ */
+public final class ClientFingerprint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 空User-Agent的解析结果
+     */
+    public static final ClientFingerprint UNKNOWN = new ClientFingerprint("Unknown", null, "Unknown", null, "Unknown");
+
+    /**
+     * 浏览器名称，如Chrome、Edge、WeChat，无法识别时为Other
+     */
+    private final String browserName;
+
+    /**
+     * 浏览器版本
+     */
+    private final String browserVersion;
+
+    /**
+     * 操作系统名称，如Windows、macOS、Android，无法识别时为Other
+     */
+    private final String osName;
+
+    /**
+     * 操作系统版本
+     */
+    private final String osVersion;
+
+    /**
+     * 设备类型：Desktop、Mobile、Tablet、Bot或Unknown
+     */
+    private final String deviceType;
+
+    public ClientFingerprint(String browserName, String browserVersion, String osName, String osVersion,
+                             String deviceType) {
+        this.browserName = browserName;
+        this.browserVersion = browserVersion;
+        this.osName = osName;
+        this.osVersion = osVersion;
+        this.deviceType = deviceType;
+    }
+
+    /**
+     * 浏览器名称和主版本号，如“Chrome 120”，用于日志的浏览器字段
+     * @return 浏览器描述
+     */
+    public String getBrowser() {
+        return join(browserName, majorVersion(browserVersion));
+    }
+
+    /**
+     * 操作系统名称和版本，如“Windows 10”，用于日志的操作系统字段
+     * @return 操作系统描述
+     */
+    public String getOs() {
+        return join(osName, osVersion);
+    }
+
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    public String getBrowserVersion() {
+        return browserVersion;
+    }
+
+    public String getOsName() {
+        return osName;
+    }
+
+    public String getOsVersion() {
+        return osVersion;
+    }
+
+    public String getDeviceType() {
+        return deviceType;
+    }
+
+    private static String majorVersion(String version) {
+        if (version == null) {
+            return null;
+        }
+        int index = version.indexOf('.');
+        return index > 0 ? version.substring(0, index) : version;
+    }
+
+    private static String join(String name, String version) {
+        return version == null || version.isEmpty() ? name : name + " " + version;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientFingerprint{" +
+                "browser='" + getBrowser() + '\'' +
+                ", os='" + getOs() + '\'' +
+                ", deviceType='" + deviceType + '\'' +
+                '}';
+    }
+}
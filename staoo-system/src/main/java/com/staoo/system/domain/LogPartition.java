@@ -0,0 +1,103 @@
+package com.staoo.system.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 日志表分区信息
+ * 对应information_schema.PARTITIONS中按时间范围分区的一个分区
+ */
+public class LogPartition implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 分区名称，未分区的表为空
+     */
+    private String partitionName;
+
+    /**
+     * 分区序号
+     */
+    private Integer ordinalPosition;
+
+    /**
+     * 分区上界描述，如'2026-11-01 00:00:00'或MAXVALUE
+     */
+    private String description;
+
+    /**
+     * 估算行数
+     */
+    private Long tableRows;
+
+    /**
+     * 分区下界（包含），第一个分区为空
+     */
+    private LocalDate lowerBound;
+
+    /**
+     * 分区上界（不包含），MAXVALUE分区为空
+     */
+    private LocalDate upperBound;
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public void setPartitionName(String partitionName) {
+        this.partitionName = partitionName;
+    }
+
+    public Integer getOrdinalPosition() {
+        return ordinalPosition;
+    }
+
+    public void setOrdinalPosition(Integer ordinalPosition) {
+        this.ordinalPosition = ordinalPosition;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getTableRows() {
+        return tableRows;
+    }
+
+    public void setTableRows(Long tableRows) {
+        this.tableRows = tableRows;
+    }
+
+    public LocalDate getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(LocalDate lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public LocalDate getUpperBound() {
+        return upperBound;
+    }
+
+    public void setUpperBound(LocalDate upperBound) {
+        this.upperBound = upperBound;
+    }
+}
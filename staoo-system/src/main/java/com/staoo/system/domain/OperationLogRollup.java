@@ -0,0 +1,103 @@
+package com.staoo.system.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志小时汇总实体类
+ * 对应数据库中的sys_operation_log_rollup表，按租户、小时、模块、操作类型、状态和操作人累计操作次数
+ */
+public class OperationLogRollup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 统计小时（整点）
+     */
+    private LocalDateTime statHour;
+
+    /**
+     * 操作模块
+     */
+    private String module;
+
+    /**
+     * 操作类型
+     */
+    private String operationType;
+
+    /**
+     * 操作状态（0-失败，1-成功）
+     */
+    private Integer status;
+
+    /**
+     * 操作人ID
+     */
+    private Long userId;
+
+    /**
+     * 操作次数
+     */
+    private Long opCount;
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public LocalDateTime getStatHour() {
+        return statHour;
+    }
+
+    public void setStatHour(LocalDateTime statHour) {
+        this.statHour = statHour;
+    }
+
+    public String getModule() {
+        return module;
+    }
+
+    public void setModule(String module) {
+        this.module = module;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public void setOperationType(String operationType) {
+        this.operationType = operationType;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getOpCount() {
+        return opCount;
+    }
+
+    public void setOpCount(Long opCount) {
+        this.opCount = opCount;
+    }
+}
@@ -0,0 +1,64 @@
+package com.staoo.system.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志检索词实体类
+ * 对应数据库中的sys_operation_log_term表，每条操作日志的每个检索词一行，与操作日志表按相同的时间分区
+ */
+public class OperationLogTerm implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 检索词
+     */
+    private String term;
+
+    /**
+     * 操作时间（与操作日志一致）
+     */
+    private LocalDateTime operationTime;
+
+    /**
+     * 操作日志ID
+     */
+    private Long logId;
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public LocalDateTime getOperationTime() {
+        return operationTime;
+    }
+
+    public void setOperationTime(LocalDateTime operationTime) {
+        this.operationTime = operationTime;
+    }
+
+    public Long getLogId() {
+        return logId;
+    }
+
+    public void setLogId(Long logId) {
+        this.logId = logId;
+    }
+}
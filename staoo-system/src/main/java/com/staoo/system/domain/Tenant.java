@@ -142,6 +142,11 @@ public class Tenant extends BaseEntity implements Serializable {
      */
     private Integer delFlag;
 
+    /**
+     * 数据源分片（为空时使用主库）
+     */
+    private String shardKey;
+
     // getter and setter methods
     public Long getId() {
         return id;
@@ -350,4 +355,12 @@ public class Tenant extends BaseEntity implements Serializable {
     public void setUpdateBy(String updateBy) {
         this.updateBy = updateBy;
     }
-}
\ No newline at end of file
+
+    public String getShardKey() {
+        return shardKey;
+    }
+
+    public void setShardKey(String shardKey) {
+        this.shardKey = shardKey;
+    }
+}
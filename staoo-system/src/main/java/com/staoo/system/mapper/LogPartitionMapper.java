@@ -0,0 +1,59 @@
+package com.staoo.system.mapper;
+
+import com.staoo.common.annotation.TenantIgnore;
+import com.staoo.system.domain.LogPartition;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 日志表分区Mapper接口
+ * 表名和分区名由调用方校验后拼接到DDL中
+ */
+@Mapper
+@TenantIgnore
+public interface LogPartitionMapper {
+    /**
+     * 查询表的分区，按分区序号排序
+     * @param tableName 表名
+     * @return 分区列表，未分区的表返回一条分区名为空的记录
+     */
+    List<LogPartition> listPartitions(@Param("tableName") String tableName);
+
+    /**
+     * 拆分MAXVALUE分区，新增按时间范围的分区
+     * @param tableName 表名
+     * @param maxPartition MAXVALUE分区名称
+     * @param partitions 新增的分区（分区名和上界）
+     * @return 影响行数
+     */
+    int addPartitions(@Param("tableName") String tableName,
+                      @Param("maxPartition") String maxPartition,
+                      @Param("partitions") List<LogPartition> partitions);
+
+    /**
+     * 删除分区及其数据
+     * @param tableName 表名
+     * @param partitionNames 分区名称
+     * @return 影响行数
+     */
+    int dropPartitions(@Param("tableName") String tableName,
+                       @Param("partitionNames") List<String> partitionNames);
+
+    /**
+     * 清空分区数据
+     * @param tableName 表名
+     * @param partitionNames 分区名称
+     * @return 影响行数
+     */
+    int truncatePartitions(@Param("tableName") String tableName,
+                           @Param("partitionNames") List<String> partitionNames);
+
+    /**
+     * 清空表
+     * @param tableName 表名
+     * @return 影响行数
+     */
+    int truncateTable(@Param("tableName") String tableName);
+}
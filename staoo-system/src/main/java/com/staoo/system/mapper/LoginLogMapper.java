@@ -18,6 +18,13 @@ public interface LoginLogMapper {
      */
     int insertLoginLog(LoginLog loginLog);
 
+    /**
+     * 批量新增登录日志
+     * @param loginLogs 登录日志列表
+     * @return 结果
+     */
+    int insertLoginLogBatch(@Param("loginLogs") List<LoginLog> loginLogs);
+
     /**
      * 查询登录日志列表
      * @param loginLog 查询条件
@@ -83,6 +83,13 @@ public interface MenuMapper {
      */
     List<Menu> getMenusByRoleId(Long roleId);
 
+    /**
+     * 根据角色ID集合查询可见的菜单列表
+     * @param roleIds 角色ID集合
+     * @return 菜单列表
+     */
+    List<Menu> getMenusByRoleIds(@Param("roleIds") List<Long> roleIds);
+
     /**
      * 根据用户ID查询菜单列表
      * @param userId 用户ID
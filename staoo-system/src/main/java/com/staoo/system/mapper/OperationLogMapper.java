@@ -1,8 +1,10 @@
 package com.staoo.system.mapper;
 
 import com.staoo.common.domain.OperationLogBase;
+import com.staoo.system.pojo.request.OperationLogSearchTerm;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,20 +32,59 @@ public interface OperationLogMapper {
     /**
      * 分页查询操作日志
      * @param operationLogBase 查询条件
+     * @param startTime 操作开始时间，为空时不限制
+     * @param endTime 操作结束时间，为空时不限制
+     * @param keywordTerms 关键词检索条件，为空时不限制
      * @param startIndex 起始位置
      * @param pageSize 每页条数
      * @return 操作日志列表
      */
     List<OperationLogBase> getPageList(@Param("operationLogBase") OperationLogBase operationLogBase,
+                                       @Param("startTime") LocalDateTime startTime,
+                                       @Param("endTime") LocalDateTime endTime,
+                                       @Param("keywordTerms") List<OperationLogSearchTerm> keywordTerms,
                                        @Param("startIndex") Integer startIndex,
                                        @Param("pageSize") Integer pageSize);
 
     /**
      * 查询操作日志总数
      * @param operationLogBase 查询条件
+     * @param startTime 操作开始时间，为空时不限制
+     * @param endTime 操作结束时间，为空时不限制
+     * @param keywordTerms 关键词检索条件，为空时不限制
      * @return 操作日志总数
      */
-    int getCount(OperationLogBase operationLogBase);
+    int getCount(@Param("operationLogBase") OperationLogBase operationLogBase,
+                 @Param("startTime") LocalDateTime startTime,
+                 @Param("endTime") LocalDateTime endTime,
+                 @Param("keywordTerms") List<OperationLogSearchTerm> keywordTerms);
+
+    /**
+     * 流式查询导出的操作日志，不查询请求参数、请求体和响应结果
+     * 游标需要在事务内遍历，遍历期间占用数据库连接
+     * @param operationLogBase 查询条件
+     * @param startTime 操作开始时间，为空时不限制
+     * @param endTime 操作结束时间，为空时不限制
+     * @param keywordTerms 关键词检索条件，为空时不限制
+     * @return 操作日志游标
+     */
+    Cursor<OperationLogBase> getExportCursor(@Param("operationLogBase") OperationLogBase operationLogBase,
+                                             @Param("startTime") LocalDateTime startTime,
+                                             @Param("endTime") LocalDateTime endTime,
+                                             @Param("keywordTerms") List<OperationLogSearchTerm> keywordTerms);
+
+    /**
+     * 按ID顺序分批查询需要建立检索词的操作日志，只查询ID、租户、模块、操作内容、操作人和操作时间
+     * @param startTime 操作开始时间，为空时不限制
+     * @param endTime 操作结束时间，为空时不限制
+     * @param afterId 上一批最后一条日志的ID，为空时从头开始
+     * @param limit 每批条数
+     * @return 操作日志列表
+     */
+    List<OperationLogBase> getIndexBatch(@Param("startTime") LocalDateTime startTime,
+                                         @Param("endTime") LocalDateTime endTime,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
 
     /**
      * 新增操作日志
@@ -53,7 +94,7 @@ public interface OperationLogMapper {
     int insert(OperationLogBase operationLogBase);
 
     /**
-     * 批量新增操作日志
+     * 批量新增操作日志，新增后回填日志ID
      * @param operationLogBases 操作日志列表
      * @return 影响行数
      */
@@ -74,13 +115,15 @@ public interface OperationLogMapper {
     int deleteByIds(@Param("ids") List<Long> ids);
 
     /**
-     * 根据时间范围删除操作日志
-     * @param startTime 开始时间
-     * @param endTime 结束时间
+     * 根据时间范围分批删除操作日志
+     * @param startTime 开始时间，为空时不限制
+     * @param endTime 结束时间，为空时不限制
+     * @param limit 本批最多删除的条数
      * @return 影响行数
      */
     int deleteByTimeRange(@Param("startTime") LocalDateTime startTime,
-                          @Param("endTime") LocalDateTime endTime);
+                          @Param("endTime") LocalDateTime endTime,
+                          @Param("limit") int limit);
 
     /**
      * 根据操作人ID查询操作日志
@@ -109,38 +152,4 @@ public interface OperationLogMapper {
      * @return 操作日志列表
      */
     List<OperationLogBase> getByIp(@Param("ip") String ip);
-
-    /**
-     * 统计指定时间范围内各模块的操作次数
-     * @param startTime 开始时间
-     * @param endTime 结束时间
-     * @return 统计结果列表
-     */
-    List<OperationLogBase> countByModule(@Param("startTime") LocalDateTime startTime,
-                                         @Param("endTime") LocalDateTime endTime);
-
-    /**
-     * 统计指定时间范围内各操作类型的操作次数
-     * @param startTime 开始时间
-     * @param endTime 结束时间
-     * @return 统计结果列表
-     */
-    List<OperationLogBase> countByOperationType(@Param("startTime") LocalDateTime startTime,
-                                                @Param("endTime") LocalDateTime endTime);
-
-    /**
-     * 统计指定时间范围内的操作总次数
-     * @param startTime 开始时间
-     * @param endTime 结束时间
-     * @return 操作总次数
-     */
-    int countTotalOperations(@Param("startTime") LocalDateTime startTime,
-                             @Param("endTime") LocalDateTime endTime);
-
-    /**
-     * 查询最近N天的操作趋势
-     * @param days 天数
-     * @return 操作趋势数据
-     */
-    List<OperationLogBase> getOperationTrend(@Param("days") Integer days);
 }
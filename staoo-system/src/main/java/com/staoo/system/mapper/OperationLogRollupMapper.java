@@ -0,0 +1,80 @@
+package com.staoo.system.mapper;
+
+import com.staoo.common.annotation.TenantIgnore;
+import com.staoo.system.domain.OperationLogRollup;
+import com.staoo.system.pojo.response.OperationLogStatResponse;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志小时汇总Mapper接口
+ * 统计查询由租户插件追加租户条件，累加和回填语句自带租户ID
+ */
+@Mapper
+public interface OperationLogRollupMapper {
+    /**
+     * 批量累加汇总计数
+     * @param rollups 汇总增量
+     * @return 影响行数
+     */
+    @TenantIgnore
+    int upsertBatch(@Param("rollups") List<OperationLogRollup> rollups);
+
+    /**
+     * 从原始日志重新计算时间范围内的汇总，覆盖已有计数
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @return 影响行数
+     */
+    @TenantIgnore
+    int backfill(@Param("startTime") LocalDateTime startTime,
+                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按模块统计操作次数
+     * @param startTime 开始小时（包含）
+     * @param endTime 结束小时（不包含）
+     * @return 统计结果
+     */
+    List<OperationLogStatResponse> countByModule(@Param("startTime") LocalDateTime startTime,
+                                                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按操作类型统计操作次数
+     * @param startTime 开始小时（包含）
+     * @param endTime 结束小时（不包含）
+     * @return 统计结果
+     */
+    List<OperationLogStatResponse> countByOperationType(@Param("startTime") LocalDateTime startTime,
+                                                        @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按操作人统计操作次数，取前limit个
+     * @param startTime 开始小时（包含）
+     * @param endTime 结束小时（不包含）
+     * @param limit 返回条数
+     * @return 统计结果
+     */
+    List<OperationLogStatResponse> countByUser(@Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime,
+                                               @Param("limit") int limit);
+
+    /**
+     * 统计操作总次数
+     * @param startTime 开始小时（包含）
+     * @param endTime 结束小时（不包含）
+     * @return 操作总次数
+     */
+    long countTotal(@Param("startTime") LocalDateTime startTime,
+                    @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按天统计操作次数
+     * @param startTime 开始时间（包含）
+     * @return 每天的操作次数
+     */
+    List<OperationLogStatResponse> countByDay(@Param("startTime") LocalDateTime startTime);
+}
@@ -0,0 +1,42 @@
+package com.staoo.system.mapper;
+
+import com.staoo.common.annotation.TenantIgnore;
+import com.staoo.system.domain.OperationLogTerm;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志检索词Mapper接口
+ * 检索词在操作日志查询中以子查询的方式使用，见OperationLogMapper.xml中的Page_Condition
+ */
+@Mapper
+public interface OperationLogTermMapper {
+    /**
+     * 批量新增检索词，已存在的忽略（预写文件重放可能重复写入）
+     * @param terms 检索词列表，租户ID由调用方设置
+     * @return 影响行数
+     */
+    @TenantIgnore
+    int insertBatch(@Param("terms") List<OperationLogTerm> terms);
+
+    /**
+     * 删除操作日志的检索词
+     * @param logIds 操作日志ID列表
+     * @return 影响行数
+     */
+    int deleteByLogIds(@Param("logIds") List<Long> logIds);
+
+    /**
+     * 根据时间范围分批删除检索词
+     * @param startTime 开始时间，为空时不限制
+     * @param endTime 结束时间，为空时不限制
+     * @param limit 本批最多删除的条数
+     * @return 影响行数
+     */
+    int deleteByTimeRange(@Param("startTime") LocalDateTime startTime,
+                          @Param("endTime") LocalDateTime endTime,
+                          @Param("limit") int limit);
+}
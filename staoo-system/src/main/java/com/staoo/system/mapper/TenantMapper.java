@@ -1,15 +1,19 @@
 package com.staoo.system.mapper;
 
+import com.staoo.common.annotation.TenantIgnore;
 import com.staoo.common.domain.PageQuery;
 import com.staoo.system.domain.Tenant;
 import com.staoo.system.pojo.request.TenantQueryRequest;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import java.util.List;
 
 /**
  * 租户Mapper接口
+ * 租户表本身不需要租户过滤
  */
 @Mapper
+@TenantIgnore
 public interface TenantMapper {
 
     /**
@@ -81,4 +85,18 @@ public interface TenantMapper {
      * @return 租户列表
      */
     List<Tenant> getListByRequest(TenantQueryRequest request);
-}
\ No newline at end of file
+
+    /**
+     * 查询已分配数据源分片的租户
+     * @return 租户列表（仅包含ID、名称和分片）
+     */
+    List<Tenant> getShardList();
+
+    /**
+     * 修改租户数据源分片
+     * @param id 租户ID
+     * @param shardKey 数据源分片，为空表示主库
+     * @return 影响行数
+     */
+    int updateShardKey(@Param("id") Long id, @Param("shardKey") String shardKey);
+}
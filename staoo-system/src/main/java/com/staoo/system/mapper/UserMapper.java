@@ -1,5 +1,6 @@
 package com.staoo.system.mapper;
 
+import com.staoo.common.annotation.TenantIgnore;
 import com.staoo.system.domain.User;
 import com.staoo.system.pojo.request.UserQueryRequest;
 import org.apache.ibatis.annotations.Mapper;
@@ -27,6 +28,14 @@ public interface UserMapper {
      */
     User getByUsername(@Param("username") String username);
 
+    /**
+     * 根据ID查询用户状态，用于认证时校验用户是否仍然启用，不区分租户
+     * @param id 用户ID
+     * @return 用户状态，用户不存在时返回null
+     */
+    @TenantIgnore
+    Integer getStatusById(@Param("id") Long id);
+
     /**
      * 查询用户列表
      * @param user 查询条件
@@ -0,0 +1,39 @@
+package com.staoo.system.pojo.request;
+
+import java.io.Serializable;
+
+/**
+ * 操作日志关键词检索条件
+ * 由关键词切分得到，多个检索条件之间为“且”的关系
+ */
+public class OperationLogSearchTerm implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 检索词
+     */
+    private final String text;
+
+    /**
+     * 是否按前缀匹配
+     */
+    private final boolean prefix;
+
+    public OperationLogSearchTerm(String text, boolean prefix) {
+        this.text = text;
+        this.prefix = prefix;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public String toString() {
+        return prefix ? text + "*" : text;
+    }
+}
@@ -0,0 +1,37 @@
+package com.staoo.system.pojo.response;
+
+import java.io.Serializable;
+
+/**
+ * 操作日志统计响应类
+ * 一个统计维度值（模块、操作类型、操作人或日期）及其操作次数
+ */
+public class OperationLogStatResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 统计维度值
+     */
+    private String name;
+
+    /**
+     * 操作次数
+     */
+    private Long count;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
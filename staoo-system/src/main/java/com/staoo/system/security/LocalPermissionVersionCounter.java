@@ -0,0 +1,22 @@
+package com.staoo.system.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内权限版本号计数器
+ * 只适用于单节点部署，其他节点看不到本节点的递增
+ */
+public class LocalPermissionVersionCounter implements PermissionVersionCounter {
+
+    private final AtomicLong version = new AtomicLong();
+
+    @Override
+    public long get() {
+        return version.get();
+    }
+
+    @Override
+    public long increment() {
+        return version.incrementAndGet();
+    }
+}
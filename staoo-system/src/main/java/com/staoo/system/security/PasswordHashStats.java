@@ -0,0 +1,112 @@
+package com.staoo.system.security;
+
+/**
+ * 密码哈希统计
+ * 耗时单位为微秒，平均值和最大值自启动以来累计
+ */
+public class PasswordHashStats {
+    private final int strength;
+    private final int poolSize;
+    private final int activeThreads;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long completed;
+    private final long rejected;
+    private final long timedOut;
+    private final long upgraded;
+    private final long avgHashMicros;
+    private final long maxHashMicros;
+    private final long avgWaitMicros;
+    private final long maxWaitMicros;
+
+    public PasswordHashStats(int strength, int poolSize, int activeThreads, int queueDepth, int queueCapacity,
+                             long completed, long rejected, long timedOut, long upgraded, long avgHashMicros,
+                             long maxHashMicros, long avgWaitMicros, long maxWaitMicros) {
+        this.strength = strength;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+        this.upgraded = upgraded;
+        this.avgHashMicros = avgHashMicros;
+        this.maxHashMicros = maxHashMicros;
+        this.avgWaitMicros = avgWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+    }
+
+    /**
+     * 配置的BCrypt强度
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 完成的哈希计算次数
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * 队列已满被拒绝的次数
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * 等待超时的次数
+     */
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * 登录时升级的哈希数
+     */
+    public long getUpgraded() {
+        return upgraded;
+    }
+
+    /**
+     * 平均计算耗时
+     */
+    public long getAvgHashMicros() {
+        return avgHashMicros;
+    }
+
+    public long getMaxHashMicros() {
+        return maxHashMicros;
+    }
+
+    /**
+     * 平均排队耗时
+     */
+    public long getAvgWaitMicros() {
+        return avgWaitMicros;
+    }
+
+    public long getMaxWaitMicros() {
+        return maxWaitMicros;
+    }
+}
@@ -0,0 +1,192 @@
+package com.staoo.system.security;
+
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希器
+ * BCrypt的计算在专用线程池中执行，线程数默认等于CPU核数，队列有界；请求线程只等待结果，
+ * 大量登录同时到达时不会占满Web容器的工作线程。队列已满或等待超时时立即以TOO_MANY_REQUESTS拒绝
+ */
+@Component
+public class PasswordHasher {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    // BCrypt计算强度，登录成功时低于该强度的哈希会被升级
+    @Value("${staoo.auth.password-hash.strength:10}")
+    private int strength;
+
+    // 哈希线程数，0表示CPU核数
+    @Value("${staoo.auth.password-hash.threads:0}")
+    private int threads;
+
+    @Value("${staoo.auth.password-hash.queue-capacity:256}")
+    private int queueCapacity;
+
+    // 请求线程等待结果的最长时间（毫秒），包括排队时间
+    @Value("${staoo.auth.password-hash.timeout-millis:5000}")
+    private long timeoutMillis;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder upgraded = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        encoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger index = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + index.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("密码哈希线程池已启动，线程数: {}，队列容量: {}，BCrypt强度: {}", poolSize, queueCapacity, strength);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 计算密码哈希
+     * @param rawPassword 明文密码
+     * @return BCrypt哈希
+     * @throws BusinessException 线程池繁忙
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * 校验密码
+     * @param rawPassword 明文密码
+     * @param encodedPassword BCrypt哈希
+     * @return 是否匹配
+     * @throws BusinessException 线程池繁忙
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        return execute(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 哈希的强度是否低于配置的强度
+     * @param encodedPassword BCrypt哈希
+     * @return 是否需要升级
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return encodedPassword != null && !encodedPassword.isEmpty() && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 登录校验通过后按配置的强度重新计算哈希；不需要升级或线程池繁忙时返回null，不影响本次登录
+     * @param rawPassword 已校验通过的明文密码
+     * @param encodedPassword 当前的哈希
+     * @return 新的哈希，无需升级时返回null
+     */
+    public String upgrade(CharSequence rawPassword, String encodedPassword) {
+        if (!needsUpgrade(encodedPassword)) {
+            return null;
+        }
+        try {
+            String upgradedPassword = encode(rawPassword);
+            upgraded.increment();
+            return upgradedPassword;
+        } catch (BusinessException e) {
+            logger.debug("密码哈希线程池繁忙，跳过哈希升级");
+            return null;
+        }
+    }
+
+    /**
+     * 获取统计
+     * @return 统计
+     */
+    public PasswordHashStats getStats() {
+        long count = completed.sum();
+        return new PasswordHashStats(strength, executor.getPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), Math.max(1, queueCapacity), count, rejected.sum(), timedOut.sum(),
+                upgraded.sum(), count > 0 ? totalHashNanos.sum() / count / 1000 : 0, maxHashNanos.get() / 1000,
+                count > 0 ? totalWaitNanos.sum() / count / 1000 : 0, maxWaitNanos.get() / 1000);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submitTime = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startTime = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long endTime = System.nanoTime();
+                    record(startTime - submitTime, endTime - startTime);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希计算失败", cause);
+        }
+    }
+
+    private void record(long waitNanos, long hashNanos) {
+        completed.increment();
+        totalWaitNanos.add(waitNanos);
+        totalHashNanos.add(hashNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+    }
+
+    private BusinessException busy() {
+        return new BusinessException(StatusCodeEnum.TOO_MANY_REQUESTS.getCode(), "系统繁忙，请稍后重试");
+    }
+}
@@ -0,0 +1,104 @@
+package com.staoo.system.security;
+
+import com.staoo.common.auth.PermissionDictionary;
+import com.staoo.common.util.UserUtils;
+import com.staoo.system.mapper.MenuMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+
+/**
+ * 权限校验
+ * 供@PreAuthorize("@ss.hasPermi('...')")表达式使用，判断基于当前用户的权限位图，不做字符串比较；超级管理员拥有全部权限
+ */
+@Component("ss")
+public class PermissionChecker {
+    private static final Logger logger = LoggerFactory.getLogger(PermissionChecker.class);
+
+    private static final String SEPARATOR = ",";
+
+    @Autowired
+    private MenuMapper menuMapper;
+
+    /**
+     * 启动时预先驻留全部菜单权限，使常用权限获得较小且连续的编号
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            Set<String> permissions = menuMapper.getAllPermissions();
+            if (permissions != null) {
+                for (String permission : permissions) {
+                    PermissionDictionary.PERMISSIONS.intern(permission);
+                }
+            }
+            logger.info("已加载菜单权限字典，权限数: {}", PermissionDictionary.PERMISSIONS.size());
+        } catch (Exception e) {
+            // 字典会在首次使用时补齐，加载失败不影响启动
+            logger.warn("加载菜单权限字典失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否拥有指定权限
+     * @param permission 权限标识
+     * @return 是否拥有
+     */
+    public boolean hasPermi(String permission) {
+        return UserUtils.isSuperAdmin() || UserUtils.hasPermission(permission);
+    }
+
+    /**
+     * 是否拥有任意一个权限
+     * @param permissions 以逗号分隔的权限标识
+     * @return 是否拥有
+     */
+    public boolean hasAnyPermi(String permissions) {
+        if (UserUtils.isSuperAdmin()) {
+            return true;
+        }
+        if (!StringUtils.hasText(permissions)) {
+            return false;
+        }
+        for (String permission : permissions.split(SEPARATOR)) {
+            if (UserUtils.hasPermission(permission.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否拥有指定角色
+     * @param role 角色标识
+     * @return 是否拥有
+     */
+    public boolean hasRole(String role) {
+        return UserUtils.isSuperAdmin() || UserUtils.hasRole(role);
+    }
+
+    /**
+     * 是否拥有任意一个角色
+     * @param roles 以逗号分隔的角色标识
+     * @return 是否拥有
+     */
+    public boolean hasAnyRoles(String roles) {
+        if (UserUtils.isSuperAdmin()) {
+            return true;
+        }
+        if (!StringUtils.hasText(roles)) {
+            return false;
+        }
+        for (String role : roles.split(SEPARATOR)) {
+            if (UserUtils.hasRole(role.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package com.staoo.system.security;
+
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 权限版本号
+ * 角色、菜单或用户角色被修改时递增，令牌中记录签发时的版本号，版本号不一致的令牌重新查询用户当前的权限。
+ * 版本号保存在独立的PermissionVersionCounter中，多节点部署时使用Redis计数器即可在节点之间共享；
+ * 本地缓存读取结果，其他节点的修改最迟在检查间隔后生效
+ */
+@Component
+public class PermissionVersion {
+    private static final Logger logger = LoggerFactory.getLogger(PermissionVersion.class);
+
+    // 版本号计数器，未配置时使用进程内实现
+    @Autowired(required = false)
+    private PermissionVersionCounter counter;
+
+    @Value("${staoo.auth.permission-cache.version-check-millis:1000}")
+    private long checkIntervalMillis;
+
+    private volatile long version;
+    private volatile long checkedAt;
+
+    @PostConstruct
+    public void init() {
+        if (counter == null) {
+            counter = new LocalPermissionVersionCounter();
+        }
+        logger.info("权限版本号计数器: {}", counter.getClass().getSimpleName());
+    }
+
+    /**
+     * 获取当前版本号
+     * @return 版本号
+     */
+    public long current() {
+        long now = System.currentTimeMillis();
+        if (now - checkedAt >= checkIntervalMillis) {
+            try {
+                version = counter.get();
+            } catch (Exception e) {
+                // 计数器不可用时沿用上次读取的版本号
+                logger.warn("读取权限版本号失败: {}", e.getMessage());
+            }
+            checkedAt = now;
+        }
+        return version;
+    }
+
+    /**
+     * 角色、菜单或用户角色被修改后调用
+     * 在事务中调用时，提交后会再递增一次，防止提交前被并发请求按旧数据重新加载。
+     * 提交前递增失败时抛出异常使修改回滚，避免修改生效而缓存的权限不失效
+     * @throws BusinessException 递增版本号失败
+     */
+    public void increment() {
+        bump();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        bump();
+                    } catch (BusinessException e) {
+                        // 修改已提交，提交前的递增已使缓存失效，只有提交期间按旧数据加载的权限可能残留
+                        logger.error("提交后递增权限版本号失败，提交期间加载的权限缓存可能未失效", e);
+                    }
+                }
+            });
+        }
+    }
+
+    private void bump() {
+        long next;
+        try {
+            next = counter.increment();
+        } catch (Exception e) {
+            logger.error("递增权限版本号失败", e);
+            throw new BusinessException(StatusCodeEnum.CACHE_ERROR.getCode(), "递增权限版本号失败，修改未生效");
+        }
+        version = next;
+        checkedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,20 @@
+package com.staoo.system.security;
+
+/**
+ * 权限版本号计数器
+ * 只保存一个不过期的计数，不占用ExpiringStore的容量。
+ * 默认使用进程内实现，多节点部署时由框架模块提供基于Redis的实现
+ */
+public interface PermissionVersionCounter {
+    /**
+     * 读取当前版本号
+     * @return 版本号，从未递增时为0
+     */
+    long get();
+
+    /**
+     * 原子地递增版本号
+     * @return 递增后的版本号
+     */
+    long increment();
+}
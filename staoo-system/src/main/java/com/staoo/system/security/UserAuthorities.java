@@ -0,0 +1,97 @@
+package com.staoo.system.security;
+
+import com.staoo.common.auth.PermissionBitSet;
+import com.staoo.common.auth.PermissionDictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 用户的角色和菜单权限
+ * 不可变，指纹由排序去重后的角色和权限计算，内容相同的权限集合指纹相同，可以在用户之间共享
+ */
+public final class UserAuthorities {
+    private static final int FINGERPRINT_BYTES = 12;
+
+    private final String fingerprint;
+    private final List<String> roles;
+    private final List<String> permissions;
+    private final PermissionBitSet roleSet;
+    private final PermissionBitSet permissionSet;
+
+    public UserAuthorities(Collection<String> roles, Collection<String> permissions) {
+        this.roles = sorted(roles);
+        this.permissions = sorted(permissions);
+        this.fingerprint = fingerprint(this.roles, this.permissions);
+        this.roleSet = PermissionBitSet.of(PermissionDictionary.ROLES, this.roles);
+        this.permissionSet = PermissionBitSet.of(PermissionDictionary.PERMISSIONS, this.permissions);
+    }
+
+    /**
+     * 权限集合指纹，16个字符
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * 角色标识，已排序，只读
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 菜单权限，已排序，只读
+     */
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    public PermissionBitSet getRoleSet() {
+        return roleSet;
+    }
+
+    public PermissionBitSet getPermissionSet() {
+        return permissionSet;
+    }
+
+    private static List<String> sorted(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        TreeSet<String> set = new TreeSet<>();
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                set.add(value);
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(set));
+    }
+
+    private static String fingerprint(List<String> roles, List<String> permissions) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 每个值后跟换行，角色和权限之间用空行分隔，避免不同的集合拼接出相同的内容
+            for (String role : roles) {
+                digest.update((role + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            for (String permission : permissions) {
+                digest.update((permission + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] hash = Arrays.copyOf(digest.digest(), FINGERPRINT_BYTES);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
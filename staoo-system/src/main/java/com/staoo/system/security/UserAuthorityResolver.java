@@ -0,0 +1,189 @@
+package com.staoo.system.security;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.staoo.common.store.ExpiringStore;
+import com.staoo.system.domain.Role;
+import com.staoo.system.domain.User;
+import com.staoo.system.service.MenuService;
+import com.staoo.system.service.RoleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户权限解析
+ * 访问令牌只携带权限集合指纹和签发时的权限版本号，不携带角色和权限列表。
+ * 权限集合按指纹缓存在本地并写入ExpiringStore共享给其他节点，指纹由内容计算，同一指纹的内容永远不变；
+ * 权限版本号变化后，令牌中的指纹可能已经不是用户当前的权限，此时按用户ID重新查询一次并记住结果
+ */
+@Component
+public class UserAuthorityResolver {
+    private static final Logger logger = LoggerFactory.getLogger(UserAuthorityResolver.class);
+
+    /**
+     * 令牌中的权限集合指纹
+     */
+    public static final String FINGERPRINT_CLAIM = "pfp";
+
+    /**
+     * 令牌中的权限版本号
+     */
+    public static final String VERSION_CLAIM = "pver";
+
+    private static final String SHARED_KEY_PREFIX = "auth:permission-set:";
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private PermissionVersion permissionVersion;
+
+    @Autowired
+    private ExpiringStore expiringStore;
+
+    @Value("${staoo.auth.permission-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${staoo.auth.permission-cache.shared-ttl-seconds:86400}")
+    private long sharedTtlSeconds;
+
+    // key: 权限集合指纹
+    private final Map<String, UserAuthorities> byFingerprint = new ConcurrentHashMap<>();
+    // key: 用户ID，value: 按某个权限版本号查询到的用户权限集合指纹
+    private final Map<Long, UserFingerprint> userFingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * 查询用户当前的角色和菜单权限，登录和刷新令牌时调用
+     * @param userId 用户ID
+     * @return 用户权限
+     */
+    public UserAuthorities load(Long userId) {
+        long version = permissionVersion.current();
+        List<String> roleKeys = new ArrayList<>();
+        for (Role role : roleService.getRolesByUserId(userId)) {
+            roleKeys.add(role.getRoleKey());
+        }
+        UserAuthorities authorities = publish(new UserAuthorities(roleKeys, menuService.getPermissionsByUserId(userId)));
+        if (userFingerprints.size() >= maxSize) {
+            userFingerprints.clear();
+        }
+        // 记录查询前的版本号，查询期间发生的修改会使版本号不一致，下次解析时重新查询
+        userFingerprints.put(userId, new UserFingerprint(version, authorities.getFingerprint()));
+        return authorities;
+    }
+
+    /**
+     * 由令牌中的指纹和版本号解析用户权限，认证过滤器每次请求调用，通常只访问本地缓存
+     * @param userId 用户ID
+     * @param fingerprint 令牌中的权限集合指纹
+     * @param tokenVersion 令牌中的权限版本号
+     * @return 用户权限
+     */
+    public UserAuthorities resolve(Long userId, String fingerprint, Long tokenVersion) {
+        long version = permissionVersion.current();
+        if (tokenVersion == null || tokenVersion != version) {
+            UserFingerprint current = userFingerprints.get(userId);
+            if (current == null || current.version != version) {
+                return load(userId);
+            }
+            fingerprint = current.fingerprint;
+        }
+        UserAuthorities authorities = find(fingerprint);
+        return authorities != null ? authorities : load(userId);
+    }
+
+    /**
+     * 构建访问令牌的声明
+     * @param user 用户
+     * @param authorities 刚由load查询的用户权限
+     * @return 令牌声明
+     */
+    public Map<String, Object> buildClaims(User user, UserAuthorities authorities) {
+        UserFingerprint current = userFingerprints.get(user.getId());
+        // 取不到查询时的版本号时写入-1，首次请求会按用户ID重新查询
+        long version = current != null && current.fingerprint.equals(authorities.getFingerprint()) ? current.version : -1;
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("username", user.getUsername());
+        claims.put("nickname", user.getNickname());
+        claims.put("admin", user.getAdmin());
+        claims.put(FINGERPRINT_CLAIM, authorities.getFingerprint());
+        claims.put(VERSION_CLAIM, version);
+        return claims;
+    }
+
+    private UserAuthorities find(String fingerprint) {
+        if (fingerprint == null) {
+            return null;
+        }
+        UserAuthorities authorities = byFingerprint.get(fingerprint);
+        if (authorities != null) {
+            return authorities;
+        }
+        try {
+            String value = expiringStore.get(SHARED_KEY_PREFIX + fingerprint);
+            if (value == null) {
+                return null;
+            }
+            JSONObject json = JSON.parseObject(value);
+            authorities = new UserAuthorities(json.getList("roles", String.class), json.getList("permissions", String.class));
+            // 内容与指纹不符时视为未命中
+            if (!fingerprint.equals(authorities.getFingerprint())) {
+                logger.warn("共享的权限集合与指纹不一致: {}", fingerprint);
+                return null;
+            }
+            return cacheLocally(authorities);
+        } catch (Exception e) {
+            logger.warn("读取共享的权限集合失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private UserAuthorities publish(UserAuthorities authorities) {
+        try {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("roles", authorities.getRoles());
+            json.put("permissions", authorities.getPermissions());
+            expiringStore.put(SHARED_KEY_PREFIX + authorities.getFingerprint(), JSON.toJSONString(json),
+                    sharedTtlSeconds * 1000);
+        } catch (Exception e) {
+            // 其他节点未命中时按用户ID查询
+            logger.warn("写入共享的权限集合失败: {}", e.getMessage());
+        }
+        return cacheLocally(authorities);
+    }
+
+    /**
+     * 相同指纹的用户共享同一个实例
+     */
+    private UserAuthorities cacheLocally(UserAuthorities authorities) {
+        if (byFingerprint.size() >= maxSize) {
+            byFingerprint.clear();
+        }
+        UserAuthorities existing = byFingerprint.putIfAbsent(authorities.getFingerprint(), authorities);
+        return existing != null ? existing : authorities;
+    }
+
+    private static final class UserFingerprint {
+        private final long version;
+        private final String fingerprint;
+
+        private UserFingerprint(long version, String fingerprint) {
+            this.version = version;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -28,6 +28,22 @@ public class UserDetailsImpl implements UserDetails {
         }
     }
 
+    /**
+     * 根据已验证的令牌构建用户，不访问数据库
+     * 令牌中没有密码，用户状态由认证过滤器通过UserStatusCache校验，这里视为启用
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param roles 权限标识
+     * @return UserDetails对象
+     */
+    public static UserDetailsImpl fromToken(Long userId, String username, List<String> roles) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(username);
+        user.setStatus(UserStatusEnum.ENABLED.getCode());
+        return new UserDetailsImpl(user, roles);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
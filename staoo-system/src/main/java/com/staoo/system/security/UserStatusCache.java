@@ -0,0 +1,203 @@
+package com.staoo.system.security;
+
+import com.staoo.common.enums.status.UserStatusEnum;
+import com.staoo.system.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 用户状态缓存
+ * 认证过滤器用它判断令牌对应的用户是否仍然启用，命中时不访问数据库。
+ * 用户ID按哈希映射到固定数量的版本号，用户被修改时版本号递增并移除缓存；从数据库加载的状态只有在加载期间版本号未变时才写入缓存，
+ * 避免并发请求把修改前读到的旧状态写回缓存。共用版本号的用户只会多丢弃一次写入，版本号占用的内存不随用户数增长。
+ * 缓存按用户ID分段，每个分段按访问顺序淘汰，还有过期时间，作为多节点部署时其他节点修改用户的兜底
+ */
+@Component
+public class UserStatusCache {
+    private static final Logger logger = LoggerFactory.getLogger(UserStatusCache.class);
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * 用户版本号的个数
+     */
+    private static final int VERSION_STRIPES = 4096;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${staoo.auth.user-status-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${staoo.auth.user-status-cache.max-size:10000}")
+    private int maxSize;
+
+    // 按用户ID分段的缓存
+    private Segment[] segments;
+    // 用户版本号，按用户ID的哈希取下标
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    // 全局版本号，批量失效（如清空缓存）时递增
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int segmentCapacity = Math.max(1, maxSize / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * 判断用户是否启用
+     * @param userId 用户ID
+     * @return 用户存在且状态为启用时返回true
+     */
+    public boolean isEnabled(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Segment segment = segmentOf(userId);
+        Entry entry = segment.get(userId);
+        if (entry != null && entry.expireTime > now) {
+            return entry.enabled;
+        }
+
+        long version = currentVersion(userId);
+        Integer status = userMapper.getStatusById(userId);
+        boolean enabled = UserStatusEnum.ENABLED.getCode().equals(status);
+        Entry loaded = new Entry(enabled, now + ttlSeconds * 1000);
+        segment.put(userId, loaded);
+        // 加载期间用户被修改，丢弃刚写入的旧状态
+        if (currentVersion(userId) != version) {
+            segment.remove(userId, loaded);
+        }
+        if (!enabled) {
+            logger.debug("用户状态不可用: {}, 状态: {}", userId, status == null ? "不存在" : status);
+        }
+        return enabled;
+    }
+
+    /**
+     * 用户被修改、删除或改变状态后调用
+     * 在事务中调用时，提交后会再失效一次，防止提交前被并发请求读到旧状态
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 批量失效
+     * @param userIds 用户ID集合
+     */
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds == null) {
+            return;
+        }
+        for (Long userId : userIds) {
+            invalidate(userId);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        globalVersion.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private void evict(Long userId) {
+        versions.incrementAndGet(hash(userId) & (VERSION_STRIPES - 1));
+        segmentOf(userId).remove(userId);
+    }
+
+    /**
+     * 用户版本号，高32位为全局版本号，低32位为用户ID对应的版本号
+     */
+    private long currentVersion(Long userId) {
+        return (globalVersion.get() << 32) + versions.get(hash(userId) & (VERSION_STRIPES - 1));
+    }
+
+    private Segment segmentOf(Long userId) {
+        return segments[(hash(userId) >>> 12) & (SEGMENTS - 1)];
+    }
+
+    private static int hash(Long userId) {
+        int hash = userId.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 按访问顺序淘汰的缓存分段
+     */
+    private static final class Segment {
+        private final Map<Long, Entry> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized Entry get(Long userId) {
+            return entries.get(userId);
+        }
+
+        private synchronized void put(Long userId, Entry entry) {
+            entries.put(userId, entry);
+        }
+
+        private synchronized void remove(Long userId) {
+            entries.remove(userId);
+        }
+
+        private synchronized void remove(Long userId, Entry entry) {
+            entries.remove(userId, entry);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+    private static final class Entry {
+        private final boolean enabled;
+        private final long expireTime;
+
+        private Entry(boolean enabled, long expireTime) {
+            this.enabled = enabled;
+            this.expireTime = expireTime;
+        }
+    }
+}
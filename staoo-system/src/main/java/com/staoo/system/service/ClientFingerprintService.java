@@ -0,0 +1,32 @@
+package com.staoo.system.service;
+
+import com.staoo.system.domain.ClientFingerprint;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 客户端指纹服务
+ * 统一解析User-Agent和客户端IP，操作日志、登录日志和登录流程使用同一份结果；由框架模块提供实现
+ */
+public interface ClientFingerprintService {
+    /**
+     * 解析User-Agent，结果有缓存
+     * @param userAgent User-Agent请求头
+     * @return 客户端指纹，为空时返回ClientFingerprint.UNKNOWN
+     */
+    ClientFingerprint parseUserAgent(String userAgent);
+
+    /**
+     * 获取客户端真实IP
+     * 只有直接连接的地址是受信任的代理时才采用X-Forwarded-For，并从右向左跳过受信任的代理
+     * @param request HTTP请求
+     * @return 规范化的客户端IP
+     */
+    String resolveClientIp(HttpServletRequest request);
+
+    /**
+     * 规范化IP地址：去掉端口、方括号和IPv6区域标识，IPv6压缩为RFC 5952格式，IPv4映射地址转为IPv4
+     * @param ip IP地址
+     * @return 规范化的IP地址，不是合法IP时返回null
+     */
+    String normalizeIp(String ip);
+}
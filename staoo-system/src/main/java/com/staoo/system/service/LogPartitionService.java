@@ -0,0 +1,54 @@
+package com.staoo.system.service;
+
+import com.staoo.system.domain.LogPartition;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * 日志表分区服务接口
+ * 日志表按时间范围分区（RANGE COLUMNS，最后一个分区为MAXVALUE），
+ * 通过预建分区和删除整个分区实现保留策略，避免对持续写入的大表执行大范围DELETE
+ */
+public interface LogPartitionService {
+    /**
+     * 查询表的时间分区
+     * @param tableName 表名
+     * @return 分区列表（含上下界），未分区的表返回空列表
+     */
+    List<LogPartition> listPartitions(String tableName);
+
+    /**
+     * 预建从当前周期开始的分区
+     * @param tableName 表名
+     * @param granularity 分区粒度，DAYS或MONTHS
+     * @param periods 需要覆盖的周期数（含当前周期）
+     * @return 新建的分区名称
+     */
+    List<String> createPartitions(String tableName, ChronoUnit granularity, int periods);
+
+    /**
+     * 删除超出保留期的分区
+     * @param tableName 表名
+     * @param granularity 分区粒度，DAYS或MONTHS
+     * @param retention 保留的周期数（含当前周期）
+     * @return 删除的分区名称
+     */
+    List<String> dropExpiredPartitions(String tableName, ChronoUnit granularity, int retention);
+
+    /**
+     * 清空完全落在时间范围内的分区，范围两端不完整的分区需由调用方删除
+     * @param tableName 表名
+     * @param startTime 开始时间，为空表示不限制
+     * @param endTime 结束时间（包含），为空表示不限制
+     * @return 清空的分区名称，未分区的表返回空列表
+     */
+    List<String> truncateCoveredPartitions(String tableName, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 清空表
+     * @param tableName 表名
+     */
+    void truncateTable(String tableName);
+}
@@ -0,0 +1,16 @@
+package com.staoo.system.service;
+
+import com.staoo.system.domain.LoginLog;
+
+/**
+ * 登录日志异步追加器
+ * 由框架模块提供实现（如本地预写文件），存在时登录日志不再在登录线程中同步入库
+ */
+public interface LoginLogAppender {
+    /**
+     * 追加一条登录日志
+     * @param loginLog 登录日志信息
+     * @return 是否追加成功，失败时由调用方同步入库
+     */
+    boolean append(LoginLog loginLog);
+}
@@ -1,6 +1,7 @@
 package com.staoo.system.service;
 
 import com.staoo.common.domain.TableResult;
+import com.staoo.system.cache.UserMenuTree;
 import com.staoo.system.domain.Menu;
 import com.staoo.system.pojo.request.MenuQueryRequest;
 
@@ -111,6 +112,13 @@ public interface MenuService {
      */
     List<Menu> getUserMenuTree(Long userId);
 
+    /**
+     * 查询用户菜单树结构及其ETag，角色相同的用户共享缓存的菜单树
+     * @param userId 用户ID，为null时取当前登录用户
+     * @return 只读的菜单树
+     */
+    UserMenuTree getUserMenuTreeWithEtag(Long userId);
+
 
     /**
      * 检查菜单名称唯一性
@@ -0,0 +1,44 @@
+package com.staoo.system.service;
+
+import com.staoo.common.domain.OperationLogBase;
+import com.staoo.system.pojo.request.OperationLogSearchTerm;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志关键词检索服务接口
+ * 操作日志入库后把模块、操作内容和操作人切分为检索词写入sys_operation_log_term，
+ * 关键词查询时按同样的规则切分，通过检索词表定位日志ID，不再对日志表做LIKE全表扫描
+ */
+public interface OperationLogSearchService {
+    /**
+     * 为已入库的操作日志建立检索词，日志ID必须已回填
+     * @param logs 操作日志列表
+     * @return 写入的检索词条数
+     */
+    int index(List<OperationLogBase> logs);
+
+    /**
+     * 为时间范围内已有的操作日志重新建立检索词，用于启用检索前的历史日志
+     * 按日志ID分批读取，已存在的检索词忽略
+     * @param startTime 开始时间，为空时不限制
+     * @param endTime 结束时间，为空时不限制
+     * @return 处理的日志条数
+     */
+    long reindex(LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 把查询关键词切分为检索条件
+     * @param keyword 关键词
+     * @return 检索条件，关键词中没有可检索的内容时为空列表
+     */
+    List<OperationLogSearchTerm> parseKeyword(String keyword);
+
+    /**
+     * 把文本切分为检索词：字母数字连续的部分整体作为一个词，中日韩文字按相邻两字切分并保留每段的最后一个字
+     * @param text 文本
+     * @return 去重后的检索词
+     */
+    List<String> tokenize(String text);
+}
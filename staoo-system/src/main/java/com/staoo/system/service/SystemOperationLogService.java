@@ -3,8 +3,12 @@ package com.staoo.system.service;
 import com.staoo.common.domain.OperationLogBase;
 import com.staoo.common.domain.TableResult;
 import com.staoo.common.service.OperationLogService;
+import com.staoo.common.util.export.ExportFormat;
+import com.staoo.system.domain.OperationLogRollup;
 import com.staoo.system.pojo.request.OperationLogQueryRequest;
+import com.staoo.system.pojo.response.OperationLogStatResponse;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -106,39 +110,70 @@ public interface SystemOperationLogService extends OperationLogService {
 
     /**
      * 导出操作日志
-     * @param operationLogBase 查询条件
-     * @return 导出文件路径
+     * 通过数据库游标逐行读取并直接写入输出流，导出行数不影响内存占用
+     * @param request 查询条件，分页参数不生效
+     * @param format 导出格式
+     * @param out 输出流
+     * @return 导出的行数
      */
-    String export(OperationLogBase operationLogBase);
+    long export(OperationLogQueryRequest request, ExportFormat format, OutputStream out);
 
     /**
      * 统计指定时间范围内各模块的操作次数
+     * 从小时汇总表查询，开始时间向下取整到整点，结束时间向上取整到整点且不包含该整点
      * @param startTime 开始时间
      * @param endTime 结束时间
      * @return 统计结果列表
      */
-    List<OperationLogBase> countByModule(LocalDateTime startTime, LocalDateTime endTime);
+    List<OperationLogStatResponse> countByModule(LocalDateTime startTime, LocalDateTime endTime);
 
     /**
      * 统计指定时间范围内各操作类型的操作次数
+     * 从小时汇总表查询，开始时间向下取整到整点，结束时间向上取整到整点且不包含该整点
      * @param startTime 开始时间
      * @param endTime 结束时间
      * @return 统计结果列表
      */
-    List<OperationLogBase> countByOperationType(LocalDateTime startTime, LocalDateTime endTime);
+    List<OperationLogStatResponse> countByOperationType(LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 统计指定时间范围内操作次数最多的操作人
+     * 从小时汇总表查询，开始时间向下取整到整点，结束时间向上取整到整点且不包含该整点
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param limit 返回条数
+     * @return 统计结果列表，name为操作人ID
+     */
+    List<OperationLogStatResponse> countByUser(LocalDateTime startTime, LocalDateTime endTime, Integer limit);
 
     /**
      * 统计指定时间范围内的操作总次数
+     * 从小时汇总表查询，开始时间向下取整到整点，结束时间向上取整到整点且不包含该整点
      * @param startTime 开始时间
      * @param endTime 结束时间
      * @return 操作总次数
      */
-    int countTotalOperations(LocalDateTime startTime, LocalDateTime endTime);
+    long countTotalOperations(LocalDateTime startTime, LocalDateTime endTime);
 
     /**
      * 查询最近N天的操作趋势
      * @param days 天数
-     * @return 操作趋势数据
+     * @return 操作趋势数据，name为日期
+     */
+    List<OperationLogStatResponse> getOperationTrend(Integer days);
+
+    /**
+     * 批量累加操作日志小时汇总
+     * @param rollups 汇总增量
+     */
+    void saveRollups(List<OperationLogRollup> rollups);
+
+    /**
+     * 从原始日志重新计算时间范围内的小时汇总，覆盖已有计数
+     * 按天分批执行，结束时间不超过当前小时的整点
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 回填的汇总行数
      */
-    List<OperationLogBase> getOperationTrend(Integer days);
+    long backfillRollups(LocalDateTime startTime, LocalDateTime endTime);
 }
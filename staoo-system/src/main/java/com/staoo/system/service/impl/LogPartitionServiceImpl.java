@@ -0,0 +1,194 @@
+package com.staoo.system.service.impl;
+
+import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.common.exception.BusinessException;
+import com.staoo.system.domain.LogPartition;
+import com.staoo.system.mapper.LogPartitionMapper;
+import com.staoo.system.service.LogPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 日志表分区服务实现类
+ * 分区名为p加上分区起始日期（按月为yyyyMM，按天为yyyyMMdd），分区上下界从PARTITION_DESCRIPTION解析；
+ * 已有分区的最高上界早于当前周期时（如更新脚本执行后较晚才启动应用），先补齐中间的周期，分区名与数据范围保持一致
+ */
+@Service
+public class LogPartitionServiceImpl implements LogPartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(LogPartitionServiceImpl.class);
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+    private static final String MAXVALUE = "MAXVALUE";
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private LogPartitionMapper logPartitionMapper;
+
+    @Override
+    public List<LogPartition> listPartitions(String tableName) {
+        checkTableName(tableName);
+        List<LogPartition> partitions = logPartitionMapper.listPartitions(tableName);
+        if (partitions.isEmpty() || partitions.get(0).getPartitionName() == null) {
+            return Collections.emptyList();
+        }
+        LocalDate lowerBound = null;
+        for (LogPartition partition : partitions) {
+            LocalDate upperBound = parseBound(partition.getDescription());
+            if (upperBound == null && !MAXVALUE.equalsIgnoreCase(partition.getDescription())) {
+                logger.warn("表{}的分区{}不是按日期范围分区，忽略分区管理", tableName, partition.getPartitionName());
+                return Collections.emptyList();
+            }
+            partition.setLowerBound(lowerBound);
+            partition.setUpperBound(upperBound);
+            lowerBound = upperBound;
+        }
+        return partitions;
+    }
+
+    @Override
+    public List<String> createPartitions(String tableName, ChronoUnit granularity, int periods) {
+        checkGranularity(granularity);
+        List<LogPartition> partitions = listPartitions(tableName);
+        if (partitions.isEmpty()) {
+            logger.warn("表{}未分区，跳过预建分区", tableName);
+            return Collections.emptyList();
+        }
+        LogPartition maxPartition = partitions.get(partitions.size() - 1);
+        if (maxPartition.getUpperBound() != null) {
+            throw new BusinessException(StatusCodeEnum.OPERATION_NOT_ALLOWED.getCode(), "表" + tableName + "缺少MAXVALUE分区");
+        }
+        LocalDate highestBound = partitions.size() > 1 ? partitions.get(partitions.size() - 2).getUpperBound() : null;
+        Set<String> existingNames = new HashSet<>();
+        for (LogPartition partition : partitions) {
+            existingNames.add(partition.getPartitionName());
+        }
+
+        LocalDate periodStart = periodStart(LocalDate.now(), granularity);
+        LocalDate firstPeriod = highestBound != null && highestBound.isBefore(periodStart)
+                ? periodStart(highestBound, granularity) : periodStart;
+        LocalDate lastUpperBound = periodStart.plus(Math.max(1, periods), granularity);
+        List<LogPartition> created = new ArrayList<>();
+        for (LocalDate upperBound = firstPeriod.plus(1, granularity); !upperBound.isAfter(lastUpperBound);
+             upperBound = upperBound.plus(1, granularity)) {
+            if (highestBound != null && !upperBound.isAfter(highestBound)) {
+                continue;
+            }
+            String name = partitionName(upperBound.minus(1, granularity), granularity);
+            if (existingNames.contains(name)) {
+                continue;
+            }
+            LogPartition partition = new LogPartition();
+            partition.setPartitionName(name);
+            partition.setUpperBound(upperBound);
+            created.add(partition);
+        }
+        if (created.isEmpty()) {
+            return Collections.emptyList();
+        }
+        logPartitionMapper.addPartitions(tableName, maxPartition.getPartitionName(), created);
+        List<String> names = created.stream().map(LogPartition::getPartitionName).toList();
+        logger.info("表{}新建分区: {}", tableName, names);
+        return names;
+    }
+
+    @Override
+    public List<String> dropExpiredPartitions(String tableName, ChronoUnit granularity, int retention) {
+        checkGranularity(granularity);
+        if (retention <= 0) {
+            return Collections.emptyList();
+        }
+        LocalDate cutoff = periodStart(LocalDate.now(), granularity).minus(retention - 1L, granularity);
+        List<String> expired = new ArrayList<>();
+        for (LogPartition partition : listPartitions(tableName)) {
+            if (partition.getUpperBound() != null && !partition.getUpperBound().isAfter(cutoff)) {
+                expired.add(partition.getPartitionName());
+            }
+        }
+        if (expired.isEmpty()) {
+            return Collections.emptyList();
+        }
+        logPartitionMapper.dropPartitions(tableName, expired);
+        logger.info("表{}删除过期分区: {}", tableName, expired);
+        return expired;
+    }
+
+    @Override
+    public List<String> truncateCoveredPartitions(String tableName, LocalDateTime startTime, LocalDateTime endTime) {
+        List<String> covered = new ArrayList<>();
+        for (LogPartition partition : listPartitions(tableName)) {
+            boolean lowerCovered = startTime == null
+                    || (partition.getLowerBound() != null && !partition.getLowerBound().atStartOfDay().isBefore(startTime));
+            // 分区上界不包含，分区内最后的时间点不晚于结束时间即完全覆盖
+            boolean upperCovered = endTime == null
+                    || (partition.getUpperBound() != null && !partition.getUpperBound().atStartOfDay().minusNanos(1).isAfter(endTime));
+            if (lowerCovered && upperCovered) {
+                covered.add(partition.getPartitionName());
+            }
+        }
+        if (covered.isEmpty()) {
+            return Collections.emptyList();
+        }
+        logPartitionMapper.truncatePartitions(tableName, covered);
+        logger.info("表{}清空分区: {}", tableName, covered);
+        return covered;
+    }
+
+    @Override
+    public void truncateTable(String tableName) {
+        checkTableName(tableName);
+        logPartitionMapper.truncateTable(tableName);
+        logger.info("表{}已清空", tableName);
+    }
+
+    private LocalDate periodStart(LocalDate date, ChronoUnit granularity) {
+        return granularity == ChronoUnit.MONTHS ? date.withDayOfMonth(1) : date;
+    }
+
+    private String partitionName(LocalDate periodStart, ChronoUnit granularity) {
+        return "p" + (granularity == ChronoUnit.MONTHS ? MONTH_FORMATTER : DAY_FORMATTER).format(periodStart);
+    }
+
+    /**
+     * 解析分区上界，如'2026-11-01'或'2026-11-01 00:00:00'，MAXVALUE或无法解析时返回null
+     */
+    private LocalDate parseBound(String description) {
+        if (description == null || MAXVALUE.equalsIgnoreCase(description)) {
+            return null;
+        }
+        String value = description.replace("'", "").trim();
+        if (value.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.substring(0, 10));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void checkTableName(String tableName) {
+        if (tableName == null || !TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+            throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(), "非法的表名: " + tableName);
+        }
+    }
+
+    private void checkGranularity(ChronoUnit granularity) {
+        if (granularity != ChronoUnit.DAYS && granularity != ChronoUnit.MONTHS) {
+            throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(), "分区粒度只支持DAYS或MONTHS");
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.staoo.common.exception.BusinessException;
 import com.staoo.system.domain.LoginLog;
 import com.staoo.system.mapper.LoginLogMapper;
 import com.staoo.system.pojo.request.LoginLogQueryRequest;
+import com.staoo.system.service.LoginLogAppender;
 import com.staoo.system.service.LoginLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,12 +28,19 @@ public class LoginLogServiceImpl implements LoginLogService {
     @Autowired
     private LoginLogMapper loginLogMapper;
 
+    @Autowired(required = false)
+    private LoginLogAppender loginLogAppender;
+
     /**
      * 新增登录日志
+     * 配置了异步追加器时先交给追加器，追加失败再同步入库
      * @param loginLog 登录日志信息
      */
     @Override
     public void addLoginLog(LoginLog loginLog) {
+        if (loginLogAppender != null && loginLogAppender.append(loginLog)) {
+            return;
+        }
         try {
             loginLogMapper.insertLoginLog(loginLog);
         } catch (Exception e) {
@@ -7,8 +7,12 @@ import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
 import com.staoo.common.util.TreeUtils;
 import com.staoo.common.util.UserUtils;
+import com.staoo.system.cache.MenuTreeCache;
+import com.staoo.system.cache.UserMenuTree;
 import com.staoo.system.domain.Menu;
 import com.staoo.system.mapper.MenuMapper;
+import com.staoo.system.mapper.UserMapper;
+import com.staoo.system.security.PermissionVersion;
 import com.staoo.system.pojo.request.MenuQueryRequest;
 import com.staoo.system.service.MenuService;
 import org.slf4j.Logger;
@@ -35,6 +39,15 @@ public class MenuServiceImpl implements MenuService {
     @Autowired
     private MenuMapper menuMapper;
 
+    @Autowired
+    private PermissionVersion permissionVersion;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
     @Override
     public Menu getById(Long id) {
         Menu menu = menuMapper.getById(id);
@@ -92,6 +105,7 @@ public class MenuServiceImpl implements MenuService {
 
             // 保存菜单信息
             int result = menuMapper.insert(menu);
+            menuTreeCache.clear();
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -116,8 +130,10 @@ public class MenuServiceImpl implements MenuService {
             // 执行验证
             validateMenu(menu, existingMenu);
 
-            // 更新菜单信息
+            // 更新菜单信息，权限标识或状态可能变化
             int result = menuMapper.update(menu);
+            permissionVersion.increment();
+            menuTreeCache.clear();
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -148,6 +164,8 @@ public class MenuServiceImpl implements MenuService {
 
             // 删除菜单
             int result = menuMapper.deleteById(id);
+            permissionVersion.increment();
+            menuTreeCache.clear();
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -238,49 +256,70 @@ public class MenuServiceImpl implements MenuService {
 
     @Override
     public List<Menu> getUserMenuTree(Long userId) {
+        return getUserMenuTreeWithEtag(userId).getMenus();
+    }
+
+    @Override
+    public UserMenuTree getUserMenuTreeWithEtag(Long userId) {
         // 获取当前登录用户
         Long currentUserId = userId;
         if (currentUserId == null) {
             currentUserId = UserUtils.getCurrentUserId();
         }
+        Long tenantId = UserUtils.getCurrentTenantId();
 
         // 超级管理员拥有所有菜单
         if (UserUtils.isSuperAdmin()) {
-            Menu menu = new Menu();
-            menu.setStatus(1); // 启用状态
-            return getMenuTree(menu);
+            return menuTreeCache.getAll(tenantId, () -> {
+                Menu menu = new Menu();
+                menu.setStatus(1); // 启用状态
+                return getMenuTree(menu);
+            });
         }
 
         try {
-            // 查询用户拥有的菜单
-            List<Menu> userMenus = getMenusByUserId(currentUserId);
-            if (CollectionUtils.isEmpty(userMenus)) {
-                return Collections.emptyList();
-            }
-
-            // 查询所有启用状态的菜单
-            Menu queryMenu = new Menu();
-            queryMenu.setStatus(1);
-            List<Menu> allMenus = menuMapper.getList(queryMenu);
-            if (CollectionUtils.isEmpty(allMenus)) {
-                return Collections.emptyList();
-            }
-
-            // 筛选用户拥有的菜单
-            Set<Long> userMenuIds = userMenus.stream().map(Menu::getId).collect(Collectors.toSet());
-            List<Menu> menus = allMenus.stream()
-                                       .filter(m -> userMenuIds.contains(m.getId()))
-                                       .collect(Collectors.toList());
-
-            // 构建菜单树
-            List<Menu> menuTree = buildMenuTree(menus, 0L);
-            return menuTree;
+            // 按用户的角色集合取缓存的菜单树，角色相同的用户共享
+            List<Long> roleIds = userMapper.getRoleIdsByUserId(currentUserId);
+            return menuTreeCache.get(tenantId, roleIds, this::buildRoleMenuTree);
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("构建用户菜单树失败", e);
             throw new BusinessException(StatusCodeEnum.BUSINESS_ERROR);
         }
     }
 
+    /**
+     * 构建角色集合拥有的菜单树
+     *
+     * @param roleIds 角色ID集合
+     * @return 菜单树列表
+     */
+    private List<Menu> buildRoleMenuTree(List<Long> roleIds) {
+        // 查询角色拥有的菜单
+        List<Menu> roleMenus = menuMapper.getMenusByRoleIds(roleIds);
+        if (CollectionUtils.isEmpty(roleMenus)) {
+            return Collections.emptyList();
+        }
+
+        // 查询所有启用状态的菜单
+        Menu queryMenu = new Menu();
+        queryMenu.setStatus(1);
+        List<Menu> allMenus = menuMapper.getList(queryMenu);
+        if (CollectionUtils.isEmpty(allMenus)) {
+            return Collections.emptyList();
+        }
+
+        // 筛选角色拥有的菜单
+        Set<Long> roleMenuIds = roleMenus.stream().map(Menu::getId).collect(Collectors.toSet());
+        List<Menu> menus = allMenus.stream()
+                                   .filter(m -> roleMenuIds.contains(m.getId()))
+                                   .collect(Collectors.toList());
+
+        // 构建菜单树
+        return buildMenuTree(menus, 0L);
+    }
+
     /**
      * 构建菜单树
      *
@@ -56,12 +56,8 @@ public class OAuthServiceImpl {
      * @return 令牌验证结果
      */
     public Map<String, Object> validateToken(String token) {
-        String deviceId = "third_party_app";
-        boolean isValid = jwtTokenProvider.validateToken(token, deviceId);
-        if (isValid) {
-            return jwtTokenProvider.getAllClaimsFromToken(token);
-        }
-        throw new RuntimeException("无效的令牌");
+        // 签名或有效期校验失败时抛出异常
+        return jwtTokenProvider.verify(token).getClaims();
     }
 
     /**
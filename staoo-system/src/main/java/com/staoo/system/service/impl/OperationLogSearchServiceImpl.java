@@ -0,0 +1,197 @@
+package com.staoo.system.service.impl;
+
+import com.staoo.common.domain.OperationLogBase;
+import com.staoo.system.domain.OperationLogTerm;
+import com.staoo.system.mapper.OperationLogMapper;
+import com.staoo.system.mapper.OperationLogTermMapper;
+import com.staoo.system.pojo.request.OperationLogSearchTerm;
+import com.staoo.system.service.OperationLogSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 操作日志关键词检索服务实现类
+ * 检索词统一转为小写；中日韩文字按相邻两字切分（与MySQL ngram分词一致），并保留每段的最后一个字，
+ * 查询单个字时按前缀匹配即可命中它出现的任何位置；字母数字的查询词按前缀匹配
+ */
+@Service
+public class OperationLogSearchServiceImpl implements OperationLogSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogSearchServiceImpl.class);
+
+    /**
+     * 检索词最大长度，与sys_operation_log_term.term一致
+     */
+    private static final int MAX_TERM_LENGTH = 32;
+
+    /**
+     * 每条日志最多建立的检索词数
+     */
+    private static final int MAX_TERMS_PER_LOG = 64;
+
+    /**
+     * 一次查询最多使用的检索条件数
+     */
+    private static final int MAX_QUERY_TERMS = 8;
+
+    /**
+     * 每条INSERT语句写入的检索词条数
+     */
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    /**
+     * 重建检索词时每批读取的日志条数
+     */
+    private static final int REINDEX_BATCH_SIZE = 500;
+
+    @Autowired
+    private OperationLogMapper operationLogMapper;
+
+    @Autowired
+    private OperationLogTermMapper operationLogTermMapper;
+
+    @Override
+    public int index(List<OperationLogBase> logs) {
+        List<OperationLogTerm> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        int total = 0;
+        for (OperationLogBase log : logs) {
+            if (log.getId() == null) {
+                continue;
+            }
+            Set<String> terms = new LinkedHashSet<>();
+            collect(log.getModule(), terms);
+            collect(log.getContent(), terms);
+            collect(log.getUsername(), terms);
+            LocalDateTime operationTime = log.getOperationTime() != null ? log.getOperationTime() : LocalDateTime.now();
+            for (String text : terms) {
+                OperationLogTerm term = new OperationLogTerm();
+                term.setTenantId(log.getTenantId() != null ? log.getTenantId() : 0L);
+                term.setTerm(text);
+                term.setOperationTime(operationTime);
+                term.setLogId(log.getId());
+                batch.add(term);
+                if (batch.size() >= INSERT_BATCH_SIZE) {
+                    total += operationLogTermMapper.insertBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += operationLogTermMapper.insertBatch(batch);
+        }
+        return total;
+    }
+
+    @Override
+    public long reindex(LocalDateTime startTime, LocalDateTime endTime) {
+        long total = 0;
+        Long afterId = null;
+        List<OperationLogBase> logs;
+        do {
+            logs = operationLogMapper.getIndexBatch(startTime, endTime, afterId, REINDEX_BATCH_SIZE);
+            if (logs.isEmpty()) {
+                break;
+            }
+            index(logs);
+            total += logs.size();
+            afterId = logs.get(logs.size() - 1).getId();
+        } while (logs.size() >= REINDEX_BATCH_SIZE);
+        logger.info("操作日志检索词重建完成，时间范围: {} ~ {}，日志条数: {}", startTime, endTime, total);
+        return total;
+    }
+
+    @Override
+    public List<OperationLogSearchTerm> parseKeyword(String keyword) {
+        List<OperationLogSearchTerm> result = new ArrayList<>();
+        if (keyword == null) {
+            return result;
+        }
+        for (String text : tokenize(keyword)) {
+            // 单个中日韩文字只作为分段末尾的单字或两字词的首字出现，按前缀匹配；两字词精确匹配
+            boolean prefix = !isCjk(text.codePointAt(0)) || text.codePointCount(0, text.length()) == 1;
+            result.add(new OperationLogSearchTerm(text, prefix));
+            if (result.size() >= MAX_QUERY_TERMS) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        collect(text, terms);
+        return new ArrayList<>(terms);
+    }
+
+    private void collect(String text, Set<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int length = lower.length();
+        int i = 0;
+        while (i < length && terms.size() < MAX_TERMS_PER_LOG) {
+            int codePoint = lower.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int end = i;
+                while (end < length && isCjk(lower.codePointAt(end))) {
+                    end += Character.charCount(lower.codePointAt(end));
+                }
+                collectCjk(lower.substring(i, end), terms);
+                i = end;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int end = i;
+                while (end < length && Character.isLetterOrDigit(lower.codePointAt(end))
+                        && !isCjk(lower.codePointAt(end))) {
+                    end += Character.charCount(lower.codePointAt(end));
+                }
+                add(lower.substring(i, end), terms);
+                i = end;
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    /**
+     * 相邻两字切分，并保留最后一个字
+     */
+    private void collectCjk(String run, Set<String> terms) {
+        int[] codePoints = run.codePoints().toArray();
+        for (int j = 0; j + 1 < codePoints.length; j++) {
+            add(new String(codePoints, j, 2), terms);
+        }
+        add(new String(codePoints, codePoints.length - 1, 1), terms);
+    }
+
+    private void add(String term, Set<String> terms) {
+        if (terms.size() >= MAX_TERMS_PER_LOG) {
+            return;
+        }
+        if (term.length() > MAX_TERM_LENGTH) {
+            int end = MAX_TERM_LENGTH;
+            if (Character.isHighSurrogate(term.charAt(end - 1))) {
+                end--;
+            }
+            term = term.substring(0, end);
+        }
+        terms.add(term);
+    }
+
+    private boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -5,16 +5,32 @@ import com.staoo.common.domain.TableResult;
 import com.staoo.system.pojo.request.OperationLogQueryRequest;
 import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
+import com.staoo.common.util.TenantContext;
+import com.staoo.common.util.export.ExportFormat;
+import com.staoo.common.util.export.ExportRowWriter;
+import com.staoo.system.domain.OperationLogRollup;
 import com.staoo.system.mapper.OperationLogMapper;
+import com.staoo.system.mapper.OperationLogRollupMapper;
+import com.staoo.system.mapper.OperationLogTermMapper;
+import com.staoo.system.pojo.request.OperationLogSearchTerm;
+import com.staoo.system.pojo.response.OperationLogStatResponse;
+import com.staoo.system.service.LogPartitionService;
+import com.staoo.system.service.OperationLogSearchService;
 import com.staoo.system.service.SystemOperationLogService;
+import org.apache.ibatis.cursor.Cursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -25,9 +41,50 @@ import java.util.List;
 public class OperationLogServiceImpl implements SystemOperationLogService {
     private static final Logger logger = LoggerFactory.getLogger(OperationLogServiceImpl.class);
 
+    /**
+     * 操作日志表名
+     */
+    private static final String TABLE_NAME = "sys_operation_log";
+
+    /**
+     * 操作日志检索词表名
+     */
+    private static final String TERM_TABLE_NAME = "sys_operation_log_term";
+
+    /**
+     * 分批删除时每批的条数，避免长时间锁表
+     */
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    /**
+     * 操作人统计默认和最多返回的条数
+     */
+    private static final int DEFAULT_STAT_LIMIT = 10;
+    private static final int MAX_STAT_LIMIT = 100;
+
+    /**
+     * 导出文件的表头，与导出行的列顺序一致
+     */
+    private static final List<String> EXPORT_HEADERS = List.of("日志ID", "操作模块", "操作类型", "操作内容",
+            "操作人ID", "操作人", "请求方法", "请求URL", "操作状态", "错误信息", "操作时间", "操作IP", "IP归属地", "浏览器");
+
+    private static final DateTimeFormatter EXPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     @Autowired
     private OperationLogMapper operationLogMapper;
 
+    @Autowired
+    private OperationLogRollupMapper operationLogRollupMapper;
+
+    @Autowired
+    private OperationLogTermMapper operationLogTermMapper;
+
+    @Autowired
+    private OperationLogSearchService operationLogSearchService;
+
+    @Autowired
+    private LogPartitionService logPartitionService;
+
     @Override
     public OperationLogBase getById(Long id) {
         try {
@@ -52,26 +109,12 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     public TableResult<OperationLogBase> getPage(OperationLogQueryRequest request) {
         try {
             // 构建查询条件
-            OperationLogBase operationLogBase = new OperationLogBase();
-            
-            // 从请求对象中设置查询条件
-            operationLogBase.setTenantId(request.getTenantId());
-            operationLogBase.setModule(request.getModule());
-            operationLogBase.setOperationType(request.getOperationType());
-            operationLogBase.setUserId(request.getUserId());
-            operationLogBase.setUsername(request.getUsername());
-            operationLogBase.setStatus(request.getStatus());
-            operationLogBase.setIp(request.getIp());
-            
-            // 如果有搜索关键词，可以设置到查询条件中
-            if (StringUtils.hasText(request.getKeyword())) {
-                operationLogBase.setModule(request.getKeyword());
-                operationLogBase.setContent(request.getKeyword());
-                operationLogBase.setUsername(request.getKeyword());
-            }
+            OperationLogBase operationLogBase = buildCondition(request);
+            List<OperationLogSearchTerm> keywordTerms = operationLogSearchService.parseKeyword(request.getKeyword());
 
             // 查询总数
-            int total = operationLogMapper.getCount(operationLogBase);
+            int total = operationLogMapper.getCount(operationLogBase, request.getStartTime(), request.getEndTime(),
+                    keywordTerms);
             if (total == 0) {
                 return TableResult.empty();
             }
@@ -81,7 +124,8 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
             Integer pageSize = request.getPageSize();
 
             // 查询列表
-            List<OperationLogBase> list = operationLogMapper.getPageList(operationLogBase, startIndex, pageSize);
+            List<OperationLogBase> list = operationLogMapper.getPageList(operationLogBase,
+                    request.getStartTime(), request.getEndTime(), keywordTerms, startIndex, pageSize);
             return TableResult.build((long) total, request.getPageNum(), pageSize, list);
         } catch (Exception e) {
             logger.error("分页查询操作日志失败", e);
@@ -96,6 +140,7 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
             // 注意：createTime和updateTime字段将由MyBatis拦截器自动填充
 
             int result = operationLogMapper.insert(operationLogBase);
+            operationLogSearchService.index(List.of(operationLogBase));
             return result > 0;
         } catch (BusinessException e) {
             logger.error("保存操作日志失败: {}", e.getMessage());
@@ -113,6 +158,7 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
             // 注意：createTime和updateTime字段将由MyBatis拦截器自动填充
 
             int result = operationLogMapper.insertBatch(operationLogBases);
+            operationLogSearchService.index(operationLogBases);
             return result > 0;
         } catch (BusinessException e) {
             logger.error("批量保存操作日志失败: {}", e.getMessage());
@@ -128,6 +174,7 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     public boolean deleteById(Long id) {
         try {
             int result = operationLogMapper.deleteById(id);
+            operationLogTermMapper.deleteByLogIds(List.of(id));
             return result > 0;
         } catch (BusinessException e) {
             logger.error("删除操作日志失败: {}", e.getMessage());
@@ -143,6 +190,7 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     public boolean deleteByIds(List<Long> ids) {
         try {
             int result = operationLogMapper.deleteByIds(ids);
+            operationLogTermMapper.deleteByLogIds(ids);
             return result > 0;
         } catch (BusinessException e) {
             logger.error("批量删除操作日志失败: {}", e.getMessage());
@@ -153,12 +201,20 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
         }
     }
 
+    /**
+     * 根据时间范围删除操作日志
+     * 未限定租户时直接清空完全落在范围内的分区，其余部分按操作时间分批删除（只扫描相关分区），
+     * 每批单独提交，不在一个大事务中持有锁
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean deleteByTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            int result = operationLogMapper.deleteByTimeRange(startTime, endTime);
-            return result >= 0;
+            if (TenantContext.getTenantId() == null) {
+                logPartitionService.truncateCoveredPartitions(TABLE_NAME, startTime, endTime);
+                logPartitionService.truncateCoveredPartitions(TERM_TABLE_NAME, startTime, endTime);
+            }
+            deleteInBatches(startTime, endTime);
+            return true;
         } catch (BusinessException e) {
             logger.error("根据时间范围删除操作日志失败: {}", e.getMessage());
             throw e;
@@ -168,13 +224,20 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
         }
     }
 
+    /**
+     * 清空操作日志
+     * 未限定租户时清空整张表，否则分批删除当前租户的日志
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean clearAll() {
         try {
-            // 这里可以根据业务需求添加清除前的验证逻辑
-            int result = operationLogMapper.deleteByTimeRange(LocalDateTime.MIN, LocalDateTime.now());
-            return result >= 0;
+            if (TenantContext.getTenantId() == null) {
+                logPartitionService.truncateTable(TABLE_NAME);
+                logPartitionService.truncateTable(TERM_TABLE_NAME);
+            } else {
+                deleteInBatches(null, null);
+            }
+            return true;
         } catch (Exception e) {
             logger.error("清空操作日志失败", e);
             throw new BusinessException(StatusCodeEnum.DATABASE_ERROR);
@@ -233,25 +296,41 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
         }
     }
 
+    /**
+     * 导出操作日志
+     * 游标只能在打开它的SqlSession内遍历，所以整个导出在一个只读事务中执行
+     */
     @Override
-    public String export(OperationLogBase operationLogBase) {
-        try {
-            // 导出功能的实现逻辑
-            // 1. 查询符合条件的操作日志
-            // 2. 生成Excel或CSV文件
-            // 3. 返回文件路径
-            logger.info("导出操作日志开始");
-
-            // 这里只是一个示例实现，实际应该根据业务需求实现具体的导出逻辑
-            List<OperationLogBase> logs = getList(operationLogBase);
-            if (logs.isEmpty()) {
-                throw new BusinessException(StatusCodeEnum.DATA_NOT_FOUND);
+    @Transactional(readOnly = true)
+    public long export(OperationLogQueryRequest request, ExportFormat format, OutputStream out) {
+        long rows = 0;
+        try (Cursor<OperationLogBase> cursor = operationLogMapper.getExportCursor(buildCondition(request),
+                request.getStartTime(), request.getEndTime(), operationLogSearchService.parseKeyword(request.getKeyword()));
+             ExportRowWriter writer = format.createWriter(out, EXPORT_HEADERS)) {
+            for (OperationLogBase log : cursor) {
+                writer.writeRow(Arrays.asList(
+                        log.getId(),
+                        log.getModule(),
+                        log.getOperationType(),
+                        log.getContent(),
+                        log.getUserId(),
+                        log.getUsername(),
+                        log.getRequestMethod(),
+                        log.getRequestUrl(),
+                        Integer.valueOf(0).equals(log.getStatus()) ? "失败" : "成功",
+                        log.getErrorMessage(),
+                        log.getOperationTime() != null ? EXPORT_TIME_FORMATTER.format(log.getOperationTime()) : null,
+                        log.getIp(),
+                        log.getIpLocation(),
+                        log.getBrowser()));
+                rows++;
             }
-
-            // 模拟导出文件路径
-            String filePath = "/export/operation_logs_" + System.currentTimeMillis() + ".xlsx";
-            logger.info("导出操作日志成功，文件路径: {}", filePath);
-            return filePath;
+            logger.info("导出操作日志完成，格式: {}，行数: {}", format, rows);
+            return rows;
+        } catch (IOException e) {
+            // 多为客户端中断下载
+            logger.warn("导出操作日志中断，已写入{}行: {}", rows, e.getMessage());
+            throw new BusinessException(StatusCodeEnum.FILE_DOWNLOAD_ERROR);
         } catch (BusinessException e) {
             logger.error("导出操作日志失败: {}", e.getMessage());
             throw e;
@@ -262,9 +341,9 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     }
 
     @Override
-    public List<OperationLogBase> countByModule(LocalDateTime startTime, LocalDateTime endTime) {
+    public List<OperationLogStatResponse> countByModule(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            return operationLogMapper.countByModule(startTime, endTime);
+            return operationLogRollupMapper.countByModule(floorHour(startTime), ceilHour(endTime));
         } catch (BusinessException e) {
             logger.error("统计各模块操作次数失败: {}", e.getMessage());
             throw e;
@@ -275,9 +354,9 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     }
 
     @Override
-    public List<OperationLogBase> countByOperationType(LocalDateTime startTime, LocalDateTime endTime) {
+    public List<OperationLogStatResponse> countByOperationType(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            return operationLogMapper.countByOperationType(startTime, endTime);
+            return operationLogRollupMapper.countByOperationType(floorHour(startTime), ceilHour(endTime));
         } catch (BusinessException e) {
             logger.error("统计各操作类型操作次数失败: {}", e.getMessage());
             throw e;
@@ -288,9 +367,23 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     }
 
     @Override
-    public int countTotalOperations(LocalDateTime startTime, LocalDateTime endTime) {
+    public List<OperationLogStatResponse> countByUser(LocalDateTime startTime, LocalDateTime endTime, Integer limit) {
+        try {
+            int size = limit != null && limit > 0 ? Math.min(limit, MAX_STAT_LIMIT) : DEFAULT_STAT_LIMIT;
+            return operationLogRollupMapper.countByUser(floorHour(startTime), ceilHour(endTime), size);
+        } catch (BusinessException e) {
+            logger.error("统计操作人操作次数失败: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("统计操作人操作次数失败", e);
+            throw new BusinessException(StatusCodeEnum.DATABASE_ERROR);
+        }
+    }
+
+    @Override
+    public long countTotalOperations(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            return operationLogMapper.countTotalOperations(startTime, endTime);
+            return operationLogRollupMapper.countTotal(floorHour(startTime), ceilHour(endTime));
         } catch (BusinessException e) {
             logger.error("统计操作总次数失败: {}", e.getMessage());
             throw e;
@@ -301,9 +394,10 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
     }
 
     @Override
-    public List<OperationLogBase> getOperationTrend(Integer days) {
+    public List<OperationLogStatResponse> getOperationTrend(Integer days) {
         try {
-            return operationLogMapper.getOperationTrend(days);
+            LocalDateTime startTime = LocalDate.now().minusDays(days != null ? days : 7).atStartOfDay();
+            return operationLogRollupMapper.countByDay(startTime);
         } catch (BusinessException e) {
             logger.error("查询操作趋势失败: {}", e.getMessage());
             throw e;
@@ -312,4 +406,94 @@ public class OperationLogServiceImpl implements SystemOperationLogService {
             throw new BusinessException(StatusCodeEnum.DATABASE_ERROR);
         }
     }
+
+    @Override
+    public void saveRollups(List<OperationLogRollup> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return;
+        }
+        operationLogRollupMapper.upsertBatch(rollups);
+    }
+
+    /**
+     * 从原始日志回填小时汇总
+     * 当前小时的计数仍在内存中累加，不参与回填；每天单独执行一次，避免一条语句扫描过多日志
+     */
+    @Override
+    public long backfillRollups(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new BusinessException(StatusCodeEnum.PARAM_VALIDATION_ERROR.getCode(), "回填的开始时间和结束时间不能为空");
+        }
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = floorHour(startTime);
+        LocalDateTime to = endTime.isAfter(currentHour) ? currentHour : endTime;
+        long total = 0;
+        try {
+            while (from.isBefore(to)) {
+                LocalDateTime next = from.toLocalDate().plusDays(1).atStartOfDay();
+                if (next.isAfter(to)) {
+                    next = to;
+                }
+                total += operationLogRollupMapper.backfill(from, next);
+                from = next;
+            }
+            logger.info("操作日志小时汇总回填完成，时间范围: {} ~ {}，影响行数: {}", startTime, to, total);
+            return total;
+        } catch (Exception e) {
+            logger.error("操作日志小时汇总回填失败，已回填至: {}", from, e);
+            throw new BusinessException(StatusCodeEnum.DATABASE_ERROR);
+        }
+    }
+
+    /**
+     * 汇总按小时统计，开始时间向下取整到整点
+     */
+    private LocalDateTime floorHour(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.HOURS) : null;
+    }
+
+    /**
+     * 汇总按小时统计，结束时间向上取整到整点，查询时不包含该整点
+     * 结束时间所在小时的日志计入统计，结束时间之后的整小时不计入
+     */
+    private LocalDateTime ceilHour(LocalDateTime time) {
+        if (time == null) {
+            return null;
+        }
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.isBefore(time) ? hour.plusHours(1) : hour;
+    }
+
+    /**
+     * 根据查询请求构建查询条件
+     */
+    private OperationLogBase buildCondition(OperationLogQueryRequest request) {
+        OperationLogBase operationLogBase = new OperationLogBase();
+
+        // 从请求对象中设置查询条件
+        operationLogBase.setTenantId(request.getTenantId());
+        operationLogBase.setModule(request.getModule());
+        operationLogBase.setOperationType(request.getOperationType());
+        operationLogBase.setUserId(request.getUserId());
+        operationLogBase.setUsername(request.getUsername());
+        operationLogBase.setStatus(request.getStatus());
+        operationLogBase.setIp(request.getIp());
+        return operationLogBase;
+    }
+
+    /**
+     * 按操作时间分批删除日志及其检索词，租户条件由租户插件追加
+     */
+    private long deleteInBatches(LocalDateTime startTime, LocalDateTime endTime) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = operationLogMapper.deleteByTimeRange(startTime, endTime, DELETE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted >= DELETE_BATCH_SIZE);
+        do {
+            deleted = operationLogTermMapper.deleteByTimeRange(startTime, endTime, DELETE_BATCH_SIZE);
+        } while (deleted >= DELETE_BATCH_SIZE);
+        return total;
+    }
 }
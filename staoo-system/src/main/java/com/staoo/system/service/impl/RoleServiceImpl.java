@@ -3,8 +3,10 @@ package com.staoo.system.service.impl;
 import com.staoo.common.domain.TableResult;
 import com.staoo.common.exception.BusinessException;
 import com.staoo.common.enums.StatusCodeEnum;
+import com.staoo.system.cache.MenuTreeCache;
 import com.staoo.system.domain.Role;
 import com.staoo.system.mapper.RoleMapper;
+import com.staoo.system.security.PermissionVersion;
 import com.staoo.system.service.RoleService;
 import com.staoo.system.pojo.request.RoleQueryRequest;
 import org.slf4j.Logger;
@@ -33,6 +35,12 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleMapper roleMapper;
 
+    @Autowired
+    private PermissionVersion permissionVersion;
+
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
     @Override
     public Role getById(Long id) {
         Role role = roleMapper.getById(id);
@@ -137,8 +145,9 @@ public class RoleServiceImpl implements RoleService {
 
             // 注意：updateTime字段将由MyBatis拦截器自动填充
 
-            // 更新角色信息
+            // 更新角色信息，角色标识或状态可能变化
             int result = roleMapper.update(role);
+            permissionVersion.increment();
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -173,6 +182,8 @@ public class RoleServiceImpl implements RoleService {
 
             // 删除角色
             int result = roleMapper.deleteById(id);
+            permissionVersion.increment();
+            menuTreeCache.invalidateRole(id);
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -205,6 +216,10 @@ public class RoleServiceImpl implements RoleService {
 
             // 批量删除角色
             int result = roleMapper.deleteByIds(ids);
+            permissionVersion.increment();
+            for (Long id : ids) {
+                menuTreeCache.invalidateRole(id);
+            }
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -232,6 +247,7 @@ public class RoleServiceImpl implements RoleService {
 
             // 批量更新角色状态
             int result = roleMapper.updateStatusByIds(ids, status);
+            permissionVersion.increment();
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -302,6 +318,8 @@ public class RoleServiceImpl implements RoleService {
 
             // 删除原有的角色菜单关系
             roleMapper.deleteRoleMenus(roleId);
+            permissionVersion.increment();
+            menuTreeCache.invalidateRole(roleId);
 
             // 如果菜单ID列表为空，直接返回成功
             if (menuIds == null || menuIds.isEmpty()) {
@@ -2,14 +2,15 @@ package com.staoo.system.service.impl;
 
 import com.staoo.common.enums.StatusCodeEnum;
 import com.staoo.common.exception.BusinessException;
+import com.staoo.common.store.ExpiringStore;
 import com.staoo.system.service.SmsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -28,16 +29,16 @@ public class SmsServiceImpl implements SmsService {
     // 默认验证码长度
     private static final int DEFAULT_CODE_LENGTH = 6;
     
-    // 存储短信发送记录的Map，用于限制发送频率
-    private final ConcurrentHashMap<String, Long> smsSendRecordMap = new ConcurrentHashMap<>();
+    // 短信发送记录键前缀，键在发送间隔结束后过期，用于限制发送频率
+    private static final String SEND_RECORD_KEY_PREFIX = "sms:send:";
+    
+    @Autowired
+    private ExpiringStore expiringStore;
     
     @Override
     public boolean sendVerificationCode(String phoneNumber, String code) {
-        // 检查发送频率
-        if (!checkSendFrequency(phoneNumber)) {
-            // 频率检查失败，这里已经在checkSendFrequency方法中抛出异常
-            return false;
-        }
+        // 占用发送间隔，并发请求只有一个能发送
+        reserveSend(phoneNumber);
         
         // 模拟发送验证码短信
         String message = String.format("您的验证码是：%s，有效期5分钟，请勿泄露给他人。", code);
@@ -46,11 +47,8 @@ public class SmsServiceImpl implements SmsService {
     
     @Override
     public boolean sendNotification(String phoneNumber, String content) {
-        // 检查发送频率
-        if (!checkSendFrequency(phoneNumber)) {
-            // 频率检查失败，这里已经在checkSendFrequency方法中抛出异常
-            return false;
-        }
+        // 占用发送间隔，并发请求只有一个能发送
+        reserveSend(phoneNumber);
         
         // 模拟发送通知短信
         return sendSms(phoneNumber, content);
@@ -58,19 +56,37 @@ public class SmsServiceImpl implements SmsService {
     
     @Override
     public boolean checkSendFrequency(String phoneNumber) {
-        Long lastSendTime = smsSendRecordMap.get(phoneNumber);
-        if (lastSendTime != null) {
-            long interval = System.currentTimeMillis() - lastSendTime;
-            if (interval < TimeUnit.MINUTES.toMillis(SMS_SEND_INTERVAL)) {
-                long remainingTime = (TimeUnit.MINUTES.toMillis(SMS_SEND_INTERVAL) - interval) / 1000;
-                throw new BusinessException(StatusCodeEnum.BUSINESS_ERROR, 
-                    "短信发送过于频繁，请" + remainingTime + "秒后再试");
-            }
+        long remainingMillis = expiringStore.getTtl(SEND_RECORD_KEY_PREFIX + phoneNumber);
+        if (remainingMillis > 0) {
+            throw tooFrequent(remainingMillis);
         }
         
         return true;
     }
     
+    /**
+     * 占用发送间隔，间隔内已发送过时抛出异常
+     * @param phoneNumber 手机号码
+     */
+    private void reserveSend(String phoneNumber) {
+        String key = SEND_RECORD_KEY_PREFIX + phoneNumber;
+        if (expiringStore.putIfAbsent(key, String.valueOf(System.currentTimeMillis()),
+                TimeUnit.MINUTES.toMillis(SMS_SEND_INTERVAL))) {
+            return;
+        }
+        long remainingMillis = expiringStore.getTtl(key);
+        if (remainingMillis > 0) {
+            throw tooFrequent(remainingMillis);
+        }
+        // 存储已满
+        throw new BusinessException(StatusCodeEnum.TOO_MANY_REQUESTS.getCode(), "短信服务繁忙，请稍后再试");
+    }
+    
+    private BusinessException tooFrequent(long remainingMillis) {
+        return new BusinessException(StatusCodeEnum.BUSINESS_ERROR,
+            "短信发送过于频繁，请" + (remainingMillis + 999) / 1000 + "秒后再试");
+    }
+    
     @Override
     public String generateVerificationCode(int length) {
         // 确保长度在合理范围内
@@ -111,9 +127,6 @@ public class SmsServiceImpl implements SmsService {
      */
     private boolean sendSms(String phoneNumber, String content) {
         try {
-            // 记录发送时间
-            smsSendRecordMap.put(phoneNumber, System.currentTimeMillis());
-            
             // 模拟发送短信
             logger.info("向手机号[{}]发送短信: {}", phoneNumber, content);
             
@@ -124,6 +137,8 @@ public class SmsServiceImpl implements SmsService {
             return true;
         } catch (Exception e) {
             logger.error("发送短信失败: {}", e.getMessage(), e);
+            // 发送失败时释放发送间隔，允许立即重试
+            expiringStore.remove(SEND_RECORD_KEY_PREFIX + phoneNumber);
             return false;
         }
     }
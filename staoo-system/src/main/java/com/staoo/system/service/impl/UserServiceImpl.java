@@ -11,13 +11,15 @@ import com.staoo.system.domain.User;
 import com.staoo.system.domain.UserTenant;
 import com.staoo.system.mapper.UserMapper;
 import com.staoo.system.pojo.request.UserQueryRequest;
+import com.staoo.system.security.PasswordHasher;
+import com.staoo.system.security.PermissionVersion;
+import com.staoo.system.security.UserStatusCache;
 import com.staoo.system.service.IUserDeptService;
 import com.staoo.system.service.UserService;
 import com.staoo.system.service.UserTenantService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -39,7 +41,7 @@ public class UserServiceImpl implements UserService {
     private UserMapper userMapper;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private UserTenantService userTenantService;
@@ -47,6 +49,12 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private IUserDeptService userDeptService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private PermissionVersion permissionVersion;
+
     @Override
     public User getById(Long id) {
         User user = userMapper.getById(id);
@@ -135,7 +143,7 @@ public class UserServiceImpl implements UserService {
         try {
             // 加密密码
             if (StringUtils.hasText(user.getPassword())) {
-                user.setPassword(passwordEncoder.encode(user.getPassword()));
+                user.setPassword(passwordHasher.encode(user.getPassword()));
             }
 
             // 注意：createTime和updateTime字段将由MyBatis拦截器自动填充
@@ -203,6 +211,9 @@ public class UserServiceImpl implements UserService {
 
             // 更新用户信息
             int result = userMapper.update(user);
+            if (result > 0) {
+                userStatusCache.invalidate(user.getId());
+            }
 
             // 如果有用户-租户关系信息，处理用户-租户关系
             if (result > 0 && user.getUserTenants() != null) {
@@ -257,6 +268,7 @@ public class UserServiceImpl implements UserService {
 
             // 删除用户
             int result = userMapper.deleteById(id);
+            userStatusCache.invalidate(id);
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -279,6 +291,7 @@ public class UserServiceImpl implements UserService {
 
             // 批量删除用户
             int result = userMapper.deleteByIds(ids);
+            userStatusCache.invalidate(ids);
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -295,6 +308,7 @@ public class UserServiceImpl implements UserService {
         try {
             // 批量更新用户状态
             int result = userMapper.updateStatusByIds(ids, status);
+            userStatusCache.invalidate(ids);
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -317,7 +331,7 @@ public class UserServiceImpl implements UserService {
             }
 
             // 加密密码
-            String encodedPassword = passwordEncoder.encode(password);
+            String encodedPassword = passwordHasher.encode(password);
 
             // 更新密码
             User updateUser = new User();
@@ -384,6 +398,9 @@ public class UserServiceImpl implements UserService {
 
             // 更新用户信息
             int result = userMapper.update(user);
+            if (result > 0) {
+                userStatusCache.invalidate(user.getId());
+            }
             return result > 0;
         } catch (BusinessException e) {
             // 业务异常直接抛出
@@ -406,13 +423,13 @@ public class UserServiceImpl implements UserService {
             }
 
             // 验证旧密码
-            if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+            if (!passwordHasher.matches(oldPassword, user.getPassword())) {
                 logger.error("旧密码错误");
                 throw new BusinessException(StatusCodeEnum.BUSINESS_ERROR, "旧密码错误");
             }
 
             // 加密新密码
-            String encodedPassword = passwordEncoder.encode(newPassword);
+            String encodedPassword = passwordHasher.encode(newPassword);
 
             // 更新密码
             User updateUser = new User();
@@ -464,6 +481,7 @@ public class UserServiceImpl implements UserService {
 
             // 删除原有的用户角色关系
             userMapper.deleteUserRoles(userId);
+            permissionVersion.increment();
 
             // 如果角色ID列表为空，直接返回成功
             if (roleIds == null || roleIds.isEmpty()) {
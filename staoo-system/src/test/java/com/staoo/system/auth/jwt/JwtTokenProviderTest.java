@@ -0,0 +1,101 @@
+package com.staoo.system.auth.jwt;
+
+import com.staoo.system.auth.revocation.TokenRevocationService;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JWT令牌提供者测试
+ * 使用进程内会话注册表和1秒的撤销分桶，验证会话注销与令牌撤销
+ * @author staoo
+ */
+public class JwtTokenProviderTest {
+
+    private static final String USERNAME = "admin";
+    private static final long EXPIRATION = 60_000L;
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    public void setUp() {
+        TokenRevocationService revocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "jwtExpiration", EXPIRATION);
+        ReflectionTestUtils.setField(revocationService, "refreshExpiration", EXPIRATION * 2);
+        ReflectionTestUtils.setField(revocationService, "bucketMillis", 1000L);
+        ReflectionTestUtils.setField(revocationService, "expectedPerBucket", 16);
+        ReflectionTestUtils.setField(revocationService, "falsePositiveRate", 0.01);
+        revocationService.init();
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "revocationService", revocationService);
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", EXPIRATION);
+        ReflectionTestUtils.setField(tokenProvider, "jwtRefreshExpiration", EXPIRATION * 2);
+        ReflectionTestUtils.setField(tokenProvider, "jwtIssuer", "staoo");
+        ReflectionTestUtils.setField(tokenProvider, "maxSessions", 0);
+        ReflectionTestUtils.setField(tokenProvider, "verifyCacheSize", 100);
+        tokenProvider.init();
+    }
+
+    /**
+     * 测试强制下线撤销较早签发的令牌
+     * 令牌签发1秒以上后再强制下线，撤销记录仍落在令牌过期时间所在的桶，验证时应判定为已撤销
+     */
+    @Test
+    public void testForceLogoutRevokesEarlierToken() throws InterruptedException {
+        String pcToken = tokenProvider.generateAccessToken(USERNAME, "pc", null);
+        assertTrue(tokenProvider.validateToken(pcToken, "pc"), "签发后令牌应有效");
+        Thread.sleep(1100);
+        String phoneToken = tokenProvider.generateAccessToken(USERNAME, "phone", null);
+
+        assertEquals(2, tokenProvider.forceLogout(USERNAME), "应下线全部会话");
+        assertThrows(JwtException.class, () -> tokenProvider.verify(pcToken), "较早签发的令牌应已被撤销");
+        assertThrows(JwtException.class, () -> tokenProvider.verify(phoneToken), "新签发的令牌应已被撤销");
+    }
+
+    /**
+     * 测试刷新令牌绑定会话
+     * 刷新令牌携带访问令牌的会话ID和设备ID，会话有效时可以续期，不能作为访问令牌使用
+     */
+    @Test
+    public void testRefreshTokenBoundToSession() {
+        String accessToken = tokenProvider.generateAccessToken(USERNAME, "pc", null);
+        String refreshToken = tokenProvider.generateRefreshToken(accessToken);
+
+        VerifiedClaims claims = tokenProvider.verifyRefreshToken(refreshToken);
+        VerifiedClaims accessClaims = tokenProvider.verify(accessToken);
+        assertEquals(USERNAME, claims.getSubject());
+        assertEquals(accessClaims.getString(JwtTokenProvider.SESSION_ID_CLAIM),
+                claims.getString(JwtTokenProvider.SESSION_ID_CLAIM), "刷新令牌应携带访问令牌的会话ID");
+        assertEquals("pc", claims.getString(JwtTokenProvider.DEVICE_ID_CLAIM), "刷新令牌应携带访问令牌的设备ID");
+
+        assertTrue(tokenProvider.isRefreshToken(claims));
+        assertFalse(tokenProvider.isRefreshToken(accessClaims));
+        assertFalse(tokenProvider.validateToken(refreshToken, "pc"), "刷新令牌不能作为访问令牌使用");
+        assertThrows(JwtException.class, () -> tokenProvider.verifyRefreshToken(accessToken), "访问令牌不能用于续期");
+    }
+
+    /**
+     * 测试会话失效后拒绝续期
+     * 同一设备重新登录替换会话、强制下线移除会话后，原会话的刷新令牌都不能再续期
+     */
+    @Test
+    public void testRefreshRejectedWhenSessionGone() {
+        String refreshToken = tokenProvider.generateRefreshToken(tokenProvider.generateAccessToken(USERNAME, "pc", null));
+        String newRefreshToken = tokenProvider.generateRefreshToken(
+                tokenProvider.generateAccessToken(USERNAME, "pc", null));
+        assertThrows(JwtException.class, () -> tokenProvider.verifyRefreshToken(refreshToken),
+                "同一设备重新登录后旧会话的刷新令牌应失效");
+        assertNotNull(tokenProvider.verifyRefreshToken(newRefreshToken), "新会话的刷新令牌应有效");
+
+        tokenProvider.forceLogout(USERNAME);
+        assertThrows(JwtException.class, () -> tokenProvider.verifyRefreshToken(newRefreshToken),
+                "强制下线后刷新令牌应失效");
+    }
+}
@@ -0,0 +1,156 @@
+package com.staoo.system.auth.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 进程内登录失败计数存储测试
+ * 使用可控时钟验证滑动窗口计数、锁定、时间轮过期和计数器数量上限
+ * @author staoo
+ */
+public class LocalLoginAttemptStoreTest {
+
+    private static final long TICK = 1000;
+    private static final long WINDOW = 10_000;
+    private static final long LOCK = 30_000;
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(START);
+
+    /**
+     * 测试锁定
+     * 窗口内失败次数达到上限时锁定，锁定到期后解除
+     */
+    @Test
+    public void testLock() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 100, now::get);
+        assertEquals(0, store.recordFailure("ip", WINDOW, 3, LOCK));
+        assertEquals(0, store.recordFailure("ip", WINDOW, 3, LOCK));
+        assertEquals(START + LOCK, store.recordFailure("ip", WINDOW, 3, LOCK), "达到上限时应锁定");
+        assertEquals(START + LOCK, store.getLockedUntil("ip"));
+        assertEquals(0, store.getLockedUntil("other"), "其他键不受影响");
+
+        now.set(START + LOCK);
+        assertEquals(0, store.getLockedUntil("ip"), "锁定到期后应解除");
+    }
+
+    /**
+     * 测试滑动窗口
+     * 上一窗口的计数按仍在滑动窗口内的比例折算，超过一个窗口的计数被清零
+     */
+    @Test
+    public void testSlidingWindow() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 100, now::get);
+        store.recordFailure("ip", WINDOW, 3, LOCK);
+        store.recordFailure("ip", WINDOW, 3, LOCK);
+
+        // 上一窗口的2次折算为1次
+        now.set(START + WINDOW + WINDOW / 2);
+        assertEquals(0, store.recordFailure("ip", WINDOW, 3, LOCK), "折算后未达到上限");
+        assertEquals(now.get() + LOCK, store.recordFailure("ip", WINDOW, 3, LOCK), "折算后达到上限时应锁定");
+
+        LocalLoginAttemptStore other = new LocalLoginAttemptStore(TICK, 100, now::get);
+        other.recordFailure("ip", WINDOW, 3, LOCK);
+        other.recordFailure("ip", WINDOW, 3, LOCK);
+        now.addAndGet(2 * WINDOW);
+        assertEquals(0, other.recordFailure("ip", WINDOW, 3, LOCK), "超过一个窗口的计数应清零");
+    }
+
+    /**
+     * 测试时间轮过期
+     * 计数器在两个窗口或锁定到期后由时间轮移除，期间再次失败会推迟过期
+     */
+    @Test
+    public void testWheelExpiry() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 100, now::get);
+        store.recordFailure("a", WINDOW, 5, LOCK);
+        store.recordFailure("b", WINDOW, 5, LOCK);
+        now.set(START + WINDOW + WINDOW / 2);
+        store.recordFailure("b", WINDOW, 5, LOCK);
+
+        now.set(START + 2 * WINDOW - 1);
+        store.getLockedUntil("a");
+        assertEquals(2, store.size(), "未到期的计数器不应移除");
+
+        now.set(START + 2 * WINDOW);
+        store.getLockedUntil("a");
+        assertEquals(1, store.size(), "到期的计数器应移除");
+
+        now.set(START + 3 * WINDOW);
+        store.getLockedUntil("a");
+        assertEquals(0, store.size(), "再次失败推迟的计数器应在新的到期时间移除");
+    }
+
+    /**
+     * 测试锁定期间不过期
+     * 锁定时间长于两个窗口时，计数器保留到锁定结束
+     */
+    @Test
+    public void testLockedCounterOutlivesWindow() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 100, now::get);
+        store.recordFailure("ip", WINDOW, 1, LOCK);
+        now.set(START + 2 * WINDOW);
+        assertEquals(START + LOCK, store.getLockedUntil("ip"), "锁定期间计数器不应被移除");
+        now.set(START + LOCK);
+        store.getLockedUntil("ip");
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * 测试时间跨度超过一圈
+     * 长时间没有操作后推进时间轮，每个槽只处理一次，过期的计数器全部移除
+     */
+    @Test
+    public void testAdvanceMoreThanOneTurn() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 100, now::get);
+        for (int i = 0; i < 10; i++) {
+            store.recordFailure("ip" + i, WINDOW * (i + 1), 5, LOCK);
+        }
+        now.addAndGet(TICK * 2000);
+        store.getLockedUntil("ip0");
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * 测试计数器数量上限
+     * 达到上限后新的键不计数，已有的键继续计数，过期释放名额后可以再计数
+     */
+    @Test
+    public void testMaxEntries() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 2, now::get);
+        store.recordFailure("a", WINDOW, 2, LOCK);
+        store.recordFailure("b", WINDOW, 2, LOCK);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.recordFailure("c", WINDOW, 2, LOCK), "达到上限后新的键不计数");
+        }
+        assertEquals(2, store.size());
+        assertEquals(START + LOCK, store.recordFailure("a", WINDOW, 2, LOCK), "已有的键应继续计数");
+
+        now.set(START + LOCK);
+        store.getLockedUntil("a");
+        assertEquals(0, store.size());
+        store.recordFailure("c", WINDOW, 2, LOCK);
+        assertEquals(1, store.size(), "名额释放后新的键应计数");
+    }
+
+    /**
+     * 测试重置
+     * 重置后计数重新开始，时间轮上残留的记录不影响新的计数器
+     */
+    @Test
+    public void testReset() {
+        LocalLoginAttemptStore store = new LocalLoginAttemptStore(TICK, 100, now::get);
+        store.recordFailure("ip", WINDOW, 2, LOCK);
+        store.reset("ip");
+        assertEquals(0, store.size());
+        assertEquals(0, store.recordFailure("ip", WINDOW, 2, LOCK), "重置后应重新计数");
+
+        now.set(START + 2 * WINDOW);
+        store.getLockedUntil("ip");
+        assertEquals(0, store.size());
+        store.reset("missing");
+    }
+}
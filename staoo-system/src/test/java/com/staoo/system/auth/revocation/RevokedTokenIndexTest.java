@@ -0,0 +1,110 @@
+package com.staoo.system.auth.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 已撤销令牌索引测试
+ * 使用可控时钟验证按过期时间分桶、桶的复用和清除，以及超出环覆盖范围的溢出记录
+ * @author staoo
+ */
+public class RevokedTokenIndexTest {
+
+    private static final long BUCKET = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(START);
+    // 令牌最长有效期2秒，环有4个槽
+    private final RevokedTokenIndex index = new RevokedTokenIndex(BUCKET, 2000, 16, 0.01, now::get);
+
+    /**
+     * 测试添加和查询
+     * 只有令牌ID和过期时间所在的桶都匹配时才判定为已撤销，已过期的令牌不记录
+     */
+    @Test
+    public void testAddAndContains() {
+        index.add("a", START + 1500);
+        assertTrue(index.contains("a", START + 1500));
+        assertTrue(index.contains("a", START + 1999), "同一个桶内的过期时间应命中");
+        assertFalse(index.contains("a", START + 500), "其他桶不应命中");
+        assertFalse(index.contains("b", START + 1500), "未撤销的令牌不应命中");
+        assertFalse(index.contains(null, START + 1500));
+
+        index.add("expired", START);
+        index.add(null, START + 1500);
+        assertEquals(1, index.size(), "已过期的令牌和空令牌ID不应记录");
+    }
+
+    /**
+     * 测试没有误判
+     * 撤销数远超布隆过滤器的预计容量时，精确集合保证已撤销的令牌全部命中、未撤销的令牌全部不命中
+     */
+    @Test
+    public void testNoFalsePositive() {
+        for (int i = 0; i < 2000; i++) {
+            index.add("revoked-" + i, START + 1500);
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(index.contains("revoked-" + i, START + 1500), "已撤销的令牌应命中: " + i);
+            assertFalse(index.contains("active-" + i, START + 1500), "未撤销的令牌不应命中: " + i);
+        }
+        assertEquals(2000, index.size());
+    }
+
+    /**
+     * 测试桶的复用
+     * 时间前进一整个环后，同一个槽被新的时间段复用，旧时间段的撤销记录不再命中
+     */
+    @Test
+    public void testBucketReuse() {
+        index.add("old", START + 1500);
+        now.addAndGet(4 * BUCKET);
+        index.add("new", START + 5500);
+
+        assertTrue(index.contains("new", START + 5500));
+        assertFalse(index.contains("old", START + 1500), "被复用的桶不应保留旧时间段的记录");
+        assertFalse(index.contains("old", START + 5500), "旧记录不应出现在新时间段");
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * 测试清除过期的桶
+     */
+    @Test
+    public void testPurge() {
+        index.add("a", START + 1500);
+        index.add("b", START + 2500);
+        index.purge();
+        assertEquals(2, index.size(), "未过期的桶不应被清除");
+
+        now.set(START + 2000);
+        index.purge();
+        assertEquals(1, index.size(), "已过期的桶应被清除");
+        assertFalse(index.contains("a", START + 1500));
+        assertTrue(index.contains("b", START + 2500));
+    }
+
+    /**
+     * 测试溢出记录
+     * 过期时间超出环覆盖范围的令牌记录在溢出集合中，查询时不依赖过期时间，过期后被清除
+     */
+    @Test
+    public void testOverflow() {
+        index.add("long", START + 10_000);
+        assertTrue(index.contains("long", START + 10_000));
+        assertTrue(index.contains("long", START + 1500), "溢出记录按令牌ID命中");
+        assertEquals(1, index.size());
+
+        now.set(START + 9_000);
+        index.purge();
+        assertTrue(index.contains("long", START + 10_000), "未过期的溢出记录不应被清除");
+
+        now.set(START + 10_000);
+        index.purge();
+        assertFalse(index.contains("long", START + 10_000), "过期的溢出记录应被清除");
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.staoo.system.security;
+
+import com.staoo.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 权限版本号测试
+ * 验证默认的进程内计数器，以及计数器不可用时递增失败会抛出异常
+ * @author staoo
+ */
+public class PermissionVersionTest {
+
+    /**
+     * 测试进程内计数器
+     * 未配置计数器时使用进程内计数器，递增后立即读取到新版本号
+     */
+    @Test
+    public void testLocalCounter() {
+        PermissionVersion permissionVersion = new PermissionVersion();
+        permissionVersion.init();
+        assertEquals(0, permissionVersion.current());
+
+        permissionVersion.increment();
+        permissionVersion.increment();
+        assertEquals(2, permissionVersion.current(), "递增后应读取到新版本号");
+    }
+
+    /**
+     * 测试递增失败
+     * 计数器不可用时抛出业务异常，使调用方的修改回滚，版本号保持不变
+     */
+    @Test
+    public void testIncrementFailsClosed() {
+        PermissionVersion permissionVersion = new PermissionVersion();
+        ReflectionTestUtils.setField(permissionVersion, "counter", new PermissionVersionCounter() {
+            @Override
+            public long get() {
+                return 5;
+            }
+
+            @Override
+            public long increment() {
+                throw new IllegalStateException("连接失败");
+            }
+        });
+        permissionVersion.init();
+        assertEquals(5, permissionVersion.current());
+
+        assertThrows(BusinessException.class, permissionVersion::increment, "递增失败时应抛出异常");
+        assertEquals(5, permissionVersion.current(), "递增失败时版本号不变");
+    }
+}